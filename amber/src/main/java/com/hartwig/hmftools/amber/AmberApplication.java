@@ -8,6 +8,7 @@ import static com.hartwig.hmftools.common.utils.collection.Multimaps.filterEntri
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -19,6 +20,7 @@ import java.util.function.Predicate;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.amber.AmberSite;
@@ -30,9 +32,8 @@ import com.hartwig.hmftools.common.amber.BaseDepthFilter;
 import com.hartwig.hmftools.common.amber.NormalHetrozygousFilter;
 import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
 import com.hartwig.hmftools.common.amber.TumorBAF;
-import com.hartwig.hmftools.common.amber.TumorBAFEvidence;
 import com.hartwig.hmftools.common.amber.TumorContamination;
-import com.hartwig.hmftools.common.amber.TumorContaminationEvidence;
+import com.hartwig.hmftools.common.amber.TumorEvidence;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.Doubles;
@@ -86,7 +87,6 @@ public class AmberApplication implements AutoCloseable {
         final Predicate<BaseDepth> isValidFilter = BaseDepth::isValid;
         homozygousFilter = new NormalHomozygousFilter().and(isValidFilter);
         heterozygousFilter = new NormalHetrozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent()).and(isValidFilter);
-        persistence = new AmberPersistence(config);
 
         final File outputDir = new File(config.outputDirectory());
         if (!outputDir.exists() && !outputDir.mkdirs()) {
@@ -111,6 +111,7 @@ public class AmberApplication implements AutoCloseable {
 
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("-%d").build();
         executorService = Executors.newFixedThreadPool(config.threadCount(), namedThreadFactory);
+        persistence = new AmberPersistence(config, executorService);
 
         LOGGER.info("Loading vcf file {}", config.bafLociPath());
         sites = AmberSiteFactory.sites(config.bafLociPath());
@@ -148,12 +149,12 @@ public class AmberApplication implements AutoCloseable {
         }
 
         final Predicate<BaseDepth> intersectionFilter = hetNormalEvidence.intersectionFilter();
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, filterEntries(hetNormal, intersectionFilter));
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values().stream().sorted().collect(toList());
+        final List<TumorEvidence> tumorEvidence = tumorEvidence(readerFactory, filterEntries(hetNormal, intersectionFilter), homNormal);
+        final List<TumorBAF> tumorBAFList = tumorEvidence.stream().flatMap(x -> x.bafEvidence().stream()).sorted().collect(toList());
         final List<AmberBAF> amberBAFList = tumorBAFList.stream().map(AmberBAF::create).filter(AmberApplication::isValid).collect(toList());
 
-        final ListMultimap<Chromosome, TumorContamination> tumorContamination = contamination(readerFactory, homNormal);
-        final List<TumorContamination> contaminationList = Lists.newArrayList(tumorContamination.values());
+        final List<TumorContamination> contaminationList =
+                tumorEvidence.stream().flatMap(x -> x.contaminationEvidence().stream()).collect(toList());
 
         persistence.persisQC(amberBAFList, contaminationList);
         persistence.persistVersionInfo(versionInfo);
@@ -167,10 +168,10 @@ public class AmberApplication implements AutoCloseable {
         final SamReaderFactory readerFactory = readerFactory(config);
 
         final ListMultimap<Chromosome, BaseDepth> allNormal = emptyNormalHetSites(sites);
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, allNormal);
+        final List<TumorEvidence> tumorEvidence = tumorEvidence(readerFactory, allNormal, ArrayListMultimap.create());
 
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values()
-                .stream()
+        final List<TumorBAF> tumorBAFList = tumorEvidence.stream()
+                .flatMap(x -> x.bafEvidence().stream())
                 .filter(x -> x.tumorRefSupport() >= config.tumorOnlyMinSupport())
                 .filter(x -> x.tumorAltSupport() >= config.tumorOnlyMinSupport())
                 .filter(x -> isFinite(x.refFrequency()) && Doubles.greaterOrEqual(x.refFrequency(), config.tumorOnlyMinVaf()))
@@ -224,66 +225,62 @@ public class AmberApplication implements AutoCloseable {
         return result;
     }
 
+    /**
+     * Visits the heterozygous and homozygous normal sites in a single pass of the tumor bam. Each chromosome is partitioned on the
+     * union of both so that every partition slices the tumor bam once.
+     */
     @NotNull
-    private ListMultimap<Chromosome, TumorBAF> tumorBAF(@NotNull final SamReaderFactory readerFactory,
-            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHetSites.values().size() / config.threadCount());
+    private List<TumorEvidence> tumorEvidence(@NotNull final SamReaderFactory readerFactory,
+            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites,
+            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHomSites) throws ExecutionException, InterruptedException {
+        final int siteCount = normalHetSites.size() + normalHomSites.size();
+        final int partitionSize = Math.max(config.minPartition(), siteCount / config.threadCount());
 
-        LOGGER.info("Processing {} heterozygous sites in tumor bam {}", normalHetSites.values().size(), config.tumorBamPath());
+        LOGGER.info("Processing {} heterozygous and {} homozygous sites in tumor bam {}",
+                normalHetSites.size(),
+                normalHomSites.size(),
+                config.tumorBamPath());
         final AmberTaskCompletion completion = new AmberTaskCompletion();
 
-        final List<Future<TumorBAFEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHetSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHetSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorBAFEvidence evidence = new TumorBAFEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
+        final List<Future<TumorEvidence>> futures = Lists.newArrayList();
+        for (final Chromosome chromosome : Sets.union(normalHetSites.keySet(), normalHomSites.keySet())) {
+            final List<BaseDepth> hetSites = normalHetSites.get(chromosome);
+            final List<BaseDepth> homSites = normalHomSites.get(chromosome);
+            final List<BaseDepth> allSites = Lists.newArrayList(hetSites);
+            allSites.addAll(homSites);
+            allSites.sort(Comparator.comparingLong(BaseDepth::position));
+
+            int hetIndex = 0;
+            int homIndex = 0;
+            for (final List<BaseDepth> partition : Lists.partition(allSites, partitionSize)) {
+                final long end = partition.get(partition.size() - 1).position();
+                final int hetEnd = partitionEnd(hetSites, hetIndex, end);
+                final int homEnd = partitionEnd(homSites, homIndex, end);
+
+                final TumorEvidence evidence = new TumorEvidence(config.typicalReadDepth(),
+                        config.minMappingQuality(),
+                        config.minBaseQuality(),
+                        partition.get(0).chromosome(),
+                        config.tumorBamPath(),
+                        readerFactory,
+                        hetSites.subList(hetIndex, hetEnd),
+                        homSites.subList(homIndex, homEnd));
+                futures.add(executorService.submit(completion.task(evidence)));
+
+                hetIndex = hetEnd;
+                homIndex = homEnd;
             }
         }
 
-        final ListMultimap<Chromosome, TumorBAF> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-
-        return result;
+        return getFuture(futures);
     }
 
-    @NotNull
-    private ListMultimap<Chromosome, TumorContamination> contamination(@NotNull final SamReaderFactory readerFactory,
-            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHomSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHomSites.values().size() / config.threadCount());
-
-        LOGGER.info("Processing {} homozygous sites in tumor bam {} for contamination", normalHomSites.size(), config.tumorBamPath());
-        final AmberTaskCompletion completion = new AmberTaskCompletion();
-
-        final List<Future<TumorContaminationEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHomSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHomSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorContaminationEvidence evidence = new TumorContaminationEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
-            }
+    private static int partitionEnd(@NotNull final List<BaseDepth> sortedSites, int startIndex, long endPosition) {
+        int index = startIndex;
+        while (index < sortedSites.size() && sortedSites.get(index).position() <= endPosition) {
+            index++;
         }
-
-        final ListMultimap<Chromosome, TumorContamination> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-
-        return result;
+        return index;
     }
 
     @NotNull
@@ -4,6 +4,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
@@ -29,21 +31,23 @@ class AmberPersistence {
     private static final Logger LOGGER = LogManager.getLogger(AmberPersistence.class);
 
     private final AmberConfig config;
+    private final ExecutorService executorService;
 
-    AmberPersistence(final AmberConfig config) {
+    AmberPersistence(final AmberConfig config, final ExecutorService executorService) {
         this.config = config;
+        this.executorService = executorService;
     }
 
     void persistVersionInfo(@NotNull final VersionInfo versionInfo) throws IOException {
         versionInfo.write(config.outputDirectory());
     }
 
-    void persistBAF(@NotNull final List<AmberBAF> result) throws IOException, InterruptedException {
+    void persistBAF(@NotNull final List<AmberBAF> result) throws IOException, InterruptedException, ExecutionException {
         final String filename = AmberBAFFile.generateAmberFilenameForWriting(config.outputDirectory(), config.tumor());
         AmberBAFFile.write(filename, result);
 
         LOGGER.info("Applying pcf segmentation");
-        new BAFSegmentation(config.outputDirectory()).applySegmentation(config.tumor());
+        new BAFSegmentation(executorService, config.outputDirectory()).applySegmentation(config.tumor(), result);
     }
 
 
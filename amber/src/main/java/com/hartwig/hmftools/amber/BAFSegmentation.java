@@ -1,28 +1,40 @@
 package com.hartwig.hmftools.amber;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
-import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
+import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
-import com.hartwig.hmftools.common.utils.r.RExecutor;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmentation;
 
 import org.jetbrains.annotations.NotNull;
 
 class BAFSegmentation {
 
+    private static final String SAMPLE_ID = "tumorModifiedBAF";
+
     @NotNull
     private final String outputDirectory;
+    @NotNull
+    private final ExecutorService executorService;
 
-    BAFSegmentation(@NotNull final String outputDirectory) {
+    BAFSegmentation(@NotNull final ExecutorService executorService, @NotNull final String outputDirectory) {
         this.outputDirectory = outputDirectory;
+        this.executorService = executorService;
     }
 
-    void applySegmentation(@NotNull final String tumor) throws InterruptedException, IOException {
-        final String ratioFile = AmberBAFFile.generateAmberFilenameForReading(outputDirectory, tumor);
+    void applySegmentation(@NotNull final String tumor, @NotNull final List<AmberBAF> bafs)
+            throws InterruptedException, ExecutionException, IOException {
         final String pcfFile = PCFFile.generateBAFFilename(outputDirectory, tumor);
-        int result = RExecutor.executeFromClasspath("r/bafSegmentation.R", ratioFile, pcfFile);
-        if (result != 0) {
-            throw new IOException("R execution failed. Unable to complete segmentation.");
-        }
+
+        // Arms are those of HG19 irrespective of the ref genome, as they were in the copynumber R package
+        final PCFSegmentation segmentation = new PCFSegmentation(executorService, RefGenome.HG19.centromeres());
+        final List<PCFSegment> segments = segmentation.segment(Multimaps.fromPositions(bafs), AmberBAF::tumorModifiedBAF);
+        PCFFile.write(pcfFile, SAMPLE_ID, segments);
     }
 }
@@ -0,0 +1,74 @@
+package com.hartwig.hmftools.cobalt.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.cobalt.ratio.RollingMedian;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of sliding the diploid normalization median by one window: add the next ratio, remove the expired one and take the median.
+ * Window sizes are in 1kb windows either side of the current window, ie 1Mb and 10Mb.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RollingMedianBenchmark {
+
+    private static final int RATIOS = 1 << 20;
+
+    @Param({ "1000", "10000" })
+    public int window;
+
+    private double[] ratios;
+    private int index;
+    private RollingMedian rollingMedian;
+    private HeapRollingMedian heapRollingMedian;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(0);
+        ratios = new double[RATIOS];
+        for (int i = 0; i < RATIOS; i++) {
+            ratios[i] = Math.max(0.01, 1 + 0.2 * random.nextGaussian());
+        }
+
+        rollingMedian = new RollingMedian();
+        heapRollingMedian = new HeapRollingMedian();
+        for (index = 0; index < 2 * window + 1; index++) {
+            rollingMedian.add(ratios[index]);
+            heapRollingMedian.add(ratios[index]);
+        }
+    }
+
+    @Benchmark
+    public double rollingMedian() {
+        rollingMedian.add(ratios[index & (RATIOS - 1)]);
+        rollingMedian.remove(ratios[(index - 2 * window - 1) & (RATIOS - 1)]);
+        index++;
+        return rollingMedian.median();
+    }
+
+    @Benchmark
+    public double heapRollingMedian() {
+        heapRollingMedian.add(ratios[index & (RATIOS - 1)]);
+        heapRollingMedian.remove(ratios[(index - 2 * window - 1) & (RATIOS - 1)]);
+        index++;
+        return heapRollingMedian.median();
+    }
+}
@@ -34,6 +34,7 @@ public interface CobaltConfig {
     String GC_PROFILE = "gc_profile";
     String MIN_MAPPING_QUALITY = "min_quality";
     String VALIDATION_STRINGENCY = "validation_stringency";
+    String SKIP_TSV = "skip_tsv";
 
     @NotNull
     static Options createOptions() {
@@ -48,6 +49,7 @@ public interface CobaltConfig {
         options.addOption(GC_PROFILE, true, "Location of GC Profile");
         options.addOption(REF_GENOME, true, "Path to reference genome fasta file if using CRAM files");
         options.addOption(VALIDATION_STRINGENCY, true, "SAM validation strategy: STRICT, SILENT, LENIENT [STRICT]");
+        options.addOption(SKIP_TSV, false, "Only write the binary ratio file, not the tsv export");
 
         return options;
     }
@@ -80,6 +82,8 @@ public interface CobaltConfig {
     @NotNull
     ValidationStringency validationStringency();
 
+    boolean writeTsv();
+
     default int windowSize() {
         return 1000;
     }
@@ -120,6 +124,7 @@ public interface CobaltConfig {
                 .reference(normal)
                 .tumor(tumor)
                 .validationStringency(validationStringency)
+                .writeTsv(!cmd.hasOption(SKIP_TSV))
                 .build();
     }
 
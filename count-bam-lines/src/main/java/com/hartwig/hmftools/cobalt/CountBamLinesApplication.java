@@ -2,6 +2,7 @@ package com.hartwig.hmftools.cobalt;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -15,7 +16,7 @@ import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 
@@ -83,7 +84,7 @@ public class CountBamLinesApplication implements AutoCloseable {
 
     private void run() throws IOException, ExecutionException, InterruptedException {
         LOGGER.info("Reading GC Profile");
-        final Multimap<Chromosome, GCProfile> gcProfiles = GCProfileFactory.loadGCContent(config.windowSize(), config.gcProfilePath());
+        final Map<Chromosome, GCProfileColumns> gcProfiles = GCProfileFactory.loadColumns(config.windowSize(), config.gcProfilePath());
 
         final SamReaderFactory readerFactory = readerFactory(config);
         final CountSupplier countSupplier = new CountSupplier(config.tumor(),
@@ -97,12 +98,18 @@ public class CountBamLinesApplication implements AutoCloseable {
         final RatioSupplier ratioSupplier = new RatioSupplier(config.reference(), config.tumor(), config.outputDirectory());
         final Multimap<Chromosome, CobaltRatio> ratios = ratioSupplier.generateRatios(gcProfiles, readCounts);
 
-        final String outputFilename = CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor());
-        LOGGER.info("Persisting cobalt ratios to {}", outputFilename);
+        final String binaryFilename = CobaltRatioFile.generateBinaryFilename(config.outputDirectory(), config.tumor());
+        LOGGER.info("Persisting cobalt ratios to {}", binaryFilename);
         versionInfo.write(config.outputDirectory());
-        CobaltRatioFile.write(outputFilename, ratios);
+        CobaltRatioFile.writeBinary(binaryFilename, ratios);
 
-        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor());
+        if (config.writeTsv()) {
+            final String outputFilename = CobaltRatioFile.generateFilenameForWriting(config.outputDirectory(), config.tumor());
+            LOGGER.info("Persisting cobalt ratios to {}", outputFilename);
+            CobaltRatioFile.write(outputFilename, ratios);
+        }
+
+        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor(), ratios);
     }
 
     @NotNull
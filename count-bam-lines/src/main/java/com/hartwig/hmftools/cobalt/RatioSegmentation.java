@@ -5,11 +5,16 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 
-import com.google.common.collect.Lists;
-import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
-import com.hartwig.hmftools.common.utils.r.RExecutor;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmentation;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -19,35 +24,38 @@ class RatioSegmentation {
 
     private static final Logger LOGGER = LogManager.getLogger(RatioSegmentation.class);
 
+    private static final String SAMPLE_ID = "S1";
+    private static final double MIN_RATIO = 0.001;
+
     private final String outputDirectory;
-    private final ExecutorService executorService;
+    private final PCFSegmentation segmentation;
 
     RatioSegmentation(final ExecutorService executorService, final String outputDirectory) {
         this.outputDirectory = outputDirectory;
-        this.executorService = executorService;
+
+        // Arms are those of HG19 irrespective of the ref genome, as they were in the copynumber R package
+        this.segmentation = new PCFSegmentation(executorService, RefGenome.HG19.centromeres());
     }
 
-    void applySegmentation(@NotNull final String reference, @NotNull final String tumor) throws ExecutionException, InterruptedException {
-        final String ratioFile = CobaltRatioFile.generateFilenameForReading(outputDirectory, tumor);
-        final List<Future<Object>> futures = Lists.newArrayList();
-        futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, reference, "referenceGCDiploidRatio")));
-        futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, tumor, "tumorGCRatio")));
+    void applySegmentation(@NotNull final String reference, @NotNull final String tumor,
+            @NotNull final Multimap<Chromosome, CobaltRatio> ratios) throws ExecutionException, InterruptedException, IOException {
+        final Future<List<PCFSegment>> referenceSegments = ratioSegmentation(ratios, CobaltRatio::referenceGCDiploidRatio);
+        final Future<List<PCFSegment>> tumorSegments = ratioSegmentation(ratios, CobaltRatio::tumorGCRatio);
 
-        for (Future<Object> future : futures) {
-            future.get();
-        }
+        PCFFile.write(PCFFile.generateRatioFilename(outputDirectory, reference), SAMPLE_ID, referenceSegments.get());
+        PCFFile.write(PCFFile.generateRatioFilename(outputDirectory, tumor), SAMPLE_ID, tumorSegments.get());
 
         LOGGER.info("Segmentation Complete");
     }
 
-    private Object ratioSegmentation(@NotNull final String ratioFile, @NotNull final String sample, @NotNull final String column)
-            throws IOException, InterruptedException {
-        final String pcfFile = PCFFile.generateRatioFilename(outputDirectory, sample);
-        int result = RExecutor.executeFromClasspath("r/ratioSegmentation.R", ratioFile, column, pcfFile);
-        if (result != 0) {
-            throw new IOException("R execution failed. Unable to complete segmentation.");
-        }
+    @NotNull
+    private Future<List<PCFSegment>> ratioSegmentation(@NotNull final Multimap<Chromosome, CobaltRatio> ratios,
+            @NotNull final ToDoubleFunction<CobaltRatio> ratio) {
+        final Multimap<Chromosome, CobaltRatio> validRatios = Multimaps.filterValues(ratios, x -> ratio.applyAsDouble(x) >= 0);
+        return segmentation.submit(validRatios, x -> log2(Math.max(MIN_RATIO, ratio.applyAsDouble(x))));
+    }
 
-        return null;
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
     }
 }
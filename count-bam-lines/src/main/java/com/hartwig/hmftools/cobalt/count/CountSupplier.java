@@ -7,6 +7,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
@@ -14,11 +15,11 @@ import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.cobalt.CountBamLinesApplication;
 import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.CobaltCountFactory;
-import com.hartwig.hmftools.common.cobalt.ReadCount;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLength;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFactory;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFile;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +32,9 @@ public class CountSupplier {
 
     private static final Logger LOGGER = LogManager.getLogger(CountBamLinesApplication.class);
 
+    // Number of windows counted by each task. Small enough that chr1 no longer bounds the run time at high thread counts.
+    static final int CHUNK_WINDOWS = 5000;
+
     private final String tumor;
     private final String outputDirectory;
     private final int windowSize;
@@ -61,48 +65,84 @@ public class CountSupplier {
         }
         ChromosomeLengthFile.write(chromosomeLengthFileName, lengths);
 
-        LOGGER.info("Calculating Read Count from {}", tumorFile.toString());
-        final List<Future<ChromosomeReadCount>> tumorFutures = createFutures(readerFactory, tumorFile, lengths);
+        LOGGER.info("Calculating Read Count from {} and {}", tumorFile.toString(), referenceFile.toString());
+        final List<List<Future<ReadCountChunk>>> tumorFutures = Lists.newArrayList();
+        final List<List<Future<ReadCountChunk>>> referenceFutures = Lists.newArrayList();
+        for (ChromosomeLength chromosome : lengths) {
+            tumorFutures.add(Lists.newArrayList());
+            referenceFutures.add(Lists.newArrayList());
+        }
+
+        // Interleave the chunks of both bams so that they are counted concurrently
+        for (int i = 0; i < lengths.size(); i++) {
+            final ChromosomeLength chromosome = lengths.get(i);
+            final int windows = windows(chromosome.length());
+            for (int chunkWindow = 0; chunkWindow < windows; chunkWindow += CHUNK_WINDOWS) {
+                final int start = chunkWindow * windowSize + 1;
+                final int chunkWindows = Math.min(CHUNK_WINDOWS, windows - chunkWindow);
+                tumorFutures.get(i).add(executorService.submit(chunk(tumorFile, chromosome.chromosome(), start, chunkWindows)));
+                referenceFutures.get(i).add(executorService.submit(chunk(referenceFile, chromosome.chromosome(), start, chunkWindows)));
+            }
+        }
 
-        LOGGER.info("Calculating Read Count from {}", referenceFile.toString());
-        final List<Future<ChromosomeReadCount>> referenceFutures = createFutures(readerFactory, referenceFile, lengths);
+        final ListMultimap<Chromosome, CobaltCount> result = ArrayListMultimap.create();
+        for (int i = 0; i < lengths.size(); i++) {
+            final ChromosomeLength chromosome = lengths.get(i);
+            final int windows = windows(chromosome.length());
+            final int[] tumorCounts = fromFutures(windows, tumorFutures.get(i));
+            final int[] referenceCounts = fromFutures(windows, referenceFutures.get(i));
 
-        final Multimap<Chromosome, ReadCount> tumorCounts = fromFutures(tumorFutures);
-        final Multimap<Chromosome, ReadCount> referenceCounts = fromFutures(referenceFutures);
+            result.putAll(HumanChromosome.fromString(chromosome.chromosome()),
+                    counts(chromosome.chromosome(), windowSize, referenceCounts, tumorCounts));
+        }
 
         LOGGER.info("Read Count Complete");
-        return CobaltCountFactory.merge(referenceCounts, tumorCounts);
+        return result;
     }
 
     @NotNull
-    private List<Future<ChromosomeReadCount>> createFutures(final SamReaderFactory readerFactory, final File file,
-            final List<ChromosomeLength> lengths) {
-        final List<Future<ChromosomeReadCount>> futures = Lists.newArrayList();
-        for (ChromosomeLength chromosome : lengths) {
-            final ChromosomeReadCount callable = new ChromosomeReadCount(file,
-                    readerFactory,
-                    chromosome.chromosome(),
-                    chromosome.length(),
-                    windowSize,
-                    minMappingQuality);
-            futures.add(executorService.submit(callable));
-        }
+    private ReadCountChunk chunk(@NotNull final File file, @NotNull final String chromosome, int start, int windows) {
+        return new ReadCountChunk(file, readerFactory, chromosome, start, windows, windowSize, minMappingQuality);
+    }
 
-        return futures;
+    private int windows(long chromosomeLength) {
+        return (int) ((chromosomeLength - 1) / windowSize + 1);
     }
 
     @NotNull
-    private static Multimap<Chromosome, ReadCount> fromFutures(List<Future<ChromosomeReadCount>> futures)
+    private int[] fromFutures(int windows, @NotNull final List<Future<ReadCountChunk>> futures)
             throws ExecutionException, InterruptedException {
-        final ListMultimap<Chromosome, ReadCount> readCounts = ArrayListMultimap.create();
-        for (Future<ChromosomeReadCount> future : futures) {
-            final ChromosomeReadCount readCount = future.get();
-            final Chromosome chromosome = readCount.chromosome();
-            final List<ReadCount> result = readCount.readCount();
+        final int[] result = new int[windows];
+        for (Future<ReadCountChunk> future : futures) {
+            final ReadCountChunk chunk = future.get();
+            final int[] counts = chunk.counts();
+            System.arraycopy(counts, 0, result, (chunk.start() - 1) / windowSize, counts.length);
+        }
+        return result;
+    }
 
-            readCounts.putAll(chromosome, result);
+    /**
+     * Only windows with reference reads are returned. The first and last window of the chromosome are always returned with a count of
+     * -1 if there are no reads in them.
+     */
+    @VisibleForTesting
+    @NotNull
+    static List<CobaltCount> counts(@NotNull final String chromosome, int windowSize, @NotNull final int[] referenceCounts,
+            @NotNull final int[] tumorCounts) {
+        final List<CobaltCount> result = Lists.newArrayList();
+        final int last = referenceCounts.length - 1;
+        for (int i = 0; i <= last; i++) {
+            final boolean boundary = i == 0 || i == last;
+            final int referenceCount = referenceCounts[i];
+            if (referenceCount > 0 || boundary) {
+                final int tumorCount = tumorCounts[i] > 0 ? tumorCounts[i] : boundary ? -1 : 0;
+                result.add(CobaltCountFactory.create(chromosome,
+                        (long) i * windowSize + 1,
+                        referenceCount > 0 ? referenceCount : -1,
+                        tumorCount));
+            }
         }
 
-        return readCounts;
+        return result;
     }
 }
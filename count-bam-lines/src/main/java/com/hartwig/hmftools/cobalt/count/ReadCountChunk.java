@@ -0,0 +1,75 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Counts the eligible reads of each window in a window aligned chunk of a chromosome. Reads are assigned to the window of their
+ * alignment start so reads that overlap the start of the chunk belong to the previous chunk and every read is counted exactly once.
+ */
+class ReadCountChunk implements Callable<ReadCountChunk> {
+
+    private final File inputFile;
+    private final SamReaderFactory readerFactory;
+    private final String chromosome;
+    private final int start;
+    private final int end;
+    private final int windowSize;
+    private final int minMappingQuality;
+    private final int[] counts;
+
+    ReadCountChunk(@NotNull final File inputFile, @NotNull final SamReaderFactory readerFactory, @NotNull final String chromosome,
+            int start, int windows, int windowSize, int minMappingQuality) {
+        this.inputFile = inputFile;
+        this.readerFactory = readerFactory;
+        this.chromosome = chromosome;
+        this.start = start;
+        this.end = start + windows * windowSize - 1;
+        this.windowSize = windowSize;
+        this.minMappingQuality = minMappingQuality;
+        this.counts = new int[windows];
+    }
+
+    @Override
+    public ReadCountChunk call() throws Exception {
+        try (final SamReader reader = readerFactory.open(inputFile); final SAMRecordIterator iterator = reader.query(chromosome,
+                start,
+                end,
+                false)) {
+            while (iterator.hasNext()) {
+                final SAMRecord record = iterator.next();
+                if (isEligible(record)) {
+                    add(record.getAlignmentStart());
+                }
+            }
+        }
+        return this;
+    }
+
+    int start() {
+        return start;
+    }
+
+    @NotNull
+    int[] counts() {
+        return counts;
+    }
+
+    void add(int alignmentStart) {
+        if (alignmentStart >= start && alignmentStart <= end) {
+            counts[(alignmentStart - start) / windowSize]++;
+        }
+    }
+
+    private boolean isEligible(@NotNull SAMRecord record) {
+        return record.getMappingQuality() >= minMappingQuality && !(record.getReadUnmappedFlag() || record.getDuplicateReadFlag()
+                || record.isSecondaryOrSupplementary());
+    }
+}
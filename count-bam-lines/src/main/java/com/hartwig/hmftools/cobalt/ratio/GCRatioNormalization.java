@@ -9,9 +9,10 @@ import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.cobalt.ImmutableReadRatio;
 import com.hartwig.hmftools.common.cobalt.ReadRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.gc.GCBucket;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadCount;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadCountBuilder;
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 
 import org.jetbrains.annotations.NotNull;
@@ -21,13 +22,17 @@ class GCRatioNormalization {
     private final GCMedianReadCountBuilder medianReadCountBuilder = new GCMedianReadCountBuilder();
     private final Multimap<Chromosome, ReadCountWithGCContent> entries = ArrayListMultimap.create();
 
-    void addPosition(@NotNull final Chromosome chromosome, @NotNull final GCProfile gcProfile, final int readCount) {
-        final ReadCountWithGCContent readCountWithGCContent = new ReadCountWithGCContent(readCount, gcProfile);
+    void addPosition(@NotNull final Chromosome chromosome, @NotNull final GCProfileColumns gcProfiles, int index, final int readCount) {
+        final ReadCountWithGCContent readCountWithGCContent = new ReadCountWithGCContent(readCount,
+                gcProfiles.chromosome(),
+                gcProfiles.start(index),
+                GCBucket.create(gcProfiles.gcContent(index)),
+                gcProfiles.isMappable(index));
         entries.put(chromosome, readCountWithGCContent);
 
         // TODO: TEST With/without isMappable
         if (chromosome.isAutosome() && readCountWithGCContent.isMappable() && readCount > 0) {
-            medianReadCountBuilder.add(gcProfile, readCount);
+            medianReadCountBuilder.add(readCountWithGCContent.gcBucket(), readCount);
         }
     }
 
@@ -48,7 +53,7 @@ class GCRatioNormalization {
 
     @NotNull
     private static ReadRatio create(@NotNull final GCMedianReadCount medians, @NotNull final ReadCountWithGCContent readCount) {
-        int gcMedianCount = medians.medianReadCount(readCount.gcProfile());
+        int gcMedianCount = medians.medianReadCount(readCount.gcBucket());
         final double ratio;
 
         double medianNormalisation = 1.0 * medians.medianReadCount() / medians.meanReadCount();
@@ -64,35 +69,43 @@ class GCRatioNormalization {
 
     private static class ReadCountWithGCContent implements GenomePosition {
 
-        private final GCProfile gcProfile;
+        private final String chromosome;
+        private final long position;
+        private final GCBucket gcBucket;
+        private final boolean isMappable;
         private final int readCount;
 
-        private ReadCountWithGCContent(final int readCount, @NotNull final GCProfile gcProfile) {
+        private ReadCountWithGCContent(final int readCount, @NotNull final String chromosome, final long position,
+                @NotNull final GCBucket gcBucket, final boolean isMappable) {
             this.readCount = readCount;
-            this.gcProfile = gcProfile;
+            this.chromosome = chromosome;
+            this.position = position;
+            this.gcBucket = gcBucket;
+            this.isMappable = isMappable;
         }
 
         @NotNull
         @Override
         public String chromosome() {
-            return gcProfile.chromosome();
+            return chromosome;
         }
 
         @Override
         public long position() {
-            return gcProfile.start();
+            return position;
         }
 
         private int readCount() {
             return readCount;
         }
 
-        GCProfile gcProfile() {
-            return gcProfile;
+        @NotNull
+        GCBucket gcBucket() {
+            return gcBucket;
         }
 
         private boolean isMappable() {
-            return gcProfile.isMappable();
+            return isMappable;
         }
     }
 }
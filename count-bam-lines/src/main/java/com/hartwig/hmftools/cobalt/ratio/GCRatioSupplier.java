@@ -1,6 +1,6 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Optional;
+import java.util.Map;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
@@ -8,9 +8,7 @@ import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.ReadRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadCount;
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -21,19 +19,22 @@ class GCRatioSupplier {
     private final ListMultimap<Chromosome, ReadRatio> tumorRatios;
     private final ListMultimap<Chromosome, ReadRatio> referenceRatios;
 
-    GCRatioSupplier(@NotNull final Multimap<Chromosome, GCProfile> gcProfiles, @NotNull final Multimap<Chromosome, CobaltCount> counts) {
-        final GenomeRegionSelector<GCProfile> gcProfileSelector = GenomeRegionSelectorFactory.createImproved(gcProfiles);
-
+    GCRatioSupplier(@NotNull final Map<Chromosome, GCProfileColumns> gcProfiles,
+            @NotNull final Multimap<Chromosome, CobaltCount> counts) {
         final GCRatioNormalization tumorRatiosBuilder = new GCRatioNormalization();
         final GCRatioNormalization referenceRatiosBuilder = new GCRatioNormalization();
 
         for (Chromosome chromosome : counts.keySet()) {
+            final GCProfileColumns chromosomeProfiles = gcProfiles.get(chromosome);
+            if (chromosomeProfiles == null) {
+                continue;
+            }
+
             for (CobaltCount cobaltPosition : counts.get(chromosome)) {
-                final Optional<GCProfile> optionalGCProfile = gcProfileSelector.select(cobaltPosition);
-                if (optionalGCProfile.isPresent()) {
-                    final GCProfile gcProfile = optionalGCProfile.get();
-                    referenceRatiosBuilder.addPosition(chromosome, gcProfile, cobaltPosition.referenceReadCount());
-                    tumorRatiosBuilder.addPosition(chromosome, gcProfile, cobaltPosition.tumorReadCount());
+                final int index = chromosomeProfiles.indexOf(cobaltPosition.position());
+                if (index >= 0) {
+                    referenceRatiosBuilder.addPosition(chromosome, chromosomeProfiles, index, cobaltPosition.referenceReadCount());
+                    tumorRatiosBuilder.addPosition(chromosome, chromosomeProfiles, index, cobaltPosition.tumorReadCount());
                 }
             }
         }
@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
 import java.io.IOException;
+import java.util.Map;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
@@ -10,7 +11,7 @@ import com.hartwig.hmftools.common.cobalt.CobaltRatioFactory;
 import com.hartwig.hmftools.common.cobalt.ReadRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadCountFile;
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,7 +32,7 @@ public class RatioSupplier {
     }
 
     @NotNull
-    public Multimap<Chromosome, CobaltRatio> generateRatios(@NotNull final Multimap<Chromosome, GCProfile> gcProfiles,
+    public Multimap<Chromosome, CobaltRatio> generateRatios(@NotNull final Map<Chromosome, GCProfileColumns> gcProfiles,
             @NotNull final Multimap<Chromosome, CobaltCount> readCounts) throws IOException {
         LOGGER.info("Applying ratio gc normalization");
         final GCRatioSupplier gcRatioSupplier = new GCRatioSupplier(gcProfiles, readCounts);
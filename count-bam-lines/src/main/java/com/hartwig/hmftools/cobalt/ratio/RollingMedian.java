@@ -1,82 +1,199 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
-class RollingMedian {
+/**
+ * Median of a multiset of primitive doubles supporting O(log n) add, remove and median. Values are held in an order statistic treap
+ * whose nodes are stored in parallel arrays. Equal values share a node so removing a value is a decrement until the last copy goes.
+ */
+public class RollingMedian {
 
-    private final PriorityQueue<Double> minheap = new PriorityQueue<>(new MinHeapComparator());
-    private final PriorityQueue<Double> maxheap = new PriorityQueue<>(new MaxHeapComparator());
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 1024;
 
-    void add(double n) {
-        if (isEmpty()) {
-            minheap.add(n);
-        } else {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.add(n);
-            } else {
-                minheap.add(n);
-            }
+    private double[] value = new double[INITIAL_CAPACITY];
+    private int[] count = new int[INITIAL_CAPACITY];
+    private int[] size = new int[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+
+    // Released nodes are chained through the left array
+    private int free = NIL;
+    private int nodes = 0;
+    private int root = NIL;
+    private int seed = 0x2545F491;
+
+    public void add(double n) {
+        root = add(root, n);
+    }
+
+    public void remove(double n) {
+        root = remove(root, n);
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public double median() {
+        final int size = size();
+        if (size == 0) {
+            return 0;
         }
-        fixChaos();
+
+        final int middle = size / 2;
+        return size % 2 == 1 ? select(middle) : (select(middle - 1) + select(middle)) / 2;
     }
 
-    void remove(double n) {
-        if (!isEmpty()) {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.remove(n);
-            } else {
-                minheap.remove(n);
+    private int add(int node, double n) {
+        if (node == NIL) {
+            return newNode(n);
+        }
+
+        final int compare = Double.compare(n, value[node]);
+        if (compare == 0) {
+            count[node]++;
+        } else if (compare < 0) {
+            // The arrays may be reallocated by the recursive call so it must complete before the assignment
+            final int child = add(left[node], n);
+            left[node] = child;
+            if (priority[left[node]] > priority[node]) {
+                node = rotateRight(node);
+            }
+        } else {
+            final int child = add(right[node], n);
+            right[node] = child;
+            if (priority[right[node]] > priority[node]) {
+                node = rotateLeft(node);
             }
         }
-        fixChaos();
+
+        update(node);
+        return node;
     }
 
-    int size() {
-        return maxheap.size() + minheap.size();
+    private int remove(int node, double n) {
+        if (node == NIL) {
+            return NIL;
+        }
+
+        final int compare = Double.compare(n, value[node]);
+        if (compare < 0) {
+            left[node] = remove(left[node], n);
+        } else if (compare > 0) {
+            right[node] = remove(right[node], n);
+        } else if (count[node] > 1) {
+            count[node]--;
+        } else {
+            final int merged = merge(left[node], right[node]);
+            release(node);
+            return merged;
+        }
+
+        update(node);
+        return node;
     }
 
-    private boolean isEmpty() {
-        return size() == 0;
+    private int merge(int lower, int upper) {
+        if (lower == NIL) {
+            return upper;
+        }
+        if (upper == NIL) {
+            return lower;
+        }
+
+        if (priority[lower] > priority[upper]) {
+            right[lower] = merge(right[lower], upper);
+            update(lower);
+            return lower;
+        } else {
+            left[upper] = merge(lower, left[upper]);
+            update(upper);
+            return upper;
+        }
     }
 
-    private void fixChaos() {
-        //if sizes of heaps differ by 2, then it's a chaos, since median must be the middle element
-        if (Math.abs(maxheap.size() - minheap.size()) > 1) {
-            //check which one is the culprit and take action by kicking out the root from culprit into victim
-            if (maxheap.size() > minheap.size()) {
-                minheap.add(maxheap.poll());
+    private double select(int rank) {
+        int node = root;
+        while (true) {
+            final int leftSize = size(left[node]);
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank < leftSize + count[node]) {
+                return value[node];
             } else {
-                maxheap.add(minheap.poll());
+                rank -= leftSize + count[node];
+                node = right[node];
             }
         }
     }
 
-    double median() {
-        if (isEmpty()) {
-            return 0;
-        }
-        if (maxheap.size() == minheap.size()) {
-            return (maxheap.peek() + minheap.peek()) / 2;
-        } else if (maxheap.size() > minheap.size()) {
-            return maxheap.peek();
+    private int rotateRight(int node) {
+        final int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        final int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        return pivot;
+    }
+
+    private void update(int node) {
+        size[node] = size(left[node]) + count[node] + size(right[node]);
+    }
+
+    private int size(int node) {
+        return node == NIL ? 0 : size[node];
+    }
+
+    private int newNode(double n) {
+        final int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
         } else {
-            return minheap.peek();
+            if (nodes == value.length) {
+                grow();
+            }
+            node = nodes++;
         }
+
+        value[node] = n;
+        count[node] = 1;
+        size[node] = 1;
+        priority[node] = nextPriority();
+        left[node] = NIL;
+        right[node] = NIL;
+        return node;
     }
 
-    private static class MinHeapComparator implements Comparator<Double> {
-        @Override
-        public int compare(Double i, Double j) {
-            return Double.compare(i, j);
-        }
+    private void release(int node) {
+        left[node] = free;
+        free = node;
     }
 
-    private static class MaxHeapComparator implements Comparator<Double> {
-        // opposite to minHeapComparator, invert the return values
-        @Override
-        public int compare(Double i, Double j) {
-            return -1 * Double.compare(i, j);
-        }
+    private int nextPriority() {
+        // xorshift keeps the treap balanced in expectation without the locking of a shared Random
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private void grow() {
+        final int capacity = value.length * 2;
+        value = Arrays.copyOf(value, capacity);
+        count = Arrays.copyOf(count, capacity);
+        size = Arrays.copyOf(size, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
     }
-}
\ No newline at end of file
+}
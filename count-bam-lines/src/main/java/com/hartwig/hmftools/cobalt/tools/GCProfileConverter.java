@@ -0,0 +1,63 @@
+package com.hartwig.hmftools.cobalt.tools;
+
+import java.io.IOException;
+
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Converts a tsv gc profile into the binary columnar format which COBALT and PURPLE load without parsing.
+ */
+public class GCProfileConverter {
+
+    private static final Logger LOGGER = LogManager.getLogger(GCProfileConverter.class);
+
+    private static final String IN = "in";
+    private static final String OUT = "out";
+    private static final int WINDOW_SIZE = 1000;
+
+    public static void main(String[] args) throws ParseException, IOException {
+        final Options options = createOptions();
+        final CommandLine cmd = createCommandLine(args, options);
+        final String inputFilePath = cmd.getOptionValue(IN);
+        final String outputFilePath = cmd.getOptionValue(OUT);
+
+        if (outputFilePath == null || inputFilePath == null) {
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("GCProfileConverter", options);
+            System.exit(1);
+        }
+
+        LOGGER.info("Reading GC Profile from {}", inputFilePath);
+        final Multimap<Chromosome, GCProfile> gcProfiles = GCProfileFactory.loadGCContent(WINDOW_SIZE, inputFilePath);
+
+        LOGGER.info("Writing binary GC Profile to {}", outputFilePath);
+        GCProfileFactory.writeBinary(outputFilePath, gcProfiles);
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(IN, true, "Path to tsv gc profile");
+        options.addOption(OUT, true, "Path to binary gc profile");
+        return options;
+    }
+
+    @NotNull
+    private static CommandLine createCommandLine(@NotNull final String[] args, @NotNull final Options options) throws ParseException {
+        final CommandLineParser parser = new DefaultParser();
+        return parser.parse(options, args);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.List;
+
+import com.hartwig.hmftools.common.cobalt.CobaltCount;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SamReaderFactory;
+
+public class ReadCountChunkTest {
+
+    private static final int WINDOW_SIZE = 1000;
+
+    @Test
+    public void testReadsAreCountedByAlignmentStart() {
+        final ReadCountChunk victim = chunk(3001, 3);
+
+        victim.add(2999);
+        victim.add(3001);
+        victim.add(4000);
+        victim.add(4001);
+        victim.add(6000);
+        victim.add(6001);
+
+        assertArrayEquals(new int[] { 2, 1, 1 }, victim.counts());
+    }
+
+    @Test
+    public void testEmptyWindowsAreSkippedExceptAtChromosomeEnds() {
+        final int[] reference = { 0, 5, 0, 3, 0 };
+        final int[] tumor = { 0, 0, 4, 6, 0 };
+
+        final List<CobaltCount> counts = CountSupplier.counts("1", WINDOW_SIZE, reference, tumor);
+        assertEquals(4, counts.size());
+        assertCount(counts.get(0), 1, -1, -1);
+        assertCount(counts.get(1), 1001, 5, 0);
+        assertCount(counts.get(2), 3001, 3, 6);
+        assertCount(counts.get(3), 4001, -1, -1);
+    }
+
+    private static void assertCount(@NotNull final CobaltCount count, long position, int reference, int tumor) {
+        assertEquals(position, count.position());
+        assertEquals(reference, count.referenceReadCount());
+        assertEquals(tumor, count.tumorReadCount());
+    }
+
+    @NotNull
+    private static ReadCountChunk chunk(int start, int windows) {
+        return new ReadCountChunk(new File("unused.bam"), SamReaderFactory.make(), "1", start, windows, WINDOW_SIZE, 10);
+    }
+}
@@ -2,6 +2,12 @@ package com.hartwig.hmftools.cobalt.ratio;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +50,68 @@ public class RollingMedianTest {
         assertMedian(5.5);
     }
 
+    @Test
+    public void testRemoveMissingValueIsIgnored() {
+        testThreeElements();
+        victim.remove(8);
+        assertEquals(3, victim.size());
+        assertMedian(6);
+    }
+
+    @Test
+    public void testDuplicates() {
+        victim.add(5);
+        victim.add(5);
+        victim.add(7);
+        victim.remove(5);
+        assertMedian(6);
+        victim.remove(5);
+        assertMedian(7);
+        victim.remove(7);
+        assertEquals(0, victim.size());
+        assertMedian(0);
+    }
+
+    @Test
+    public void testManyDistinctValues() {
+        for (int i = 0; i < 5000; i++) {
+            victim.add(i);
+        }
+        assertMedian(2499.5);
+
+        for (int i = 0; i < 5000; i += 2) {
+            victim.remove(i);
+        }
+        assertEquals(2500, victim.size());
+        assertMedian(2500);
+    }
+
+    @Test
+    public void testRollingWindowMatchesSortedList() {
+        final Random random = new Random(0);
+        final List<Double> window = Lists.newArrayList();
+
+        for (int i = 0; i < 10_000; i++) {
+            // Few distinct values so that duplicates are common
+            final double value = random.nextInt(50) / 10d;
+            window.add(value);
+            victim.add(value);
+
+            if (window.size() > 101) {
+                final double expired = window.remove(0);
+                victim.remove(expired);
+            }
+
+            final List<Double> sorted = Lists.newArrayList(window);
+            Collections.sort(sorted);
+            final int middle = sorted.size() / 2;
+            final double expected = sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+
+            assertEquals(window.size(), victim.size());
+            assertMedian(expected);
+        }
+    }
+
     private void assertMedian(double expected) {
         assertEquals(expected, victim.median(), EPSILON);
     }
@@ -0,0 +1,102 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
+import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Collects the tumor BAF of normal heterozygous sites and the tumor contamination of normal homozygous sites in a single pass of the
+ * tumor bam over the union of both.
+ */
+public class TumorEvidence implements Callable<TumorEvidence> {
+
+    private final String contig;
+    private final String bamFile;
+    private final SamReaderFactory samReaderFactory;
+    private final TumorBAFFactory bafFactory;
+    private final BaseDepthFactory contaminationFactory;
+    private final List<ModifiableTumorBAF> bafEvidence;
+    private final List<BaseDepth> normalHomSites;
+    private final List<ModifiableBaseDepth> contaminationEvidence;
+    private final GenomePositionSelector<ModifiableTumorBAF> bafSelector;
+    private final GenomePositionSelector<ModifiableBaseDepth> contaminationSelector;
+    private final SAMSlicer supplier;
+
+    public TumorEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
+            final SamReaderFactory samReaderFactory, final List<BaseDepth> normalHetSites, final List<BaseDepth> normalHomSites) {
+        this.bafFactory = new TumorBAFFactory(minBaseQuality);
+        this.contaminationFactory = new BaseDepthFactory(minBaseQuality);
+        this.contig = contig;
+        this.bamFile = bamFile;
+        this.samReaderFactory = samReaderFactory;
+        this.normalHomSites = normalHomSites;
+
+        this.bafEvidence = normalHetSites.stream().map(TumorBAFFactory::create).collect(Collectors.toList());
+        this.contaminationEvidence = normalHomSites.stream().map(BaseDepthFactory::create).collect(Collectors.toList());
+        this.bafSelector = GenomePositionSelectorFactory.create(bafEvidence);
+        this.contaminationSelector = GenomePositionSelectorFactory.create(contaminationEvidence);
+
+        final GenomeRegions builder = new GenomeRegions(contig, typicalReadDepth);
+        normalHetSites.forEach(x -> builder.addPosition(x.position()));
+        normalHomSites.forEach(x -> builder.addPosition(x.position()));
+        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    @NotNull
+    public List<TumorBAF> bafEvidence() {
+        return bafEvidence.stream().filter(x -> x.tumorIndelCount() == 0).collect(Collectors.toList());
+    }
+
+    @NotNull
+    public List<TumorContamination> contaminationEvidence() {
+        final List<TumorContamination> result = Lists.newArrayList();
+        for (int i = 0; i < normalHomSites.size(); i++) {
+            final BaseDepth normal = normalHomSites.get(i);
+            final BaseDepth tumor = contaminationEvidence.get(i);
+            if (tumor.altSupport() != 0) {
+                result.add(ImmutableTumorContamination.builder().from(normal).normal(normal).tumor(tumor).build());
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public TumorEvidence call() throws Exception {
+        try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
+            supplier.slice(reader, this::record);
+        }
+
+        return this;
+    }
+
+    private void record(@NotNull final SAMRecord record) {
+        final GenomeRegion region = asRegion(record);
+        bafSelector.select(region, bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
+        contaminationSelector.select(region, contaminationEvidence -> contaminationFactory.addEvidence(contaminationEvidence, record));
+    }
+
+    @NotNull
+    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
+        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+    }
+}
@@ -30,6 +30,19 @@ public final class CobaltCountFactory {
         return result;
     }
 
+    @NotNull
+    public static CobaltCount create(@NotNull final String chromosome, long position, int referenceReadCount, int tumorReadCount) {
+        return ImmutableCobaltRatio.builder()
+                .chromosome(chromosome)
+                .position(position)
+                .referenceReadCount(referenceReadCount)
+                .tumorReadCount(tumorReadCount)
+                .referenceGCRatio(-1)
+                .referenceGCDiploidRatio(-1)
+                .tumorGCRatio(-1)
+                .build();
+    }
+
     @NotNull
     private static CobaltCount create(@NotNull final ReadCount reference, int tumorReadCount) {
         return ImmutableCobaltRatio.builder()
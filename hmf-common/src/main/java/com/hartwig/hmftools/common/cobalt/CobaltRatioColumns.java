@@ -0,0 +1,104 @@
+package com.hartwig.hmftools.common.cobalt;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+import com.hartwig.hmftools.common.utils.io.column.ChromosomeColumns;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Zero-copy view of the cobalt ratios of a single chromosome.
+ */
+public class CobaltRatioColumns {
+
+    static final String POSITION = "position";
+    static final String REFERENCE_READ_COUNT = "referenceReadCount";
+    static final String TUMOR_READ_COUNT = "tumorReadCount";
+    static final String REFERENCE_GC_RATIO = "referenceGCRatio";
+    static final String TUMOR_GC_RATIO = "tumorGCRatio";
+    static final String REFERENCE_GC_DIPLOID_RATIO = "referenceGCDiploidRatio";
+
+    private final String chromosome;
+    private final int size;
+    private final IntBuffer position;
+    private final IntBuffer referenceReadCount;
+    private final IntBuffer tumorReadCount;
+    private final DoubleBuffer referenceGCRatio;
+    private final DoubleBuffer tumorGCRatio;
+    private final DoubleBuffer referenceGCDiploidRatio;
+
+    CobaltRatioColumns(@NotNull final ChromosomeColumns columns) {
+        chromosome = columns.chromosome();
+        size = columns.rows();
+        position = columns.intColumn(POSITION);
+        referenceReadCount = columns.intColumn(REFERENCE_READ_COUNT);
+        tumorReadCount = columns.intColumn(TUMOR_READ_COUNT);
+        referenceGCRatio = columns.doubleColumn(REFERENCE_GC_RATIO);
+        tumorGCRatio = columns.doubleColumn(TUMOR_GC_RATIO);
+        referenceGCDiploidRatio = columns.doubleColumn(REFERENCE_GC_DIPLOID_RATIO);
+    }
+
+    @NotNull
+    public String chromosome() {
+        return chromosome;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long position(int index) {
+        return position.get(index);
+    }
+
+    /**
+     * Index of the first ratio at or after the given position, or size if there is none.
+     */
+    public int lowerBound(long position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (position(mid) < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int referenceReadCount(int index) {
+        return referenceReadCount.get(index);
+    }
+
+    public int tumorReadCount(int index) {
+        return tumorReadCount.get(index);
+    }
+
+    public double referenceGCRatio(int index) {
+        return referenceGCRatio.get(index);
+    }
+
+    public double tumorGCRatio(int index) {
+        return tumorGCRatio.get(index);
+    }
+
+    public double referenceGCDiploidRatio(int index) {
+        return referenceGCDiploidRatio.get(index);
+    }
+
+    @NotNull
+    public CobaltRatio get(int index) {
+        return ImmutableCobaltRatio.builder()
+                .chromosome(chromosome)
+                .position(position(index))
+                .referenceReadCount(referenceReadCount(index))
+                .tumorReadCount(tumorReadCount(index))
+                .referenceGCRatio(referenceGCRatio(index))
+                .tumorGCRatio(tumorGCRatio(index))
+                .referenceGCDiploidRatio(referenceGCDiploidRatio(index))
+                .build();
+    }
+}
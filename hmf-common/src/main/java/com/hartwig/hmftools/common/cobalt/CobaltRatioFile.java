@@ -6,14 +6,21 @@ import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.io.column.ChromosomeColumns;
+import com.hartwig.hmftools.common.utils.io.column.ColumnarFile;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -24,6 +31,7 @@ public final class CobaltRatioFile {
     private static final String DELIMITER = "\t";
     private static final String EXTENSION = ".cobalt.ratio.tsv";
     private static final String EXTENSION_OLD = ".cobalt";
+    private static final String EXTENSION_BINARY = ".cobalt.ratio.bin";
 
     private CobaltRatioFile() {
     }
@@ -33,17 +41,106 @@ public final class CobaltRatioFile {
         return basePath + File.separator + sample + EXTENSION;
     }
 
+    @NotNull
+    public static String generateBinaryFilename(@NotNull final String basePath, @NotNull final String sample) {
+        return basePath + File.separator + sample + EXTENSION_BINARY;
+    }
+
     @NotNull
     public static String generateFilenameForReading(@NotNull final String basePath, @NotNull final String sample) {
+        String binaryFilename = generateBinaryFilename(basePath, sample);
+        if (new File(binaryFilename).exists()) {
+            return binaryFilename;
+        }
+
         String filename = basePath + File.separator + sample + EXTENSION;
         return (new File(filename).exists()) ? filename : basePath + File.separator + sample + EXTENSION_OLD;
     }
 
+    /**
+     * Reads either the binary or the tsv ratio file.
+     */
     @NotNull
     public static ListMultimap<Chromosome, CobaltRatio> read(@NotNull final String filename) throws IOException {
+        if (ColumnarFile.isColumnarFile(filename)) {
+            final ListMultimap<Chromosome, CobaltRatio> result = ArrayListMultimap.create();
+            for (Map.Entry<Chromosome, CobaltRatioColumns> entry : readColumns(filename).entrySet()) {
+                final CobaltRatioColumns columns = entry.getValue();
+                for (int i = 0; i < columns.size(); i++) {
+                    result.put(entry.getKey(), columns.get(i));
+                }
+            }
+            return result;
+        }
+
         return fromLines(Files.readAllLines(new File(filename).toPath()));
     }
 
+    /**
+     * Reads either the binary or the tsv ratio file as a view of the columns of each chromosome. The tsv is read straight into
+     * columns, without creating a CobaltRatio for each window.
+     */
+    @NotNull
+    public static Map<Chromosome, CobaltRatioColumns> readColumns(@NotNull final String filename) throws IOException {
+        final List<ChromosomeColumns> chromosomes = ColumnarFile.isColumnarFile(filename)
+                ? ColumnarFile.read(filename)
+                : columnsFromLines(Files.readAllLines(new File(filename).toPath()));
+        return toColumns(chromosomes);
+    }
+
+    @NotNull
+    public static Map<Chromosome, CobaltRatioColumns> toColumns(@NotNull final Multimap<Chromosome, CobaltRatio> ratios) {
+        return toColumns(chromosomeColumns(ratios, x -> x));
+    }
+
+    /**
+     * Ratios are rounded as in the tsv so that both files give the same results.
+     */
+    public static void writeBinary(@NotNull final String fileName, @NotNull Multimap<Chromosome, CobaltRatio> ratios)
+            throws IOException {
+        ColumnarFile.write(fileName, chromosomeColumns(ratios, CobaltRatioFile::round));
+    }
+
+    @VisibleForTesting
+    static double round(double ratio) {
+        return Double.isFinite(ratio) ? Double.parseDouble(FORMAT.format(ratio)) : ratio;
+    }
+
+    @NotNull
+    private static Map<Chromosome, CobaltRatioColumns> toColumns(@NotNull final List<ChromosomeColumns> chromosomes) {
+        final Map<Chromosome, CobaltRatioColumns> result = Maps.newLinkedHashMap();
+        for (ChromosomeColumns columns : chromosomes) {
+            result.put(HumanChromosome.fromString(columns.chromosome()), new CobaltRatioColumns(columns));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<ChromosomeColumns> chromosomeColumns(@NotNull Multimap<Chromosome, CobaltRatio> ratios,
+            @NotNull final DoubleUnaryOperator precision) {
+        final List<ChromosomeColumns> chromosomes = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final List<CobaltRatio> sorted = Lists.newArrayList(ratios.get(chromosome));
+            if (sorted.isEmpty()) {
+                continue;
+            }
+
+            Collections.sort(sorted);
+            final ColumnBuilder builder = new ColumnBuilder(sorted.get(0).chromosome(), sorted.size());
+            for (CobaltRatio ratio : sorted) {
+                builder.add(ratio.position(),
+                        ratio.referenceReadCount(),
+                        ratio.tumorReadCount(),
+                        precision.applyAsDouble(ratio.referenceGCRatio()),
+                        precision.applyAsDouble(ratio.tumorGCRatio()),
+                        precision.applyAsDouble(ratio.referenceGCDiploidRatio()));
+            }
+            chromosomes.add(builder.build());
+        }
+
+        return chromosomes;
+    }
+
     public static void write(@NotNull final String fileName, @NotNull Multimap<Chromosome, CobaltRatio> ratios) throws IOException {
         List<CobaltRatio> sorted = Lists.newArrayList(ratios.values());
         Collections.sort(sorted);
@@ -97,6 +194,30 @@ public final class CobaltRatioFile {
         return result;
     }
 
+    @NotNull
+    private static List<ChromosomeColumns> columnsFromLines(@NotNull final List<String> lines) {
+        final Map<String, Integer> rows = Maps.newLinkedHashMap();
+        for (int i = 1; i < lines.size(); i++) {
+            final String line = lines.get(i);
+            rows.merge(line.substring(0, line.indexOf(DELIMITER)).trim(), 1, Integer::sum);
+        }
+
+        final Map<String, ColumnBuilder> builders = Maps.newLinkedHashMap();
+        rows.forEach((chromosome, size) -> builders.put(chromosome, new ColumnBuilder(chromosome, size)));
+
+        for (int i = 1; i < lines.size(); i++) {
+            final String[] values = lines.get(i).split(DELIMITER);
+            builders.get(values[0].trim()).add(Long.parseLong(values[1].trim()),
+                    Integer.parseInt(values[2].trim()),
+                    Integer.parseInt(values[3].trim()),
+                    Double.parseDouble(values[4].trim()),
+                    Double.parseDouble(values[5].trim()),
+                    Double.parseDouble(values[6].trim()));
+        }
+
+        return builders.values().stream().map(ColumnBuilder::build).collect(Collectors.toList());
+    }
+
     @NotNull
     private static CobaltRatio fromLine(@NotNull final String ratioLine) {
         final String[] values = ratioLine.split(DELIMITER);
@@ -114,4 +235,47 @@ public final class CobaltRatioFile {
                 .referenceGCDiploidRatio(Double.parseDouble(values[6].trim()))
                 .build();
     }
+
+    private static class ColumnBuilder {
+
+        private final String chromosome;
+        private final int[] position;
+        private final int[] referenceReadCount;
+        private final int[] tumorReadCount;
+        private final double[] referenceGCRatio;
+        private final double[] tumorGCRatio;
+        private final double[] referenceGCDiploidRatio;
+        private int size;
+
+        ColumnBuilder(@NotNull final String chromosome, int rows) {
+            this.chromosome = chromosome;
+            position = new int[rows];
+            referenceReadCount = new int[rows];
+            tumorReadCount = new int[rows];
+            referenceGCRatio = new double[rows];
+            tumorGCRatio = new double[rows];
+            referenceGCDiploidRatio = new double[rows];
+        }
+
+        void add(long position, int referenceReadCount, int tumorReadCount, double referenceGCRatio, double tumorGCRatio,
+                double referenceGCDiploidRatio) {
+            this.position[size] = Math.toIntExact(position);
+            this.referenceReadCount[size] = referenceReadCount;
+            this.tumorReadCount[size] = tumorReadCount;
+            this.referenceGCRatio[size] = referenceGCRatio;
+            this.tumorGCRatio[size] = tumorGCRatio;
+            this.referenceGCDiploidRatio[size] = referenceGCDiploidRatio;
+            size++;
+        }
+
+        @NotNull
+        ChromosomeColumns build() {
+            return new ChromosomeColumns(chromosome, size).add(CobaltRatioColumns.POSITION, position)
+                    .add(CobaltRatioColumns.REFERENCE_READ_COUNT, referenceReadCount)
+                    .add(CobaltRatioColumns.TUMOR_READ_COUNT, tumorReadCount)
+                    .add(CobaltRatioColumns.REFERENCE_GC_RATIO, referenceGCRatio)
+                    .add(CobaltRatioColumns.TUMOR_GC_RATIO, tumorGCRatio)
+                    .add(CobaltRatioColumns.REFERENCE_GC_DIPLOID_RATIO, referenceGCDiploidRatio);
+        }
+    }
 }
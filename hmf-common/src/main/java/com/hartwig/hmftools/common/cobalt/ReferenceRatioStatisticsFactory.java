@@ -5,14 +5,17 @@ import static java.util.stream.Collectors.toList;
 import static com.hartwig.hmftools.common.utils.Doubles.median;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.Doubles;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public final class ReferenceRatioStatisticsFactory {
 
@@ -23,8 +26,24 @@ public final class ReferenceRatioStatisticsFactory {
         return fromRatio(readRatios, ReadRatio::ratio);
     }
 
-    public static ReferenceRatioStatistics fromCobalt(@NotNull final Multimap<Chromosome, CobaltRatio> readRatios) {
-        return fromRatio(readRatios, CobaltRatio::referenceGCRatio);
+    public static ReferenceRatioStatistics fromCobalt(@NotNull final Map<Chromosome, CobaltRatioColumns> readRatios) {
+        final List<Double> xRatios = referenceGCRatios(readRatios.get(HumanChromosome._X));
+        final List<Double> yRatios = referenceGCRatios(readRatios.get(HumanChromosome._Y));
+        return statistics(xRatios, yRatios);
+    }
+
+    @NotNull
+    private static List<Double> referenceGCRatios(@Nullable final CobaltRatioColumns columns) {
+        final List<Double> result = Lists.newArrayList();
+        if (columns != null) {
+            for (int i = 0; i < columns.size(); i++) {
+                final double ratio = columns.referenceGCRatio(i);
+                if (!Doubles.equal(ratio, -1)) {
+                    result.add(ratio);
+                }
+            }
+        }
+        return result;
     }
 
     @NotNull
@@ -33,11 +52,16 @@ public final class ReferenceRatioStatisticsFactory {
 
         final List<Double> xRatios =
                 readRatios.get(HumanChromosome._X).stream().map(transform).filter(x -> !Doubles.equal(x, -1)).collect(toList());
+        final List<Double> yRatios =
+                readRatios.get(HumanChromosome._Y).stream().map(transform).filter(x -> !Doubles.equal(x, -1)).collect(toList());
+        return statistics(xRatios, yRatios);
+    }
+
+    @NotNull
+    private static ReferenceRatioStatistics statistics(@NotNull final List<Double> xRatios, @NotNull final List<Double> yRatios) {
         int xCount = xRatios.size();
         double xMedian = xCount > 0 ? median(xRatios) : 0;
 
-        final List<Double> yRatios =
-                readRatios.get(HumanChromosome._Y).stream().map(transform).filter(x -> !Doubles.equal(x, -1)).collect(toList());
         int yCount = yRatios.size();
         double yMedian = yCount > 0 ? median(yRatios) : 0;
 
@@ -6,7 +6,6 @@ import static java.lang.Math.min;
 import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.loadEnsemblGeneData;
 import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.loadTranscriptProteinData;
 import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.loadTranscriptSpliceAcceptorData;
-import static com.hartwig.hmftools.common.fusion.FusionCommon.NEG_STRAND;
 import static com.hartwig.hmftools.common.fusion.FusionCommon.POS_STRAND;
 import static com.hartwig.hmftools.common.fusion.Transcript.CODING_BASES;
 import static com.hartwig.hmftools.common.fusion.Transcript.TOTAL_CODING_BASES;
@@ -17,9 +16,11 @@ import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
 import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.fusion.GeneAnnotation;
 import com.hartwig.hmftools.common.fusion.Transcript;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
@@ -44,14 +45,26 @@ public class EnsemblDataCache
 
     private final Map<EnsemblGeneData,Integer> mDownstreamGeneAnnotations;
 
+    // position indices over each chromosome's genes and downstream gene annotations, rebuilt if their source data changes
+    private final Map<String,IntervalIndex<EnsemblGeneData>> mChrGeneIndex;
+    private final Map<String,IntervalIndex<EnsemblGeneData>> mChrDownstreamGeneIndex;
+    private volatile int mDownstreamIndexSize;
+
     private final List<String> mRestrictedGeneIdList = Lists.newArrayList();
+    private final Set<String> mRestrictedGeneIds = Sets.newHashSet(); // for look-up when reading transcripts on demand
+
+    private EnsemblDataSnapshot mSnapshot; // binary snapshot of the CSV files, used when present
+
+    // with a snapshot each gene's transcripts are read on first request rather than all at once
+    private boolean mSnapshotTranscriptsOnDemand;
+    private volatile boolean mAllSnapshotTranscriptsLoaded;
 
     public EnsemblDataCache(final String dataPath, final RefGenomeVersion refGenomeVersion)
     {
         mDataPath = dataPath.endsWith(File.separator) ? dataPath : dataPath + File.separator;
         mRefGenomeVersion = refGenomeVersion;
 
-        mTranscriptDataMap = Maps.newHashMap();
+        mTranscriptDataMap = Maps.newConcurrentMap(); // filled from concurrent threads when read from a snapshot on demand
         mChrGeneDataMap = Maps.newHashMap();
         mEnsemblProteinDataMap = Maps.newHashMap();
         mTransSpliceAcceptorPosDataMap = Maps.newHashMap();
@@ -62,12 +75,19 @@ public class EnsemblDataCache
         mRequireSplicePositions = false;
         mCanonicalTranscriptsOnly = false;
         mDownstreamGeneAnnotations = Maps.newHashMap();
+        mChrGeneIndex = Maps.newConcurrentMap();
+        mChrDownstreamGeneIndex = Maps.newConcurrentMap();
+        mDownstreamIndexSize = 0;
+        mSnapshotTranscriptsOnDemand = false;
+        mAllSnapshotTranscriptsLoaded = false;
     }
 
     public void setRestrictedGeneIdList(final List<String> geneIds)
     {
         mRestrictedGeneIdList.clear();
         mRestrictedGeneIdList.addAll(geneIds);
+        mRestrictedGeneIds.clear();
+        mRestrictedGeneIds.addAll(geneIds);
     }
 
     public final Map<EnsemblGeneData,Integer> getDownstreamGeneAnnotations() { return mDownstreamGeneAnnotations; }
@@ -80,7 +100,14 @@ public class EnsemblDataCache
         mCanonicalTranscriptsOnly = canonicalOnly;
     }
 
-    public final Map<String, List<TranscriptData>> getTranscriptDataMap() { return mTranscriptDataMap; }
+    public final Map<String, List<TranscriptData>> getTranscriptDataMap()
+    {
+        if(mSnapshotTranscriptsOnDemand && !mAllSnapshotTranscriptsLoaded)
+            loadAllSnapshotTranscripts();
+
+        return mTranscriptDataMap;
+    }
+
     public final Map<String, List<EnsemblGeneData>> getChrGeneDataMap() { return mChrGeneDataMap; }
     public Map<Integer, List<TranscriptProteinData>> getTranscriptProteinDataMap() { return mEnsemblProteinDataMap; }
     public Map<Integer,Integer> getTransSpliceAcceptorPosDataMap() { return mTransSpliceAcceptorPosDataMap; }
@@ -145,7 +172,26 @@ public class EnsemblDataCache
 
     public List<TranscriptData> getTranscripts(final String geneId)
     {
-        return mTranscriptDataMap.get(geneId);
+        final List<TranscriptData> transDataList = mTranscriptDataMap.get(geneId);
+
+        if(transDataList != null || !mSnapshotTranscriptsOnDemand || mAllSnapshotTranscriptsLoaded)
+            return transDataList;
+
+        if(!mRestrictedGeneIds.isEmpty() && !mRestrictedGeneIds.contains(geneId))
+            return null;
+
+        // genes without transcripts aren't recorded, so are looked up again in the snapshot's gene index
+        return mTranscriptDataMap.computeIfAbsent(
+                geneId, k -> mSnapshot.getTranscripts(k, mRequireExons, mCanonicalTranscriptsOnly));
+    }
+
+    private synchronized void loadAllSnapshotTranscripts()
+    {
+        if(mAllSnapshotTranscriptsLoaded)
+            return;
+
+        mSnapshot.loadTranscriptData(mTranscriptDataMap, mRestrictedGeneIdList, mRequireExons, mCanonicalTranscriptsOnly);
+        mAllSnapshotTranscriptsLoaded = true;
     }
 
     public void populateGeneIdList(final List<String> uniqueGeneIds, final String chromosome, int position, int upstreamDistance)
@@ -170,7 +216,7 @@ public class EnsemblDataCache
         // now look up relevant transcript and exon information
         for(final EnsemblGeneData geneData : matchedGenes)
         {
-            final List<TranscriptData> transcriptDataList = mTranscriptDataMap.get(geneData.GeneId);
+            final List<TranscriptData> transcriptDataList = getTranscripts(geneData.GeneId);
 
             if (transcriptDataList == null || transcriptDataList.isEmpty())
                 continue;
@@ -236,12 +282,12 @@ public class EnsemblDataCache
         // create gene and transcript data for any gene fully overlapped by the SV
         List<GeneAnnotation> geneAnnotations = Lists.newArrayList();
 
-        final List<EnsemblGeneData> chrGeneList = mChrGeneDataMap.get(chromosome);
+        final IntervalIndex<EnsemblGeneData> geneIndex = getGeneIndex(chromosome);
 
-        if(chrGeneList == null)
+        if(geneIndex == null)
             return geneAnnotations;
 
-        for(final EnsemblGeneData geneData : chrGeneList)
+        for(final EnsemblGeneData geneData : geneIndex.findOverlapping(posStart, posEnd))
         {
             if(!(posStart < geneData.GeneStart && posEnd > geneData.GeneEnd))
                 continue;
@@ -251,7 +297,7 @@ public class EnsemblDataCache
 
             currentGene.setGeneData(geneData);
 
-            final TranscriptData transcriptData = mTranscriptDataMap.get(geneData.GeneId).stream()
+            final TranscriptData transcriptData = getTranscripts(geneData.GeneId).stream()
                     .filter(x -> x.IsCanonical)
                     .findFirst().orElse(null);
 
@@ -287,7 +333,7 @@ public class EnsemblDataCache
 
     public final TranscriptData getTranscriptData(final String geneId, final String transcriptId)
     {
-        final List<TranscriptData> transDataList = mTranscriptDataMap.get(geneId);
+        final List<TranscriptData> transDataList = getTranscripts(geneId);
 
         if (transDataList == null || transDataList.isEmpty())
             return null;
@@ -308,14 +354,14 @@ public class EnsemblDataCache
         // find genes if any of their transcripts are within this position
         List<EnsemblGeneData> genesList = Lists.newArrayList();
 
-        final List<EnsemblGeneData> geneDataList = mChrGeneDataMap.get(chromosome);
+        final IntervalIndex<EnsemblGeneData> geneIndex = getGeneIndex(chromosome);
 
-        for(final EnsemblGeneData geneData : geneDataList)
-        {
-            if(posStart > geneData.GeneEnd || posEnd < geneData.GeneStart)
-                continue;
+        if(geneIndex == null)
+            return genesList;
 
-            final List<TranscriptData> transList = mTranscriptDataMap.get(geneData.GeneId);
+        for(final EnsemblGeneData geneData : geneIndex.findOverlapping(posStart, posEnd))
+        {
+            final List<TranscriptData> transList = getTranscripts(geneData.GeneId);
 
             if(transList == null || transList.isEmpty())
                 continue;
@@ -337,12 +383,13 @@ public class EnsemblDataCache
     {
         final List<EnsemblGeneData> matchedGenes = Lists.newArrayList();
 
-        final List<EnsemblGeneData> geneDataList = mChrGeneDataMap.get(chromosome);
+        final IntervalIndex<EnsemblGeneData> geneIndex = getGeneIndex(chromosome);
 
-        if(geneDataList == null)
+        if(geneIndex == null)
             return matchedGenes;
 
-        for(final EnsemblGeneData geneData : geneDataList)
+        // the upstream distance extends the gene's range on one side only, so search both and then apply the strand
+        for(final EnsemblGeneData geneData : geneIndex.findOverlapping(position - upstreamDistance, position + upstreamDistance))
         {
             int geneStartRange = geneData.Strand == 1 ? geneData.GeneStart - upstreamDistance : geneData.GeneStart;
             int geneEndRange = geneData.Strand == 1 ? geneData.GeneEnd : geneData.GeneEnd + upstreamDistance;
@@ -353,23 +400,70 @@ public class EnsemblDataCache
             }
         }
 
-        for(Map.Entry<EnsemblGeneData,Integer> entry : mDownstreamGeneAnnotations.entrySet())
-        {
-            final EnsemblGeneData geneData = entry.getKey();
+        final IntervalIndex<EnsemblGeneData> downstreamIndex = getDownstreamGeneIndex(chromosome);
 
-            if(matchedGenes.contains(geneData) || !geneData.Chromosome.equals(chromosome))
-                continue;
+        if(downstreamIndex == null)
+            return matchedGenes;
 
-            if((geneData.Strand == POS_STRAND && position >= geneData.GeneEnd && position <= geneData.GeneEnd + entry.getValue())
-            || (geneData.Strand == NEG_STRAND && position <= geneData.GeneStart && position >= geneData.GeneStart - entry.getValue()))
-            {
+        for(final EnsemblGeneData geneData : downstreamIndex.findOverlapping(position, position))
+        {
+            if(!matchedGenes.contains(geneData))
                 matchedGenes.add(geneData);
-            }
         }
 
         return matchedGenes;
     }
 
+    private IntervalIndex<EnsemblGeneData> getGeneIndex(final String chromosome)
+    {
+        final List<EnsemblGeneData> geneDataList = mChrGeneDataMap.get(chromosome);
+
+        if(geneDataList == null)
+            return null;
+
+        IntervalIndex<EnsemblGeneData> geneIndex = mChrGeneIndex.get(chromosome);
+
+        if(geneIndex == null || !geneIndex.matchesSource(geneDataList))
+        {
+            geneIndex = new IntervalIndex<>(geneDataList, x -> x.GeneStart, x -> x.GeneEnd);
+            mChrGeneIndex.put(chromosome, geneIndex);
+        }
+
+        return geneIndex;
+    }
+
+    private IntervalIndex<EnsemblGeneData> getDownstreamGeneIndex(final String chromosome)
+    {
+        if(mDownstreamGeneAnnotations.isEmpty())
+            return null;
+
+        if(mDownstreamIndexSize != mDownstreamGeneAnnotations.size())
+            buildDownstreamGeneIndex();
+
+        return mChrDownstreamGeneIndex.get(chromosome);
+    }
+
+    private synchronized void buildDownstreamGeneIndex()
+    {
+        if(mDownstreamIndexSize == mDownstreamGeneAnnotations.size())
+            return;
+
+        // index the region past the end of each gene within which its annotation applies
+        final Map<String,List<EnsemblGeneData>> chrGenes = Maps.newHashMap();
+        mDownstreamGeneAnnotations.keySet().forEach(x -> chrGenes.computeIfAbsent(x.Chromosome, k -> Lists.newArrayList()).add(x));
+
+        mChrDownstreamGeneIndex.keySet().retainAll(chrGenes.keySet());
+
+        for(Map.Entry<String,List<EnsemblGeneData>> entry : chrGenes.entrySet())
+        {
+            mChrDownstreamGeneIndex.put(entry.getKey(), new IntervalIndex<>(entry.getValue(),
+                    x -> x.Strand == POS_STRAND ? x.GeneEnd : x.GeneStart - mDownstreamGeneAnnotations.get(x),
+                    x -> x.Strand == POS_STRAND ? x.GeneEnd + mDownstreamGeneAnnotations.get(x) : x.GeneStart));
+        }
+
+        mDownstreamIndexSize = mDownstreamGeneAnnotations.size();
+    }
+
     public int findPrecedingGeneSpliceAcceptorPosition(int transId)
     {
         if(mTransSpliceAcceptorPosDataMap.isEmpty())
@@ -461,7 +555,8 @@ public class EnsemblDataCache
         }
         else
         {
-            for (int index = 0; index < exonList.size(); ++index)
+            // exons are ordered by position, so the first ending at or after the position either contains it or follows it
+            for (int index = findExonIndex(exonList, position); index < exonList.size(); ++index)
             {
                 final ExonData exonData = exonList.get(index);
 
@@ -569,6 +664,24 @@ public class EnsemblDataCache
         return transcript;
     }
 
+    private static int findExonIndex(final List<ExonData> exonList, int position)
+    {
+        int lower = 0;
+        int upper = exonList.size() - 1;
+
+        while(lower < upper)
+        {
+            int mid = (lower + upper) >>> 1;
+
+            if(exonList.get(mid).ExonEnd < position)
+                lower = mid + 1;
+            else
+                upper = mid;
+        }
+
+        return lower;
+    }
+
     public static int EXON_RANK_MIN = 0;
     public static int EXON_RANK_MAX = 1;
     public static int EXON_PHASE_MIN = 2;
@@ -728,6 +841,27 @@ public class EnsemblDataCache
 
     public boolean load(boolean delayTranscriptLoading)
     {
+        mSnapshot = EnsemblDataSnapshot.open(mDataPath);
+
+        if(mSnapshot != null)
+        {
+            mSnapshot.loadGeneData(mRestrictedGeneIdList, mChrGeneDataMap, mRefGenomeVersion);
+
+            if(!delayTranscriptLoading)
+            {
+                // transcripts are read per gene as requested, while the smaller protein and splice data is read up front
+                mSnapshotTranscriptsOnDemand = true;
+
+                if(mRequireProteinDomains && !mSnapshot.loadTranscriptProteinData(mEnsemblProteinDataMap, Lists.newArrayList()))
+                    return false;
+
+                if(mRequireSplicePositions && !mSnapshot.loadTranscriptSpliceAcceptorData(mTransSpliceAcceptorPosDataMap, Lists.newArrayList()))
+                    return false;
+            }
+
+            return true;
+        }
+
         if(!loadEnsemblGeneData(mDataPath, mRestrictedGeneIdList, mChrGeneDataMap, mRefGenomeVersion))
             return false;
 
@@ -748,8 +882,15 @@ public class EnsemblDataCache
 
     public boolean loadTranscriptData(final List<String> restrictedGeneIds)
     {
-        if(!EnsemblDataLoader.loadTranscriptData(mDataPath, mTranscriptDataMap, restrictedGeneIds, mRequireExons, mCanonicalTranscriptsOnly))
+        if(mSnapshot != null)
+        {
+            // only the requested genes' transcripts are read from the snapshot
+            mSnapshot.loadTranscriptData(mTranscriptDataMap, restrictedGeneIds, mRequireExons, mCanonicalTranscriptsOnly);
+        }
+        else if(!EnsemblDataLoader.loadTranscriptData(mDataPath, mTranscriptDataMap, restrictedGeneIds, mRequireExons, mCanonicalTranscriptsOnly))
+        {
             return false;
+        }
 
         List<Integer> uniqueTransIds = Lists.newArrayList();
 
@@ -762,6 +903,17 @@ public class EnsemblDataCache
             }
         }
 
+        if(mSnapshot != null)
+        {
+            if(mRequireProteinDomains && !mSnapshot.loadTranscriptProteinData(mEnsemblProteinDataMap, uniqueTransIds))
+                return false;
+
+            if(mRequireSplicePositions && !mSnapshot.loadTranscriptSpliceAcceptorData(mTransSpliceAcceptorPosDataMap, uniqueTransIds))
+                return false;
+
+            return true;
+        }
+
         if(mRequireProteinDomains && !loadTranscriptProteinData(mDataPath, mEnsemblProteinDataMap, uniqueTransIds))
             return false;
 
@@ -0,0 +1,584 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_GENE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_PROTEIN_FEATURE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_EXON_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_SPLICE_DATA_FILE;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.refGenomeChromosome;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// binary snapshot of the Ensembl data cache CSVs, memory-mapped and read without parsing text:
+// header: magic, version
+// transcripts: per gene a block of its transcripts, each with its exons as primitive arrays of starts, ends, ranks and phases
+// string pool: count, offset of each string, then each string's bytes - strings are only decoded when referenced
+// genes: count, then per gene its fields and the offset and count of its transcripts
+// splice acceptors: count, then transcript ID and position pairs
+// protein features: count, then per feature its fields, grouped by transcript
+// a count of -1 records that the splice acceptor or protein feature file was absent when the snapshot was written
+// footer: offsets of the string pool, genes, splice acceptors and protein features, magic
+// genes are read up front, while transcripts and their exons are only materialised for the genes requested
+public class EnsemblDataSnapshot
+{
+    public static final String ENSEMBL_SNAPSHOT_FILE = "ensembl_data_cache.bin";
+
+    public static final int MAGIC = 0x454E5343; // ENSC
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 2 * Integer.BYTES;
+    public static final int FOOTER_SIZE = 4 * Long.BYTES + Integer.BYTES;
+
+    private static final int NO_POSITION = -1;
+    private static final int NO_DATA = -1;
+
+    // gene ID, name, chromosome, strand, start, end, karyotype band, transcripts offset and count
+    private static final int GENE_RECORD_SIZE = 3 * Integer.BYTES + 1 + 3 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    // exon starts, ends, ranks, phases and end phases
+    private static final int EXON_FIELDS = 5;
+
+    private final String mFilename;
+    private final ByteBuffer mBuffer;
+
+    private final int mStringsOffset;
+    private final int mStringCount;
+    private final int mGenesOffset;
+    private final int mSpliceOffset;
+    private final int mProteinOffset;
+
+    private final Map<String,Integer> mGeneIndex; // by gene ID
+    private final int[] mGeneTransOffsets;
+    private final int[] mGeneTransCounts;
+
+    private static final Logger LOGGER = LogManager.getLogger(EnsemblDataSnapshot.class);
+
+    public EnsemblDataSnapshot(final String filename) throws IOException
+    {
+        mFilename = filename;
+
+        try(RandomAccessFile file = new RandomAccessFile(filename, "r"))
+        {
+            FileChannel channel = file.getChannel();
+
+            if(channel.size() < HEADER_SIZE + FOOTER_SIZE || channel.size() > Integer.MAX_VALUE)
+                throw new IOException(String.format("Ensembl snapshot(%s) has invalid size", filename));
+
+            // the mapping remains valid once the file is closed
+            mBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(mBuffer.getInt(0) != MAGIC || mBuffer.getInt(mBuffer.limit() - Integer.BYTES) != MAGIC)
+            throw new IOException(String.format("Ensembl snapshot(%s) is invalid or incomplete", filename));
+
+        int version = mBuffer.getInt(Integer.BYTES);
+
+        if(version != VERSION)
+            throw new IOException(String.format("Ensembl snapshot(%s) version(%d) not supported", filename, version));
+
+        int footerOffset = mBuffer.limit() - FOOTER_SIZE;
+        mStringsOffset = (int)mBuffer.getLong(footerOffset);
+        mGenesOffset = (int)mBuffer.getLong(footerOffset + Long.BYTES);
+        mSpliceOffset = (int)mBuffer.getLong(footerOffset + 2 * Long.BYTES);
+        mProteinOffset = (int)mBuffer.getLong(footerOffset + 3 * Long.BYTES);
+
+        mStringCount = mBuffer.getInt(mStringsOffset);
+
+        int geneCount = mBuffer.getInt(mGenesOffset);
+        mGeneIndex = Maps.newHashMapWithExpectedSize(geneCount);
+        mGeneTransOffsets = new int[geneCount];
+        mGeneTransCounts = new int[geneCount];
+
+        ByteBuffer buffer = bufferAt(mGenesOffset + Integer.BYTES);
+
+        for(int i = 0; i < geneCount; ++i)
+        {
+            mGeneIndex.put(getString(buffer.getInt()), i);
+            buffer.position(buffer.position() + GENE_RECORD_SIZE - Integer.BYTES - Long.BYTES - Integer.BYTES);
+            mGeneTransOffsets[i] = (int)buffer.getLong();
+            mGeneTransCounts[i] = buffer.getInt();
+        }
+    }
+
+    public static EnsemblDataSnapshot open(final String dataPath)
+    {
+        final File snapshotFile = new File(dataPath + ENSEMBL_SNAPSHOT_FILE);
+
+        if(!snapshotFile.exists())
+            return null;
+
+        // ignore a snapshot older than the files it was compiled from
+        final String[] csvFiles = new String[] {
+                ENSEMBL_GENE_DATA_FILE, ENSEMBL_TRANS_EXON_DATA_FILE, ENSEMBL_TRANS_SPLICE_DATA_FILE, ENSEMBL_PROTEIN_FEATURE_DATA_FILE };
+
+        for(String csvFile : csvFiles)
+        {
+            final File file = new File(dataPath + csvFile);
+
+            if(file.exists() && file.lastModified() > snapshotFile.lastModified())
+            {
+                LOGGER.warn("Ensembl snapshot({}) is older than {}, using CSV files", snapshotFile, csvFile);
+                return null;
+            }
+        }
+
+        try
+        {
+            return new EnsemblDataSnapshot(snapshotFile.getPath());
+        }
+        catch(IOException e)
+        {
+            LOGGER.warn("failed to open Ensembl snapshot({}): {}", snapshotFile, e.toString());
+            return null;
+        }
+    }
+
+    public int geneCount() { return mGeneTransOffsets.length; }
+
+    private ByteBuffer bufferAt(int offset)
+    {
+        // each reader uses its own view so the snapshot can be shared across threads
+        ByteBuffer buffer = mBuffer.duplicate();
+        buffer.position(offset);
+        return buffer;
+    }
+
+    private String getString(int index)
+    {
+        if(index < 0 || index >= mStringCount)
+            return "";
+
+        int stringOffset = mBuffer.getInt(mStringsOffset + Integer.BYTES * (1 + index));
+        ByteBuffer buffer = bufferAt(mStringsOffset + Integer.BYTES * (1 + mStringCount) + stringOffset);
+
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    public void loadGeneData(
+            final List<String> restrictedGeneIds, final Map<String,List<EnsemblGeneData>> chrGeneDataMap, RefGenomeVersion version)
+    {
+        final Set<String> geneIds = Sets.newHashSet(restrictedGeneIds);
+
+        ByteBuffer buffer = bufferAt(mGenesOffset + Integer.BYTES);
+
+        List<EnsemblGeneData> geneList = null;
+        String currentChr = "";
+        int geneCount = 0;
+
+        for(int i = 0; i < mGeneTransOffsets.length; ++i)
+        {
+            final String geneId = getString(buffer.getInt());
+
+            if(!geneIds.isEmpty() && !geneIds.contains(geneId))
+            {
+                buffer.position(buffer.position() + GENE_RECORD_SIZE - Integer.BYTES);
+                continue;
+            }
+
+            final String geneName = getString(buffer.getInt());
+            final String chromosome = refGenomeChromosome(getString(buffer.getInt()), version);
+            byte strand = buffer.get();
+            int geneStart = buffer.getInt();
+            int geneEnd = buffer.getInt();
+            final String karyotypeBand = getString(buffer.getInt());
+            buffer.position(buffer.position() + Long.BYTES + Integer.BYTES);
+
+            if(!currentChr.equals(chromosome))
+            {
+                currentChr = chromosome;
+                geneList = chrGeneDataMap.computeIfAbsent(chromosome, k -> Lists.newArrayList());
+            }
+
+            geneList.add(new EnsemblGeneData(geneId, geneName, chromosome, strand, geneStart, geneEnd, karyotypeBand));
+            ++geneCount;
+        }
+
+        LOGGER.debug("loaded {} gene records from snapshot", geneCount);
+    }
+
+    public void loadTranscriptData(
+            final Map<String,List<TranscriptData>> transcriptDataMap, final List<String> restrictedGeneIds,
+            boolean cacheExons, boolean canonicalOnly)
+    {
+        final List<String> geneIds = !restrictedGeneIds.isEmpty() ? restrictedGeneIds : Lists.newArrayList(mGeneIndex.keySet());
+
+        int transcriptCount = 0;
+
+        for(String geneId : geneIds)
+        {
+            // keep any gene's transcripts already read so callers holding them see the same instances
+            if(transcriptDataMap.containsKey(geneId))
+                continue;
+
+            final List<TranscriptData> transDataList = getTranscripts(geneId, cacheExons, canonicalOnly);
+
+            if(transDataList == null)
+                continue;
+
+            transcriptDataMap.put(geneId, transDataList);
+            transcriptCount += transDataList.size();
+        }
+
+        LOGGER.debug("loaded {} genes with {} transcripts from snapshot", transcriptDataMap.size(), transcriptCount);
+    }
+
+    public List<TranscriptData> getTranscripts(final String geneId, boolean cacheExons, boolean canonicalOnly)
+    {
+        Integer geneIndex = mGeneIndex.get(geneId);
+
+        if(geneIndex == null || mGeneTransCounts[geneIndex] == 0)
+            return null;
+
+        ByteBuffer buffer = bufferAt(mGeneTransOffsets[geneIndex]);
+
+        final List<TranscriptData> transDataList = Lists.newArrayListWithExpectedSize(mGeneTransCounts[geneIndex]);
+
+        for(int i = 0; i < mGeneTransCounts[geneIndex]; ++i)
+        {
+            int transId = buffer.getInt();
+            int transNameIndex = buffer.getInt();
+            boolean isCanonical = buffer.get() == 1;
+            byte strand = buffer.get();
+            int transStart = buffer.getInt();
+            int transEnd = buffer.getInt();
+            int codingStart = buffer.getInt();
+            int codingEnd = buffer.getInt();
+            int bioTypeIndex = buffer.getInt();
+            int exonCount = buffer.getInt();
+
+            if(!isCanonical && canonicalOnly)
+            {
+                buffer.position(buffer.position() + exonCount * EXON_FIELDS * Integer.BYTES);
+                continue;
+            }
+
+            TranscriptData transData = new TranscriptData(
+                    transId, getString(transNameIndex), geneId, isCanonical, strand, transStart, transEnd,
+                    codingStart != NO_POSITION ? codingStart : null, codingEnd != NO_POSITION ? codingEnd : null,
+                    getString(bioTypeIndex));
+
+            final List<ExonData> exonDataList = Lists.newArrayListWithExpectedSize(exonCount);
+
+            if(cacheExons || isCanonical)
+            {
+                int arrayStart = buffer.position();
+                int arrayLength = exonCount * Integer.BYTES;
+
+                for(int j = 0; j < exonCount; ++j)
+                {
+                    int fieldOffset = arrayStart + j * Integer.BYTES;
+
+                    exonDataList.add(new ExonData(transId,
+                            buffer.getInt(fieldOffset), buffer.getInt(fieldOffset + arrayLength),
+                            buffer.getInt(fieldOffset + 2 * arrayLength), buffer.getInt(fieldOffset + 3 * arrayLength),
+                            buffer.getInt(fieldOffset + 4 * arrayLength)));
+                }
+            }
+
+            buffer.position(buffer.position() + exonCount * EXON_FIELDS * Integer.BYTES);
+
+            transData.setExons(exonDataList);
+            transDataList.add(transData);
+        }
+
+        return transDataList;
+    }
+
+    public boolean loadTranscriptProteinData(
+            final Map<Integer,List<TranscriptProteinData>> proteinDataMap, final List<Integer> restrictedTransIds)
+    {
+        final Set<Integer> transIds = Sets.newHashSet(restrictedTransIds);
+
+        ByteBuffer buffer = bufferAt(mProteinOffset);
+        int featureCount = buffer.getInt();
+
+        if(featureCount == NO_DATA)
+        {
+            LOGGER.error("Ensembl snapshot({}) has no protein feature data", mFilename);
+            return false;
+        }
+
+        int currentTransId = -1;
+        List<TranscriptProteinData> transProteinDataList = null;
+
+        for(int i = 0; i < featureCount; ++i)
+        {
+            int transId = buffer.getInt();
+            int translationId = buffer.getInt();
+            int proteinFeatureId = buffer.getInt();
+            int seqStart = buffer.getInt();
+            int seqEnd = buffer.getInt();
+            int descIndex = buffer.getInt();
+
+            if(!transIds.isEmpty() && !transIds.contains(transId))
+                continue;
+
+            if(transId != currentTransId)
+            {
+                currentTransId = transId;
+                transProteinDataList = Lists.newArrayList();
+                proteinDataMap.put(transId, transProteinDataList);
+            }
+
+            transProteinDataList.add(new TranscriptProteinData(
+                    transId, translationId, proteinFeatureId, seqStart, seqEnd, getString(descIndex)));
+        }
+
+        LOGGER.debug("loaded {} protein trans records from snapshot", proteinDataMap.size());
+        return true;
+    }
+
+    public boolean loadTranscriptSpliceAcceptorData(
+            final Map<Integer,Integer> transSaPositionDataMap, final List<Integer> restrictedTransIds)
+    {
+        final Set<Integer> transIds = Sets.newHashSet(restrictedTransIds);
+
+        ByteBuffer buffer = bufferAt(mSpliceOffset);
+        int count = buffer.getInt();
+
+        if(count == NO_DATA)
+        {
+            LOGGER.error("Ensembl snapshot({}) has no splice acceptor data", mFilename);
+            return false;
+        }
+
+        for(int i = 0; i < count; ++i)
+        {
+            int transId = buffer.getInt();
+            int saPosition = buffer.getInt();
+
+            if(!transIds.isEmpty() && !transIds.contains(transId))
+                continue;
+
+            transSaPositionDataMap.put(transId, saPosition);
+        }
+
+        LOGGER.debug("loaded {} trans splice-acceptor position records from snapshot", transSaPositionDataMap.size());
+        return true;
+    }
+
+    public static boolean writeSnapshot(final String dataPath, final RefGenomeVersion version)
+    {
+        // compile the Ensembl CSV files in this directory into a snapshot alongside them
+        final Map<String,List<EnsemblGeneData>> chrGeneDataMap = Maps.newLinkedHashMap();
+        final Map<String,List<TranscriptData>> transcriptDataMap = Maps.newHashMap();
+        final Map<Integer,List<TranscriptProteinData>> proteinDataMap = Maps.newLinkedHashMap();
+        final Map<Integer,Integer> transSaPositionDataMap = Maps.newLinkedHashMap();
+
+        if(!EnsemblDataLoader.loadEnsemblGeneData(dataPath, Lists.newArrayList(), chrGeneDataMap, version)
+        || !EnsemblDataLoader.loadTranscriptData(dataPath, transcriptDataMap, Lists.newArrayList(), true, false))
+        {
+            LOGGER.error("failed to load Ensembl gene and transcript data from {}", dataPath);
+            return false;
+        }
+
+        // protein features and splice acceptor positions are optional, so their absence is recorded for the loaders to report
+        boolean hasProteinData = EnsemblDataLoader.loadTranscriptProteinData(dataPath, proteinDataMap, Lists.newArrayList());
+        boolean hasSpliceData = EnsemblDataLoader.loadTranscriptSpliceAcceptorData(dataPath, transSaPositionDataMap, Lists.newArrayList());
+
+        if(!hasProteinData)
+            proteinDataMap.clear();
+
+        if(!hasSpliceData)
+            transSaPositionDataMap.clear();
+
+        final String filename = dataPath + ENSEMBL_SNAPSHOT_FILE;
+        final String tempFilename = filename + ".tmp";
+
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFilename))))
+        {
+            final StringPool stringPool = new StringPool();
+
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+
+            final List<EnsemblGeneData> geneList = Lists.newArrayList();
+            chrGeneDataMap.values().forEach(geneList::addAll);
+
+            final long[] transOffsets = new long[geneList.size()];
+            final int[] transCounts = new int[geneList.size()];
+
+            for(int i = 0; i < geneList.size(); ++i)
+            {
+                transOffsets[i] = outputStream.size();
+
+                final List<TranscriptData> transDataList = transcriptDataMap.get(geneList.get(i).GeneId);
+
+                if(transDataList == null)
+                    continue;
+
+                transCounts[i] = transDataList.size();
+
+                for(TranscriptData transData : transDataList)
+                {
+                    outputStream.writeInt(transData.TransId);
+                    outputStream.writeInt(stringPool.index(transData.TransName));
+                    outputStream.writeByte(transData.IsCanonical ? 1 : 0);
+                    outputStream.writeByte(transData.Strand);
+                    outputStream.writeInt(transData.TransStart);
+                    outputStream.writeInt(transData.TransEnd);
+                    outputStream.writeInt(transData.CodingStart != null ? transData.CodingStart : NO_POSITION);
+                    outputStream.writeInt(transData.CodingEnd != null ? transData.CodingEnd : NO_POSITION);
+                    outputStream.writeInt(stringPool.index(transData.BioType));
+
+                    final List<ExonData> exons = transData.exons();
+                    outputStream.writeInt(exons.size());
+
+                    for(ExonData exon : exons)
+                        outputStream.writeInt(exon.ExonStart);
+
+                    for(ExonData exon : exons)
+                        outputStream.writeInt(exon.ExonEnd);
+
+                    for(ExonData exon : exons)
+                        outputStream.writeInt(exon.ExonRank);
+
+                    for(ExonData exon : exons)
+                        outputStream.writeInt(exon.ExonPhase);
+
+                    for(ExonData exon : exons)
+                        outputStream.writeInt(exon.ExonPhaseEnd);
+                }
+            }
+
+            // register the remaining strings before the pool is written
+            final int[][] geneStrings = new int[geneList.size()][];
+
+            for(int i = 0; i < geneList.size(); ++i)
+            {
+                final EnsemblGeneData geneData = geneList.get(i);
+
+                geneStrings[i] = new int[] {
+                        stringPool.index(geneData.GeneId), stringPool.index(geneData.GeneName),
+                        stringPool.index(geneData.Chromosome), stringPool.index(geneData.KaryotypeBand) };
+            }
+
+            final List<TranscriptProteinData> proteinFeatures = Lists.newArrayList();
+            proteinDataMap.values().forEach(proteinFeatures::addAll);
+            final int[] descIndices = proteinFeatures.stream().mapToInt(x -> stringPool.index(x.HitDescription)).toArray();
+
+            long stringsOffset = outputStream.size();
+            stringPool.write(outputStream);
+
+            long genesOffset = outputStream.size();
+            outputStream.writeInt(geneList.size());
+
+            for(int i = 0; i < geneList.size(); ++i)
+            {
+                final EnsemblGeneData geneData = geneList.get(i);
+
+                outputStream.writeInt(geneStrings[i][0]);
+                outputStream.writeInt(geneStrings[i][1]);
+                outputStream.writeInt(geneStrings[i][2]);
+                outputStream.writeByte(geneData.Strand);
+                outputStream.writeInt(geneData.GeneStart);
+                outputStream.writeInt(geneData.GeneEnd);
+                outputStream.writeInt(geneStrings[i][3]);
+                outputStream.writeLong(transOffsets[i]);
+                outputStream.writeInt(transCounts[i]);
+            }
+
+            long spliceOffset = outputStream.size();
+            outputStream.writeInt(hasSpliceData ? transSaPositionDataMap.size() : NO_DATA);
+
+            for(Map.Entry<Integer,Integer> entry : transSaPositionDataMap.entrySet())
+            {
+                outputStream.writeInt(entry.getKey());
+                outputStream.writeInt(entry.getValue());
+            }
+
+            long proteinOffset = outputStream.size();
+            outputStream.writeInt(hasProteinData ? proteinFeatures.size() : NO_DATA);
+
+            for(int i = 0; i < proteinFeatures.size(); ++i)
+            {
+                final TranscriptProteinData proteinData = proteinFeatures.get(i);
+
+                outputStream.writeInt(proteinData.TranscriptId);
+                outputStream.writeInt(proteinData.TranslationId);
+                outputStream.writeInt(proteinData.ProteinFeatureId);
+                outputStream.writeInt(proteinData.SeqStart);
+                outputStream.writeInt(proteinData.SeqEnd);
+                outputStream.writeInt(descIndices[i]);
+            }
+
+            outputStream.writeLong(stringsOffset);
+            outputStream.writeLong(genesOffset);
+            outputStream.writeLong(spliceOffset);
+            outputStream.writeLong(proteinOffset);
+            outputStream.writeInt(MAGIC);
+
+            // the stream's byte count stops at the maximum int value, beyond which offsets can't be mapped
+            if(outputStream.size() == Integer.MAX_VALUE)
+                throw new IOException("snapshot exceeds maximum size");
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write Ensembl snapshot({}): {}", filename, e.toString());
+            new File(tempFilename).delete();
+            return false;
+        }
+
+        if(!new File(tempFilename).renameTo(new File(filename)))
+        {
+            LOGGER.error("failed to write Ensembl snapshot({})", filename);
+            return false;
+        }
+
+        LOGGER.info("wrote Ensembl snapshot({}) with {} genes", filename, chrGeneDataMap.values().stream().mapToInt(List::size).sum());
+        return true;
+    }
+
+    private static class StringPool
+    {
+        private final Map<String,Integer> mIndices = Maps.newHashMap();
+        private final List<String> mStrings = Lists.newArrayList();
+
+        public int index(final String value)
+        {
+            return mIndices.computeIfAbsent(value != null ? value : "", k -> { mStrings.add(k); return mStrings.size() - 1; });
+        }
+
+        public void write(final DataOutputStream outputStream) throws IOException
+        {
+            outputStream.writeInt(mStrings.size());
+
+            final List<byte[]> encoded = Lists.newArrayListWithExpectedSize(mStrings.size());
+            int offset = 0;
+
+            for(String value : mStrings)
+            {
+                byte[] bytes = value.getBytes(UTF_8);
+                encoded.add(bytes);
+                outputStream.writeInt(offset);
+                offset += Short.BYTES + bytes.length;
+            }
+
+            for(byte[] bytes : encoded)
+            {
+                outputStream.writeShort(bytes.length);
+                outputStream.write(bytes);
+            }
+        }
+    }
+}
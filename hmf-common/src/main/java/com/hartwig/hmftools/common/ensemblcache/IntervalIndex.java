@@ -0,0 +1,190 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import com.google.common.collect.Lists;
+
+// static index of items with an inclusive start and end position, used to find all items overlapping a region in
+// O(log n) plus the number of matches - the items are sorted by start and form an implicit binary tree, with each
+// node holding the maximum end position of its sub-tree
+public class IntervalIndex<T>
+{
+    private final List<T> mSource;
+    private final int mSourceSize;
+
+    private final int[] mOrder; // index of each sorted item in the source list
+    private final int[] mStarts;
+    private final int[] mEnds;
+    private final int[] mMaxEnds;
+    private final int mMaxLevel;
+
+    // sub-trees at or below this level are scanned rather than traversed
+    private static final int SCAN_LEVEL = 3;
+
+    public IntervalIndex(final List<T> items, final ToIntFunction<T> startFunc, final ToIntFunction<T> endFunc)
+    {
+        mSource = items;
+        mSourceSize = items.size();
+
+        int count = items.size();
+
+        Integer[] order = new Integer[count];
+
+        for(int i = 0; i < count; ++i)
+        {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, Comparator.comparingInt(x -> startFunc.applyAsInt(items.get(x))));
+
+        mOrder = new int[count];
+        mStarts = new int[count];
+        mEnds = new int[count];
+        mMaxEnds = new int[count];
+
+        for(int i = 0; i < count; ++i)
+        {
+            mOrder[i] = order[i];
+            mStarts[i] = startFunc.applyAsInt(items.get(order[i]));
+            mEnds[i] = endFunc.applyAsInt(items.get(order[i]));
+        }
+
+        mMaxLevel = buildTree();
+    }
+
+    // whether the index was built from this list in its current state
+    public boolean matchesSource(final List<T> items)
+    {
+        return mSource == items && mSourceSize == items.size();
+    }
+
+    public int size() { return mOrder.length; }
+
+    private int buildTree()
+    {
+        int count = mStarts.length;
+
+        if(count == 0)
+            return -1;
+
+        // leaves are at even indices
+        int lastIndex = 0;
+        int lastMaxEnd = 0;
+
+        for(int i = 0; i < count; i += 2)
+        {
+            lastIndex = i;
+            lastMaxEnd = mMaxEnds[i] = mEnds[i];
+        }
+
+        int level = 1;
+
+        for(; (1 << level) <= count; ++level)
+        {
+            int childOffset = 1 << (level - 1);
+            int step = childOffset << 2;
+
+            for(int i = (childOffset << 1) - 1; i < count; i += step)
+            {
+                int leftMaxEnd = mMaxEnds[i - childOffset];
+                int rightMaxEnd = i + childOffset < count ? mMaxEnds[i + childOffset] : lastMaxEnd;
+                mMaxEnds[i] = max(mEnds[i], max(leftMaxEnd, rightMaxEnd));
+            }
+
+            // track the node covering the last item, whose right sub-tree may be incomplete
+            lastIndex = ((lastIndex >> level) & 1) != 0 ? lastIndex - childOffset : lastIndex + childOffset;
+
+            if(lastIndex < count && mMaxEnds[lastIndex] > lastMaxEnd)
+                lastMaxEnd = mMaxEnds[lastIndex];
+        }
+
+        return level - 1;
+    }
+
+    public List<T> findOverlapping(int posStart, int posEnd)
+    {
+        final List<T> items = Lists.newArrayList();
+
+        int count = mStarts.length;
+
+        if(count == 0)
+            return items;
+
+        final List<Integer> matchedIndices = Lists.newArrayList();
+
+        // each stack entry holds a node index, its level and whether its left sub-tree has been visited
+        int[] stackNodes = new int[64];
+        int[] stackLevels = new int[64];
+        boolean[] stackVisited = new boolean[64];
+        int stackSize = 0;
+
+        stackNodes[0] = (1 << mMaxLevel) - 1;
+        stackLevels[0] = mMaxLevel;
+        stackVisited[0] = false;
+        stackSize = 1;
+
+        while(stackSize > 0)
+        {
+            --stackSize;
+            int node = stackNodes[stackSize];
+            int level = stackLevels[stackSize];
+            boolean leftVisited = stackVisited[stackSize];
+
+            if(level <= SCAN_LEVEL)
+            {
+                int first = node >> level << level;
+                int last = Math.min(first + (1 << (level + 1)) - 1, count);
+
+                for(int i = first; i < last && mStarts[i] <= posEnd; ++i)
+                {
+                    if(mEnds[i] >= posStart)
+                        matchedIndices.add(mOrder[i]);
+                }
+            }
+            else if(!leftVisited)
+            {
+                int leftChild = node - (1 << (level - 1));
+
+                stackNodes[stackSize] = node;
+                stackLevels[stackSize] = level;
+                stackVisited[stackSize] = true;
+                ++stackSize;
+
+                // skip the left sub-tree if none of its items extend to the region
+                if(leftChild >= count || mMaxEnds[leftChild] >= posStart)
+                {
+                    stackNodes[stackSize] = leftChild;
+                    stackLevels[stackSize] = level - 1;
+                    stackVisited[stackSize] = false;
+                    ++stackSize;
+                }
+            }
+            else if(node < count && mStarts[node] <= posEnd)
+            {
+                if(mEnds[node] >= posStart)
+                    matchedIndices.add(mOrder[node]);
+
+                stackNodes[stackSize] = node + (1 << (level - 1));
+                stackLevels[stackSize] = level - 1;
+                stackVisited[stackSize] = false;
+                ++stackSize;
+            }
+        }
+
+        // return matches in their source order
+        Collections.sort(matchedIndices);
+
+        for(Integer index : matchedIndices)
+        {
+            items.add(mSource.get(index));
+        }
+
+        return items;
+    }
+}
@@ -12,7 +12,12 @@ public interface GCBucket {
 
     @NotNull
     static GCBucket create(@NotNull final GCProfile profile) {
-        return new ImmutableGCBucket((int) Math.round(profile.gcContent() * 100));
+        return create(profile.gcContent());
+    }
+
+    @NotNull
+    static GCBucket create(double gcContent) {
+        return new ImmutableGCBucket((int) Math.round(gcContent * 100));
     }
 
     int bucket();
@@ -27,8 +27,10 @@ public class GCMedianReadCountBuilder {
     }
 
     public void add(@NotNull final GCProfile profile, int readCount) {
-        final GCBucket gcBucket = GCBucket.create(profile);
+        add(GCBucket.create(profile), readCount);
+    }
 
+    public void add(@NotNull final GCBucket gcBucket, int readCount) {
         if (gcBucket.bucket() >= MIN_BUCKET && gcBucket.bucket() <= MAX_BUCKET) {
             medianSample.addRead(readCount);
             medianPerGCBucket.computeIfAbsent(gcBucket, integer -> new ReadCountMedian()).addRead(readCount);
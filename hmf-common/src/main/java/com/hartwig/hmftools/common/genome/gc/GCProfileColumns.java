@@ -0,0 +1,108 @@
+package com.hartwig.hmftools.common.genome.gc;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+import com.hartwig.hmftools.common.utils.Doubles;
+import com.hartwig.hmftools.common.utils.io.column.ChromosomeColumns;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Zero-copy view of the gc profile of a single chromosome.
+ */
+public class GCProfileColumns {
+
+    static final String START = "start";
+    static final String GC_CONTENT = "gcContent";
+    static final String NON_N_PERCENTAGE = "nonNPercentage";
+    static final String MAPPABLE_PERCENTAGE = "mappablePercentage";
+
+    private final String chromosome;
+    private final int size;
+    private final int windowSize;
+    private final IntBuffer start;
+    private final DoubleBuffer gcContent;
+    private final DoubleBuffer nonNPercentage;
+    private final DoubleBuffer mappablePercentage;
+
+    GCProfileColumns(int windowSize, @NotNull final ChromosomeColumns columns) {
+        this.windowSize = windowSize;
+        chromosome = columns.chromosome();
+        size = columns.rows();
+        start = columns.intColumn(START);
+        gcContent = columns.doubleColumn(GC_CONTENT);
+        nonNPercentage = columns.doubleColumn(NON_N_PERCENTAGE);
+        mappablePercentage = columns.doubleColumn(MAPPABLE_PERCENTAGE);
+    }
+
+    @NotNull
+    public String chromosome() {
+        return chromosome;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long start(int index) {
+        return start.get(index);
+    }
+
+    public long end(int index) {
+        return start(index) + windowSize - 1;
+    }
+
+    /**
+     * Index of the first window starting at or after the given position, or size if there is none.
+     */
+    public int lowerBound(long position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (start(mid) < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the window containing the given position, or -1 if there is none.
+     */
+    public int indexOf(long position) {
+        final int index = lowerBound(position + 1) - 1;
+        return index >= 0 && end(index) >= position ? index : -1;
+    }
+
+    public double gcContent(int index) {
+        return gcContent.get(index);
+    }
+
+    public double nonNPercentage(int index) {
+        return nonNPercentage.get(index);
+    }
+
+    public double mappablePercentage(int index) {
+        return mappablePercentage.get(index);
+    }
+
+    public boolean isMappable(int index) {
+        return Doubles.greaterOrEqual(mappablePercentage(index), GCProfile.MIN_MAPPABLE_PERCENTAGE);
+    }
+
+    @NotNull
+    public GCProfile get(int index) {
+        return ImmutableGCProfile.builder()
+                .chromosome(chromosome)
+                .start(start(index))
+                .end(end(index))
+                .gcContent(gcContent(index))
+                .nonNPercentage(nonNPercentage(index))
+                .mappablePercentage(mappablePercentage(index))
+                .build();
+    }
+}
@@ -2,12 +2,19 @@ package com.hartwig.hmftools.common.genome.gc;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.io.column.ChromosomeColumns;
+import com.hartwig.hmftools.common.utils.io.column.ColumnarFile;
 import com.hartwig.hmftools.common.utils.io.reader.LineReader;
 
 import org.jetbrains.annotations.NotNull;
@@ -24,11 +31,103 @@ public final class GCProfileFactory {
     private GCProfileFactory() {
     }
 
+    /**
+     * Loads either the binary or the tsv gc profile.
+     */
     @NotNull
     public static Multimap<Chromosome, GCProfile> loadGCContent(int windowSize, @NotNull final String fileName) throws IOException {
+        if (ColumnarFile.isColumnarFile(fileName)) {
+            final Multimap<Chromosome, GCProfile> result = ArrayListMultimap.create();
+            for (Map.Entry<Chromosome, GCProfileColumns> entry : loadColumns(windowSize, fileName).entrySet()) {
+                final GCProfileColumns columns = entry.getValue();
+                for (int i = 0; i < columns.size(); i++) {
+                    result.put(entry.getKey(), columns.get(i));
+                }
+            }
+            return result;
+        }
+
         return loadGCContent(windowSize, LineReader.build().readLines(new File(fileName).toPath(), x -> true));
     }
 
+    /**
+     * Loads either the binary or the tsv gc profile as a view of the columns of each chromosome. The tsv is read straight into
+     * columns, without creating a GCProfile for each window.
+     */
+    @NotNull
+    public static Map<Chromosome, GCProfileColumns> loadColumns(int windowSize, @NotNull final String fileName) throws IOException {
+        final List<ChromosomeColumns> chromosomes = ColumnarFile.isColumnarFile(fileName)
+                ? ColumnarFile.read(fileName)
+                : fromLines(LineReader.build().readLines(new File(fileName).toPath(), x -> true));
+        return toColumns(windowSize, chromosomes);
+    }
+
+    @NotNull
+    public static Map<Chromosome, GCProfileColumns> toColumns(int windowSize, @NotNull final Multimap<Chromosome, GCProfile> profiles) {
+        return toColumns(windowSize, chromosomeColumns(profiles));
+    }
+
+    public static void writeBinary(@NotNull final String fileName, @NotNull final Multimap<Chromosome, GCProfile> profiles)
+            throws IOException {
+        ColumnarFile.write(fileName, chromosomeColumns(profiles));
+    }
+
+    @NotNull
+    private static Map<Chromosome, GCProfileColumns> toColumns(int windowSize, @NotNull final List<ChromosomeColumns> chromosomes) {
+        final Map<Chromosome, GCProfileColumns> result = Maps.newLinkedHashMap();
+        for (ChromosomeColumns columns : chromosomes) {
+            result.put(HumanChromosome.fromString(columns.chromosome()), new GCProfileColumns(windowSize, columns));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<ChromosomeColumns> chromosomeColumns(@NotNull final Multimap<Chromosome, GCProfile> profiles) {
+        final List<ChromosomeColumns> chromosomes = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final List<GCProfile> sorted = Lists.newArrayList(profiles.get(chromosome));
+            if (sorted.isEmpty()) {
+                continue;
+            }
+
+            sorted.sort(Comparator.comparingLong(GCProfile::start));
+            final ColumnBuilder builder = new ColumnBuilder(sorted.get(0).chromosome(), sorted.size());
+            for (GCProfile profile : sorted) {
+                builder.add(profile.start(), profile.gcContent(), profile.nonNPercentage(), profile.mappablePercentage());
+            }
+            chromosomes.add(builder.build());
+        }
+
+        return chromosomes;
+    }
+
+    @NotNull
+    private static List<ChromosomeColumns> fromLines(@NotNull final List<String> lines) {
+        final Map<String, Integer> rows = Maps.newLinkedHashMap();
+        for (String line : lines) {
+            final String chromosome = line.substring(0, line.indexOf(RATIO_COLUMN_SEPARATOR)).trim();
+            if (HumanChromosome.contains(chromosome)) {
+                rows.merge(chromosome, 1, Integer::sum);
+            }
+        }
+
+        final Map<String, ColumnBuilder> builders = Maps.newLinkedHashMap();
+        rows.forEach((chromosome, size) -> builders.put(chromosome, new ColumnBuilder(chromosome, size)));
+
+        for (String line : lines) {
+            final String[] values = line.split(RATIO_COLUMN_SEPARATOR);
+            final ColumnBuilder builder = builders.get(values[CHROMOSOME_COLUMN].trim());
+            if (builder != null) {
+                builder.add(Long.parseLong(values[START_FIELD_COLUMN].trim()) + 1, // GCProfile is zero-indexed
+                        Double.parseDouble(values[GC_CONTENT_COLUMN].trim()),
+                        Double.parseDouble(values[NON_N_PERCENTAGE_COLUMN].trim()),
+                        Double.parseDouble(values[MAPPABLE_PERCENTAGE_COLUMN].trim()));
+            }
+        }
+
+        return builders.values().stream().map(ColumnBuilder::build).collect(Collectors.toList());
+    }
+
     @NotNull
     private static Multimap<Chromosome, GCProfile> loadGCContent(int windowSize, @NotNull final List<String> lines) {
         final Multimap<Chromosome, GCProfile> result = ArrayListMultimap.create();
@@ -61,4 +160,38 @@ public final class GCProfileFactory {
                 .mappablePercentage(mappablePercentage)
                 .build();
     }
+
+    private static class ColumnBuilder {
+
+        private final String chromosome;
+        private final int[] start;
+        private final double[] gcContent;
+        private final double[] nonNPercentage;
+        private final double[] mappablePercentage;
+        private int size;
+
+        ColumnBuilder(@NotNull final String chromosome, int rows) {
+            this.chromosome = chromosome;
+            start = new int[rows];
+            gcContent = new double[rows];
+            nonNPercentage = new double[rows];
+            mappablePercentage = new double[rows];
+        }
+
+        void add(long start, double gcContent, double nonNPercentage, double mappablePercentage) {
+            this.start[size] = Math.toIntExact(start);
+            this.gcContent[size] = gcContent;
+            this.nonNPercentage[size] = nonNPercentage;
+            this.mappablePercentage[size] = mappablePercentage;
+            size++;
+        }
+
+        @NotNull
+        ChromosomeColumns build() {
+            return new ChromosomeColumns(chromosome, size).add(GCProfileColumns.START, start)
+                    .add(GCProfileColumns.GC_CONTENT, gcContent)
+                    .add(GCProfileColumns.NON_N_PERCENTAGE, nonNPercentage)
+                    .add(GCProfileColumns.MAPPABLE_PERCENTAGE, mappablePercentage);
+        }
+    }
 }
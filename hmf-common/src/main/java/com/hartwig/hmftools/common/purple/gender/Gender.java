@@ -1,9 +1,11 @@
 package com.hartwig.hmftools.common.purple.gender;
 
+import java.util.Map;
+
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberBAF;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.cobalt.ReferenceRatioStatistics;
 import com.hartwig.hmftools.common.cobalt.ReferenceRatioStatisticsFactory;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
@@ -25,7 +27,7 @@ public enum Gender {
     }
 
     @NotNull
-    public static Gender fromCobalt(@NotNull final Multimap<Chromosome, CobaltRatio> readRatios) {
+    public static Gender fromCobalt(@NotNull final Map<Chromosome, CobaltRatioColumns> readRatios) {
         return fromCobalt(ReferenceRatioStatisticsFactory.fromCobalt(readRatios));
     }
 
@@ -0,0 +1,215 @@
+package com.hartwig.hmftools.common.purple.purity;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.Doubles;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Searches the purity and norm factor grid coarse to fine. Every COARSE_STEP-th purity and norm factor is scored first. The best
+ * coarse local minima, and the best coarse fit of each purity that may be within range of the lowest score, are then refined by
+ * scoring every grid point within one coarse step of them. Points outside these neighbourhoods are never scored.
+ */
+class AdaptiveGridSearch {
+
+    static final int COARSE_STEP = 5;
+    static final int MAX_BASINS = 5;
+
+    // Twice the range of BestFitFactory as coarse scores overestimate the minimum of their neighbourhood
+    private static final double SEED_PERCENT_RANGE = 0.2;
+    private static final double SEED_ABS_RANGE = 0.001;
+
+    interface PurityFit {
+
+        /**
+         * Returns the fits of a single purity at each of the norm factors, or null where the implied ploidy is out of range.
+         */
+        @NotNull
+        FittedPurity[] fit(int purityIndex, @NotNull int[] normFactorIndexes);
+    }
+
+    private final ExecutorService executorService;
+    private final int purities;
+    private final int normFactors;
+    private final PurityFit purityFit;
+
+    private final FittedPurity[][] grid;
+    private final boolean[][] scored;
+
+    AdaptiveGridSearch(@NotNull final ExecutorService executorService, int purities, int normFactors, @NotNull final PurityFit purityFit) {
+        this.executorService = executorService;
+        this.purities = purities;
+        this.normFactors = normFactors;
+        this.purityFit = purityFit;
+        this.grid = new FittedPurity[purities][normFactors];
+        this.scored = new boolean[purities][normFactors];
+    }
+
+    /**
+     * Returns the scored fits of each purity, best first.
+     */
+    @NotNull
+    List<List<FittedPurity>> search() throws ExecutionException, InterruptedException {
+        final int[] coarsePurities = coarse(purities);
+        final int[] coarseNormFactors = coarse(normFactors);
+
+        final boolean[][] requested = new boolean[purities][normFactors];
+        for (int purity : coarsePurities) {
+            for (int normFactor : coarseNormFactors) {
+                requested[purity][normFactor] = true;
+            }
+        }
+        score(requested);
+
+        final boolean[][] refine = new boolean[purities][normFactors];
+        for (int[] seed : seeds(coarsePurities, coarseNormFactors)) {
+            for (int purity = Math.max(0, seed[0] - COARSE_STEP); purity <= Math.min(purities - 1, seed[0] + COARSE_STEP); purity++) {
+                for (int normFactor = Math.max(0, seed[1] - COARSE_STEP); normFactor <= Math.min(normFactors - 1, seed[1] + COARSE_STEP);
+                        normFactor++) {
+                    refine[purity][normFactor] = true;
+                }
+            }
+        }
+        score(refine);
+
+        final List<List<FittedPurity>> result = Lists.newArrayList();
+        for (FittedPurity[] purityFits : grid) {
+            final List<FittedPurity> fits = Lists.newArrayList();
+            for (FittedPurity fit : purityFits) {
+                if (fit != null) {
+                    fits.add(fit);
+                }
+            }
+            fits.sort(Comparator.naturalOrder());
+            result.add(fits);
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private List<int[]> seeds(@NotNull final int[] coarsePurities, @NotNull final int[] coarseNormFactors) {
+        final List<int[]> minima = Lists.newArrayList();
+        final List<int[]> bestPerPurity = Lists.newArrayList();
+        double lowestScore = Double.MAX_VALUE;
+
+        for (int i = 0; i < coarsePurities.length; i++) {
+            int[] purityBest = null;
+            for (int j = 0; j < coarseNormFactors.length; j++) {
+                final FittedPurity fit = grid[coarsePurities[i]][coarseNormFactors[j]];
+                if (fit == null) {
+                    continue;
+                }
+
+                if (purityBest == null || fit.score() < grid[purityBest[0]][purityBest[1]].score()) {
+                    purityBest = new int[] { coarsePurities[i], coarseNormFactors[j] };
+                }
+
+                if (isLocalMinimum(fit, coarsePurities, coarseNormFactors, i, j)) {
+                    minima.add(new int[] { coarsePurities[i], coarseNormFactors[j] });
+                }
+            }
+
+            if (purityBest != null) {
+                bestPerPurity.add(purityBest);
+                lowestScore = Math.min(lowestScore, grid[purityBest[0]][purityBest[1]].score());
+            }
+        }
+
+        minima.sort(Comparator.comparingDouble(x -> grid[x[0]][x[1]].score()));
+        final List<int[]> result = Lists.newArrayList(minima.subList(0, Math.min(MAX_BASINS, minima.size())));
+        for (int[] seed : bestPerPurity) {
+            if (inSeedRange(lowestScore, grid[seed[0]][seed[1]].score())) {
+                result.add(seed);
+            }
+        }
+
+        return result;
+    }
+
+    private boolean isLocalMinimum(@NotNull final FittedPurity fit, @NotNull final int[] coarsePurities,
+            @NotNull final int[] coarseNormFactors, int i, int j) {
+        for (int di = -1; di <= 1; di++) {
+            for (int dj = -1; dj <= 1; dj++) {
+                final int ni = i + di;
+                final int nj = j + dj;
+                if ((di == 0 && dj == 0) || ni < 0 || nj < 0 || ni >= coarsePurities.length || nj >= coarseNormFactors.length) {
+                    continue;
+                }
+
+                final FittedPurity neighbour = grid[coarsePurities[ni]][coarseNormFactors[nj]];
+                if (neighbour != null && neighbour.score() < fit.score()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean inSeedRange(double lowestScore, double score) {
+        final double absDifference = Math.abs(score - lowestScore);
+        return Doubles.lessOrEqual(absDifference, SEED_ABS_RANGE) || Doubles.lessOrEqual(absDifference / lowestScore, SEED_PERCENT_RANGE);
+    }
+
+    private void score(@NotNull final boolean[][] requested) throws ExecutionException, InterruptedException {
+        final List<Integer> purityIndexes = Lists.newArrayList();
+        final List<int[]> normFactorIndexes = Lists.newArrayList();
+        final List<Future<FittedPurity[]>> futures = Lists.newArrayList();
+        for (int purity = 0; purity < purities; purity++) {
+            final int[] unscored = unscored(requested[purity], scored[purity]);
+            if (unscored.length > 0) {
+                final int purityIndex = purity;
+                purityIndexes.add(purityIndex);
+                normFactorIndexes.add(unscored);
+                futures.add(executorService.submit(() -> purityFit.fit(purityIndex, unscored)));
+            }
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            final FittedPurity[] fits = futures.get(i).get();
+            final FittedPurity[] purityGrid = grid[purityIndexes.get(i)];
+            final int[] indexes = normFactorIndexes.get(i);
+            for (int j = 0; j < indexes.length; j++) {
+                purityGrid[indexes[j]] = fits[j];
+            }
+        }
+    }
+
+    @NotNull
+    private static int[] unscored(@NotNull final boolean[] requested, @NotNull final boolean[] scored) {
+        int count = 0;
+        for (int i = 0; i < requested.length; i++) {
+            if (requested[i] && !scored[i]) {
+                count++;
+            }
+        }
+
+        final int[] result = new int[count];
+        count = 0;
+        for (int i = 0; i < requested.length; i++) {
+            if (requested[i] && !scored[i]) {
+                result[count++] = i;
+                scored[i] = true;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static int[] coarse(int size) {
+        final List<Integer> result = Lists.newArrayList();
+        for (int i = 0; i < size; i += COARSE_STEP) {
+            result.add(i);
+        }
+        if (size > 0 && result.get(result.size() - 1) != size - 1) {
+            result.add(size - 1);
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
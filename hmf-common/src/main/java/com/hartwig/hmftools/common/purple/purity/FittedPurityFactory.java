@@ -19,8 +19,8 @@ import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.gender.Gender;
-import com.hartwig.hmftools.common.purple.region.FittedRegion;
 import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
+import com.hartwig.hmftools.common.purple.region.FittedRegionScorer;
 import com.hartwig.hmftools.common.purple.region.GermlineStatus;
 import com.hartwig.hmftools.common.purple.region.ObservedRegion;
 import com.hartwig.hmftools.common.utils.Doubles;
@@ -38,17 +38,18 @@ public class FittedPurityFactory {
     private final Gender gender;
     private final double minPurity;
     private final double maxPurity;
-    private final int totalBAFCount;
     private final double purityIncrements;
     private final double normFactorIncrements;
     private final double minNormFactor;
     private final double maxNormFactor;
     private final double somaticPenaltyWeight;
+    private final boolean adaptiveSearch;
 
     @NotNull
     private final FittedRegionFactory fittedRegionFactory;
     private final ExecutorService executorService;
-    private final Collection<SomaticVariant> variants;
+    private final SomaticPenaltyFactory somaticPenaltyFactory;
+    private final double[] bafWeight;
 
     private final List<FittedPurity> all = Lists.newArrayList();
     private final List<FittedPurity> bestScoringPerPurity = Lists.newArrayList();
@@ -56,9 +57,9 @@ public class FittedPurityFactory {
 
     public FittedPurityFactory(final ExecutorService executorService, final Gender gender, final int maxPloidy, final double minPurity,
             final double maxPurity, final double purityIncrements, final double minNormFactor, final double maxNormFactor,
-            final double normFactorIncrements, final double somaticPenaltyWeight, @NotNull final FittedRegionFactory fittedRegionFactory,
-            @NotNull final Collection<ObservedRegion> observedRegions, @NotNull final Collection<SomaticVariant> variants)
-            throws ExecutionException, InterruptedException {
+            final double normFactorIncrements, final double somaticPenaltyWeight, final boolean adaptiveSearch,
+            @NotNull final FittedRegionFactory fittedRegionFactory, @NotNull final Collection<ObservedRegion> observedRegions,
+            @NotNull final Collection<SomaticVariant> variants) throws ExecutionException, InterruptedException {
         this.executorService = executorService;
         this.maxPloidy = maxPloidy;
         this.minPurity = minPurity;
@@ -68,6 +69,7 @@ public class FittedPurityFactory {
         this.maxNormFactor = maxNormFactor;
         this.normFactorIncrements = normFactorIncrements;
         this.somaticPenaltyWeight = somaticPenaltyWeight;
+        this.adaptiveSearch = adaptiveSearch;
         this.fittedRegionFactory = fittedRegionFactory;
         this.gender = gender;
 
@@ -84,10 +86,19 @@ public class FittedPurityFactory {
                 variantSelector.select(region, filteredVariants::add);
             }
         }
-        this.variants = Downsample.downsample(MAX_SOMATICS_TO_FIT, filteredVariants);
-        this.totalBAFCount = filteredRegions.stream().mapToInt(ObservedRegion::bafCount).sum();
+        this.somaticPenaltyFactory =
+                new SomaticPenaltyFactory(gender, filteredRegions, Downsample.downsample(MAX_SOMATICS_TO_FIT, filteredVariants));
+        final int totalBAFCount = filteredRegions.stream().mapToInt(ObservedRegion::bafCount).sum();
+        this.bafWeight = new double[filteredRegions.size()];
+        for (int i = 0; i < filteredRegions.size(); i++) {
+            bafWeight[i] = 1d * filteredRegions.get(i).bafCount() / totalBAFCount;
+        }
 
-        fitPurity();
+        if (adaptiveSearch) {
+            adaptiveFitPurity();
+        } else {
+            fitPurity();
+        }
     }
 
     public List<FittedPurity> bestFitPerPurity() {
@@ -117,6 +128,52 @@ public class FittedPurityFactory {
         Collections.sort(bestScoringPerPurity);
     }
 
+    private void adaptiveFitPurity() throws ExecutionException, InterruptedException {
+        final double[] purities = steps(minPurity, maxPurity, purityIncrements);
+        final double[] normFactors = steps(minNormFactor, maxNormFactor, normFactorIncrements);
+
+        final AdaptiveGridSearch search = new AdaptiveGridSearch(executorService,
+                purities.length,
+                normFactors.length,
+                (purityIndex, normFactorIndexes) -> fitPurity(purities[purityIndex], normFactors, normFactorIndexes));
+
+        for (List<FittedPurity> fittedPurities : search.search()) {
+            if (!fittedPurities.isEmpty()) {
+                all.addAll(fittedPurities);
+                bestScoringPerPurity.add(fittedPurities.get(0));
+            }
+        }
+
+        Collections.sort(all);
+        Collections.sort(bestScoringPerPurity);
+    }
+
+    @NotNull
+    private FittedPurity[] fitPurity(final double purity, @NotNull final double[] normFactors, @NotNull final int[] normFactorIndexes) {
+        final FittedRegionScorer scorer = fittedRegionFactory.scorer(filteredRegions);
+        final FittedPurity[] result = new FittedPurity[normFactorIndexes.length];
+        for (int i = 0; i < normFactorIndexes.length; i++) {
+            final double normFactor = normFactors[normFactorIndexes[i]];
+            double impliedPloidy = PurityAdjuster.impliedSamplePloidy(purity, normFactor);
+
+            if (greaterOrEqual(impliedPloidy, 1) && lessOrEqual(impliedPloidy, maxPloidy)) {
+                result[i] = fitPurity(scorer, purity, normFactor);
+            }
+        }
+
+        return result;
+    }
+
+    // Accumulates the same way as the exhaustive loops so both searches score identical grid values
+    @NotNull
+    private static double[] steps(double min, double max, double increment) {
+        final List<Double> result = Lists.newArrayList();
+        for (double value = min; lessOrEqual(value, max); value += increment) {
+            result.add(value);
+        }
+        return result.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
     @NotNull
     private Callable<List<FittedPurity>> callableFitPurity(final double purity) {
         return () -> fitPurity(purity);
@@ -124,12 +181,14 @@ public class FittedPurityFactory {
 
     @NotNull
     private List<FittedPurity> fitPurity(final double purity) {
+        // Each purity has its own scorer so the fits of a purity reuse the same arrays
+        final FittedRegionScorer scorer = fittedRegionFactory.scorer(filteredRegions);
         final List<FittedPurity> fittedPurities = Lists.newArrayList();
         for (double normFactor = minNormFactor; lessOrEqual(normFactor, maxNormFactor); normFactor += normFactorIncrements) {
             double impliedPloidy = PurityAdjuster.impliedSamplePloidy(purity, normFactor);
 
             if (greaterOrEqual(impliedPloidy, 1) && lessOrEqual(impliedPloidy, maxPloidy)) {
-                fittedPurities.add(fitPurity(purity, normFactor));
+                fittedPurities.add(fitPurity(scorer, purity, normFactor));
             }
         }
 
@@ -137,35 +196,29 @@ public class FittedPurityFactory {
         return fittedPurities;
     }
 
-    private double weightWithBaf(double value, int bafCount) {
-        return 1d * value * bafCount / totalBAFCount;
-    }
-
     @NotNull
-    private FittedPurity fitPurity(final double purity, final double normFactor) {
+    private FittedPurity fitPurity(@NotNull final FittedRegionScorer scorer, final double purity, final double normFactor) {
         ImmutableFittedPurity.Builder builder = ImmutableFittedPurity.builder().purity(purity).normFactor(normFactor);
         double eventPenalty = 0;
         double deviationPenalty = 0;
         double diploidProportion = 0;
         double averagePloidy = 0;
 
-        final List<FittedRegion> fittedRegions = Lists.newArrayList();
-        for (final ObservedRegion enrichedRegion : filteredRegions) {
-            final FittedRegion fittedRegion = fittedRegionFactory.fitRegion(purity, normFactor, enrichedRegion);
-            eventPenalty += weightWithBaf(fittedRegion.eventPenalty(), enrichedRegion.bafCount());
-            deviationPenalty += weightWithBaf(fittedRegion.deviationPenalty(), enrichedRegion.bafCount());
-            averagePloidy += weightWithBaf(fittedRegion.tumorCopyNumber(), enrichedRegion.bafCount());
-            if (fittedRegion.isDiploid()) {
-                diploidProportion += weightWithBaf(1, enrichedRegion.bafCount());
+        scorer.fit(purity, normFactor);
+        for (int i = 0; i < scorer.size(); i++) {
+            final double weight = bafWeight[i];
+            eventPenalty += scorer.eventPenalty(i) * weight;
+            deviationPenalty += scorer.deviationPenalty(i) * weight;
+            averagePloidy += scorer.tumorCopyNumber(i) * weight;
+            if (scorer.isDiploid(i)) {
+                diploidProportion += weight;
             }
-
-            fittedRegions.add(fittedRegion);
         }
 
         final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
         final double somaticPenalty = Doubles.greaterThan(somaticPenaltyWeight, 0)
-                ? somaticPenaltyWeight * SomaticPenaltyFactory.penalty(purityAdjuster, fittedRegions,
-                variants) : 0;
+                ? somaticPenaltyWeight * somaticPenaltyFactory.penalty(purityAdjuster, scorer)
+                : 0;
 
         return builder.score(eventPenalty * deviationPenalty + somaticPenalty)
                 .diploidProportion(diploidProportion)
@@ -45,7 +45,6 @@ public enum SomaticDeviation implements RemovalListener<Double, Integer> {
         return deviationFromMax(purityAdjuster, normalCopyNumber, variant, constrainedTumorCopyNumber, constrainedMajorAllelePloidy);
     }
 
-    @VisibleForTesting
     double deviationFromMax(@NotNull final PurityAdjuster purityAdjuster, int normalCopyNumber, @NotNull final AllelicDepth depth,
             double tumorCopyNumber, double tumorMajorAllelePloidy) {
         double maxConceivablePloidy =
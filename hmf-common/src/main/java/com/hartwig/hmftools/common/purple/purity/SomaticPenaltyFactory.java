@@ -1,66 +1,66 @@
 package com.hartwig.hmftools.common.purple.purity;
 
 import java.util.Collection;
-import java.util.function.Consumer;
+import java.util.List;
 
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
-import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.region.FittedRegionScorer;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
 import com.hartwig.hmftools.common.variant.SomaticVariant;
 
 import org.jetbrains.annotations.NotNull;
 
-final class SomaticPenaltyFactory {
+/**
+ * Penalises fits whose copy numbers cannot explain the observed somatic allele frequencies. The region of each variant is resolved
+ * once so that each fit only has to look up the copy numbers of the scorer.
+ */
+class SomaticPenaltyFactory {
 
-    private SomaticPenaltyFactory() {
-    }
-
-    static double penalty(@NotNull PurityAdjuster purityAdjuster, @NotNull Collection<FittedRegion> regions,
-            @NotNull Collection<SomaticVariant> variants) {
-        final SomaticDeviation somaticDeviation = SomaticDeviation.INSTANCE;
+    private final List<SomaticVariant> variants = Lists.newArrayList();
+    private final int[] regionIndex;
+    private final int[] normalCopyNumber;
 
+    SomaticPenaltyFactory(@NotNull final Gender gender, @NotNull final List<ObservedRegion> regions,
+            @NotNull final Collection<SomaticVariant> variants) {
+        final List<Integer> regionIndexes = Lists.newArrayList();
         final GenomePositionSelector<SomaticVariant> variantSelector = GenomePositionSelectorFactory.create(variants);
-        double score = 0;
-        int variantCount = 0;
-
-        for (FittedRegion region : regions) {
-            SomaticVariantConsumer consumer = new SomaticVariantConsumer(purityAdjuster, somaticDeviation, region);
-            variantSelector.select(region, consumer);
-            score += consumer.score();
-            variantCount += consumer.variants();
+        for (int i = 0; i < regions.size(); i++) {
+            final int index = i;
+            variantSelector.select(regions.get(i), variant -> {
+                this.variants.add(variant);
+                regionIndexes.add(index);
+            });
         }
 
-        return variantCount == 0 ? 0 : score / variantCount;
-    }
-
-    private static class SomaticVariantConsumer implements Consumer<SomaticVariant> {
-
-        final PurityAdjuster purityAdjuster;
-        private final SomaticDeviation somaticDeviation;
-        private final FittedRegion region;
-        private double score;
-        private int variants;
-
-        private SomaticVariantConsumer(final PurityAdjuster purityAdjuster, final SomaticDeviation somaticDeviation,
-                final FittedRegion region) {
-            this.purityAdjuster = purityAdjuster;
-            this.somaticDeviation = somaticDeviation;
-            this.region = region;
+        final int size = this.variants.size();
+        regionIndex = new int[size];
+        normalCopyNumber = new int[size];
+        for (int i = 0; i < size; i++) {
+            regionIndex[i] = regionIndexes.get(i);
+            normalCopyNumber[i] = HumanChromosome.fromString(this.variants.get(i).chromosome()).isDiploid(gender) ? 2 : 1;
         }
+    }
 
-        @Override
-        public void accept(final SomaticVariant variant) {
-            score += somaticDeviation.deviationFromMax(purityAdjuster, region, variant);
-            variants++;
-        }
+    double penalty(@NotNull final PurityAdjuster purityAdjuster, @NotNull final FittedRegionScorer regions) {
+        final SomaticDeviation somaticDeviation = SomaticDeviation.INSTANCE;
 
-        public int variants() {
-            return variants;
+        double score = 0;
+        for (int i = 0; i < variants.size(); i++) {
+            final int region = regionIndex[i];
+            final double constrainedMajorAllelePloidy = Math.max(0, regions.majorAlleleCopyNumber(region));
+            final double constrainedTumorCopyNumber = Math.max(0, regions.tumorCopyNumber(region));
+            score += somaticDeviation.deviationFromMax(purityAdjuster,
+                    normalCopyNumber[i],
+                    variants.get(i),
+                    constrainedTumorCopyNumber,
+                    constrainedMajorAllelePloidy);
         }
 
-        public double score() {
-            return score;
-        }
+        return variants.isEmpty() ? 0 : score / variants.size();
     }
 }
@@ -11,8 +11,8 @@ import org.jetbrains.annotations.Nullable;
 @Value.Style(passAnnotations = { NotNull.class, Nullable.class })
 public abstract class FittedRegion implements ObservedRegion {
 
-    private static final double MAX_DIPLOID_COPY_NUMBER = 1.2;
-    private static final double MIN_DIPLOID_COPY_NUMBER = 0.8;
+    static final double MAX_DIPLOID_COPY_NUMBER = 1.2;
+    static final double MIN_DIPLOID_COPY_NUMBER = 0.8;
 
     public double minorAlleleCopyNumber() {
         return tumorCopyNumber() - majorAlleleCopyNumber();
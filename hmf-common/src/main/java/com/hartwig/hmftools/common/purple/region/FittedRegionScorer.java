@@ -0,0 +1,204 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.utils.Doubles;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Fits a fixed set of observed regions at a purity and norm factor into primitive arrays. Regions are only materialised as
+ * FittedRegion on request so the same regions can be scored across the purity grid without allocation. Not thread safe.
+ */
+public class FittedRegionScorer {
+
+    private final Gender gender;
+    private final PloidyDeviation ploidyDeviation;
+    private final double ploidyPenaltyFactor;
+    private final double ambiguousBaf;
+
+    private final List<ObservedRegion> regions;
+    private final int size;
+    private final boolean[] homologous;
+    private final double[] observedTumorRatio;
+    private final double[] observedNormalRatio;
+    private final double[] observedBAF;
+    private final double[] typicalRatio;
+
+    private final double[] tumorCopyNumber;
+    private final double[] tumorBAF;
+    private final double[] refNormalisedCopyNumber;
+    private final double[] minorAlleleCopyNumberDeviation;
+    private final double[] majorAlleleCopyNumberDeviation;
+    private final double[] deviationPenalty;
+    private final double[] eventPenalty;
+
+    FittedRegionScorer(@NotNull final Gender gender, @NotNull final PloidyDeviation ploidyDeviation, double ploidyPenaltyFactor,
+            double ambiguousBaf, @NotNull final List<ObservedRegion> regions) {
+        this.gender = gender;
+        this.ploidyDeviation = ploidyDeviation;
+        this.ploidyPenaltyFactor = ploidyPenaltyFactor;
+        this.ambiguousBaf = ambiguousBaf;
+        this.regions = regions;
+
+        size = regions.size();
+        homologous = new boolean[size];
+        observedTumorRatio = new double[size];
+        observedNormalRatio = new double[size];
+        observedBAF = new double[size];
+        typicalRatio = new double[size];
+        for (int i = 0; i < size; i++) {
+            final ObservedRegion region = regions.get(i);
+            homologous[i] = HumanChromosome.fromString(region.chromosome()).isDiploid(gender);
+            observedTumorRatio[i] = region.observedTumorRatio();
+            observedNormalRatio[i] = region.observedNormalRatio();
+            observedBAF[i] = region.observedBAF();
+            typicalRatio[i] = homologous[i] ? 1 : 0.5;
+        }
+
+        tumorCopyNumber = new double[size];
+        tumorBAF = new double[size];
+        refNormalisedCopyNumber = new double[size];
+        minorAlleleCopyNumberDeviation = new double[size];
+        majorAlleleCopyNumberDeviation = new double[size];
+        deviationPenalty = new double[size];
+        eventPenalty = new double[size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void fit(final double purity, final double normFactor) {
+        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
+        final double standardDeviationsPerPloidy = ploidyDeviation.standardDeviationsPerPloidy(purity, normFactor);
+
+        for (int i = 0; i < size; i++) {
+            final double impliedCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedTumorRatio[i], typicalRatio[i]);
+            final double impliedBAF = impliedBaf(purity, standardDeviationsPerPloidy, homologous[i], impliedCopyNumber, observedBAF[i]);
+
+            final double majorAllelePloidy = impliedBAF * impliedCopyNumber;
+            final double minorAllelePloidy = impliedCopyNumber - majorAllelePloidy;
+
+            final double majorAllelePloidyDeviation = ploidyDeviation.majorAlleleDeviation(standardDeviationsPerPloidy, majorAllelePloidy);
+            final double minorAllelePloidyDeviation = ploidyDeviation.minorAlleleDeviation(standardDeviationsPerPloidy, minorAllelePloidy);
+
+            tumorCopyNumber[i] = impliedCopyNumber;
+            tumorBAF[i] = impliedBAF;
+            refNormalisedCopyNumber[i] = Doubles.replaceNaNWithZero(purityAdjuster.purityAdjustedCopyNumber(observedTumorRatio[i],
+                    observedNormalRatio[i]));
+            majorAlleleCopyNumberDeviation[i] = majorAllelePloidyDeviation;
+            minorAlleleCopyNumberDeviation[i] = minorAllelePloidyDeviation;
+            eventPenalty[i] = EventPenalty.penalty(ploidyPenaltyFactor, majorAllelePloidy, minorAllelePloidy);
+            deviationPenalty[i] = (minorAllelePloidyDeviation + majorAllelePloidyDeviation) * observedBAF[i];
+        }
+    }
+
+    public double tumorCopyNumber(int index) {
+        return tumorCopyNumber[index];
+    }
+
+    public double majorAlleleCopyNumber(int index) {
+        return tumorBAF[index] * tumorCopyNumber[index];
+    }
+
+    public double eventPenalty(int index) {
+        return eventPenalty[index];
+    }
+
+    public double deviationPenalty(int index) {
+        return deviationPenalty[index];
+    }
+
+    public boolean isDiploid(int index) {
+        final double majorAlleleCopyNumber = majorAlleleCopyNumber(index);
+        final double minorAlleleCopyNumber = tumorCopyNumber[index] - majorAlleleCopyNumber;
+        return isDiploid(majorAlleleCopyNumber) && isDiploid(minorAlleleCopyNumber);
+    }
+
+    private static boolean isDiploid(double alleleCopyNumber) {
+        return Doubles.greaterOrEqual(alleleCopyNumber, FittedRegion.MIN_DIPLOID_COPY_NUMBER) && Doubles.lessOrEqual(alleleCopyNumber,
+                FittedRegion.MAX_DIPLOID_COPY_NUMBER);
+    }
+
+    @NotNull
+    public FittedRegion fittedRegion(int index) {
+        return ImmutableFittedRegion.builder()
+                .from(regions.get(index))
+                .fittedBAF(0)
+                .fittedTumorCopyNumber(0)
+                .tumorCopyNumber(tumorCopyNumber[index])
+                .tumorBAF(tumorBAF[index])
+                .refNormalisedCopyNumber(refNormalisedCopyNumber[index])
+                .minorAlleleCopyNumberDeviation(minorAlleleCopyNumberDeviation[index])
+                .majorAlleleCopyNumberDeviation(majorAlleleCopyNumberDeviation[index])
+                .deviationPenalty(deviationPenalty[index])
+                .eventPenalty(eventPenalty[index])
+                .build();
+    }
+
+    @NotNull
+    public List<FittedRegion> fittedRegions() {
+        final List<FittedRegion> result = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            result.add(fittedRegion(i));
+        }
+        return result;
+    }
+
+    private double impliedBaf(double purity, double standardDeviationsPerPloidy, boolean isHomologous, double copyNumber,
+            double observedBAF) {
+        if (!isHomologous || Doubles.lessOrEqual(copyNumber, 1)) {
+            return 1;
+        }
+
+        return Doubles.lessOrEqual(observedBAF, ambiguousBaf)
+                ? bafToMinimiseDeviation(purity, standardDeviationsPerPloidy, copyNumber)
+                : purityAdjustedBAF(purity, copyNumber, observedBAF);
+    }
+
+    private double bafToMinimiseDeviation(double purity, double standardDeviationsPerPloidy, double impliedCopyNumber) {
+        final double minBAF = Math.max(0, Math.min(1, purityAdjustedBAF(purity, impliedCopyNumber, 0.5)));
+        final double maxBAF = Math.max(0, Math.min(1, purityAdjustedBAF(purity, impliedCopyNumber, ambiguousBaf)));
+
+        // Major Ploidy
+        final double minBAFMajorAllelePloidy = minBAF * impliedCopyNumber;
+        final double maxBAFMajorAllelePloidy = maxBAF * impliedCopyNumber;
+
+        // Major Ploidy crosses whole number?
+        final double minBAFMajorAllelePloidyCeil = Math.ceil(minBAFMajorAllelePloidy);
+        if (!Doubles.equal(Math.signum(minBAFMajorAllelePloidyCeil - minBAFMajorAllelePloidy),
+                Math.signum(minBAFMajorAllelePloidyCeil - maxBAFMajorAllelePloidy))) {
+            return minBAFMajorAllelePloidyCeil / impliedCopyNumber;
+        }
+
+        // Minor Ploidy
+        final double minBAFMinorAllelePloidy = impliedCopyNumber - minBAFMajorAllelePloidy;
+        final double maxBAFMinorAllelePloidy = impliedCopyNumber - maxBAFMajorAllelePloidy;
+
+        // Minor Ploidy crosses whole number?
+        final double maxBAFMinorAllelePloidyCeil = Math.ceil(maxBAFMinorAllelePloidy);
+        if (!Doubles.equal(Math.signum(maxBAFMinorAllelePloidyCeil - minBAFMinorAllelePloidy),
+                Math.signum(maxBAFMinorAllelePloidyCeil - maxBAFMinorAllelePloidy))) {
+            return 1 - maxBAFMinorAllelePloidyCeil / impliedCopyNumber;
+        }
+
+        // Minimise
+        final double minBAFTotalDeviation = ploidyDeviation.majorAlleleDeviation(standardDeviationsPerPloidy, minBAFMajorAllelePloidy)
+                + ploidyDeviation.minorAlleleDeviation(standardDeviationsPerPloidy, minBAFMinorAllelePloidy);
+        final double maxBAFTotalDeviation = ploidyDeviation.majorAlleleDeviation(standardDeviationsPerPloidy, maxBAFMajorAllelePloidy)
+                + ploidyDeviation.minorAlleleDeviation(standardDeviationsPerPloidy, maxBAFMinorAllelePloidy);
+        return Doubles.lessThan(minBAFTotalDeviation, maxBAFTotalDeviation) ? 0.5 : ambiguousBaf;
+    }
+
+    // Equivalent to PurityAdjuster.purityAdjustedBAFSimple of a homologous chromosome with a copy number above one
+    private static double purityAdjustedBAF(double purity, double copyNumber, double observedBAF) {
+        final double totalObservations = purity * copyNumber + 2 * (1 - purity);
+        final double normalObservations = 1 - purity;
+        return (observedBAF * totalObservations - normalObservations) / purity / copyNumber;
+    }
+}
@@ -1,11 +1,11 @@
 package com.hartwig.hmftools.common.purple.region;
 
-import java.util.function.Consumer;
-
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 
-class GCAccumulator implements Consumer<GCProfile> {
+import org.jetbrains.annotations.NotNull;
+
+class GCAccumulator {
 
     private final GenomeRegion region;
     private double totalContent;
@@ -19,11 +19,12 @@ class GCAccumulator implements Consumer<GCProfile> {
         return count == 0 ? 0 : totalContent / count;
     }
 
-    @Override
-    public void accept(final GCProfile gcProfile) {
-        if (gcProfile.isMappable() && gcProfile.start() >= region.start() && gcProfile.end() <= region.end()) {
-            count++;
-            totalContent += gcProfile.gcContent();
+    void select(@NotNull final GCProfileColumns gcProfiles) {
+        for (int i = gcProfiles.lowerBound(region.start()); i < gcProfiles.size() && gcProfiles.start(i) <= region.end(); i++) {
+            if (gcProfiles.isMappable(i) && gcProfiles.end(i) <= region.end()) {
+                count++;
+                totalContent += gcProfiles.gcContent(i);
+            }
         }
     }
 }
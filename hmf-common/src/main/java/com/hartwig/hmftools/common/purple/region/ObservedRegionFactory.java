@@ -3,21 +3,20 @@ package com.hartwig.hmftools.common.purple.region;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberBAF;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
 import com.hartwig.hmftools.common.genome.window.Window;
 import com.hartwig.hmftools.common.purple.gender.Gender;
 import com.hartwig.hmftools.common.purple.segment.PurpleSegment;
@@ -42,21 +41,24 @@ public class ObservedRegionFactory {
 
     @NotNull
     public List<ObservedRegion> combine(@NotNull final List<PurpleSegment> regions, @NotNull final Multimap<Chromosome, AmberBAF> bafs,
-            @NotNull final Multimap<Chromosome, CobaltRatio> ratios, @NotNull final Multimap<Chromosome, GCProfile> gcProfiles) {
+            @NotNull final Map<Chromosome, CobaltRatioColumns> ratios, @NotNull final Map<Chromosome, GCProfileColumns> gcProfiles) {
         final List<ModifiableEnrichedRegion> result = Lists.newArrayList();
 
-        final GenomePositionSelector<CobaltRatio> cobaltSelector = GenomePositionSelectorFactory.create(ratios);
         final GenomePositionSelector<AmberBAF> bafSelector = GenomePositionSelectorFactory.create(bafs);
-        final GenomeRegionSelector<GCProfile> gcSelector = GenomeRegionSelectorFactory.createImproved(gcProfiles);
 
         for (final PurpleSegment region : regions) {
+            final Chromosome chromosome = HumanChromosome.fromString(region.chromosome());
             final BAFAccumulator baf = new BAFAccumulator();
             final CobaltAccumulator cobalt = new CobaltAccumulator(windowSize, region);
             final GCAccumulator gc = new GCAccumulator(region);
 
             bafSelector.select(region, baf);
-            cobaltSelector.select(region, cobalt);
-            gcSelector.select(region, gc);
+            if (ratios.containsKey(chromosome)) {
+                cobalt.select(ratios.get(chromosome));
+            }
+            if (gcProfiles.containsKey(chromosome)) {
+                gc.select(gcProfiles.get(chromosome));
+            }
 
             double tumorRatio = cobalt.tumorMeanRatio();
             double normalRatio = cobalt.referenceMeanRatio();
@@ -130,7 +132,7 @@ public class ObservedRegionFactory {
     }
 
     @VisibleForTesting
-    static class CobaltAccumulator implements Consumer<CobaltRatio> {
+    static class CobaltAccumulator {
 
         private final Window window;
         private final GenomeRegion region;
@@ -160,17 +162,18 @@ public class ObservedRegionFactory {
             return tumorAccumulator.count();
         }
 
-        @Override
-        public void accept(final CobaltRatio ratio) {
-            if (window.end(ratio.position()) <= region.end()) {
-                referenceAccumulator.accept(ratio.referenceGCDiploidRatio());
-                unnormalisedReferenceAccumulator.accept(ratio.referenceGCRatio());
-                tumorAccumulator.accept(ratio.tumorGCRatio());
+        void select(@NotNull final CobaltRatioColumns ratios) {
+            for (int i = ratios.lowerBound(region.start()); i < ratios.size() && ratios.position(i) <= region.end(); i++) {
+                if (window.end(ratios.position(i)) <= region.end()) {
+                    referenceAccumulator.accept(ratios.referenceGCDiploidRatio(i));
+                    unnormalisedReferenceAccumulator.accept(ratios.referenceGCRatio(i));
+                    tumorAccumulator.accept(ratios.tumorGCRatio(i));
+                }
             }
         }
     }
 
-    static private class RatioAccumulator implements Consumer<Double> {
+    static private class RatioAccumulator {
         private double sumRatio;
         private int count;
 
@@ -182,8 +185,7 @@ public class ObservedRegionFactory {
             return count;
         }
 
-        @Override
-        public void accept(final Double ratio) {
+        private void accept(double ratio) {
             if (Doubles.greaterThan(ratio, -1)) {
                 count++;
                 sumRatio += ratio;
@@ -2,13 +2,10 @@ package com.hartwig.hmftools.common.purple.region;
 
 import com.hartwig.hmftools.common.utils.Doubles;
 
-import org.apache.commons.math3.distribution.NormalDistribution;
-
 class PloidyDeviation {
 
     private final double standardDeviation;
     private final double minStandardDeviationPerPloidyPoint;
-    private final NormalDistribution dist = new NormalDistribution();
 
     private final double majorAlleleSubOnePenaltyMultiplier;
     private final double majorAlleleSubMinAdditionalPenalty;
@@ -24,26 +21,39 @@ class PloidyDeviation {
     }
 
     double majorAlleleDeviation(final double purity, final double normFactor, final double ploidy) {
+        return majorAlleleDeviation(standardDeviationsPerPloidy(purity, normFactor), ploidy);
+    }
+
+    double minorAlleleDeviation(final double purity, final double normFactor, final double ploidy) {
+        return minorAlleleDeviation(standardDeviationsPerPloidy(purity, normFactor), ploidy);
+    }
+
+    double standardDeviationsPerPloidy(final double purity, final double normFactor) {
+        return Math.max(minStandardDeviationPerPloidyPoint, purity * normFactor / 2 / standardDeviation);
+    }
+
+    double majorAlleleDeviation(final double standardDeviationsPerPloidy, final double ploidy) {
         final double majorAlleleDeviationMultiplier = Doubles.greaterThan(ploidy, 0) && Doubles.lessThan(ploidy, 1)
                 ? Math.max(1, majorAlleleSubOnePenaltyMultiplier * (1 - ploidy))
                 : 1;
         final double deviation =
-                majorAlleleDeviationMultiplier * alleleDeviation(purity, normFactor, ploidy) + subMinAdditionalPenalty(1, ploidy);
+                majorAlleleDeviationMultiplier * alleleDeviation(standardDeviationsPerPloidy, ploidy) + subMinAdditionalPenalty(1, ploidy);
         return Math.max(deviation, minDeviation);
     }
 
-    double minorAlleleDeviation(final double purity, final double normFactor, final double ploidy) {
-        final double deviation = alleleDeviation(purity, normFactor, ploidy) + subMinAdditionalPenalty(0, ploidy);
+    double minorAlleleDeviation(final double standardDeviationsPerPloidy, final double ploidy) {
+        final double deviation = alleleDeviation(standardDeviationsPerPloidy, ploidy) + subMinAdditionalPenalty(0, ploidy);
         return Math.max(deviation, minDeviation);
     }
 
-    private double alleleDeviation(final double purity, final double normFactor, final double ploidy) {
+    private static double alleleDeviation(final double standardDeviationsPerPloidy, final double ploidy) {
         final double ploidyDistanceFromInteger = Doubles.lessThan(ploidy, -0.5)
                 ? 0.5
                 : Doubles.absDistanceFromInteger(ploidy);
 
-        double standardDeviationsPerPloidy = Math.max(minStandardDeviationPerPloidyPoint, purity * normFactor / 2 / standardDeviation);
-        return 2 * dist.cumulativeProbability(ploidyDistanceFromInteger * standardDeviationsPerPloidy) - 1 + Math.max(-0.5 - ploidy, 0);
+        return 2 * NormalDistributionTable.cumulativeProbability(ploidyDistanceFromInteger * standardDeviationsPerPloidy) - 1 + Math.max(
+                -0.5 - ploidy,
+                0);
     }
 
     private double subMinAdditionalPenalty(final double minPloidy, final double ploidy) {
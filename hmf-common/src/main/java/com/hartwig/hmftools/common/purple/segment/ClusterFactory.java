@@ -3,13 +3,14 @@ package com.hartwig.hmftools.common.purple.segment;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.window.Window;
@@ -19,6 +20,7 @@ import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
 import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 class ClusterFactory {
 
@@ -32,18 +34,18 @@ class ClusterFactory {
 
     @NotNull
     public ListMultimap<Chromosome, Cluster> cluster(@NotNull final List<StructuralVariant> variants,
-            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull ListMultimap<Chromosome, CobaltRatio> ratios) {
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull Map<Chromosome, CobaltRatioColumns> ratios) {
         final Multimap<Chromosome, SVSegment> positions = Multimaps.fromPositions(SVSegmentFactory.create(variants));
         return cluster(positions, pcfPositions, ratios);
     }
 
     @NotNull
     private ListMultimap<Chromosome, Cluster> cluster(@NotNull final Multimap<Chromosome, SVSegment> variantPositions,
-            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull final ListMultimap<Chromosome, CobaltRatio> ratios) {
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull final Map<Chromosome, CobaltRatioColumns> ratios) {
         ListMultimap<Chromosome, Cluster> clusters = ArrayListMultimap.create();
         for (Chromosome chromosome : pcfPositions.keySet()) {
             final Collection<PCFPosition> chromosomePcfPositions = pcfPositions.get(chromosome);
-            final List<CobaltRatio> chromosomeRatios = ratios.containsKey(chromosome) ? ratios.get(chromosome) : Lists.newArrayList();
+            final CobaltRatioColumns chromosomeRatios = ratios.get(chromosome);
             final Collection<SVSegment> chromosomeVariants =
                     variantPositions.containsKey(chromosome) ? variantPositions.get(chromosome) : Lists.newArrayList();
             clusters.putAll(chromosome, cluster(chromosomeVariants, chromosomePcfPositions, chromosomeRatios));
@@ -55,7 +57,7 @@ class ClusterFactory {
     @NotNull
     @VisibleForTesting
     List<Cluster> cluster(@NotNull final Collection<SVSegment> variantPositions,
-            @NotNull final Collection<PCFPosition> pcfPositions, @NotNull final List<CobaltRatio> cobaltRatios) {
+            @NotNull final Collection<PCFPosition> pcfPositions, @Nullable final CobaltRatioColumns cobaltRatios) {
         final List<GenomePosition> allPositions = Lists.newArrayList();
         allPositions.addAll(variantPositions);
         allPositions.addAll(pcfPositions);
@@ -63,6 +65,7 @@ class ClusterFactory {
 
         final List<Cluster> result = Lists.newArrayList();
 
+        final int cobaltSize = cobaltRatios == null ? 0 : cobaltRatios.size();
         int cobaltIndex = 0;
         ModifiableCluster segment = null;
         for (GenomePosition position : allPositions) {
@@ -70,7 +73,7 @@ class ClusterFactory {
                 continue;
             }
 
-            while (cobaltIndex < cobaltRatios.size() - 1 && cobaltRatios.get(cobaltIndex).position() < position.position()) {
+            while (cobaltIndex < cobaltSize - 1 && cobaltRatios.position(cobaltIndex) < position.position()) {
                 cobaltIndex++;
             }
 
@@ -101,14 +104,13 @@ class ClusterFactory {
     }
 
     @VisibleForTesting
-    long earliestDetectableCopyNumberChangePosition(long position, int index, @NotNull final List<CobaltRatio> ratios) {
-        assert (index <= ratios.size());
+    long earliestDetectableCopyNumberChangePosition(long position, int index, @Nullable final CobaltRatioColumns ratios) {
+        assert (ratios == null || index <= ratios.size());
         final long min = window.start(position) - windowSize + 1;
-        if (!ratios.isEmpty()) {
+        if (ratios != null && ratios.size() > 0) {
             for (int i = index; i >= 0; i--) {
-                final CobaltRatio ratio = ratios.get(i);
-                if (ratio.position() <= min && Doubles.greaterThan(ratio.tumorGCRatio(), -1)) {
-                    return ratio.position() + 1;
+                if (ratios.position(i) <= min && Doubles.greaterThan(ratios.tumorGCRatio(i), -1)) {
+                    return ratios.position(i) + 1;
                 }
             }
         }
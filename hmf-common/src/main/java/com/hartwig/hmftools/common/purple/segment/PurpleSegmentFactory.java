@@ -7,10 +7,9 @@ import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
@@ -34,7 +33,7 @@ public final class PurpleSegmentFactory {
     }
 
     public List<PurpleSegment> segment(@NotNull final List<StructuralVariant> variants,
-            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull ListMultimap<Chromosome, CobaltRatio> ratios) {
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions, @NotNull Map<Chromosome, CobaltRatioColumns> ratios) {
         final Multimap<Chromosome, Cluster> clusterMap = new ClusterFactory(windowSize).cluster(variants, pcfPositions, ratios);
         return segmentCluster(clusterMap);
     }
@@ -0,0 +1,98 @@
+package com.hartwig.hmftools.common.utils.io.column;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Named primitive columns of equal length for the windows of a single chromosome. Columns are either wrapped heap arrays or, when
+ * read from a ColumnarFile, views of the memory mapped file.
+ */
+public class ChromosomeColumns {
+
+    private final String chromosome;
+    private final int rows;
+    private final Map<String, IntBuffer> intColumns = Maps.newLinkedHashMap();
+    private final Map<String, DoubleBuffer> doubleColumns = Maps.newLinkedHashMap();
+
+    public ChromosomeColumns(@NotNull final String chromosome, int rows) {
+        this.chromosome = chromosome;
+        this.rows = rows;
+    }
+
+    @NotNull
+    public String chromosome() {
+        return chromosome;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    @NotNull
+    public ChromosomeColumns add(@NotNull final String column, @NotNull final int[] values) {
+        return add(column, IntBuffer.wrap(values));
+    }
+
+    @NotNull
+    public ChromosomeColumns add(@NotNull final String column, @NotNull final double[] values) {
+        return add(column, DoubleBuffer.wrap(values));
+    }
+
+    @NotNull
+    ChromosomeColumns add(@NotNull final String column, @NotNull final IntBuffer values) {
+        checkColumn(column, values.remaining());
+        intColumns.put(column, values);
+        return this;
+    }
+
+    @NotNull
+    ChromosomeColumns add(@NotNull final String column, @NotNull final DoubleBuffer values) {
+        checkColumn(column, values.remaining());
+        doubleColumns.put(column, values);
+        return this;
+    }
+
+    @NotNull
+    public IntBuffer intColumn(@NotNull final String column) {
+        final IntBuffer result = intColumns.get(column);
+        if (result == null) {
+            throw new IllegalArgumentException("Missing int column " + column);
+        }
+        return result.duplicate();
+    }
+
+    @NotNull
+    public DoubleBuffer doubleColumn(@NotNull final String column) {
+        final DoubleBuffer result = doubleColumns.get(column);
+        if (result == null) {
+            throw new IllegalArgumentException("Missing double column " + column);
+        }
+        return result.duplicate();
+    }
+
+    @NotNull
+    Set<String> intColumns() {
+        return Collections.unmodifiableSet(intColumns.keySet());
+    }
+
+    @NotNull
+    Set<String> doubleColumns() {
+        return Collections.unmodifiableSet(doubleColumns.keySet());
+    }
+
+    private void checkColumn(@NotNull final String column, int size) {
+        if (size != rows) {
+            throw new IllegalArgumentException("Column " + column + " has " + size + " rows rather than " + rows);
+        }
+        if (intColumns.containsKey(column) || doubleColumns.containsKey(column)) {
+            throw new IllegalArgumentException("Duplicate column " + column);
+        }
+    }
+}
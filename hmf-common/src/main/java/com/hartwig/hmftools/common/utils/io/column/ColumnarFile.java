@@ -0,0 +1,199 @@
+package com.hartwig.hmftools.common.utils.io.column;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Binary file of per chromosome primitive columns that is memory mapped on read so columns are accessed without parsing or copying.
+ * <p>
+ * Layout: magic, version, the int and then double column names, the chromosome names with their row counts and data offsets, then
+ * for each chromosome every int column followed by every double column as contiguous big endian arrays aligned to 8 bytes.
+ */
+public final class ColumnarFile {
+
+    private static final int MAGIC = 0x484D4643;
+    private static final int VERSION = 1;
+    private static final int ALIGNMENT = 8;
+
+    private ColumnarFile() {
+    }
+
+    public static boolean isColumnarFile(@NotNull final String filename) throws IOException {
+        final File file = new File(filename);
+        if (!file.isFile() || file.length() < Integer.BYTES) {
+            return false;
+        }
+
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            return input.readInt() == MAGIC;
+        }
+    }
+
+    public static void write(@NotNull final String filename, @NotNull final List<ChromosomeColumns> chromosomes) throws IOException {
+        final List<String> intColumns = chromosomes.isEmpty() ? Lists.newArrayList() : Lists.newArrayList(chromosomes.get(0).intColumns());
+        final List<String> doubleColumns =
+                chromosomes.isEmpty() ? Lists.newArrayList() : Lists.newArrayList(chromosomes.get(0).doubleColumns());
+        for (ChromosomeColumns chromosome : chromosomes) {
+            if (!intColumns.equals(Lists.newArrayList(chromosome.intColumns())) || !doubleColumns.equals(Lists.newArrayList(
+                    chromosome.doubleColumns()))) {
+                throw new IllegalArgumentException("Chromosome " + chromosome.chromosome() + " has different columns");
+            }
+        }
+
+        // Offsets are fixed width so the header length does not depend on them
+        final int headerLength = header(intColumns, doubleColumns, chromosomes, new long[chromosomes.size()]).length;
+        final long[] offsets = new long[chromosomes.size()];
+        long offset = align(headerLength);
+        for (int i = 0; i < chromosomes.size(); i++) {
+            offsets[i] = offset;
+            offset += length(chromosomes.get(i), intColumns.size(), doubleColumns.size());
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            final byte[] header = header(intColumns, doubleColumns, chromosomes, offsets);
+            output.write(header);
+            pad(output, header.length);
+
+            for (ChromosomeColumns chromosome : chromosomes) {
+                final int rows = chromosome.rows();
+                for (String column : intColumns) {
+                    final IntBuffer values = chromosome.intColumn(column);
+                    for (int i = 0; i < rows; i++) {
+                        output.writeInt(values.get(i));
+                    }
+                    pad(output, rows * Integer.BYTES);
+                }
+
+                for (String column : doubleColumns) {
+                    final DoubleBuffer values = chromosome.doubleColumn(column);
+                    for (int i = 0; i < rows; i++) {
+                        output.writeDouble(values.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @NotNull
+    public static List<ChromosomeColumns> read(@NotNull final String filename) throws IOException {
+        final List<ChromosomeColumns> result = Lists.newArrayList();
+        try (FileChannel channel = FileChannel.open(new File(filename).toPath(), StandardOpenOption.READ);
+                DataInputStream header = new DataInputStream(new FileInputStream(filename))) {
+            if (header.readInt() != MAGIC) {
+                throw new IOException(filename + " is not a columnar file");
+            }
+
+            final int version = header.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported columnar file version " + version + " in " + filename);
+            }
+
+            final List<String> intColumns = readNames(header);
+            final List<String> doubleColumns = readNames(header);
+
+            final int chromosomeCount = header.readInt();
+            for (int i = 0; i < chromosomeCount; i++) {
+                final String chromosome = header.readUTF();
+                final int rows = header.readInt();
+                final long offset = header.readLong();
+
+                final ChromosomeColumns columns = new ChromosomeColumns(chromosome, rows);
+                final long length = length(columns, intColumns.size(), doubleColumns.size());
+
+                // Each chromosome is mapped separately to stay within the 2GB limit of a single mapping
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.BIG_ENDIAN);
+                int position = 0;
+                for (String column : intColumns) {
+                    columns.add(column, slice(buffer, position, rows * Integer.BYTES).asIntBuffer());
+                    position = (int) align(position + rows * Integer.BYTES);
+                }
+
+                for (String column : doubleColumns) {
+                    columns.add(column, slice(buffer, position, rows * Double.BYTES).asDoubleBuffer());
+                    position += rows * Double.BYTES;
+                }
+
+                result.add(columns);
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static byte[] header(@NotNull final List<String> intColumns, @NotNull final List<String> doubleColumns,
+            @NotNull final List<ChromosomeColumns> chromosomes, @NotNull final long[] offsets) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeNames(output, intColumns);
+            writeNames(output, doubleColumns);
+
+            output.writeInt(chromosomes.size());
+            for (int i = 0; i < chromosomes.size(); i++) {
+                output.writeUTF(chromosomes.get(i).chromosome());
+                output.writeInt(chromosomes.get(i).rows());
+                output.writeLong(offsets[i]);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeNames(@NotNull final DataOutputStream output, @NotNull final List<String> names) throws IOException {
+        output.writeInt(names.size());
+        for (String name : names) {
+            output.writeUTF(name);
+        }
+    }
+
+    @NotNull
+    private static List<String> readNames(@NotNull final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        final List<String> result = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            result.add(input.readUTF());
+        }
+        return result;
+    }
+
+    @NotNull
+    private static ByteBuffer slice(@NotNull final ByteBuffer buffer, int position, int length) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        duplicate.limit(position + length);
+        return duplicate.slice().order(buffer.order());
+    }
+
+    private static long length(@NotNull final ChromosomeColumns chromosome, int intColumns, int doubleColumns) {
+        final long rows = chromosome.rows();
+        return intColumns * align(rows * Integer.BYTES) + doubleColumns * rows * Double.BYTES;
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static void pad(@NotNull final DataOutputStream output, long written) throws IOException {
+        for (long i = written; i < align(written); i++) {
+            output.writeByte(0);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.hartwig.hmftools.common.utils.pcf;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.text.DecimalFormat;
 import java.util.List;
+import java.util.StringJoiner;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
@@ -24,6 +26,7 @@ public final class PCFFile {
     private static final String HEADER_PREFIX = "sampleID";
     private static final String RATIO_EXTENSION = ".cobalt.ratio.pcf";
     private static final String BAF_EXTENSION = ".amber.baf.pcf";
+    private static final DecimalFormat FORMAT = new DecimalFormat("0.####");
 
     private PCFFile() {
     }
@@ -99,6 +102,45 @@ public final class PCFFile {
         return result;
     }
 
+    public static void write(@NotNull final String filename, @NotNull final String sampleId, @NotNull final List<PCFSegment> segments)
+            throws IOException {
+        Files.write(new File(filename).toPath(), toLines(sampleId, segments));
+    }
+
+    @NotNull
+    private static List<String> toLines(@NotNull final String sampleId, @NotNull final List<PCFSegment> segments) {
+        final List<String> lines = Lists.newArrayList();
+        lines.add(header());
+        segments.stream().map(x -> toString(sampleId, x)).forEach(lines::add);
+        return lines;
+    }
+
+    @NotNull
+    private static String header() {
+        return new StringJoiner(DELIMITER, "", "").add(HEADER_PREFIX)
+                .add("chrom")
+                .add("arm")
+                .add("start.pos")
+                .add("end.pos")
+                .add("n.probes")
+                .add("mean")
+                .toString();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final String sampleId, @NotNull final PCFSegment segment) {
+        // Adding zero avoids writing negative zero
+        final double mean = Math.round(segment.mean() * 10000) / 10000d + 0d;
+        return new StringJoiner(DELIMITER).add(sampleId)
+                .add(segment.chromosome())
+                .add(segment.arm())
+                .add(String.valueOf(segment.start()))
+                .add(String.valueOf(segment.end()))
+                .add(String.valueOf(segment.probes()))
+                .add(FORMAT.format(mean))
+                .toString();
+    }
+
     @NotNull
     public static Multimap<String, GenomeRegion> read(int windowSize, @NotNull final String filename) throws IOException {
         return fromLines(windowSize, Files.readAllLines(new File(filename).toPath()));
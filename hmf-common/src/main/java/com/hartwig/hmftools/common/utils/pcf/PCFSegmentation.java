@@ -0,0 +1,452 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Piecewise constant fitting of each chromosome arm following pcf in the copynumber R package. A segmentation minimises the squared
+ * error of each value from its segment mean plus a penalty of gamma times the squared residual standard deviation of the sample for
+ * every segment, with segments as short as a single value (kmin = 1).
+ *
+ * The exact minimum is found by dynamic programming over the last split. Each candidate split is kept with the set of means of the
+ * final segment for which it is cheapest and dropped once that set is empty, which leaves few candidates at any one time and keeps
+ * the cost of each arm close to linear in its length. The default fast mode of pcf only searches a heuristic subset of splits on
+ * long arms, so its segments can differ from these where it misses the minimum.
+ */
+public class PCFSegmentation {
+
+    public static final double DEFAULT_GAMMA = 100;
+
+    private static final int MAD_FILTER_HALF_WIDTH = 25;
+    private static final double MAD_SCALE = 1.4826;
+
+    private final ListeningExecutorService executorService;
+    private final Map<Chromosome, Long> centromeres;
+    private final double gamma;
+
+    public PCFSegmentation(@NotNull final ExecutorService executorService, @NotNull final Map<Chromosome, Long> centromeres) {
+        this(executorService, centromeres, DEFAULT_GAMMA);
+    }
+
+    public PCFSegmentation(@NotNull final ExecutorService executorService, @NotNull final Map<Chromosome, Long> centromeres,
+            double gamma) {
+        this.executorService = MoreExecutors.listeningDecorator(executorService);
+        this.centromeres = centromeres;
+        this.gamma = gamma;
+    }
+
+    @NotNull
+    public <P extends GenomePosition> List<PCFSegment> segment(@NotNull final Multimap<Chromosome, P> positions,
+            @NotNull final ToDoubleFunction<P> value) throws ExecutionException, InterruptedException {
+        return submit(positions, value).get();
+    }
+
+    /**
+     * Queues each arm on the executor without waiting for them, so the arms of several samples can be segmented at the same time.
+     */
+    @NotNull
+    public <P extends GenomePosition> ListenableFuture<List<PCFSegment>> submit(@NotNull final Multimap<Chromosome, P> positions,
+            @NotNull final ToDoubleFunction<P> value) {
+        final List<Arm> arms = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final Collection<P> chromosomePositions = positions.get(chromosome);
+            if (!chromosomePositions.isEmpty()) {
+                final List<P> sorted = Lists.newArrayList(chromosomePositions);
+                sorted.sort(Comparator.comparingLong(GenomePosition::position));
+                addArms(chromosome, sorted, value, arms);
+            }
+        }
+
+        int count = 0;
+        for (Arm arm : arms) {
+            count += arm.values.length;
+        }
+
+        final double[] allValues = new double[count];
+        int offset = 0;
+        for (Arm arm : arms) {
+            System.arraycopy(arm.values, 0, allValues, offset, arm.values.length);
+            offset += arm.values.length;
+        }
+
+        final double penalty = penalty(gamma, allValues);
+        final List<ListenableFuture<List<PCFSegment>>> futures = Lists.newArrayList();
+        for (Arm arm : arms) {
+            futures.add(executorService.submit(() -> arm.segments(segmentStarts(arm.values, penalty))));
+        }
+
+        return Futures.transform(Futures.allAsList(futures), PCFSegmentation::concat, MoreExecutors.directExecutor());
+    }
+
+    @NotNull
+    private static List<PCFSegment> concat(@NotNull final List<List<PCFSegment>> armSegments) {
+        final List<PCFSegment> result = Lists.newArrayList();
+        armSegments.forEach(result::addAll);
+        return result;
+    }
+
+    private <P extends GenomePosition> void addArms(@NotNull final Chromosome chromosome, @NotNull final List<P> sorted,
+            @NotNull final ToDoubleFunction<P> value, @NotNull final List<Arm> arms) {
+        final long centromere = centromeres.getOrDefault(chromosome, 0L);
+
+        int split = 0;
+        while (split < sorted.size() && sorted.get(split).position() <= centromere) {
+            split++;
+        }
+
+        if (split > 0) {
+            arms.add(new Arm("p", sorted.subList(0, split), value));
+        }
+
+        if (split < sorted.size()) {
+            arms.add(new Arm("q", sorted.subList(split, sorted.size()), value));
+        }
+    }
+
+    /**
+     * Penalty for each segment on the scale of the squared error, as per gamma * sd^2 in pcf.
+     */
+    @VisibleForTesting
+    static double penalty(double gamma, @NotNull final double[] values) {
+        final double sd = mad(values);
+        return Double.isFinite(sd) ? gamma * sd * sd : 0;
+    }
+
+    /**
+     * Returns the index of the first value of each segment of the optimal segmentation.
+     */
+    @VisibleForTesting
+    @NotNull
+    static int[] segmentStarts(@NotNull final double[] y, double penalty) {
+        final int n = y.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        // Centre values for precision of the cumulative sums
+        double mean = 0;
+        for (double value : y) {
+            mean += value / n;
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        final double[] sum = new double[n + 1];
+        final double[] sumSquares = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            final double value = y[i] - mean;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum[i + 1] = sum[i] + value;
+            sumSquares[i + 1] = sumSquares[i] + value * value;
+        }
+
+        if (min == max) {
+            return new int[] { 0 };
+        }
+
+        final int[] bestSplit = new int[n + 1];
+        final List<Candidate> candidates = Lists.newArrayList(new Candidate(0, penalty, min, max));
+        final List<Candidate> retained = Lists.newArrayList();
+        final List<double[]> intervals = Lists.newArrayList();
+
+        for (int end = 1; end <= n; end++) {
+            // As in R, ties go to the earliest split and a single segment must be strictly better than any split
+            Candidate best = null;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (Candidate candidate : candidates) {
+                if (candidate.start != 0) {
+                    final double cost = candidate.cost(sum, sumSquares, end);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best = candidate;
+                    }
+                }
+            }
+
+            final Candidate first = candidates.get(0);
+            if (first.start == 0) {
+                final double cost = first.cost(sum, sumSquares, end);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = first;
+                }
+            }
+
+            bestSplit[end] = best.start;
+            if (end == n) {
+                break;
+            }
+
+            // A split at end costs bestCost + penalty whatever the mean of the following segment. Every other candidate is only
+            // kept for the means at which it costs less, as the values still to come add the same amount to all of them.
+            final double splitCost = bestCost + penalty;
+            retained.clear();
+            intervals.clear();
+            for (Candidate candidate : candidates) {
+                if (candidate.restrict(sum, sumSquares, end, splitCost)) {
+                    retained.add(candidate);
+                    intervals.addAll(candidate.intervals);
+                }
+            }
+
+            final Candidate split = new Candidate(end, splitCost);
+            intervals.sort(Comparator.comparingDouble(x -> x[0]));
+            double uncovered = min;
+            for (double[] interval : intervals) {
+                if (interval[0] > uncovered) {
+                    split.intervals.add(new double[] { uncovered, interval[0] });
+                }
+                uncovered = Math.max(uncovered, interval[1]);
+            }
+            if (uncovered < max) {
+                split.intervals.add(new double[] { uncovered, max });
+            }
+
+            if (!split.intervals.isEmpty()) {
+                retained.add(split);
+            }
+
+            candidates.clear();
+            candidates.addAll(retained);
+        }
+
+        final List<Integer> starts = Lists.newArrayList();
+        for (int end = n; end > 0; end = bestSplit[end]) {
+            starts.add(bestSplit[end]);
+        }
+
+        return Lists.reverse(starts).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double squaredError(@NotNull final double[] sum, @NotNull final double[] sumSquares, int start, int end) {
+        final double segmentSum = sum[end] - sum[start];
+        return sumSquares[end] - sumSquares[start] - segmentSum * segmentSum / (end - start);
+    }
+
+    /**
+     * Residual standard deviation of the values from their running median, ignoring zeros, as per getMad in copynumber.
+     */
+    @VisibleForTesting
+    static double mad(@NotNull final double[] values) {
+        final double[] x = Arrays.stream(values).filter(value -> value != 0).toArray();
+        final double[] runningMedian = medianFilter(x, MAD_FILTER_HALF_WIDTH);
+
+        final double[] residuals = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            residuals[i] = x[i] - runningMedian[i];
+        }
+
+        final double centre = median(residuals);
+        final double[] deviations = new double[residuals.length];
+        for (int i = 0; i < residuals.length; i++) {
+            deviations[i] = Math.abs(residuals[i] - centre);
+        }
+
+        return MAD_SCALE * median(deviations);
+    }
+
+    /**
+     * Running median with Tukey's end point rule, as per runmed(x, 2k + 1, endrule = "median").
+     */
+    @VisibleForTesting
+    @NotNull
+    static double[] medianFilter(@NotNull final double[] x, int k) {
+        final int n = x.length;
+        int width = 2 * k + 1;
+        if (width > n) {
+            width = n == 0 ? 1 : (n % 2 == 0 ? n - 1 : n);
+        }
+
+        final int halfWidth = width / 2;
+        final double[] result = x.clone();
+        if (halfWidth == 0) {
+            return result;
+        }
+
+        final double[] window = Arrays.copyOf(x, width);
+        Arrays.sort(window);
+        for (int i = halfWidth; ; i++) {
+            result[i] = window[halfWidth];
+            if (i + halfWidth + 1 >= n) {
+                break;
+            }
+
+            replace(window, x[i - halfWidth], x[i + halfWidth + 1]);
+        }
+
+        return smoothEnds(result, halfWidth);
+    }
+
+    @NotNull
+    private static double[] smoothEnds(@NotNull final double[] y, int halfWidth) {
+        final int n = y.length;
+        final double[] result = y.clone();
+        if (halfWidth >= 2) {
+            result[1] = median3(y[0], y[1], y[2]);
+            result[n - 2] = median3(y[n - 1], y[n - 2], y[n - 3]);
+
+            for (int i = 3; i <= halfWidth && 2 * i <= n; i++) {
+                result[i - 1] = medianOdd(Arrays.copyOfRange(y, 0, 2 * i - 1));
+                result[n - i] = medianOdd(Arrays.copyOfRange(y, n + 1 - 2 * i, n));
+            }
+        }
+
+        result[0] = median3(y[0], result[1], 3 * result[1] - 2 * result[2]);
+        result[n - 1] = median3(y[n - 1], result[n - 2], 3 * result[n - 2] - 2 * result[n - 3]);
+        return result;
+    }
+
+    private static void replace(@NotNull final double[] sortedWindow, double remove, double add) {
+        int index = Arrays.binarySearch(sortedWindow, remove);
+        while (index > 0 && sortedWindow[index - 1] == remove) {
+            index--;
+        }
+
+        if (index < sortedWindow.length - 1 && sortedWindow[index + 1] < add) {
+            while (index < sortedWindow.length - 1 && sortedWindow[index + 1] < add) {
+                sortedWindow[index] = sortedWindow[index + 1];
+                index++;
+            }
+        } else {
+            while (index > 0 && sortedWindow[index - 1] > add) {
+                sortedWindow[index] = sortedWindow[index - 1];
+                index--;
+            }
+        }
+        sortedWindow[index] = add;
+    }
+
+    private static double median3(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static double medianOdd(@NotNull final double[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private static double median(@NotNull final double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * The last split of a segmentation with the means of the final segment for which it is optimal.
+     */
+    private static class Candidate {
+
+        private final int start;
+        private final double base;
+        private final List<double[]> intervals = Lists.newArrayList();
+
+        Candidate(int start, double base) {
+            this.start = start;
+            this.base = base;
+        }
+
+        Candidate(int start, double base, double min, double max) {
+            this(start, base);
+            intervals.add(new double[] { min, max });
+        }
+
+        double cost(@NotNull final double[] sum, @NotNull final double[] sumSquares, int end) {
+            return base + squaredError(sum, sumSquares, start, end);
+        }
+
+        /**
+         * Restricts the means to those at which the cost of the final segment is no more than the given cost. Returns false if none
+         * remain.
+         */
+        boolean restrict(@NotNull final double[] sum, @NotNull final double[] sumSquares, int end, double maxCost) {
+            final double slack = maxCost - cost(sum, sumSquares, end);
+            if (slack < 0) {
+                return false;
+            }
+
+            final int count = end - start;
+            final double mean = (sum[end] - sum[start]) / count;
+            final double radius = Math.sqrt(slack / count);
+            final double lower = mean - radius;
+            final double upper = mean + radius;
+
+            final Iterator<double[]> iterator = intervals.iterator();
+            while (iterator.hasNext()) {
+                final double[] interval = iterator.next();
+                interval[0] = Math.max(interval[0], lower);
+                interval[1] = Math.min(interval[1], upper);
+                if (interval[0] > interval[1]) {
+                    iterator.remove();
+                }
+            }
+
+            return !intervals.isEmpty();
+        }
+    }
+
+    private static class Arm {
+
+        private final String arm;
+        private final String chromosome;
+        private final long[] positions;
+        private final double[] values;
+
+        <P extends GenomePosition> Arm(@NotNull final String arm, @NotNull final List<P> sorted, @NotNull final ToDoubleFunction<P> value) {
+            this.arm = arm;
+            this.chromosome = sorted.get(0).chromosome();
+            this.positions = sorted.stream().mapToLong(GenomePosition::position).toArray();
+            this.values = sorted.stream().mapToDouble(value).toArray();
+        }
+
+        @NotNull
+        List<PCFSegment> segments(@NotNull final int[] starts) {
+            final List<PCFSegment> result = Lists.newArrayList();
+            for (int i = 0; i < starts.length; i++) {
+                final int start = starts[i];
+                final int end = i + 1 < starts.length ? starts[i + 1] : values.length;
+
+                double sum = 0;
+                for (int j = start; j < end; j++) {
+                    sum += values[j];
+                }
+
+                result.add(ImmutablePCFSegment.builder()
+                        .chromosome(chromosome)
+                        .arm(arm)
+                        .start(positions[start])
+                        .end(positions[end - 1])
+                        .probes(end - start)
+                        .mean(sum / (end - start))
+                        .build());
+            }
+
+            return result;
+        }
+    }
+}
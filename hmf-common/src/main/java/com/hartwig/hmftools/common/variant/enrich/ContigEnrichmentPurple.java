@@ -1,15 +1,15 @@
 package com.hartwig.hmftools.common.variant.enrich;
 
-import static com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile.readFromVCF;
-
-import java.io.IOException;
 import java.util.List;
 import java.util.function.Consumer;
 
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.region.FittedRegion;
 import com.hartwig.hmftools.common.variant.clonality.PeakModel;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -17,26 +17,29 @@ import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 
-public class VariantContextEnrichmentPurple implements VariantContextEnrichment {
+/**
+ * The stateless part of the PURPLE enrichments, ie everything but kataegis. Instances are not thread safe but each contig can be
+ * enriched by its own instance in parallel, provided each has its own reference file. Kataegis only depends on the ref context
+ * and filters so can be applied afterwards to the merged output in order.
+ */
+public class ContigEnrichmentPurple implements VariantContextEnrichment {
 
-    private final VariantContextEnrichment purityEnrichment;
     private final VariantContextEnrichment hotspotEnrichment;
-    private final VariantContextEnrichment kataegisEnrichment;
     private final VariantContextEnrichment somaticRefContextEnrichment;
+    private final VariantContextEnrichment purityEnrichment;
     private final VariantContextEnrichment subclonalLikelihoodEnrichment;
 
-    public VariantContextEnrichmentPurple(boolean hotspotEnabled, double clonalityMaxPloidy, double clonalityBinWidth,
+    public ContigEnrichmentPurple(boolean hotspotEnabled, double clonalityMaxPloidy, double clonalityBinWidth,
             @NotNull final String purpleVersion, @NotNull final String tumorSample, @NotNull final IndexedFastaSequenceFile reference,
             @NotNull final PurityAdjuster purityAdjuster, @NotNull final List<PurpleCopyNumber> copyNumbers,
-            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> peakModel, @NotNull final String hotspots,
-            @NotNull final Consumer<VariantContext> consumer) throws IOException {
+            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> peakModel,
+            @NotNull final Multimap<Chromosome, VariantHotspot> hotspots, @NotNull final Consumer<VariantContext> consumer) {
         subclonalLikelihoodEnrichment = new SubclonalLikelihoodEnrichment(clonalityMaxPloidy, clonalityBinWidth, peakModel, consumer);
         purityEnrichment =
                 new PurityEnrichment(purpleVersion, tumorSample, purityAdjuster, copyNumbers, fittedRegions, subclonalLikelihoodEnrichment);
-        kataegisEnrichment = new KataegisEnrichment(purityEnrichment);
-        somaticRefContextEnrichment = new SomaticRefContextEnrichment(reference, kataegisEnrichment);
+        somaticRefContextEnrichment = new SomaticRefContextEnrichment(reference, purityEnrichment);
         if (hotspotEnabled) {
-            hotspotEnrichment = new VariantHotspotEnrichment(readFromVCF(hotspots), somaticRefContextEnrichment);
+            hotspotEnrichment = new VariantHotspotEnrichment(hotspots, somaticRefContextEnrichment);
         } else {
             hotspotEnrichment = VariantContextEnrichmentFactory.noEnrichment().create(somaticRefContextEnrichment);
         }
@@ -46,7 +49,6 @@ public class VariantContextEnrichmentPurple implements VariantContextEnrichment
     public void flush() {
         hotspotEnrichment.flush();
         somaticRefContextEnrichment.flush();
-        kataegisEnrichment.flush();
         purityEnrichment.flush();
         subclonalLikelihoodEnrichment.flush();
     }
@@ -54,6 +56,17 @@ public class VariantContextEnrichmentPurple implements VariantContextEnrichment
     @NotNull
     @Override
     public VCFHeader enrichHeader(@NotNull final VCFHeader template) {
+        VCFHeader header = somaticRefContextEnrichment.enrichHeader(template);
+        header = subclonalLikelihoodEnrichment.enrichHeader(header);
+        header = hotspotEnrichment.enrichHeader(header);
+        return purityEnrichment.enrichHeader(header);
+    }
+
+    /**
+     * Enriches the header with kataegis in the same position as the sequential enrichment chain so the header lines keep their order.
+     */
+    @NotNull
+    public VCFHeader enrichHeader(@NotNull final VCFHeader template, @NotNull final VariantContextEnrichment kataegisEnrichment) {
         VCFHeader header = somaticRefContextEnrichment.enrichHeader(template);
         header = kataegisEnrichment.enrichHeader(header);
         header = subclonalLikelihoodEnrichment.enrichHeader(header);
@@ -2,13 +2,20 @@ package com.hartwig.hmftools.common.cobalt;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.io.Resources;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 public class CobaltRatioFileTest {
@@ -27,4 +34,81 @@ public class CobaltRatioFileTest {
         final List<CobaltRatio> hg19 = Lists.newArrayList(CobaltRatioFile.read(HG19_PATH).get(HumanChromosome._1));
         assertEquals(4, hg19.size());
     }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        final ListMultimap<Chromosome, CobaltRatio> ratios = CobaltRatioFile.read(HG38_PATH);
+
+        final File file = File.createTempFile("cobalt", ".cobalt.ratio.bin");
+        file.deleteOnExit();
+        CobaltRatioFile.writeBinary(file.getPath(), ratios);
+
+        final ListMultimap<Chromosome, CobaltRatio> binary = CobaltRatioFile.read(file.getPath());
+        assertEquals(ratios.keySet(), binary.keySet());
+        for (Chromosome chromosome : ratios.keySet()) {
+            final List<CobaltRatio> expected = Lists.newArrayList(ratios.get(chromosome));
+            Collections.sort(expected);
+            assertEquals(expected, binary.get(chromosome));
+        }
+
+        final CobaltRatioColumns columns = CobaltRatioFile.readColumns(file.getPath()).get(HumanChromosome._1);
+        assertEquals("chr1", columns.chromosome());
+        assertEquals(5, columns.size());
+        assertEquals(binary.get(HumanChromosome._1).get(2).position(), columns.position(2));
+        assertEquals(binary.get(HumanChromosome._1).get(2).tumorGCRatio(), columns.tumorGCRatio(2), 0);
+    }
+
+    @Test
+    public void testTsvColumnsMatchBinary() throws IOException {
+        final File file = File.createTempFile("cobalt", ".cobalt.ratio.bin");
+        file.deleteOnExit();
+        CobaltRatioFile.writeBinary(file.getPath(), CobaltRatioFile.read(HG38_PATH));
+
+        final Map<Chromosome, CobaltRatioColumns> tsv = CobaltRatioFile.readColumns(HG38_PATH);
+        final Map<Chromosome, CobaltRatioColumns> binary = CobaltRatioFile.readColumns(file.getPath());
+        assertEquals(binary.keySet(), tsv.keySet());
+        for (Chromosome chromosome : binary.keySet()) {
+            final CobaltRatioColumns expected = binary.get(chromosome);
+            final CobaltRatioColumns actual = tsv.get(chromosome);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryRoundedAsTsv() throws IOException {
+        final ListMultimap<Chromosome, CobaltRatio> ratios = ArrayListMultimap.create();
+        ratios.put(HumanChromosome._1, ratio(1001, 0.123456, 0.00005, -1));
+        ratios.put(HumanChromosome._1, ratio(2001, 1.99995, 0.67891, 0.5));
+
+        final File binaryFile = File.createTempFile("cobalt", ".cobalt.ratio.bin");
+        binaryFile.deleteOnExit();
+        CobaltRatioFile.writeBinary(binaryFile.getPath(), ratios);
+
+        final File tsvFile = File.createTempFile("cobalt", ".cobalt.ratio.tsv");
+        tsvFile.deleteOnExit();
+        CobaltRatioFile.write(tsvFile.getPath(), ratios);
+
+        final CobaltRatioColumns binary = CobaltRatioFile.readColumns(binaryFile.getPath()).get(HumanChromosome._1);
+        final CobaltRatioColumns tsv = CobaltRatioFile.readColumns(tsvFile.getPath()).get(HumanChromosome._1);
+        assertEquals(0.1235, binary.referenceGCRatio(0), 0);
+        for (int i = 0; i < tsv.size(); i++) {
+            assertEquals(tsv.get(i), binary.get(i));
+        }
+    }
+
+    @NotNull
+    private static CobaltRatio ratio(long position, double referenceGCRatio, double tumorGCRatio, double referenceGCDiploidRatio) {
+        return ImmutableCobaltRatio.builder()
+                .chromosome("1")
+                .position(position)
+                .referenceReadCount(10)
+                .tumorReadCount(20)
+                .referenceGCRatio(referenceGCRatio)
+                .tumorGCRatio(tumorGCRatio)
+                .referenceGCDiploidRatio(referenceGCDiploidRatio)
+                .build();
+    }
 }
@@ -0,0 +1,172 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_GENE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_PROTEIN_FEATURE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_EXON_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader.ENSEMBL_TRANS_SPLICE_DATA_FILE;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataSnapshot.ENSEMBL_SNAPSHOT_FILE;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.HG37;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class EnsemblDataSnapshotTest
+{
+    @Test
+    public void testSnapshotMatchesCsvData() throws IOException
+    {
+        String dataPath = Files.createTempDirectory("ensembl_test").toString() + File.separator;
+
+        writeFile(dataPath + ENSEMBL_GENE_DATA_FILE,
+                "GeneId,GeneName,Chromosome,Strand,GeneStart,GeneEnd,EntrezIds,KaryotypeBand,Synonyms",
+                "ENSG001,GENE1,1,1,100,1000,1,p1,",
+                "ENSG002,GENE2,1,-1,2000,3000,2,p2,",
+                "ENSG003,GENE3,2,1,500,900,3,q1,");
+
+        writeFile(dataPath + ENSEMBL_TRANS_EXON_DATA_FILE,
+                "GeneId,CanonicalTranscriptId,Strand,TransId,Trans,BioType,TransStart,TransEnd,ExonRank,ExonStart,ExonEnd,"
+                        + "ExonPhase,ExonEndPhase,CodingStart,CodingEnd",
+                "ENSG001,1,1,1,ENST001,protein_coding,100,1000,1,100,200,-1,1,150,900",
+                "ENSG001,1,1,1,ENST001,protein_coding,100,1000,2,400,1000,1,-1,150,900",
+                "ENSG001,1,1,2,ENST002,lincRNA,100,600,1,100,600,-1,-1,NULL,NULL",
+                "ENSG002,3,-1,3,ENST003,protein_coding,2000,3000,1,2800,3000,-1,-1,NULL,NULL");
+
+        writeFile(dataPath + ENSEMBL_PROTEIN_FEATURE_DATA_FILE,
+                "TranscriptId,TranslationId,ProteinFeatureId,SeqStart,SeqEnd,HitDescription",
+                "1,10,100,5,20,Domain A",
+                "3,11,101,1,2,Domain B");
+
+        writeFile(dataPath + ENSEMBL_TRANS_SPLICE_DATA_FILE,
+                "GeneId,TransId,TransName,TransStartPos,PreSpliceAcceptorPosition,Distance",
+                "ENSG001,1,ENST001,100,50,50");
+
+        EnsemblDataCache csvCache = new EnsemblDataCache(dataPath, HG37);
+        csvCache.setRequiredData(true, true, true, false);
+        assertTrue(csvCache.load(false));
+
+        assertNull(EnsemblDataSnapshot.open(dataPath));
+        assertTrue(EnsemblDataSnapshot.writeSnapshot(dataPath, HG37));
+        assertNotNull(EnsemblDataSnapshot.open(dataPath));
+
+        EnsemblDataCache snapshotCache = new EnsemblDataCache(dataPath, HG37);
+        snapshotCache.setRequiredData(true, true, true, false);
+        assertTrue(snapshotCache.load(false));
+
+        // a gene's transcripts are read on first request and then kept
+        final List<TranscriptData> geneTrans = snapshotCache.getTranscripts("ENSG001");
+        assertEquals(2, geneTrans.size());
+        assertSame(geneTrans, snapshotCache.getTranscripts("ENSG001"));
+        assertEquals("ENST003", snapshotCache.getTranscriptData("ENSG002", "").TransName);
+        assertNull(snapshotCache.getTranscripts("ENSG003"));
+
+        assertEquals(csvCache.getChrGeneDataMap().keySet(), snapshotCache.getChrGeneDataMap().keySet());
+
+        for(String chromosome : csvCache.getChrGeneDataMap().keySet())
+        {
+            final List<EnsemblGeneData> csvGenes = csvCache.getChrGeneDataMap().get(chromosome);
+            final List<EnsemblGeneData> snapshotGenes = snapshotCache.getChrGeneDataMap().get(chromosome);
+            assertEquals(csvGenes.size(), snapshotGenes.size());
+
+            for(int i = 0; i < csvGenes.size(); ++i)
+            {
+                assertEquals(csvGenes.get(i).toString(), snapshotGenes.get(i).toString());
+                assertEquals(csvGenes.get(i).KaryotypeBand, snapshotGenes.get(i).KaryotypeBand);
+            }
+        }
+
+        assertEquals(csvCache.getTranscriptDataMap().keySet(), snapshotCache.getTranscriptDataMap().keySet());
+
+        for(String geneId : csvCache.getTranscriptDataMap().keySet())
+        {
+            final List<TranscriptData> csvTrans = csvCache.getTranscriptDataMap().get(geneId);
+            final List<TranscriptData> snapshotTrans = snapshotCache.getTranscriptDataMap().get(geneId);
+            assertEquals(csvTrans.size(), snapshotTrans.size());
+
+            for(int i = 0; i < csvTrans.size(); ++i)
+            {
+                assertEquals(csvTrans.get(i).toString(), snapshotTrans.get(i).toString());
+                assertEquals(csvTrans.get(i).BioType, snapshotTrans.get(i).BioType);
+                assertEquals(csvTrans.get(i).CodingStart, snapshotTrans.get(i).CodingStart);
+                assertEquals(csvTrans.get(i).CodingEnd, snapshotTrans.get(i).CodingEnd);
+
+                for(int j = 0; j < csvTrans.get(i).exons().size(); ++j)
+                {
+                    assertEquals(csvTrans.get(i).exons().get(j).toString(), snapshotTrans.get(i).exons().get(j).toString());
+                }
+            }
+        }
+
+        assertEquals(2, snapshotCache.getTranscriptProteinDataMap().size());
+        assertEquals("Domain B", snapshotCache.getTranscriptProteinDataMap().get(3).get(0).HitDescription);
+        assertEquals(50, snapshotCache.findPrecedingGeneSpliceAcceptorPosition(1));
+
+        // transcripts are read for the requested genes only
+        EnsemblDataCache selectiveCache = new EnsemblDataCache(dataPath, HG37);
+        assertTrue(selectiveCache.load(true));
+        assertTrue(selectiveCache.getTranscriptDataMap().isEmpty());
+
+        assertTrue(selectiveCache.loadTranscriptData(Lists.newArrayList("ENSG002")));
+        assertEquals(1, selectiveCache.getTranscriptDataMap().size());
+        assertEquals("ENST003", selectiveCache.getTranscriptDataMap().get("ENSG002").get(0).TransName);
+    }
+
+    @Test
+    public void testSnapshotWithoutOptionalData() throws IOException
+    {
+        String dataPath = Files.createTempDirectory("ensembl_test").toString() + File.separator;
+
+        writeFile(dataPath + ENSEMBL_GENE_DATA_FILE,
+                "GeneId,GeneName,Chromosome,Strand,GeneStart,GeneEnd,EntrezIds,KaryotypeBand,Synonyms",
+                "ENSG001,GENE1,1,1,100,1000,1,p1,");
+
+        writeFile(dataPath + ENSEMBL_TRANS_EXON_DATA_FILE,
+                "GeneId,CanonicalTranscriptId,Strand,TransId,Trans,BioType,TransStart,TransEnd,ExonRank,ExonStart,ExonEnd,"
+                        + "ExonPhase,ExonEndPhase,CodingStart,CodingEnd",
+                "ENSG001,1,1,1,ENST001,protein_coding,100,1000,1,100,1000,-1,-1,NULL,NULL");
+
+        // missing protein features or splice acceptors fail the load whether read from the CSV files or a snapshot
+        assertOptionalDataRequired(dataPath);
+
+        assertTrue(EnsemblDataSnapshot.writeSnapshot(dataPath, HG37));
+        assertNotNull(EnsemblDataSnapshot.open(dataPath));
+        assertOptionalDataRequired(dataPath);
+    }
+
+    private static void assertOptionalDataRequired(final String dataPath)
+    {
+        EnsemblDataCache proteinCache = new EnsemblDataCache(dataPath, HG37);
+        proteinCache.setRequiredData(true, true, false, false);
+        assertFalse(proteinCache.load(false));
+
+        EnsemblDataCache spliceCache = new EnsemblDataCache(dataPath, HG37);
+        spliceCache.setRequiredData(true, false, true, false);
+        assertFalse(spliceCache.load(false));
+
+        EnsemblDataCache delayedCache = new EnsemblDataCache(dataPath, HG37);
+        delayedCache.setRequiredData(true, true, false, false);
+        assertTrue(delayedCache.load(true));
+        assertFalse(delayedCache.loadTranscriptData(Lists.newArrayList("ENSG001")));
+
+        EnsemblDataCache geneCache = new EnsemblDataCache(dataPath, HG37);
+        assertTrue(geneCache.load(false));
+        assertEquals("ENST001", geneCache.getTranscripts("ENSG001").get(0).TransName);
+    }
+
+    private static void writeFile(final String filename, final String... lines) throws IOException
+    {
+        Files.write(new File(filename).toPath(), Lists.newArrayList(lines));
+    }
+}
@@ -0,0 +1,77 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class IntervalIndexTest
+{
+    @Test
+    public void testOverlappingRegions()
+    {
+        final List<int[]> regions = Lists.newArrayList(
+                new int[] {100, 200}, new int[] {150, 1000}, new int[] {300, 400}, new int[] {50, 60}, new int[] {950, 960});
+
+        IntervalIndex<int[]> index = new IntervalIndex<>(regions, x -> x[0], x -> x[1]);
+
+        assertEquals(5, index.size());
+        assertTrue(index.findOverlapping(0, 49).isEmpty());
+        assertTrue(index.findOverlapping(1001, 2000).isEmpty());
+
+        // matches are returned in their source order, with inclusive bounds
+        List<int[]> matches = index.findOverlapping(200, 300);
+        assertEquals(3, matches.size());
+        assertEquals(regions.get(0), matches.get(0));
+        assertEquals(regions.get(1), matches.get(1));
+        assertEquals(regions.get(2), matches.get(2));
+
+        matches = index.findOverlapping(955, 955);
+        assertEquals(2, matches.size());
+        assertEquals(regions.get(1), matches.get(0));
+        assertEquals(regions.get(4), matches.get(1));
+
+        assertTrue(index.matchesSource(regions));
+        regions.add(new int[] {10, 20});
+        assertFalse(index.matchesSource(regions));
+    }
+
+    @Test
+    public void testMatchesLinearSearch()
+    {
+        Random random = new Random(1);
+
+        for(int test = 0; test < 100; ++test)
+        {
+            final List<int[]> regions = Lists.newArrayList();
+            int regionCount = random.nextInt(500);
+
+            for(int i = 0; i < regionCount; ++i)
+            {
+                int start = random.nextInt(100000);
+                int length = random.nextInt(10) == 0 ? random.nextInt(50000) : random.nextInt(2000);
+                regions.add(new int[] {start, start + length});
+            }
+
+            IntervalIndex<int[]> index = new IntervalIndex<>(regions, x -> x[0], x -> x[1]);
+
+            for(int query = 0; query < 50; ++query)
+            {
+                int posStart = random.nextInt(110000) - 5000;
+                int posEnd = posStart + random.nextInt(3000);
+
+                final List<int[]> expected = regions.stream()
+                        .filter(x -> x[0] <= posEnd && x[1] >= posStart).collect(Collectors.toList());
+
+                assertEquals(expected, index.findOverlapping(posStart, posEnd));
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 
 import com.google.common.collect.Multimap;
 import com.google.common.io.Resources;
@@ -20,4 +21,38 @@ public class GCProfileFactoryTest {
         final Multimap<Chromosome, GCProfile> gcContent = GCProfileFactory.loadGCContent(1000, BASE_PATH + "GC_profile.1000bp.cnp");
         assertEquals(100, gcContent.size());
     }
+
+    @Test
+    public void canRoundTripBinaryFile() throws IOException {
+        final Multimap<Chromosome, GCProfile> gcContent = GCProfileFactory.loadGCContent(1000, BASE_PATH + "GC_profile.1000bp.cnp");
+
+        final File file = File.createTempFile("gc_profile", ".bin");
+        file.deleteOnExit();
+        GCProfileFactory.writeBinary(file.getPath(), gcContent);
+
+        final Multimap<Chromosome, GCProfile> binary = GCProfileFactory.loadGCContent(1000, file.getPath());
+        assertEquals(gcContent, binary);
+    }
+
+    @Test
+    public void canLoadColumnsFromEitherFile() throws IOException {
+        final String tsvFile = BASE_PATH + "GC_profile.1000bp.cnp";
+        final File binaryFile = File.createTempFile("gc_profile", ".bin");
+        binaryFile.deleteOnExit();
+        GCProfileFactory.writeBinary(binaryFile.getPath(), GCProfileFactory.loadGCContent(1000, tsvFile));
+
+        final Map<Chromosome, GCProfileColumns> tsv = GCProfileFactory.loadColumns(1000, tsvFile);
+        final Map<Chromosome, GCProfileColumns> binary = GCProfileFactory.loadColumns(1000, binaryFile.getPath());
+        assertEquals(binary.keySet(), tsv.keySet());
+        for (Chromosome chromosome : binary.keySet()) {
+            final GCProfileColumns expected = binary.get(chromosome);
+            final GCProfileColumns actual = tsv.get(chromosome);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), actual.get(i));
+                assertEquals(i, actual.indexOf(actual.start(i)));
+                assertEquals(i, actual.indexOf(actual.end(i)));
+            }
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.hartwig.hmftools.common.purple.purity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveGridSearchTest {
+
+    private static final int PURITIES = 93;
+    private static final int NORM_FACTORS = 168;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testFindsGlobalMinimumBetweenCoarsePoints() throws ExecutionException, InterruptedException {
+        final List<List<FittedPurity>> result = search((p, n) -> 1 + sq(p - 33) + sq(n - 71));
+
+        final FittedPurity best = best(result);
+        assertEquals(33, best.purity(), 1e-9);
+        assertEquals(71, best.normFactor(), 1e-9);
+    }
+
+    @Test
+    public void testRefinesSecondaryBasin() throws ExecutionException, InterruptedException {
+        final List<List<FittedPurity>> result = search((p, n) -> Math.min(1 + sq(p - 12) + sq(n - 23), 1.5 + sq(p - 81) + sq(n - 142)));
+
+        assertEquals(81, result.get(81).get(0).purity(), 1e-9);
+        assertEquals(142, result.get(81).get(0).normFactor(), 1e-9);
+        assertEquals(12, best(result).purity(), 1e-9);
+    }
+
+    @Test
+    public void testDoesNotScoreFullGrid() throws ExecutionException, InterruptedException {
+        final List<List<FittedPurity>> result = search((p, n) -> 1 + sq(p - 50) + sq(n - 50));
+
+        int scored = 0;
+        for (List<FittedPurity> fits : result) {
+            scored += fits.size();
+        }
+        assertTrue(scored < PURITIES * NORM_FACTORS / 4);
+    }
+
+    @Test
+    public void testIgnoresInvalidPoints() throws ExecutionException, InterruptedException {
+        final List<List<FittedPurity>> result = search((p, n) -> n > 100 ? Double.NaN : 1 + sq(p - 40) + sq(n - 99));
+
+        for (List<FittedPurity> fits : result) {
+            for (FittedPurity fit : fits) {
+                assertTrue(fit.normFactor() <= 100);
+            }
+        }
+        assertEquals(99, best(result).normFactor(), 1e-9);
+    }
+
+    @NotNull
+    private List<List<FittedPurity>> search(@NotNull final Score score) throws ExecutionException, InterruptedException {
+        return new AdaptiveGridSearch(executorService, PURITIES, NORM_FACTORS, (purityIndex, normFactorIndexes) -> {
+            final FittedPurity[] fits = new FittedPurity[normFactorIndexes.length];
+            for (int i = 0; i < normFactorIndexes.length; i++) {
+                final double value = score.score(purityIndex, normFactorIndexes[i]);
+                if (!Double.isNaN(value)) {
+                    fits[i] = create(purityIndex, normFactorIndexes[i], value);
+                }
+            }
+            return fits;
+        }).search();
+    }
+
+    @NotNull
+    private static FittedPurity best(@NotNull final List<List<FittedPurity>> result) {
+        FittedPurity best = null;
+        for (List<FittedPurity> fits : result) {
+            if (!fits.isEmpty() && (best == null || fits.get(0).score() < best.score())) {
+                best = fits.get(0);
+            }
+        }
+        return best;
+    }
+
+    @NotNull
+    private static FittedPurity create(int purity, int normFactor, double score) {
+        return ImmutableFittedPurity.builder()
+                .purity(purity)
+                .normFactor(normFactor)
+                .score(score)
+                .diploidProportion(1)
+                .ploidy(2)
+                .somaticPenalty(0)
+                .build();
+    }
+
+    private static double sq(double value) {
+        return value * value;
+    }
+
+    private interface Score {
+
+        double score(int purity, int normFactor);
+    }
+}
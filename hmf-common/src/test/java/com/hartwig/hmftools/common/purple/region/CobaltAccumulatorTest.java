@@ -2,12 +2,13 @@ package com.hartwig.hmftools.common.purple.region;
 
 import static org.junit.Assert.assertEquals;
 
-import java.util.List;
-
-import com.google.common.collect.Lists;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
@@ -38,19 +39,18 @@ public class CobaltAccumulatorTest {
     private void assertTumorCount(int expectedCount, long regionStart, long regionEnd, long... ratios) {
         final GenomeRegion region = GenomeRegions.create(CHROMOSOME, regionStart, regionEnd);
         final ObservedRegionFactory.CobaltAccumulator accumulator = new ObservedRegionFactory.CobaltAccumulator(WINDOW_SIZE, region);
-        final GenomePositionSelector<CobaltRatio> selector = createSelector(ratios);
-        selector.select(region, accumulator);
+        accumulator.select(createColumns(ratios));
         assertEquals(expectedCount, accumulator.tumorCount());
     }
 
     @NotNull
-    private static GenomePositionSelector<CobaltRatio> createSelector(long... ratioPositions) {
-        List<CobaltRatio> ratios = Lists.newArrayList();
+    private static CobaltRatioColumns createColumns(long... ratioPositions) {
+        ListMultimap<Chromosome, CobaltRatio> ratios = ArrayListMultimap.create();
         for (long ratioPosition : ratioPositions) {
-            ratios.add(ratio(ratioPosition));
+            ratios.put(HumanChromosome._1, ratio(ratioPosition));
         }
 
-        return GenomePositionSelectorFactory.create(ratios);
+        return CobaltRatioFile.toColumns(ratios).get(HumanChromosome._1);
     }
 
     @NotNull
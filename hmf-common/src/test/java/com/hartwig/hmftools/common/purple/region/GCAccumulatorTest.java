@@ -2,14 +2,15 @@ package com.hartwig.hmftools.common.purple.region;
 
 import static org.junit.Assert.assertEquals;
 
-import java.util.List;
-
-import com.google.common.collect.Lists;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
+import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
 import com.hartwig.hmftools.common.genome.gc.ImmutableGCProfile;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 
 import org.jetbrains.annotations.NotNull;
@@ -25,8 +26,8 @@ public class GCAccumulatorTest {
     public void testStandard() {
         final GenomeRegion region = GenomeRegions.create(CHROMOSOME, 1001, 10000);
         final GCAccumulator victim = new GCAccumulator(region);
-        final GenomeRegionSelector<GCProfile> selector = selector(profile(1001, 0.30), profile(4001, 0.31), profile(9001, 0.35));
-        selector.select(region, victim);
+        final GCProfileColumns profiles = columns(profile(1001, 0.30), profile(4001, 0.31), profile(9001, 0.35));
+        victim.select(profiles);
         assertEquals(0.32, victim.averageGCContent(), EPSILON);
     }
 
@@ -34,8 +35,8 @@ public class GCAccumulatorTest {
     public void testExcludeUnmappable() {
         final GenomeRegion region = GenomeRegions.create(CHROMOSOME, 1001, 3000);
         final GCAccumulator victim = new GCAccumulator(region);
-        final GenomeRegionSelector<GCProfile> selector = selector(profile(1001, 0.90), unmappableProfile(2001, 0.91));
-        selector.select(region, victim);
+        final GCProfileColumns profiles = columns(profile(1001, 0.90), unmappableProfile(2001, 0.91));
+        victim.select(profiles);
         assertEquals(0.90, victim.averageGCContent(), EPSILON);
     }
 
@@ -43,8 +44,8 @@ public class GCAccumulatorTest {
     public void testExcludeOverlapAtStart() {
         final GenomeRegion region = GenomeRegions.create(CHROMOSOME, 1100, 3000);
         final GCAccumulator victim = new GCAccumulator(region);
-        final GenomeRegionSelector<GCProfile> selector = selector(profile(1001, 0.90), profile(2001, 0.91));
-        selector.select(region, victim);
+        final GCProfileColumns profiles = columns(profile(1001, 0.90), profile(2001, 0.91));
+        victim.select(profiles);
         assertEquals(0.91, victim.averageGCContent(), EPSILON);
     }
 
@@ -52,8 +53,8 @@ public class GCAccumulatorTest {
     public void testExcludeOverlapFromEnd() {
         final GenomeRegion region = GenomeRegions.create(CHROMOSOME, 1001, 2999);
         final GCAccumulator victim = new GCAccumulator(region);
-        final GenomeRegionSelector<GCProfile> selector = selector(profile(1001, 0.90), profile(2001, 0.91));
-        selector.select(region, victim);
+        final GCProfileColumns profiles = columns(profile(1001, 0.90), profile(2001, 0.91));
+        victim.select(profiles);
         assertEquals(0.90, victim.averageGCContent(), EPSILON);
     }
 
@@ -61,15 +62,18 @@ public class GCAccumulatorTest {
     public void testExcludeFromBothEnds() {
         final GenomeRegion region = GenomeRegions.create(CHROMOSOME, 1100, 2999);
         final GCAccumulator victim = new GCAccumulator(region);
-        final GenomeRegionSelector<GCProfile> selector = selector(profile(1001, 0.90), profile(2001, 0.91));
-        selector.select(region, victim);
+        final GCProfileColumns profiles = columns(profile(1001, 0.90), profile(2001, 0.91));
+        victim.select(profiles);
         assertEquals(0, victim.averageGCContent(), EPSILON);
     }
 
     @NotNull
-    private static GenomeRegionSelector<GCProfile> selector(GCProfile... profiles) {
-        List<GCProfile> list = Lists.newArrayList(profiles);
-        return GenomeRegionSelectorFactory.create(list);
+    private static GCProfileColumns columns(GCProfile... profiles) {
+        Multimap<Chromosome, GCProfile> multimap = ArrayListMultimap.create();
+        for (GCProfile profile : profiles) {
+            multimap.put(HumanChromosome._1, profile);
+        }
+        return GCProfileFactory.toColumns(WINDOW_SIZE, multimap).get(HumanChromosome._1);
     }
 
     @NotNull
@@ -0,0 +1,27 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.junit.Test;
+
+public class NormalDistributionTableTest {
+
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testMatchesNormalDistribution() {
+        final NormalDistribution distribution = new NormalDistribution();
+        for (double x = -10; x <= 10; x += 0.00037) {
+            assertEquals(distribution.cumulativeProbability(x), NormalDistributionTable.cumulativeProbability(x), EPSILON);
+        }
+    }
+
+    @Test
+    public void testTableBoundaries() {
+        assertEquals(0.5, NormalDistributionTable.cumulativeProbability(0), EPSILON);
+        assertEquals(1, NormalDistributionTable.cumulativeProbability(8), EPSILON);
+        assertEquals(0, NormalDistributionTable.cumulativeProbability(-8), EPSILON);
+        assertEquals(1, NormalDistributionTable.cumulativeProbability(Double.POSITIVE_INFINITY), EPSILON);
+    }
+}
@@ -5,8 +5,14 @@ import static org.junit.Assert.assertEquals;
 import java.util.Collections;
 import java.util.List;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
 import com.hartwig.hmftools.common.utils.pcf.ImmutablePCFPosition;
 import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
@@ -33,7 +39,7 @@ public class ClusterFactoryTest {
     public void testBoundaries() {
         final List<SVSegment> sv = variants(37383599, 37387153);
         final List<PCFPosition> ratios = createRatioBreaks(36965001, 37381001, 37382001, 37384001, 37387001, 37389001);
-        final List<CobaltRatio> cobalt = cobalt(37380001, true, false, true, true, true, true, true);
+        final CobaltRatioColumns cobalt = cobalt(37380001, true, false, true, true, true, true, true);
 
         final List<Cluster> clusters = victim.cluster(sv, ratios, cobalt);
         assertEquals(4, clusters.size());
@@ -45,7 +51,7 @@ public class ClusterFactoryTest {
 
     @Test
     public void testWindowStartWithRatios() {
-        final List<CobaltRatio> cobalt = cobalt(37380001, true, false, true, true, true, true, true);
+        final CobaltRatioColumns cobalt = cobalt(37380001, true, false, true, true, true, true, true);
 
         assertEquals(37380002, victim.earliestDetectableCopyNumberChangePosition(37381001, 6, cobalt));
         assertEquals(37380002, victim.earliestDetectableCopyNumberChangePosition(37381002, 6, cobalt));
@@ -65,7 +71,7 @@ public class ClusterFactoryTest {
 
     @Test
     public void testWindowStartWithoutRatios() {
-        final List<CobaltRatio> cobalt = Lists.newArrayList();
+        final CobaltRatioColumns cobalt = null;
 
         assertEquals(37380002, victim.earliestDetectableCopyNumberChangePosition(37381001, -1, cobalt));
         assertEquals(37380002, victim.earliestDetectableCopyNumberChangePosition(37381002, -1, cobalt));
@@ -87,7 +93,7 @@ public class ClusterFactoryTest {
     @Test
     public void testDefaultClusterBounds() {
         final SVSegment sv = createSVPosition(15532);
-        final List<Cluster> clusters = victim.cluster(Lists.newArrayList(sv), Collections.emptyList(), Collections.emptyList());
+        final List<Cluster> clusters = victim.cluster(Lists.newArrayList(sv), Collections.emptyList(), null);
         assertEquals(1, clusters.size());
         assertVariantInCluster(clusters.get(0), 14002, 15532);
     }
@@ -95,7 +101,7 @@ public class ClusterFactoryTest {
     @Test
     public void testClusterBoundsWithRatios() {
         final List<SVSegment> sv = variants(15532);
-        final List<CobaltRatio> ratios = createRatios();
+        final CobaltRatioColumns ratios = createRatios();
         final List<Cluster> clusters = victim.cluster(sv, Collections.emptyList(), ratios);
         assertEquals(1, clusters.size());
         assertVariantInCluster(clusters.get(0), 12002, 15532);
@@ -104,7 +110,7 @@ public class ClusterFactoryTest {
     @Test
     public void testTwoSVInsideCluster() {
         final List<SVSegment> sv = variants(15532, 16771);
-        final List<Cluster> clusters = victim.cluster(sv, Collections.emptyList(), Collections.emptyList());
+        final List<Cluster> clusters = victim.cluster(sv, Collections.emptyList(), null);
         assertEquals(1, clusters.size());
         assertVariantsInCluster(clusters.get(0), 14002, 15532, 16771);
     }
@@ -112,7 +118,7 @@ public class ClusterFactoryTest {
     @Test
     public void testTwoSVOutsideCluster() {
         final List<SVSegment> sv = variants(15532, 17881);
-        final List<Cluster> clusters = victim.cluster(sv, Collections.emptyList(), Collections.emptyList());
+        final List<Cluster> clusters = victim.cluster(sv, Collections.emptyList(), null);
         assertEquals(2, clusters.size());
         assertVariantInCluster(clusters.get(0), 14002, 15532);
         assertVariantInCluster(clusters.get(1), 16002, 17881);
@@ -121,7 +127,7 @@ public class ClusterFactoryTest {
     @Test
     public void testTwoSVInsideClusterWithRatio() {
         final List<SVSegment> sv = variants(15532, 18881);
-        final List<CobaltRatio> ratios = createRatios();
+        final CobaltRatioColumns ratios = createRatios();
         final List<Cluster> clusters = victim.cluster(sv, Collections.emptyList(), ratios);
         assertEquals(1, clusters.size());
         assertVariantsInCluster(clusters.get(0), 12002, 15532, 18881);
@@ -154,7 +160,7 @@ public class ClusterFactoryTest {
     }
 
     @NotNull
-    private static List<CobaltRatio> createRatios() {
+    private static CobaltRatioColumns createRatios() {
         return cobalt(11001, true, true, false, false, true, false, false, true);
     }
 
@@ -178,14 +184,14 @@ public class ClusterFactoryTest {
     }
 
     @NotNull
-    private static List<CobaltRatio> cobalt(long startPosition, boolean... usable) {
-        final List<CobaltRatio> result = Lists.newArrayList();
+    private static CobaltRatioColumns cobalt(long startPosition, boolean... usable) {
+        final ListMultimap<Chromosome, CobaltRatio> result = ArrayListMultimap.create();
         int offset = 0;
         for (boolean isUsable : usable) {
-            result.add(cobalt(startPosition + offset, isUsable));
+            result.put(HumanChromosome._1, cobalt(startPosition + offset, isUsable));
             offset += WINDOW;
         }
-        return result;
+        return CobaltRatioFile.toColumns(result).get(HumanChromosome._1);
     }
 
     @NotNull
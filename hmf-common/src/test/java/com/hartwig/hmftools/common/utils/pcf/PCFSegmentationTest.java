@@ -0,0 +1,212 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Resources;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class PCFSegmentationTest {
+
+    private static final double EPSILON = 1e-10;
+
+    // Expected segments are those of pcf(gamma = 100, kmin = 1) in the copynumber R package, see pcf/segmentation.R
+    private static final String INPUT = Resources.getResource("pcf/segmentation.input.tsv").getPath();
+    private static final String RATIO_PCF = Resources.getResource("pcf/segmentation.ratio.pcf").getPath();
+    private static final String BAF_PCF = Resources.getResource("pcf/segmentation.baf.pcf").getPath();
+
+    @Test
+    public void testStepIsSplit() {
+        final double[] values = { 0, 0.1, 0, -0.1, 0, 5, 5.1, 5, 4.9, 5 };
+        assertArrayEquals(new int[] { 0, 5 }, PCFSegmentation.segmentStarts(values, 1));
+        assertArrayEquals(new int[] { 0 }, PCFSegmentation.segmentStarts(values, 100));
+    }
+
+    @Test
+    public void testSingleValueSegment() {
+        final double[] values = { 0, 0, 0, 0, 10, 0, 0, 0, 0 };
+        assertArrayEquals(new int[] { 0, 4, 5 }, PCFSegmentation.segmentStarts(values, 1));
+        assertArrayEquals(new int[] { 0 }, PCFSegmentation.segmentStarts(values, 100));
+        assertArrayEquals(new int[] { 0 }, PCFSegmentation.segmentStarts(new double[] { 2, 2, 2 }, 1));
+    }
+
+    @Test
+    public void testPrunedMatchesExhaustiveSearch() {
+        final Random random = new Random(0);
+        for (int trial = 0; trial < 50; trial++) {
+            final int n = 1 + random.nextInt(300);
+            final double[] values = new double[n];
+            double level = 0;
+            for (int i = 0; i < n; i++) {
+                if (random.nextInt(40) == 0) {
+                    level = random.nextGaussian() * 3;
+                }
+                values[i] = level + random.nextGaussian();
+            }
+
+            for (double penalty : new double[] { 0.5, 5, 50 }) {
+                assertArrayEquals(exhaustive(values, penalty), PCFSegmentation.segmentStarts(values, penalty));
+            }
+        }
+    }
+
+    @Test
+    public void testPenaltyScalesWithVariance() {
+        final Random random = new Random(0);
+        final double[] values = new double[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1 + 0.2 * random.nextGaussian();
+        }
+
+        final double sd = PCFSegmentation.mad(values);
+        assertEquals(0.2, sd, 0.02);
+        assertEquals(100 * sd * sd, PCFSegmentation.penalty(100, values), EPSILON);
+    }
+
+    @Test
+    public void testMedianFilterMatchesRunmed() {
+        // runmed(c(1, 5, 2, 8, 3, 9, 4), 3, endrule = "median")
+        final double[] result = PCFSegmentation.medianFilter(new double[] { 1, 5, 2, 8, 3, 9, 4 }, 1);
+        assertArrayEquals(new double[] { 1, 2, 5, 3, 8, 4, 4 }, result, EPSILON);
+
+        // runmed(c(3, 1, 4, 1, 5, 9, 2, 6, 5), 5, endrule = "median")
+        final double[] wider = PCFSegmentation.medianFilter(new double[] { 3, 1, 4, 1, 5, 9, 2, 6, 5 }, 2);
+        assertArrayEquals(new double[] { 3, 3, 3, 4, 4, 5, 5, 5, 5 }, wider, EPSILON);
+    }
+
+    @Test
+    public void testArmsAreSegmentedSeparately() throws ExecutionException, InterruptedException {
+        final Random random = new Random(0);
+        final ListMultimap<Chromosome, GenomePosition> positions = ArrayListMultimap.create();
+        final Map<GenomePosition, Double> values = Maps.newHashMap();
+        for (int i = 1; i <= 20; i++) {
+            final GenomePosition position = GenomePositions.create("1", i * 1000);
+            positions.put(HumanChromosome._1, position);
+            values.put(position, (i > 15 ? 3 : 0) + random.nextGaussian() * 0.1);
+        }
+
+        final Map<Chromosome, Long> centromeres = ImmutableMap.of(HumanChromosome._1, 10500L);
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final List<PCFSegment> segments = new PCFSegmentation(executorService, centromeres).segment(positions, values::get);
+            assertEquals(3, segments.size());
+            assertSegment(segments.get(0), "p", 1000, 10000, 10, 0);
+            assertSegment(segments.get(1), "q", 11000, 15000, 5, 0);
+            assertSegment(segments.get(2), "q", 16000, 20000, 5, 3);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testMatchesCopynumberPcf() throws ExecutionException, InterruptedException, IOException {
+        final ListMultimap<Chromosome, GenomePosition> positions = ArrayListMultimap.create();
+        final Map<GenomePosition, Double> ratios = Maps.newHashMap();
+        final Map<GenomePosition, Double> bafs = Maps.newHashMap();
+        for (String line : Files.readAllLines(new File(INPUT).toPath())) {
+            if (!line.startsWith("chromosome")) {
+                final String[] values = line.split("\t");
+                final GenomePosition position = GenomePositions.create(values[0], Long.parseLong(values[1]));
+                positions.put(HumanChromosome.fromString(values[0]), position);
+                ratios.put(position, Double.parseDouble(values[2]));
+                bafs.put(position, Double.parseDouble(values[3]));
+            }
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final PCFSegmentation segmentation = new PCFSegmentation(executorService, RefGenome.HG19.centromeres());
+            assertPcfFile(RATIO_PCF, "S1", segmentation.segment(positions, ratios::get));
+            assertPcfFile(BAF_PCF, "tumorModifiedBAF", segmentation.segment(positions, bafs::get));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static void assertPcfFile(@NotNull final String expectedFile, @NotNull final String sampleId,
+            @NotNull final List<PCFSegment> segments) throws IOException {
+        final File actualFile = File.createTempFile("segmentation", ".pcf");
+        actualFile.deleteOnExit();
+        PCFFile.write(actualFile.getPath(), sampleId, segments);
+
+        assertEquals(Files.readAllLines(new File(expectedFile).toPath()), Files.readAllLines(actualFile.toPath()));
+    }
+
+    private static void assertSegment(@NotNull final PCFSegment segment, @NotNull final String arm, long start, long end, int probes,
+            double mean) {
+        assertEquals(arm, segment.arm());
+        assertEquals(start, segment.start());
+        assertEquals(end, segment.end());
+        assertEquals(probes, segment.probes());
+        assertEquals(mean, segment.mean(), 0.1);
+    }
+
+    @NotNull
+    private static int[] exhaustive(@NotNull final double[] y, double penalty) {
+        final int n = y.length;
+        final double[] bestCost = new double[n + 1];
+        final int[] bestSplit = new int[n + 1];
+        for (int end = 1; end <= n; end++) {
+            double cost = Double.POSITIVE_INFINITY;
+            int split = -1;
+            for (int start = 1; start < end; start++) {
+                final double candidate = bestCost[start] + squaredError(y, start, end) + penalty;
+                if (candidate < cost) {
+                    cost = candidate;
+                    split = start;
+                }
+            }
+
+            final double single = squaredError(y, 0, end) + penalty;
+            if (single < cost) {
+                cost = single;
+                split = 0;
+            }
+
+            bestCost[end] = cost;
+            bestSplit[end] = split;
+        }
+
+        final List<Integer> starts = Lists.newArrayList();
+        for (int end = n; end > 0; end = bestSplit[end]) {
+            starts.add(0, bestSplit[end]);
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double squaredError(@NotNull final double[] y, int start, int end) {
+        double sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += y[i];
+        }
+
+        final double mean = sum / (end - start);
+        double result = 0;
+        for (int i = start; i < end; i++) {
+            result += (y[i] - mean) * (y[i] - mean);
+        }
+        return result;
+    }
+}
@@ -1,5 +1,7 @@
 package com.hartwig.hmftools.isofox;
 
+import static java.lang.Math.max;
+
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
 import static com.hartwig.hmftools.isofox.IsofoxFunction.FUSIONS;
 import static com.hartwig.hmftools.isofox.IsofoxFunction.NOVEL_LOCATIONS;
@@ -64,6 +66,8 @@ public class ChromosomeGeneTask implements Callable
     private final ExpectedCountsCache mExpectedCountsCache;
 
     private final List<EnsemblGeneData> mGeneDataList;
+    private final int mUnitStartIndex; // this task's range of the chromosome's genes, always on gene collection boundaries
+    private final int mUnitEndIndex;
     private final Map<Integer,List<EnsemblGeneData>> mGeneCollectionMap;
     private final Map<Integer, BaseDepth> mGeneDepthMap;
     private int mCollectionId;
@@ -98,6 +102,16 @@ public class ChromosomeGeneTask implements Callable
             final IsofoxConfig config, final String chromosome, final List<EnsemblGeneData> geneDataList,
             final EnsemblDataCache geneTransCache, final ResultsWriter resultsWriter,
             final ExpectedCountsCache expectedCountsCache, final GcTranscriptCalculator transcriptGcCalcs)
+    {
+        this(config, chromosome, geneDataList, 0, geneDataList.size(), 0,
+                geneTransCache, resultsWriter, expectedCountsCache, transcriptGcCalcs);
+    }
+
+    public ChromosomeGeneTask(
+            final IsofoxConfig config, final String chromosome, final List<EnsemblGeneData> geneDataList,
+            int unitStartIndex, int unitEndIndex, int collectionIdStart,
+            final EnsemblDataCache geneTransCache, final ResultsWriter resultsWriter,
+            final ExpectedCountsCache expectedCountsCache, final GcTranscriptCalculator transcriptGcCalcs)
     {
         mConfig = config;
         mChromosome = chromosome;
@@ -105,11 +119,13 @@ public class ChromosomeGeneTask implements Callable
         mResultsWriter = resultsWriter;
 
         mGeneDataList = geneDataList;
+        mUnitStartIndex = unitStartIndex;
+        mUnitEndIndex = unitEndIndex;
         mGeneCollectionMap = Maps.newHashMap();
         mGeneDepthMap = Maps.newHashMap();
-        mCollectionId = 0;
+        mCollectionId = collectionIdStart; // keeps gene collection IDs the same as when the chromosome is processed as one unit
 
-        mCurrentGeneIndex = 0;
+        mCurrentGeneIndex = mUnitStartIndex;
         mCurrentTaskType = null;
 
         mFragmentSizeCalc = new FragmentSizeCalcs(mConfig, mGeneTransCache, mResultsWriter.getFragmentLengthWriter());
@@ -148,6 +164,8 @@ public class ChromosomeGeneTask implements Callable
     }
 
     public String chromosome() { return mChromosome; }
+    public int unitGeneCount() { return mUnitEndIndex - mUnitStartIndex; }
+    public boolean isFirstUnit() { return mUnitStartIndex == 0; }
     public final BamFragmentAllocator getFragmentAllocator() { return mBamFragmentAllocator; }
     public final FragmentSizeCalcs getFragSizeCalcs() { return mFragmentSizeCalc; }
     public final List<GeneCollectionSummary> getGeneCollectionSummaryData() { return mGeneCollectionSummaryData; }
@@ -201,16 +219,13 @@ public class ChromosomeGeneTask implements Callable
 
     public void generateExpectedCounts()
     {
-        if(mGeneDataList.size() > 10)
-        {
-            ISF_LOGGER.info("processing {} genes for chromosome({})", mGeneDataList.size(), mChromosome);
-        }
+        logUnitStart();
 
-        mCurrentGeneIndex = 0;
+        mCurrentGeneIndex = mUnitStartIndex;
         final List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
         int nextLogCount = 100;
 
-        while(mCurrentGeneIndex < mGeneDataList.size())
+        while(mCurrentGeneIndex < mUnitEndIndex)
         {
             mCurrentGeneIndex = findNextOverlappingGenes(mGeneDataList, mCurrentGeneIndex, overlappingGenes);
             final List<GeneReadData> geneReadDataList = createGeneReadData(overlappingGenes);
@@ -239,29 +254,33 @@ public class ChromosomeGeneTask implements Callable
             if (mGenesProcessed >= nextLogCount)
             {
                 nextLogCount += 100;
-                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, mGeneDataList.size());
+                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, unitGeneCount());
             }
         }
 
         if(nextLogCount > 100)
-            ISF_LOGGER.info("chromosome({}) transcript counting complete", mChromosome);
+            ISF_LOGGER.info("chromosome({}) genes({} -> {}) transcript counting complete", mChromosome, mUnitStartIndex, mUnitEndIndex);
     }
 
     public void assignTranscriptCounts()
     {
-        if(mGeneDataList.size() > 10)
-        {
-            ISF_LOGGER.info("processing {} genes for chromosome({})", mGeneDataList.size(), mChromosome);
-        }
+        logUnitStart();
 
-        mCurrentGeneIndex = 0;
+        mCurrentGeneIndex = mUnitStartIndex;
         final List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
         int nextLogCount = 100;
+
+        // a unit starting mid-chromosome takes non-genic reads from the end of the preceding gene collection, as a whole chromosome would
         int lastGeneCollectionEndPosition = 1;
 
+        for(int i = 0; i < mUnitStartIndex; ++i)
+        {
+            lastGeneCollectionEndPosition = max(lastGeneCollectionEndPosition, mGeneDataList.get(i).GeneEnd + 1);
+        }
+
         boolean genesFiltered = !mConfig.RestrictedGeneIds.isEmpty();
 
-        while(mCurrentGeneIndex < mGeneDataList.size())
+        while(mCurrentGeneIndex < mUnitEndIndex)
         {
             mCurrentGeneIndex = findNextOverlappingGenes(mGeneDataList, mCurrentGeneIndex, overlappingGenes);
             final List<GeneReadData> geneReadDataList = createGeneReadData(overlappingGenes);
@@ -316,7 +335,7 @@ public class ChromosomeGeneTask implements Callable
             if (mGenesProcessed >= nextLogCount)
             {
                 nextLogCount += 100;
-                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, mGeneDataList.size());
+                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, unitGeneCount());
 
                 if(mConfig.runFunction(FUSIONS))
                     ISF_LOGGER.debug("chr({}) chimeric data: {}", mChromosome, mChimericStats);
@@ -330,6 +349,22 @@ public class ChromosomeGeneTask implements Callable
         }
     }
 
+    private void logUnitStart()
+    {
+        if(unitGeneCount() <= 10)
+            return;
+
+        if(unitGeneCount() == mGeneDataList.size())
+        {
+            ISF_LOGGER.info("processing {} genes for chromosome({})", mGeneDataList.size(), mChromosome);
+        }
+        else
+        {
+            ISF_LOGGER.info("processing {} genes for chromosome({}) genes({} -> {} of {})",
+                    unitGeneCount(), mChromosome, mUnitStartIndex, mUnitEndIndex, mGeneDataList.size());
+        }
+    }
+
     public void calcFragmentLengths()
     {
         mPerfCounters[PERF_FRAG_LENGTH].start();
@@ -5,12 +5,15 @@ import static java.lang.Math.max;
 import static com.hartwig.hmftools.common.sigs.DataUtils.convertToPercentages;
 import static com.hartwig.hmftools.common.sigs.DataUtils.copyVector;
 import static com.hartwig.hmftools.isofox.ChromosomeGeneTask.PERF_FIT;
+import static com.hartwig.hmftools.isofox.ChromosomeGeneTask.findNextOverlappingGenes;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.GENE_TRANSCRIPTS_DIR;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.LOG_DEBUG;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.LOG_LEVEL;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.createCmdLineOptions;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.validConfigPaths;
+import static com.hartwig.hmftools.isofox.IsofoxConstants.MIN_WORK_UNIT_GENES;
+import static com.hartwig.hmftools.isofox.IsofoxConstants.WORK_UNITS_PER_THREAD;
 import static com.hartwig.hmftools.isofox.TaskType.APPLY_GC_ADJUSTMENT;
 import static com.hartwig.hmftools.isofox.TaskType.FRAGMENT_LENGTHS;
 import static com.hartwig.hmftools.isofox.TaskType.GENERATE_EXPECTED_COUNTS;
@@ -28,16 +31,16 @@ import static com.hartwig.hmftools.isofox.results.SummaryStats.createSummaryStat
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
@@ -110,23 +113,8 @@ public class Isofox
         else
             ISF_LOGGER.info("running Isofox cache generation", mConfig.SampleId);
 
-        // allocate work at the chromosome level
-        List<ChromosomeGeneTask> chrTasks = Lists.newArrayList();
-
-        for(Map.Entry<String,List<EnsemblGeneData>> entry : mGeneTransCache.getChrGeneDataMap().entrySet())
-        {
-            final List<EnsemblGeneData> geneDataList = entry.getValue();
-
-            final String chromosome = entry.getKey();
-
-            if (mConfig.skipChromosome(chromosome) || geneDataList.isEmpty())
-                continue;
-
-            ChromosomeGeneTask chrGeneTask = new ChromosomeGeneTask(
-                    mConfig, chromosome, geneDataList, mGeneTransCache, mResultsWriter, mExpectedCountsCache, mGcTranscriptCalcs);
-
-            chrTasks.add(chrGeneTask);
-        }
+        // allocate work in units of consecutive gene collections, several per chromosome when running multi-threaded
+        List<ChromosomeGeneTask> chrTasks = createWorkUnits();
 
         if(chrTasks.isEmpty())
         {
@@ -261,6 +249,77 @@ public class Isofox
         return true;
     }
 
+    private List<ChromosomeGeneTask> createWorkUnits()
+    {
+        final Map<String,List<EnsemblGeneData>> chrGeneMap = mGeneTransCache.getChrGeneDataMap().entrySet().stream()
+                .filter(x -> !mConfig.skipChromosome(x.getKey()) && !x.getValue().isEmpty())
+                .collect(Collectors.toMap(x -> x.getKey(), x -> x.getValue(), (x, y) -> x, LinkedHashMap::new));
+
+        // fusion finding carries chimeric reads and junction positions from one gene collection to the next, so requires whole chromosomes
+        int unitGeneCount = Integer.MAX_VALUE;
+
+        if(mConfig.Threads > 1 && !mConfig.runFunction(FUSIONS))
+        {
+            int totalGenes = chrGeneMap.values().stream().mapToInt(x -> x.size()).sum();
+            unitGeneCount = max(totalGenes / (mConfig.Threads * WORK_UNITS_PER_THREAD), MIN_WORK_UNIT_GENES);
+        }
+
+        List<ChromosomeGeneTask> chrTasks = Lists.newArrayList();
+
+        for(Map.Entry<String,List<EnsemblGeneData>> entry : chrGeneMap.entrySet())
+        {
+            final String chromosome = entry.getKey();
+            final List<EnsemblGeneData> geneDataList = entry.getValue();
+
+            for(int[] unit : splitGeneCollections(geneDataList, unitGeneCount))
+            {
+                chrTasks.add(new ChromosomeGeneTask(
+                        mConfig, chromosome, geneDataList, unit[UNIT_START_INDEX], unit[UNIT_END_INDEX], unit[UNIT_COLLECTION_ID],
+                        mGeneTransCache, mResultsWriter, mExpectedCountsCache, mGcTranscriptCalcs));
+            }
+        }
+
+        if(chrTasks.size() > chrGeneMap.size())
+        {
+            ISF_LOGGER.info("split {} chromosomes into {} work units of ~{} genes", chrGeneMap.size(), chrTasks.size(), unitGeneCount);
+        }
+
+        return chrTasks;
+    }
+
+    public static final int UNIT_START_INDEX = 0;
+    public static final int UNIT_END_INDEX = 1;
+    public static final int UNIT_COLLECTION_ID = 2;
+
+    // splits a chromosome's genes into units of at least the unit gene count, each ending on a gene collection boundary,
+    // returned as the unit's gene index range and the ID of its first gene collection
+    public static List<int[]> splitGeneCollections(final List<EnsemblGeneData> geneDataList, int unitGeneCount)
+    {
+        final List<int[]> units = Lists.newArrayList();
+        final List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
+
+        int collectionCount = 0;
+        int unitStartIndex = 0;
+        int unitStartCollectionId = 0;
+        int geneIndex = 0;
+
+        while(geneIndex < geneDataList.size())
+        {
+            geneIndex = findNextOverlappingGenes(geneDataList, geneIndex, overlappingGenes);
+            ++collectionCount;
+
+            if(geneIndex - unitStartIndex < unitGeneCount && geneIndex < geneDataList.size())
+                continue;
+
+            units.add(new int[] { unitStartIndex, geneIndex, unitStartCollectionId });
+
+            unitStartIndex = geneIndex;
+            unitStartCollectionId = collectionCount;
+        }
+
+        return units;
+    }
+
     private void applyGcAdjustments(final List<ChromosomeGeneTask> chrTasks, final GcRatioCounts actualGcCounts)
     {
         ISF_LOGGER.info("applying GC adjustments and transcript re-fit");
@@ -283,8 +342,11 @@ public class Isofox
 
     private void calcFragmentLengths(final List<ChromosomeGeneTask> chrTasks)
     {
-        // determine the distribution of fragment lengths for analysis and adjustment of expected transcript rates
-        boolean validExecution = executeChromosomeTask(chrTasks, FRAGMENT_LENGTHS);
+        // determine the distribution of fragment lengths for analysis and adjustment of expected transcript rates - this samples
+        // a fixed number of fragments from the start of each chromosome, so is run once per chromosome rather than per unit
+        final List<ChromosomeGeneTask> chromosomeTasks = chrTasks.stream().filter(x -> x.isFirstUnit()).collect(Collectors.toList());
+
+        boolean validExecution = executeChromosomeTask(chromosomeTasks, FRAGMENT_LENGTHS);
 
         if(!validExecution)
         {
@@ -294,7 +356,7 @@ public class Isofox
 
         // merge results from all chromosomes
         int maxReadLength = 0;
-        for(final ChromosomeGeneTask chrGeneTask : chrTasks)
+        for(final ChromosomeGeneTask chrGeneTask : chromosomeTasks)
         {
             final FragmentSizeCalcs fragSizeCalcs = chrGeneTask.getFragSizeCalcs();
             maxReadLength = max(maxReadLength, fragSizeCalcs.getMaxReadLength());
@@ -313,8 +375,10 @@ public class Isofox
 
     private void generateGcRatios(final List<ChromosomeGeneTask> chrTasks)
     {
-        // for now a way of only calculating fragment lengths and nothing more
-        boolean validExecution = executeChromosomeTask(chrTasks, GENERATE_GC_COUNTS);
+        // expected GC ratios are written with a per-chromosome total, so are generated once per chromosome
+        final List<ChromosomeGeneTask> chromosomeTasks = chrTasks.stream().filter(x -> x.isFirstUnit()).collect(Collectors.toList());
+
+        boolean validExecution = executeChromosomeTask(chromosomeTasks, GENERATE_GC_COUNTS);
 
         if(!validExecution)
         {
@@ -345,12 +409,16 @@ public class Isofox
             return true;
         }
 
-        final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("Isofox-%d").build();
-
-        ExecutorService executorService = Executors.newFixedThreadPool(mConfig.Threads, namedThreadFactory);
+        // idle threads take the remaining units from busy ones, and submitting the largest units first stops a large
+        // chromosome's final unit from starting last
+        ExecutorService executorService = Executors.newWorkStealingPool(mConfig.Threads);
         List<FutureTask> threadTaskList = new ArrayList<FutureTask>();
 
-        for(ChromosomeGeneTask chrGeneTask : chrTasks)
+        final List<ChromosomeGeneTask> orderedTasks = chrTasks.stream()
+                .sorted(Comparator.comparingInt(ChromosomeGeneTask::unitGeneCount).reversed())
+                .collect(Collectors.toList());
+
+        for(ChromosomeGeneTask chrGeneTask : orderedTasks)
         {
             FutureTask futureTask = new FutureTask(chrGeneTask);
 
@@ -15,5 +15,9 @@ public class IsofoxConstants
 
     public static final int MAX_NOVEL_SJ_DISTANCE = 500000; // beyond which a fragment will be considered chimeric
 
+    // multi-threaded work units of consecutive gene collections, sized so each thread has several units to balance load
+    public static final int WORK_UNITS_PER_THREAD = 8;
+    public static final int MIN_WORK_UNIT_GENES = 100;
+
 
 }
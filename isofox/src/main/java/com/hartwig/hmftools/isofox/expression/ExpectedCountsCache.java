@@ -2,6 +2,7 @@ package com.hartwig.hmftools.isofox.expression;
 
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createFieldsIndexMap;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
+import static com.hartwig.hmftools.isofox.expression.ExpectedRatesGenerator.FL_LENGTH;
 import static com.hartwig.hmftools.isofox.results.ResultsWriter.DELIMITER;
 
 import java.io.BufferedReader;
@@ -9,6 +10,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,18 +24,23 @@ public class ExpectedCountsCache
     private final IsofoxConfig mConfig;
     private final Map<String,Map<String,List<CategoryCountsData>>> mGeneSetCategoryDataMap;
     private final Map<String,ExpectedRatesData> mGeneSetExpectedRatesDataMap;
+    private ExpectedCountsFile mExpCountsFile; // binary cache, gene sets are read on demand
     private boolean mValidData;
 
     public ExpectedCountsCache(final IsofoxConfig config)
     {
         mConfig = config;
         mGeneSetCategoryDataMap = Maps.newHashMap();
-        mGeneSetExpectedRatesDataMap = Maps.newHashMap();
+        mGeneSetExpectedRatesDataMap = Maps.newConcurrentMap(); // populated concurrently by work units when fitting with GC adjustment
+        mExpCountsFile = null;
         mValidData = true;
 
         if(config.ExpCountsFile != null && Files.exists(Paths.get(mConfig.ExpCountsFile)))
         {
-            mValidData = loadExpCountsFile();
+            if(ExpectedCountsFile.isBinaryFile(mConfig.ExpCountsFile))
+                mValidData = loadBinaryExpCountsFile();
+            else
+                mValidData = loadExpCountsFile();
         }
     }
 
@@ -46,6 +53,9 @@ public class ExpectedCountsCache
 
     public Map<String,List<CategoryCountsData>> getGeneExpectedRatesData(final String chrId, final List<String> geneIds)
     {
+        if(mExpCountsFile != null)
+            return mExpCountsFile.getGeneSetCountsData(chrId, geneIds);
+
         Map<String, List<CategoryCountsData>> geneSetCountsData = mGeneSetCategoryDataMap.get(chrId);
 
         if (geneSetCountsData == null || !geneSetCountsDataMatches(geneIds, geneSetCountsData.keySet()))
@@ -53,7 +63,35 @@ public class ExpectedCountsCache
             geneSetCountsData = findGeneSetCountsData(geneIds);
         }
 
-        return geneSetCountsData;
+        // return a copy as with the binary file, since fragment length adjustments are applied to the returned counts
+        return geneSetCountsData != null ? copyGeneSetCountsData(geneSetCountsData) : null;
+    }
+
+    private static Map<String,List<CategoryCountsData>> copyGeneSetCountsData(final Map<String,List<CategoryCountsData>> geneSetCountsData)
+    {
+        final Map<String,List<CategoryCountsData>> copy = Maps.newHashMapWithExpectedSize(geneSetCountsData.size());
+
+        for(Map.Entry<String,List<CategoryCountsData>> entry : geneSetCountsData.entrySet())
+        {
+            List<CategoryCountsData> categoryDataList = Lists.newArrayListWithExpectedSize(entry.getValue().size());
+
+            for(CategoryCountsData catCounts : entry.getValue())
+            {
+                final int[] lengthCounts = catCounts.fragmentCountsByLength();
+                CategoryCountsData catCountsCopy = new CategoryCountsData(catCounts.combinedKey(), lengthCounts.length);
+
+                for(int i = 0; i < lengthCounts.length; ++i)
+                {
+                    catCountsCopy.addFragLengthCounts(lengthCounts[i], i);
+                }
+
+                categoryDataList.add(catCountsCopy);
+            }
+
+            copy.put(entry.getKey(), categoryDataList);
+        }
+
+        return copy;
     }
 
     public void addGeneExpectedRatesData(final String chrId, final ExpectedRatesData expectedRatesData)
@@ -78,6 +116,34 @@ public class ExpectedCountsCache
         return null;
     }
 
+    private boolean loadBinaryExpCountsFile()
+    {
+        try
+        {
+            mExpCountsFile = new ExpectedCountsFile(mConfig.ExpCountsFile);
+        }
+        catch(IOException e)
+        {
+            ISF_LOGGER.error("failed to load expected counts file({}): {}", mConfig.ExpCountsFile, e.toString());
+            return false;
+        }
+
+        final int[] fileFragmentLengths = mExpCountsFile.fragmentLengths();
+        final int[] configFragmentLengths = mConfig.FragmentLengthData.stream().mapToInt(x -> x[FL_LENGTH]).toArray();
+
+        if(!Arrays.equals(fileFragmentLengths, configFragmentLengths))
+        {
+            ISF_LOGGER.error("expected counts file({}) fragment lengths({}) differ from config({})",
+                    mConfig.ExpCountsFile, Arrays.toString(fileFragmentLengths), Arrays.toString(configFragmentLengths));
+            mExpCountsFile.close();
+            mExpCountsFile = null;
+            return false;
+        }
+
+        ISF_LOGGER.info("indexed {} gene expected counts from file({})", mExpCountsFile.geneSetCount(), mConfig.ExpCountsFile);
+        return true;
+    }
+
     // GeneSetId,TransId,Category,Counts for each fragment length
     private boolean loadExpCountsFile()
     {
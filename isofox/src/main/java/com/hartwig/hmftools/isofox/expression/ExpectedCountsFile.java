@@ -0,0 +1,216 @@
+package com.hartwig.hmftools.isofox.expression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
+
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+// binary expected counts cache, written by ExpectedCountsWriter:
+// header: magic, version, fragment length count, fragment lengths
+// gene sets: transcript count, then per transcript its name and category count, then all category keys,
+//    then the category x fragment length counts matrix as a primitive int array
+// index: gene set count, then per gene set its ID, offset, length and transcript names (including unspliced gene IDs)
+// footer: index offset, magic
+// only the header and index are read up front, each gene set is memory-mapped when its gene collection is processed
+
+public class ExpectedCountsFile
+{
+    public static final int MAGIC = 0x49534543; // ISEC
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 3 * Integer.BYTES;
+    public static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final String mFilename;
+    private final RandomAccessFile mFile;
+    private final FileChannel mChannel;
+    private final int[] mFragmentLengths;
+
+    private final Map<String,Integer> mGeneSetIndex;
+    private final long[] mOffsets;
+    private final int[] mLengths;
+    private final List<Set<String>> mGeneSetTransNames;
+
+    public ExpectedCountsFile(final String filename) throws IOException
+    {
+        mFilename = filename;
+        mFile = new RandomAccessFile(filename, "r");
+        mChannel = mFile.getChannel();
+
+        long fileSize = mChannel.size();
+
+        if(fileSize < HEADER_SIZE + FOOTER_SIZE)
+            throw new IOException(String.format("expected counts file(%s) is not binary", filename));
+
+        ByteBuffer footer = mChannel.map(FileChannel.MapMode.READ_ONLY, fileSize - FOOTER_SIZE, FOOTER_SIZE);
+        long indexOffset = footer.getLong();
+
+        if(footer.getInt() != MAGIC)
+            throw new IOException(String.format("expected counts file(%s) is incomplete", filename));
+
+        ByteBuffer header = mChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+        if(header.getInt() != MAGIC)
+            throw new IOException(String.format("expected counts file(%s) is not binary", filename));
+
+        int version = header.getInt();
+
+        if(version != VERSION)
+            throw new IOException(String.format("expected counts file(%s) version(%d) not supported", filename, version));
+
+        mFragmentLengths = new int[header.getInt()];
+
+        ByteBuffer lengths = mChannel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, mFragmentLengths.length * Integer.BYTES);
+
+        for(int i = 0; i < mFragmentLengths.length; ++i)
+        {
+            mFragmentLengths[i] = lengths.getInt();
+        }
+
+        ByteBuffer index = mChannel.map(FileChannel.MapMode.READ_ONLY, indexOffset, fileSize - FOOTER_SIZE - indexOffset);
+
+        int geneSetCount = index.getInt();
+        mGeneSetIndex = Maps.newHashMapWithExpectedSize(geneSetCount);
+        mOffsets = new long[geneSetCount];
+        mLengths = new int[geneSetCount];
+        mGeneSetTransNames = Lists.newArrayListWithExpectedSize(geneSetCount);
+
+        for(int i = 0; i < geneSetCount; ++i)
+        {
+            mGeneSetIndex.put(readString(index), i);
+            mOffsets[i] = index.getLong();
+            mLengths[i] = index.getInt();
+
+            int transCount = index.getInt();
+            Set<String> transNames = Sets.newHashSetWithExpectedSize(transCount);
+
+            for(int j = 0; j < transCount; ++j)
+            {
+                transNames.add(readString(index));
+            }
+
+            mGeneSetTransNames.add(transNames);
+        }
+    }
+
+    public static boolean isBinaryFile(final String filename)
+    {
+        try(DataInputStream inputStream = new DataInputStream(new FileInputStream(filename)))
+        {
+            return inputStream.readInt() == MAGIC;
+        }
+        catch(IOException e)
+        {
+            return false;
+        }
+    }
+
+    public int geneSetCount() { return mOffsets.length; }
+    public int[] fragmentLengths() { return mFragmentLengths; }
+
+    public Map<String,List<CategoryCountsData>> getGeneSetCountsData(final String geneSetId, final List<String> geneIds)
+    {
+        // use the gene set with this ID if its genes match, otherwise the first gene set containing all the genes
+        Integer index = mGeneSetIndex.get(geneSetId);
+
+        if(index == null || !mGeneSetTransNames.get(index).containsAll(geneIds))
+        {
+            index = null;
+
+            for(int i = 0; i < mGeneSetTransNames.size(); ++i)
+            {
+                if(mGeneSetTransNames.get(i).containsAll(geneIds))
+                {
+                    index = i;
+                    break;
+                }
+            }
+
+            if(index == null)
+                return null;
+        }
+
+        try
+        {
+            return readGeneSet(mChannel.map(FileChannel.MapMode.READ_ONLY, mOffsets[index], mLengths[index]));
+        }
+        catch(IOException e)
+        {
+            ISF_LOGGER.error("failed to read gene set({}) from expected counts file({}): {}", geneSetId, mFilename, e.toString());
+            return null;
+        }
+    }
+
+    private Map<String,List<CategoryCountsData>> readGeneSet(final ByteBuffer buffer)
+    {
+        int fragLengths = mFragmentLengths.length;
+        int transCount = buffer.getInt();
+
+        final List<String> transNames = Lists.newArrayListWithExpectedSize(transCount);
+        final int[] categoryCounts = new int[transCount];
+
+        for(int i = 0; i < transCount; ++i)
+        {
+            transNames.add(readString(buffer));
+            categoryCounts[i] = buffer.getInt();
+        }
+
+        final Map<String,List<CategoryCountsData>> transCategoryData = Maps.newHashMapWithExpectedSize(transCount);
+        final List<CategoryCountsData> allCategories = Lists.newArrayList();
+
+        for(int i = 0; i < transCount; ++i)
+        {
+            List<CategoryCountsData> categoryDataList = Lists.newArrayListWithExpectedSize(categoryCounts[i]);
+
+            for(int j = 0; j < categoryCounts[i]; ++j)
+            {
+                CategoryCountsData catCounts = new CategoryCountsData(readString(buffer), fragLengths);
+                categoryDataList.add(catCounts);
+                allCategories.add(catCounts);
+            }
+
+            transCategoryData.put(transNames.get(i), categoryDataList);
+        }
+
+        for(CategoryCountsData catCounts : allCategories)
+        {
+            for(int i = 0; i < fragLengths; ++i)
+            {
+                catCounts.addFragLengthCounts(buffer.getInt(), i);
+            }
+        }
+
+        return transCategoryData;
+    }
+
+    public void close()
+    {
+        try
+        {
+            mFile.close();
+        }
+        catch(IOException e)
+        {
+            ISF_LOGGER.error("failed to close expected counts file({}): {}", mFilename, e.toString());
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
@@ -0,0 +1,165 @@
+package com.hartwig.hmftools.isofox.expression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
+import static com.hartwig.hmftools.isofox.expression.ExpectedCountsFile.MAGIC;
+import static com.hartwig.hmftools.isofox.expression.ExpectedCountsFile.VERSION;
+import static com.hartwig.hmftools.isofox.expression.ExpectedRatesGenerator.FL_LENGTH;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.isofox.IsofoxConfig;
+
+// writes the binary expected counts cache read by ExpectedCountsFile, with gene sets written as they are generated
+// and the index written on close
+
+public class ExpectedCountsWriter
+{
+    private final String mFilename;
+    private final DataOutputStream mOutputStream;
+    private final int mFragmentLengths;
+    private long mOffset;
+
+    private final List<String> mGeneSetIds;
+    private final List<long[]> mGeneSetOffsets;
+    private final List<List<String>> mGeneSetTransNames;
+
+    public ExpectedCountsWriter(final String filename, final List<int[]> fragmentLengthData) throws IOException
+    {
+        mFilename = filename;
+        mOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+        mFragmentLengths = fragmentLengthData.size();
+        mGeneSetIds = Lists.newArrayList();
+        mGeneSetOffsets = Lists.newArrayList();
+        mGeneSetTransNames = Lists.newArrayList();
+
+        mOutputStream.writeInt(MAGIC);
+        mOutputStream.writeInt(VERSION);
+        mOutputStream.writeInt(mFragmentLengths);
+
+        for(int[] fragLength : fragmentLengthData)
+        {
+            mOutputStream.writeInt(fragLength[FL_LENGTH]);
+        }
+
+        mOffset = (3 + mFragmentLengths) * Integer.BYTES;
+    }
+
+    public static ExpectedCountsWriter createWriter(final IsofoxConfig config)
+    {
+        String outputFileName = String.format("%sread_%d_%s", config.OutputDir, config.ReadLength, "exp_counts.bin");
+
+        try
+        {
+            return new ExpectedCountsWriter(outputFileName, config.FragmentLengthData);
+        }
+        catch(IOException e)
+        {
+            ISF_LOGGER.error("failed to create binary expected counts file({}): {}", outputFileName, e.toString());
+            return null;
+        }
+    }
+
+    public synchronized void writeGeneSet(final String geneSetId, final Map<String,List<CategoryCountsData>> transCountsMap)
+    {
+        try
+        {
+            // build the block in memory so its length is known for the index
+            ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+            DataOutputStream block = new DataOutputStream(blockBytes);
+
+            final List<String> transNames = Lists.newArrayList(transCountsMap.keySet());
+            block.writeInt(transNames.size());
+
+            for(String transName : transNames)
+            {
+                writeString(block, transName);
+                block.writeInt(transCountsMap.get(transName).size());
+            }
+
+            for(String transName : transNames)
+            {
+                for(CategoryCountsData tcData : transCountsMap.get(transName))
+                {
+                    writeString(block, tcData.combinedKey());
+                }
+            }
+
+            for(String transName : transNames)
+            {
+                for(CategoryCountsData tcData : transCountsMap.get(transName))
+                {
+                    final int[] lengthCounts = tcData.fragmentCountsByLength();
+
+                    for(int i = 0; i < mFragmentLengths; ++i)
+                    {
+                        block.writeInt(lengthCounts[i]);
+                    }
+                }
+            }
+
+            block.flush();
+            blockBytes.writeTo(mOutputStream);
+
+            mGeneSetIds.add(geneSetId);
+            mGeneSetOffsets.add(new long[] { mOffset, blockBytes.size() });
+            mGeneSetTransNames.add(transNames);
+
+            mOffset += blockBytes.size();
+        }
+        catch(IOException e)
+        {
+            ISF_LOGGER.error("failed to write binary expected counts file({}): {}", mFilename, e.toString());
+        }
+    }
+
+    public synchronized void close()
+    {
+        try
+        {
+            long indexOffset = mOffset;
+
+            mOutputStream.writeInt(mGeneSetIds.size());
+
+            for(int i = 0; i < mGeneSetIds.size(); ++i)
+            {
+                writeString(mOutputStream, mGeneSetIds.get(i));
+                mOutputStream.writeLong(mGeneSetOffsets.get(i)[0]);
+                mOutputStream.writeInt((int)mGeneSetOffsets.get(i)[1]);
+
+                final List<String> transNames = mGeneSetTransNames.get(i);
+                mOutputStream.writeInt(transNames.size());
+
+                for(String transName : transNames)
+                {
+                    writeString(mOutputStream, transName);
+                }
+            }
+
+            mOutputStream.writeLong(indexOffset);
+            mOutputStream.writeInt(MAGIC);
+            mOutputStream.close();
+
+            ISF_LOGGER.info("wrote {} gene sets to binary expected counts file({})", mGeneSetIds.size(), mFilename);
+        }
+        catch(IOException e)
+        {
+            ISF_LOGGER.error("failed to close binary expected counts file({}): {}", mFilename, e.toString());
+        }
+    }
+
+    private static void writeString(final DataOutputStream outputStream, final String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(UTF_8);
+        outputStream.writeShort(bytes.length);
+        outputStream.write(bytes);
+    }
+}
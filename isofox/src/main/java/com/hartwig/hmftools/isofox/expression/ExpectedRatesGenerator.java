@@ -50,6 +50,7 @@ public class ExpectedRatesGenerator
     private final List<ExpectedRatesData> mExpectedRatesDataList;
 
     private final BufferedWriter mExpRateWriter;
+    private final ExpectedCountsWriter mExpCountsWriter;
 
     public static final int FL_LENGTH = 0;
     public static final int FL_FREQUENCY = 1;
@@ -68,6 +69,7 @@ public class ExpectedRatesGenerator
         mExpectedRatesDataList = Lists.newArrayList();
 
         mExpRateWriter = resultsWriter != null ? resultsWriter.getExpRatesWriter() : null;
+        mExpCountsWriter = resultsWriter != null ? resultsWriter.getExpCountsWriter() : null;
     }
 
     public static ExpectedRatesGenerator from(final IsofoxConfig config)
@@ -201,6 +203,9 @@ public class ExpectedRatesGenerator
         if(mConfig.runFunction(EXPECTED_TRANS_COUNTS))
         {
             writeExpectedCounts(mExpRateWriter, geneCollection.chrId(), mTransCategoryCounts);
+
+            if(mExpCountsWriter != null)
+                mExpCountsWriter.writeGeneSet(geneCollection.chrId(), mTransCategoryCounts);
         }
         else
         {
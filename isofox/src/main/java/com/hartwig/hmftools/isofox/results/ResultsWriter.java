@@ -31,6 +31,7 @@ import com.hartwig.hmftools.isofox.adjusts.FragmentSizeCalcs;
 import com.hartwig.hmftools.isofox.common.GeneCollection;
 import com.hartwig.hmftools.isofox.common.GeneReadData;
 import com.hartwig.hmftools.isofox.common.RegionReadData;
+import com.hartwig.hmftools.isofox.expression.ExpectedCountsWriter;
 import com.hartwig.hmftools.isofox.expression.ExpectedRatesGenerator;
 import com.hartwig.hmftools.isofox.expression.TranscriptExpression;
 import com.hartwig.hmftools.isofox.adjusts.GcRatioCounts;
@@ -53,6 +54,7 @@ public class ResultsWriter
 
     // controlled by other components but instantiated once for output synchronosation
     private BufferedWriter mExpRateWriter;
+    private ExpectedCountsWriter mExpCountsWriter;
     private BufferedWriter mReadDataWriter;
     private BufferedWriter mAltSpliceJunctionWriter;
     private BufferedWriter mGeneFragLengthWriter;
@@ -80,6 +82,7 @@ public class ResultsWriter
         mExonDataWriter = null;
         mCategoryCountsWriter = null;
         mExpRateWriter = null;
+        mExpCountsWriter = null;
         mReadDataWriter = null;
         mAltSpliceJunctionWriter = null;
         mGeneFragLengthWriter = null;
@@ -101,6 +104,10 @@ public class ResultsWriter
         closeBufferedWriter(mExonDataWriter);
         closeBufferedWriter(mCategoryCountsWriter);
         closeBufferedWriter(mExpRateWriter);
+
+        if(mExpCountsWriter != null)
+            mExpCountsWriter.close();
+
         closeBufferedWriter(mReadDataWriter);
         closeBufferedWriter(mAltSpliceJunctionWriter);
         closeBufferedWriter(mGeneFragLengthWriter);
@@ -118,6 +125,11 @@ public class ResultsWriter
             mExpRateWriter = ExpectedRatesGenerator.createWriter(mConfig);
         }
 
+        if(mConfig.runFunction(EXPECTED_TRANS_COUNTS))
+        {
+            mExpCountsWriter = ExpectedCountsWriter.createWriter(mConfig);
+        }
+
         if(mConfig.WriteFragmentLengthsByGene)
         {
             mGeneFragLengthWriter = FragmentSizeCalcs.createGeneFragmentLengthWriter(mConfig);
@@ -144,6 +156,7 @@ public class ResultsWriter
     }
 
     public BufferedWriter getExpRatesWriter() { return mExpRateWriter;}
+    public ExpectedCountsWriter getExpCountsWriter() { return mExpCountsWriter;}
     public BufferedWriter getCategoryCountsWriter() { return mCategoryCountsWriter;}
     public BufferedWriter getAltSpliceJunctionWriter() { return mAltSpliceJunctionWriter;}
     public BufferedWriter getRetainedIntronWriter() { return mRetainedIntronWriter;}
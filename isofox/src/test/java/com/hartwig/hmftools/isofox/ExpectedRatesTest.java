@@ -8,12 +8,16 @@ import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblGeneData;
 import com.hartwig.hmftools.common.ensemblcache.ExonData;
 import com.hartwig.hmftools.common.ensemblcache.TranscriptData;
@@ -22,6 +26,8 @@ import com.hartwig.hmftools.isofox.common.GeneCollection;
 import com.hartwig.hmftools.isofox.common.GeneReadData;
 import com.hartwig.hmftools.isofox.expression.CategoryCountsData;
 import com.hartwig.hmftools.isofox.expression.ExpectationMaxFit;
+import com.hartwig.hmftools.isofox.expression.ExpectedCountsFile;
+import com.hartwig.hmftools.isofox.expression.ExpectedCountsWriter;
 import com.hartwig.hmftools.isofox.expression.ExpectedRatesData;
 import com.hartwig.hmftools.isofox.expression.ExpectedRatesGenerator;
 import com.hartwig.hmftools.common.sigs.SigMatrix;
@@ -663,4 +669,58 @@ public class ExpectedRatesTest
 
     }
 
+    @Test
+    public void testBinaryExpectedCountsFile() throws IOException
+    {
+        List<int[]> fragmentLengthData = Lists.newArrayList();
+        fragmentLengthData.add(new int[] { 100, 1 });
+        fragmentLengthData.add(new int[] { 200, 1 });
+
+        CategoryCountsData catCounts1 = new CategoryCountsData("0-1", fragmentLengthData.size());
+        catCounts1.addFragLengthCounts(5, 0);
+        catCounts1.addFragLengthCounts(7, 1);
+
+        CategoryCountsData catCounts2 = new CategoryCountsData("1-ENSG01", fragmentLengthData.size());
+        catCounts2.addFragLengthCounts(3, 1);
+
+        CategoryCountsData catCounts3 = new CategoryCountsData("ENSG02", fragmentLengthData.size());
+        catCounts3.addFragLengthCounts(11, 0);
+
+        Map<String,List<CategoryCountsData>> geneSet1 = Maps.newHashMap();
+        geneSet1.put("TRANS01", Lists.newArrayList(catCounts1, catCounts2));
+        geneSet1.put("ENSG01", Lists.newArrayList(catCounts2));
+
+        Map<String,List<CategoryCountsData>> geneSet2 = Maps.newHashMap();
+        geneSet2.put("ENSG02", Lists.newArrayList(catCounts3));
+
+        File file = File.createTempFile("isofox", ".exp_counts.bin");
+        file.deleteOnExit();
+
+        ExpectedCountsWriter writer = new ExpectedCountsWriter(file.getPath(), fragmentLengthData);
+        writer.writeGeneSet("1_0", geneSet1);
+        writer.writeGeneSet("1_1", geneSet2);
+        writer.close();
+
+        assertTrue(ExpectedCountsFile.isBinaryFile(file.getPath()));
+
+        ExpectedCountsFile countsFile = new ExpectedCountsFile(file.getPath());
+        assertEquals(2, countsFile.geneSetCount());
+        assertEquals(200, countsFile.fragmentLengths()[1]);
+
+        Map<String,List<CategoryCountsData>> geneSetCounts = countsFile.getGeneSetCountsData("1_0", Lists.newArrayList("ENSG01"));
+        assertEquals(2, geneSetCounts.size());
+        assertEquals(2, geneSetCounts.get("TRANS01").size());
+        assertEquals("0-1", geneSetCounts.get("TRANS01").get(0).combinedKey());
+        assertEquals(7, geneSetCounts.get("TRANS01").get(0).fragmentCountsByLength()[1]);
+        assertEquals(12, geneSetCounts.get("TRANS01").get(0).fragmentCount(), 0.001);
+        assertEquals(3, geneSetCounts.get("ENSG01").get(0).fragmentCountsByLength()[1]);
+
+        // falls back to a gene set containing the genes when the ID doesn't match
+        geneSetCounts = countsFile.getGeneSetCountsData("2_5", Lists.newArrayList("ENSG02"));
+        assertEquals(11, geneSetCounts.get("ENSG02").get(0).fragmentCountsByLength()[0]);
+
+        assertNull(countsFile.getGeneSetCountsData("1_0", Lists.newArrayList("ENSG03")));
+        countsFile.close();
+    }
+
 }
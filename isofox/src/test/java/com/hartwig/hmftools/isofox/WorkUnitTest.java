@@ -0,0 +1,86 @@
+package com.hartwig.hmftools.isofox;
+
+import static com.hartwig.hmftools.common.ensemblcache.GeneTestUtils.createEnsemblGeneData;
+import static com.hartwig.hmftools.isofox.ChromosomeGeneTask.findNextOverlappingGenes;
+import static com.hartwig.hmftools.isofox.Isofox.UNIT_COLLECTION_ID;
+import static com.hartwig.hmftools.isofox.Isofox.UNIT_END_INDEX;
+import static com.hartwig.hmftools.isofox.Isofox.UNIT_START_INDEX;
+import static com.hartwig.hmftools.isofox.Isofox.splitGeneCollections;
+import static com.hartwig.hmftools.isofox.TestUtils.CHR_1;
+import static com.hartwig.hmftools.isofox.TestUtils.POS_STRAND;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblGeneData;
+
+import org.junit.Test;
+
+public class WorkUnitTest
+{
+    @Test
+    public void testGeneCollectionSplitting()
+    {
+        // 20 gene collections, every third one made of 3 overlapping genes
+        List<EnsemblGeneData> geneDataList = Lists.newArrayList();
+
+        for(int i = 0; i < 20; ++i)
+        {
+            int collectionStart = 10000 * (i + 1);
+            int geneCount = i % 3 == 0 ? 3 : 1;
+
+            for(int j = 0; j < geneCount; ++j)
+            {
+                String geneId = String.format("ENSG%03d_%d", i, j);
+                geneDataList.add(createEnsemblGeneData(
+                        geneId, geneId, CHR_1, POS_STRAND, collectionStart + j * 100, collectionStart + 1000 + j * 100));
+            }
+        }
+
+        // the gene index at which each collection starts
+        List<Integer> collectionStarts = Lists.newArrayList();
+        List<EnsemblGeneData> overlappingGenes = Lists.newArrayList();
+
+        for(int geneIndex = 0; geneIndex < geneDataList.size(); )
+        {
+            collectionStarts.add(geneIndex);
+            geneIndex = findNextOverlappingGenes(geneDataList, geneIndex, overlappingGenes);
+        }
+
+        assertEquals(20, collectionStarts.size());
+
+        for(int unitGeneCount : new int[] { 1, 2, 4, 5, 100, Integer.MAX_VALUE })
+        {
+            List<int[]> units = splitGeneCollections(geneDataList, unitGeneCount);
+
+            // units cover every gene exactly once and in order
+            int nextGeneIndex = 0;
+
+            for(int i = 0; i < units.size(); ++i)
+            {
+                int[] unit = units.get(i);
+
+                assertEquals(nextGeneIndex, unit[UNIT_START_INDEX]);
+                assertTrue(unit[UNIT_END_INDEX] > unit[UNIT_START_INDEX]);
+
+                // each unit starts on a collection boundary and keeps the collection IDs of a single whole-chromosome unit
+                assertEquals(collectionStarts.indexOf(unit[UNIT_START_INDEX]), unit[UNIT_COLLECTION_ID]);
+
+                if(i < units.size() - 1)
+                    assertTrue(unit[UNIT_END_INDEX] - unit[UNIT_START_INDEX] >= unitGeneCount);
+
+                nextGeneIndex = unit[UNIT_END_INDEX];
+            }
+
+            assertEquals(geneDataList.size(), nextGeneIndex);
+
+            if(unitGeneCount >= geneDataList.size())
+                assertEquals(1, units.size());
+        }
+
+        assertEquals(20, splitGeneCollections(geneDataList, 1).size());
+    }
+}
@@ -4,6 +4,7 @@ import static com.hartwig.hmftools.common.purple.purity.FittedPurityScoreFactory
 import static com.hartwig.hmftools.common.purple.purity.WholeGenomeDuplication.wholeGenomeDuplication;
 import static com.hartwig.hmftools.patientdb.LoadPurpleData.persistToDatabase;
 import static com.hartwig.hmftools.purple.PurpleRegionZipper.updateRegionsWithCopyNumbers;
+import static com.hartwig.hmftools.purple.Segmentation.replaceChromosomes;
 
 import java.io.File;
 import java.io.IOException;
@@ -11,6 +12,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -71,6 +73,7 @@ import com.hartwig.hmftools.purple.config.SomaticConfig;
 import com.hartwig.hmftools.purple.config.StructuralVariantConfig;
 import com.hartwig.hmftools.purple.plot.Charts;
 import com.hartwig.hmftools.purple.somatic.SomaticStream;
+import com.hartwig.hmftools.purple.somatic.SomaticVariantCache;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -140,7 +143,9 @@ public class PurityPloidyEstimateApplication   {
 
             // Load structural and somatic variants
             final PurpleStructuralVariantSupplier structuralVariants = structuralVariants(configSupplier);
-            final List<SomaticVariant> allSomatics = somaticVariants(configSupplier);
+            final SomaticVariantCache somaticVariantCache = somaticVariants(configSupplier);
+            final List<SomaticVariant> allSomatics = somaticVariantCache.somaticVariants(tumorSample,
+                    SomaticVariantFactory.filteredInstance(new PassingVariantFilter(), new SGTFilter()));
             final List<SomaticVariant> fittingSomatics = config.tumorOnly()
                     ? Collections.emptyList()
                     : allSomatics.stream().filter(SomaticVariant::isSnp).collect(Collectors.toList());
@@ -169,16 +174,27 @@ public class PurityPloidyEstimateApplication   {
                     fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), observedRegions);
             copyNumberFactory.invoke(fittedRegions, structuralVariants.variants());
 
-            final int recoveredSVCount = recoverStructuralVariants(configSupplier.structuralVariantConfig(),
+            final Collection<VariantContext> recoveredVariants = recoverStructuralVariants(configSupplier.structuralVariantConfig(),
                     structuralVariants,
                     purityAdjuster,
                     copyNumberFactory.copyNumbers());
-            if (recoveredSVCount > 0) {
-                LOGGER.info("Reapplying segmentation with {} recovered structural variants", recoveredSVCount);
-                final List<ObservedRegion> recoveredObservedRegions = segmentation.createSegments(structuralVariants.variants());
+            if (!recoveredVariants.isEmpty()) {
+                final Set<Chromosome> recoveredChromosomes = recoveredVariants.stream()
+                        .map(VariantContext::getContig)
+                        .filter(HumanChromosome::contains)
+                        .map(HumanChromosome::fromString)
+                        .collect(Collectors.toSet());
+
+                LOGGER.info("Reapplying segmentation to {} chromosomes with {} recovered structural variants",
+                        recoveredChromosomes.size(),
+                        recoveredVariants.size());
+                final List<ObservedRegion> recoveredObservedRegions =
+                        segmentation.createSegments(structuralVariants.variants(), recoveredChromosomes);
 
                 LOGGER.info("Recalculating copy number");
-                fittedRegions = fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), recoveredObservedRegions);
+                final List<FittedRegion> recoveredFittedRegions =
+                        fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), recoveredObservedRegions);
+                fittedRegions = replaceChromosomes(fittedRegions, recoveredChromosomes, recoveredFittedRegions);
                 copyNumberFactory.invoke(fittedRegions, structuralVariants.variants());
             }
 
@@ -202,7 +218,13 @@ public class PurityPloidyEstimateApplication   {
 
             LOGGER.info("Enriching somatic variants");
             final SomaticStream somaticStream = new SomaticStream(configSupplier);
-            somaticStream.processAndWrite(purityAdjuster, copyNumbers, enrichedFittedRegions, somaticPeaks);
+            somaticStream.processAndWrite(executorService,
+                    threads,
+                    somaticVariantCache,
+                    purityAdjuster,
+                    copyNumbers,
+                    enrichedFittedRegions,
+                    somaticPeaks);
 
             final PurityContext purityContext = ImmutablePurityContext.builder()
                     .version(version.version())
@@ -274,11 +296,12 @@ public class PurityPloidyEstimateApplication   {
         LOGGER.info("Complete");
     }
 
-    private int recoverStructuralVariants(@NotNull final StructuralVariantConfig svConfig,
+    @NotNull
+    private Collection<VariantContext> recoverStructuralVariants(@NotNull final StructuralVariantConfig svConfig,
             @NotNull final PurpleStructuralVariantSupplier structuralVariants, @NotNull final PurityAdjuster purityAdjuster,
             @NotNull final List<PurpleCopyNumber> copyNumbers) throws IOException {
         if (!svConfig.recoveryFile().isPresent()) {
-            return 0;
+            return Collections.emptyList();
         }
 
         final String vcfRecoveryFile = svConfig.recoveryFile().get().toString();
@@ -288,7 +311,7 @@ public class PurityPloidyEstimateApplication   {
             if (!recoveredVariants.isEmpty()) {
                 recoveredVariants.forEach(structuralVariants::addVariant);
             }
-            return recoveredVariants.size();
+            return recoveredVariants;
         }
     }
 
@@ -308,6 +331,7 @@ public class PurityPloidyEstimateApplication   {
                 fittingConfig.maxNormFactor(),
                 fittingConfig.normFactorIncrement(),
                 somaticConfig.somaticPenaltyWeight(),
+                fittingConfig.adaptiveFitSearch(),
                 fittedRegionFactory,
                 observedRegions,
                 snpSomatics);
@@ -356,18 +380,15 @@ public class PurityPloidyEstimateApplication   {
     }
 
     @NotNull
-    private static List<SomaticVariant> somaticVariants(@NotNull final ConfigSupplier configSupplier) throws IOException {
+    private static SomaticVariantCache somaticVariants(@NotNull final ConfigSupplier configSupplier) {
         final SomaticConfig config = configSupplier.somaticConfig();
         if (config.file().isPresent()) {
             String filename = config.file().get().toString();
             LOGGER.info("Loading somatic variants from {}", filename);
-
-            SomaticVariantFactory factory = SomaticVariantFactory.filteredInstance(new PassingVariantFilter(), new SGTFilter());
-
-            return factory.fromVCFFile(configSupplier.commonConfig().tumorSample(), filename);
+            return SomaticVariantCache.read(configSupplier.commonConfig().tumorSample(), filename);
         } else {
             LOGGER.info("Somatic variants support disabled.");
-            return Collections.emptyList();
+            return SomaticVariantCache.empty();
         }
     }
 
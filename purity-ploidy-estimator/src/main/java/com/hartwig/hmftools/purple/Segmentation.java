@@ -1,15 +1,21 @@
 package com.hartwig.hmftools.purple;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.hartwig.hmftools.common.amber.AmberBAF;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.gc.GCProfileColumns;
 import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.purple.gender.Gender;
 import com.hartwig.hmftools.common.purple.region.ObservedRegion;
 import com.hartwig.hmftools.common.purple.region.ObservedRegionFactory;
@@ -33,8 +39,8 @@ class Segmentation {
     private final Gender gender;
     private final Multimap<Chromosome, AmberBAF> bafs;
     private final Multimap<Chromosome, PCFPosition> pcfPositions;
-    private final Multimap<Chromosome, GCProfile> gcProfiles;
-    private final ListMultimap<Chromosome, CobaltRatio> ratios;
+    private final Map<Chromosome, GCProfileColumns> gcProfiles;
+    private final Map<Chromosome, CobaltRatioColumns> ratios;
     private final ConfigSupplier configSupplier;
 
     public Segmentation(@NotNull final ConfigSupplier configSupplier, @NotNull final Gender gender) throws IOException {
@@ -46,11 +52,44 @@ class Segmentation {
         this.configSupplier = configSupplier;
 
         LOGGER.info("Reading GC Profiles from {}", config.gcProfile());
-        this.gcProfiles = GCProfileFactory.loadGCContent(config.windowSize(), config.gcProfile());
+        this.gcProfiles = GCProfileFactory.loadColumns(config.windowSize(), config.gcProfile());
     }
 
     @NotNull
     public List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants) {
+        return createSegments(structuralVariants, pcfPositions);
+    }
+
+    /**
+     * Segments only the given chromosomes. Clustering, segmentation and the extension of min support never cross a chromosome so
+     * these regions are identical to those of the same chromosomes in a full segmentation.
+     */
+    @NotNull
+    public List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants,
+            @NotNull final Set<Chromosome> chromosomes) {
+        return createSegments(structuralVariants, Multimaps.filterKeys(pcfPositions, chromosomes::contains));
+    }
+
+    /**
+     * Replaces the regions of the given chromosomes with the replacement regions, keeping the regions of all other chromosomes.
+     */
+    @NotNull
+    static <T extends GenomeRegion> List<T> replaceChromosomes(@NotNull final List<T> regions, @NotNull final Set<Chromosome> chromosomes,
+            @NotNull final List<T> replacement) {
+        final List<T> result = Lists.newArrayListWithExpectedSize(regions.size() + replacement.size());
+        for (T region : regions) {
+            if (!chromosomes.contains(HumanChromosome.fromString(region.chromosome()))) {
+                result.add(region);
+            }
+        }
+        result.addAll(replacement);
+        Collections.sort(result);
+        return result;
+    }
+
+    @NotNull
+    private List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants,
+            @NotNull final Multimap<Chromosome, PCFPosition> pcfPositions) {
         final PurpleSegmentFactory factory = new PurpleSegmentFactory(config.windowSize(),
                 configSupplier.refGenomeConfig().centromere(),
                 configSupplier.refGenomeConfig().length());
@@ -2,10 +2,10 @@ package com.hartwig.hmftools.purple.config;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioColumns;
 import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.purple.gender.Gender;
@@ -30,7 +30,7 @@ public interface CobaltData {
     Gender gender();
 
     @NotNull
-    ListMultimap<Chromosome, CobaltRatio> ratios();
+    Map<Chromosome, CobaltRatioColumns> ratios();
 
     @NotNull
     Multimap<Chromosome, PCFPosition> tumorSegments();
@@ -57,7 +57,7 @@ public interface CobaltData {
         }
 
         LOGGER.info("Reading cobalt ratios from {}", cobaltFilename);
-        final ListMultimap<Chromosome, CobaltRatio> ratios = CobaltRatioFile.read(cobaltFilename);
+        final Map<Chromosome, CobaltRatioColumns> ratios = CobaltRatioFile.readColumns(cobaltFilename);
         final Gender gender = Gender.fromCobalt(ratios);
 
         LOGGER.info("Reading cobalt reference segments from {}", referenceSegmentFile);
@@ -18,6 +18,7 @@ public interface FittingConfig {
     String MIN_NORM_FACTOR = "min_norm_factor";
     String MAX_NORM_FACTOR = "max_norm_factor";
     String NORM_FACTOR_INCREMENTS = "norm_factor_increment";
+    String ADAPTIVE_FIT_SEARCH = "adaptive_fit_search";
 
     double MIN_PURITY_DEFAULT = 0.08;
     double MAX_PURITY_DEFAULT = 1.0;
@@ -34,6 +35,7 @@ public interface FittingConfig {
         options.addOption(MIN_NORM_FACTOR, true, "Minimum norm factor (default " + MIN_NORM_FACTOR_DEFAULT + ")");
         options.addOption(MAX_NORM_FACTOR, true, "Maximum norm factor (default " + MAX_NORM_FACTOR_DEFAULT + ")");
         options.addOption(NORM_FACTOR_INCREMENTS, true, "Norm factor increments (default  " + NORM_FACTOR_INCREMENTS_DEFAULT + ")");
+        options.addOption(ADAPTIVE_FIT_SEARCH, false, "Search the purity and norm factor grid coarse to fine rather than exhaustively");
     }
 
     double minPurity();
@@ -48,6 +50,8 @@ public interface FittingConfig {
 
     double normFactorIncrement();
 
+    boolean adaptiveFitSearch();
+
     default int maxPloidy() {
         return 20;
     }
@@ -68,6 +72,7 @@ public interface FittingConfig {
                 .minNormFactor(minNormFactor)
                 .maxNormFactor(maxNormFactor)
                 .normFactorIncrement(normFactorIncrement)
+                .adaptiveFitSearch(cmd.hasOption(ADAPTIVE_FIT_SEARCH))
                 .build();
 
     }
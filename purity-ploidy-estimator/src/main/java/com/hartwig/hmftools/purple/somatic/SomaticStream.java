@@ -1,19 +1,36 @@
 package com.hartwig.hmftools.purple.somatic;
 
+import static com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile.readFromVCF;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.drivercatalog.DriverCatalog;
 import com.hartwig.hmftools.common.drivercatalog.SomaticVariantDrivers;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.gene.GeneCopyNumber;
 import com.hartwig.hmftools.common.purple.region.FittedRegion;
 import com.hartwig.hmftools.common.variant.SomaticVariantFactory;
 import com.hartwig.hmftools.common.variant.clonality.PeakModel;
-import com.hartwig.hmftools.common.variant.enrich.VariantContextEnrichmentPurple;
+import com.hartwig.hmftools.common.variant.enrich.ContigEnrichmentPurple;
+import com.hartwig.hmftools.common.variant.enrich.KataegisEnrichment;
+import com.hartwig.hmftools.common.variant.enrich.VariantContextEnrichment;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.common.variant.msi.MicrosatelliteIndels;
 import com.hartwig.hmftools.common.variant.msi.MicrosatelliteStatus;
 import com.hartwig.hmftools.common.variant.tml.TumorMutationalLoad;
@@ -21,7 +38,6 @@ import com.hartwig.hmftools.common.variant.tml.TumorMutationalStatus;
 import com.hartwig.hmftools.purple.config.CommonConfig;
 import com.hartwig.hmftools.purple.config.ConfigSupplier;
 import com.hartwig.hmftools.purple.config.DriverCatalogConfig;
-import com.hartwig.hmftools.purple.config.RefGenomeData;
 import com.hartwig.hmftools.purple.config.SomaticConfig;
 
 import org.jetbrains.annotations.NotNull;
@@ -30,16 +46,13 @@ import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
-import htsjdk.variant.vcf.VCFFileReader;
-import htsjdk.variant.vcf.VCFHeader;
 
 public class SomaticStream {
 
     private final SomaticConfig somaticConfig;
     private final DriverCatalogConfig driverCatalogConfig;
     private final CommonConfig commonConfig;
-    private final RefGenomeData refGenomeData;
-    private final String inputVCF;
+    private final String refGenome;
     private final String outputVCF;
     private final boolean enabled;
     private final TumorMutationalLoad tumorMutationalLoad;
@@ -48,13 +61,21 @@ public class SomaticStream {
     private final SomaticVariantFactory somaticVariantFactory;
 
     public SomaticStream(final ConfigSupplier configSupplier) {
-        this.somaticConfig = configSupplier.somaticConfig();
-        this.commonConfig = configSupplier.commonConfig();
-        this.driverCatalogConfig = configSupplier.driverCatalogConfig();
+        this(configSupplier.somaticConfig(),
+                configSupplier.commonConfig(),
+                configSupplier.driverCatalogConfig(),
+                configSupplier.refGenomeConfig().refGenome());
+    }
+
+    @VisibleForTesting
+    SomaticStream(@NotNull final SomaticConfig somaticConfig, @NotNull final CommonConfig commonConfig,
+            @NotNull final DriverCatalogConfig driverCatalogConfig, @NotNull final String refGenome) {
+        this.somaticConfig = somaticConfig;
+        this.commonConfig = commonConfig;
+        this.driverCatalogConfig = driverCatalogConfig;
         this.outputVCF = commonConfig.outputDirectory() + File.separator + commonConfig.tumorSample() + ".purple.somatic.vcf.gz";
         this.enabled = somaticConfig.file().isPresent();
-        this.inputVCF = enabled ? somaticConfig.file().get().toString() : "";
-        this.refGenomeData = configSupplier.refGenomeConfig();
+        this.refGenome = refGenome;
         this.tumorMutationalLoad = new TumorMutationalLoad();
         this.microsatelliteIndels = new MicrosatelliteIndels();
         this.drivers = new SomaticVariantDrivers();
@@ -93,8 +114,10 @@ public class SomaticStream {
         return drivers.build(geneCopyNumbers);
     }
 
-    public void processAndWrite(@NotNull final PurityAdjuster purityAdjuster, @NotNull final List<PurpleCopyNumber> copyNumbers,
-            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> somaticPeaks) throws IOException {
+    public void processAndWrite(@NotNull final ExecutorService executorService, int threads,
+            @NotNull final SomaticVariantCache somaticVariants, @NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final List<PurpleCopyNumber> copyNumbers, @NotNull final List<FittedRegion> fittedRegions,
+            @NotNull final List<PeakModel> somaticPeaks) throws IOException, ExecutionException, InterruptedException {
         final Consumer<VariantContext> driverConsumer =
                 x -> somaticVariantFactory.createVariant(commonConfig.tumorSample(), x).ifPresent(somatic -> {
                     tumorMutationalLoad.accept(somatic);
@@ -102,37 +125,103 @@ public class SomaticStream {
                 });
 
         if (enabled) {
-            try (IndexedFastaSequenceFile indexedFastaSequenceFile = new IndexedFastaSequenceFile(new File(refGenomeData.refGenome()));
-                    VCFFileReader vcfReader = new VCFFileReader(new File(inputVCF), false);
-                    VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(outputVCF)
-                            .setOption(htsjdk.variant.variantcontext.writer.Options.ALLOW_MISSING_FIELDS_IN_HEADER)
-                            .build()) {
+            final Multimap<Chromosome, VariantHotspot> hotspots =
+                    driverCatalogConfig.enabled() ? readFromVCF(driverCatalogConfig.hotspots()) : ArrayListMultimap.create();
+
+            // One reference reader per worker, each contig borrows one for the duration of its enrichment
+            final int workers = Math.max(1, threads);
+            final BlockingQueue<IndexedFastaSequenceFile> references = new ArrayBlockingQueue<>(workers);
+            try (VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(outputVCF)
+                    .setOption(htsjdk.variant.variantcontext.writer.Options.ALLOW_MISSING_FIELDS_IN_HEADER)
+                    .build()) {
+                for (int i = 0; i < workers; i++) {
+                    references.add(new IndexedFastaSequenceFile(new File(refGenome)));
+                }
 
                 final Consumer<VariantContext> consumer = microsatelliteIndels.andThen(writer::add).andThen(driverConsumer);
-
-                final VariantContextEnrichmentPurple enricher = new VariantContextEnrichmentPurple(driverCatalogConfig.enabled(),
-                        somaticConfig.clonalityMaxPloidy(),
-                        somaticConfig.clonalityBinWidth(),
-                        commonConfig.version(),
-                        commonConfig.tumorSample(),
-                        indexedFastaSequenceFile,
-                        purityAdjuster,
+                final KataegisEnrichment kataegisEnrichment = new KataegisEnrichment(consumer);
+                final ContigEnrichmentPurple enricher = contigEnrichment(purityAdjuster,
                         copyNumbers,
                         fittedRegions,
                         somaticPeaks,
-                        driverCatalogConfig.hotspots(),
-                        consumer);
-
-                final VCFHeader header = enricher.enrichHeader(vcfReader.getFileHeader());
-                writer.writeHeader(header);
-
-                for (VariantContext context : vcfReader) {
-                    enricher.accept(context);
+                        hotspots,
+                        references.peek(),
+                        kataegisEnrichment);
+
+                writer.writeHeader(enricher.enrichHeader(somaticVariants.header(), kataegisEnrichment));
+
+                if (workers == 1) {
+                    for (String contig : somaticVariants.contigs()) {
+                        somaticVariants.release(contig).forEach(enricher);
+                    }
+                    enricher.flush();
+                } else {
+                    // Kataegis numbers its clusters across the whole genome so is applied in order as each contig completes
+                    final Deque<Future<List<VariantContext>>> contigsInFlight = new ArrayDeque<>();
+                    for (String contig : somaticVariants.contigs()) {
+                        if (contigsInFlight.size() >= workers) {
+                            contigsInFlight.poll().get().forEach(kataegisEnrichment);
+                        }
+
+                        final List<VariantContext> variants = somaticVariants.release(contig);
+                        contigsInFlight.add(executorService.submit(() -> enrichContig(purityAdjuster,
+                                copyNumbers,
+                                fittedRegions,
+                                somaticPeaks,
+                                hotspots,
+                                references,
+                                variants)));
+                    }
+
+                    while (!contigsInFlight.isEmpty()) {
+                        contigsInFlight.poll().get().forEach(kataegisEnrichment);
+                    }
                 }
 
-                enricher.flush();
-
+                kataegisEnrichment.flush();
+            } finally {
+                for (IndexedFastaSequenceFile reference : references) {
+                    reference.close();
+                }
             }
         }
     }
+
+    @NotNull
+    private List<VariantContext> enrichContig(@NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final List<PurpleCopyNumber> copyNumbers, @NotNull final List<FittedRegion> fittedRegions,
+            @NotNull final List<PeakModel> somaticPeaks, @NotNull final Multimap<Chromosome, VariantHotspot> hotspots,
+            @NotNull final BlockingQueue<IndexedFastaSequenceFile> references, @NotNull final List<VariantContext> variants)
+            throws InterruptedException {
+        final List<VariantContext> result = Lists.newArrayListWithExpectedSize(variants.size());
+        final IndexedFastaSequenceFile reference = references.take();
+        try {
+            final VariantContextEnrichment enricher =
+                    contigEnrichment(purityAdjuster, copyNumbers, fittedRegions, somaticPeaks, hotspots, reference, result::add);
+            variants.forEach(enricher);
+            enricher.flush();
+        } finally {
+            references.put(reference);
+        }
+        return result;
+    }
+
+    @NotNull
+    private ContigEnrichmentPurple contigEnrichment(@NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final List<PurpleCopyNumber> copyNumbers, @NotNull final List<FittedRegion> fittedRegions,
+            @NotNull final List<PeakModel> somaticPeaks, @NotNull final Multimap<Chromosome, VariantHotspot> hotspots,
+            @NotNull final IndexedFastaSequenceFile reference, @NotNull final Consumer<VariantContext> consumer) {
+        return new ContigEnrichmentPurple(driverCatalogConfig.enabled(),
+                somaticConfig.clonalityMaxPloidy(),
+                somaticConfig.clonalityBinWidth(),
+                commonConfig.version(),
+                commonConfig.tumorSample(),
+                reference,
+                purityAdjuster,
+                copyNumbers,
+                fittedRegions,
+                somaticPeaks,
+                hotspots,
+                consumer);
+    }
 }
@@ -0,0 +1,91 @@
+package com.hartwig.hmftools.purple.somatic;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.SomaticVariantFactory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * The somatic VCF decoded once and grouped by contig in file order. Fitting and peak modelling use the somatic variants created from
+ * it while the enrichment of each contig can run in parallel. Each contig is released to enrichment once so the cache empties as the
+ * enriched output is written.
+ */
+public class SomaticVariantCache {
+
+    @Nullable
+    private final VCFHeader header;
+    private final Map<String, List<VariantContext>> contigs;
+
+    private SomaticVariantCache(@Nullable final VCFHeader header, @NotNull final Map<String, List<VariantContext>> contigs) {
+        this.header = header;
+        this.contigs = contigs;
+    }
+
+    @NotNull
+    public static SomaticVariantCache empty() {
+        return new SomaticVariantCache(null, Collections.emptyMap());
+    }
+
+    @NotNull
+    public static SomaticVariantCache read(@NotNull final String tumorSample, @NotNull final String vcfFile) {
+        final Map<String, List<VariantContext>> contigs = Maps.newLinkedHashMap();
+        try (VCFFileReader reader = new VCFFileReader(new File(vcfFile), false)) {
+            final VCFHeader header = reader.getFileHeader();
+            if (!header.getSampleNamesInOrder().contains(tumorSample)) {
+                throw new IllegalArgumentException("Sample " + tumorSample + " not found in vcf file " + vcfFile);
+            }
+
+            if (!header.hasFormatLine("AD")) {
+                throw new IllegalArgumentException("Allelic depths is a required format field in vcf file " + vcfFile);
+            }
+
+            for (VariantContext context : reader) {
+                contigs.computeIfAbsent(context.getContig(), x -> Lists.newArrayList()).add(context);
+            }
+
+            return new SomaticVariantCache(header, contigs);
+        }
+    }
+
+    @NotNull
+    public VCFHeader header() {
+        if (header == null) {
+            throw new IllegalStateException("Somatic variants not loaded");
+        }
+        return header;
+    }
+
+    @NotNull
+    public List<String> contigs() {
+        return Lists.newArrayList(contigs.keySet());
+    }
+
+    @NotNull
+    public List<VariantContext> release(@NotNull final String contig) {
+        final List<VariantContext> result = contigs.remove(contig);
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    @NotNull
+    public List<SomaticVariant> somaticVariants(@NotNull final String tumorSample, @NotNull final SomaticVariantFactory factory) {
+        final List<SomaticVariant> result = Lists.newArrayList();
+        for (List<VariantContext> contexts : contigs.values()) {
+            for (VariantContext context : contexts) {
+                factory.createVariant(tumorSample, context).ifPresent(result::add);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hartwig.hmftools.purple;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.junit.Test;
+
+public class SegmentationTest {
+
+    @Test
+    public void testReplaceChromosomesKeepsOrder() {
+        final List<GenomeRegion> regions = Lists.newArrayList(GenomeRegions.create("1", 1, 100),
+                GenomeRegions.create("1", 101, 200),
+                GenomeRegions.create("2", 1, 200),
+                GenomeRegions.create("3", 1, 200));
+
+        final List<GenomeRegion> replacement = Lists.newArrayList(GenomeRegions.create("2", 1, 50), GenomeRegions.create("2", 51, 200));
+
+        final List<GenomeRegion> result =
+                Segmentation.replaceChromosomes(regions, Sets.newHashSet(HumanChromosome._2), replacement);
+
+        assertEquals(5, result.size());
+        assertEquals(regions.get(0), result.get(0));
+        assertEquals(regions.get(1), result.get(1));
+        assertEquals(replacement.get(0), result.get(2));
+        assertEquals(replacement.get(1), result.get(3));
+        assertEquals(regions.get(3), result.get(4));
+    }
+}
@@ -0,0 +1,195 @@
+package com.hartwig.hmftools.purple.somatic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.variant.SomaticVariantFactory;
+import com.hartwig.hmftools.purple.config.CommonConfig;
+import com.hartwig.hmftools.purple.config.DriverCatalogConfig;
+import com.hartwig.hmftools.purple.config.ImmutableCommonConfig;
+import com.hartwig.hmftools.purple.config.ImmutableDriverCatalogConfig;
+import com.hartwig.hmftools.purple.config.ImmutableSomaticConfig;
+import com.hartwig.hmftools.purple.config.SomaticConfig;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class SomaticStreamTest {
+
+    private static final String TUMOR = "TUMOR";
+    private static final List<String> CONTIGS = Lists.newArrayList("1", "2");
+
+    // Kataegis forward cluster on the TCA repeat, an indel in the poly-A run, a passing and a filtered SNV in the filler
+    private static final String SEQUENCE = Strings.repeat("TCA", 40) + Strings.repeat("A", 10) + Strings.repeat("GCTG", 67) + "GC";
+
+    @Test
+    public void testParallelEnrichmentMatchesSequential() throws Exception {
+        final File directory = Files.createTempDirectory("somatic").toFile();
+        directory.deleteOnExit();
+
+        final String refGenome = writeReference(directory);
+        final String inputVCF = writeVCF(directory);
+
+        final File sequentialDirectory = new File(directory, "sequential");
+        final File parallelDirectory = new File(directory, "parallel");
+        assertTrue(sequentialDirectory.mkdir());
+        assertTrue(parallelDirectory.mkdir());
+
+        final SomaticStream sequential = enrich(inputVCF, refGenome, sequentialDirectory, 1);
+        final SomaticStream parallel = enrich(inputVCF, refGenome, parallelDirectory, 3);
+
+        final List<String> sequentialLines = readLines(new File(sequentialDirectory, TUMOR + ".purple.somatic.vcf.gz"));
+        final List<String> parallelLines = readLines(new File(parallelDirectory, TUMOR + ".purple.somatic.vcf.gz"));
+
+        assertEquals(sequentialLines, parallelLines);
+        assertEquals(2 * 8, sequentialLines.stream().filter(x -> !x.startsWith("#")).count());
+        assertEquals(2 * 4, sequentialLines.stream().filter(x -> !x.startsWith("#") && x.contains("KT=")).count());
+
+        assertEquals(sequential.tumorMutationalLoad(), parallel.tumorMutationalLoad());
+        assertEquals(sequential.tumorMutationalBurdenPerMb(), parallel.tumorMutationalBurdenPerMb(), 0);
+        assertEquals(sequential.microsatelliteIndelsPerMb(), parallel.microsatelliteIndelsPerMb(), 0);
+        assertTrue(sequential.tumorMutationalBurdenPerMb() > 0);
+        assertTrue(sequential.microsatelliteIndelsPerMb() > 0);
+    }
+
+    @Test
+    public void testCacheSharedWithFitting() throws Exception {
+        final File directory = Files.createTempDirectory("somatic").toFile();
+        directory.deleteOnExit();
+
+        final SomaticVariantCache cache = SomaticVariantCache.read(TUMOR, writeVCF(directory));
+        assertEquals(CONTIGS, cache.contigs());
+        assertEquals(2 * 7, cache.somaticVariants(TUMOR, SomaticVariantFactory.passOnlyInstance()).size());
+
+        assertEquals(8, cache.release("1").size());
+        assertEquals(Collections.singletonList("2"), cache.contigs());
+        assertTrue(cache.release("1").isEmpty());
+    }
+
+    @NotNull
+    private static SomaticStream enrich(@NotNull final String inputVCF, @NotNull final String refGenome, @NotNull final File outputDirectory,
+            int threads) throws Exception {
+        final SomaticConfig somaticConfig = ImmutableSomaticConfig.builder()
+                .file(Optional.of(new File(inputVCF)))
+                .minTotalVariants(10)
+                .minPeakVariants(10)
+                .minSomaticPurity(0.17)
+                .minSomaticPuritySpread(0.15)
+                .somaticPenaltyWeight(1)
+                .highlyDiploidPercentage(0.97)
+                .build();
+
+        final CommonConfig commonConfig = ImmutableCommonConfig.builder()
+                .refSample("REF")
+                .tumorSample(TUMOR)
+                .outputDirectory(outputDirectory.getPath())
+                .amberDirectory(outputDirectory.getPath())
+                .cobaltDirectory(outputDirectory.getPath())
+                .gcProfile("gc")
+                .version("test")
+                .tumorOnly(false)
+                .build();
+
+        final DriverCatalogConfig driverCatalogConfig = ImmutableDriverCatalogConfig.builder().enabled(false).hotspots("").build();
+
+        final SomaticStream stream = new SomaticStream(somaticConfig, commonConfig, driverCatalogConfig, refGenome);
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            stream.processAndWrite(executorService,
+                    threads,
+                    SomaticVariantCache.read(TUMOR, inputVCF),
+                    new PurityAdjuster(Gender.FEMALE, 0.5, 1),
+                    Collections.emptyList(),
+                    Collections.emptyList(),
+                    Collections.emptyList());
+        } finally {
+            executorService.shutdown();
+        }
+
+        return stream;
+    }
+
+    @NotNull
+    private static String writeReference(@NotNull final File directory) throws IOException {
+        final StringBuilder fasta = new StringBuilder();
+        final StringBuilder index = new StringBuilder();
+        final StringBuilder dictionary = new StringBuilder("@HD\tVN:1.0\n");
+        for (String contig : CONTIGS) {
+            fasta.append(">").append(contig).append("\n");
+            index.append(String.join("\t",
+                    contig,
+                    String.valueOf(SEQUENCE.length()),
+                    String.valueOf(fasta.length()),
+                    String.valueOf(SEQUENCE.length()),
+                    String.valueOf(SEQUENCE.length() + 1))).append("\n");
+            fasta.append(SEQUENCE).append("\n");
+            dictionary.append("@SQ\tSN:").append(contig).append("\tLN:").append(SEQUENCE.length()).append("\n");
+        }
+
+        final File reference = new File(directory, "ref.fasta");
+        Files.write(reference.toPath(), fasta.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(directory, "ref.fasta.fai").toPath(), index.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(directory, "ref.dict").toPath(), dictionary.toString().getBytes(StandardCharsets.UTF_8));
+        return reference.getPath();
+    }
+
+    @NotNull
+    private static String writeVCF(@NotNull final File directory) throws IOException {
+        final List<String> lines = Lists.newArrayList("##fileformat=VCFv4.2",
+                "##FILTER=<ID=PON,Description=\"Panel of normals\">",
+                "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">",
+                "##FORMAT=<ID=AD,Number=R,Type=Integer,Description=\"Allelic depths\">");
+        for (String contig : CONTIGS) {
+            lines.add("##contig=<ID=" + contig + ",length=" + SEQUENCE.length() + ">");
+        }
+        lines.add(String.join("\t", "#CHROM", "POS", "ID", "REF", "ALT", "QUAL", "FILTER", "INFO", "FORMAT", TUMOR));
+
+        for (String contig : CONTIGS) {
+            lines.add(record(contig, 2, "C", "T", "PASS"));
+            lines.add(record(contig, 5, "C", "T", "PASS"));
+            lines.add(record(contig, 8, "C", "T", "PASS"));
+            lines.add(record(contig, 11, "C", "T", "PASS"));
+            lines.add(record(contig, 60, "A", "G", "PASS"));
+            lines.add(record(contig, 120, "AA", "A", "PASS"));
+            lines.add(record(contig, 200, "C", "A", "PASS"));
+            lines.add(record(contig, 300, "C", "T", "PON"));
+        }
+
+        final File vcf = new File(directory, TUMOR + ".somatic.vcf");
+        Files.write(vcf.toPath(), lines, StandardCharsets.UTF_8);
+        return vcf.getPath();
+    }
+
+    @NotNull
+    private static String record(@NotNull final String contig, int position, @NotNull final String ref, @NotNull final String alt,
+            @NotNull final String filter) {
+        return String.join("\t", contig, String.valueOf(position), ".", ref, alt, "100", filter, ".", "GT:AD", "0/1:20,10");
+    }
+
+    @NotNull
+    private static List<String> readLines(@NotNull final File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)),
+                StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
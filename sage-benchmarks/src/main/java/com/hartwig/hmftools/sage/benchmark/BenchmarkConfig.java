@@ -0,0 +1,103 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_MAX_ALT_COUNT;
+import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_MIN_MAP_QUAL;
+import static com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig.DEFAULT_BQR_SAMPLE_SIZE;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HARD_MIN_TUMOR_ALT_SUPPORT;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HARD_MIN_TUMOR_BASE_QUALITY;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HARD_MIN_TUMOR_QUAL;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HIGH_CONFIDENCE_FILTER;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_HOTSPOT_FILTER;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_LOW_CONFIDENCE_FILTER;
+import static com.hartwig.hmftools.sage.config.FilterConfig.DEFAULT_PANEL_FILTER;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_BASE_QUAL_FIXED_PENALTY;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_JITTER_MIN_REPEAT_COUNT;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_JITTER_PENALTY;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_MAP_QUAL_FIXED_PENALTY;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_MAP_QUAL_IMPROPER_PAIR_PENALTY;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_MAP_QUAL_READ_EVENTS_PENALTY;
+import static com.hartwig.hmftools.sage.config.QualityConfig.DEFAULT_READ_EDGE_FIXED_PENALTY;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MAX_READ_BUFFER;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MAX_READ_DEPTH;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MAX_READ_DEPTH_PANEL;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MAX_REALIGNMENT_DEPTH;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MAX_REGION_HEAP;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MIN_MAP_QUALITY;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_MNV;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_READ_CONTEXT_FLANK_SIZE;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_REGIONS_PER_THREAD;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_SLICE_SIZE;
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_THREADS;
+
+import java.util.Collections;
+
+import com.hartwig.hmftools.sage.config.ImmutableBaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.config.ImmutableFilterConfig;
+import com.hartwig.hmftools.sage.config.ImmutableQualityConfig;
+import com.hartwig.hmftools.sage.config.ImmutableSageConfig;
+import com.hartwig.hmftools.sage.config.SageConfig;
+
+import org.jetbrains.annotations.NotNull;
+
+final class BenchmarkConfig {
+
+    private BenchmarkConfig() {
+    }
+
+    @NotNull
+    static SageConfig sageConfig() {
+        return ImmutableSageConfig.builder()
+                .panelOnly(false)
+                .version("benchmark")
+                .outputFile("out.vcf")
+                .transcriptRegions(Collections.emptyList())
+                .reference(Collections.emptyList())
+                .referenceBam(Collections.emptyList())
+                .tumor(Collections.singletonList("TUMOR"))
+                .tumorBam(Collections.singletonList("TUMOR.bam"))
+                .refGenome("refGenome")
+                .panelBed("panel")
+                .highConfidenceBed("highConfidence")
+                .hotspots("hotspots")
+                .mnvEnabled(DEFAULT_MNV)
+                .threads(DEFAULT_THREADS)
+                .minMapQuality(DEFAULT_MIN_MAP_QUALITY)
+                .maxRealignmentDepth(DEFAULT_MAX_REALIGNMENT_DEPTH)
+                .maxReadDepth(DEFAULT_MAX_READ_DEPTH)
+                .maxReadDepthPanel(DEFAULT_MAX_READ_DEPTH_PANEL)
+                .regionSliceSize(DEFAULT_SLICE_SIZE)
+                .maxConcurrentRegions(DEFAULT_REGIONS_PER_THREAD * DEFAULT_THREADS)
+                .maxReadBufferMb(DEFAULT_MAX_READ_BUFFER)
+                .maxRegionHeapMb(DEFAULT_MAX_REGION_HEAP)
+                .readContextFlankSize(DEFAULT_READ_CONTEXT_FLANK_SIZE)
+                .qualityConfig(ImmutableQualityConfig.builder()
+                        .highlyPolymorphicGenes(Collections.emptyList())
+                        .jitterPenalty(DEFAULT_JITTER_PENALTY)
+                        .jitterMinRepeatCount(DEFAULT_JITTER_MIN_REPEAT_COUNT)
+                        .baseQualityFixedPenalty(DEFAULT_BASE_QUAL_FIXED_PENALTY)
+                        .distanceFromReadEdgeFixedPenalty(DEFAULT_READ_EDGE_FIXED_PENALTY)
+                        .mapQualityFixedPenalty(DEFAULT_MAP_QUAL_FIXED_PENALTY)
+                        .mapQualityReadEventsPenalty(DEFAULT_MAP_QUAL_READ_EVENTS_PENALTY)
+                        .mapQualityImproperPairPenalty(DEFAULT_MAP_QUAL_IMPROPER_PAIR_PENALTY)
+                        .build())
+                .filter(ImmutableFilterConfig.builder()
+                        .hardFilter(false)
+                        .softFilter(true)
+                        .hardMinTumorQual(DEFAULT_HARD_MIN_TUMOR_QUAL)
+                        .hardMinTumorRawAltSupport(DEFAULT_HARD_MIN_TUMOR_ALT_SUPPORT)
+                        .hardMinTumorRawBaseQuality(DEFAULT_HARD_MIN_TUMOR_BASE_QUALITY)
+                        .softHotspotFilter(DEFAULT_HOTSPOT_FILTER)
+                        .softPanelFilter(DEFAULT_PANEL_FILTER)
+                        .softHighConfidenceFilter(DEFAULT_HIGH_CONFIDENCE_FILTER)
+                        .softLowConfidenceFilter(DEFAULT_LOW_CONFIDENCE_FILTER)
+                        .build())
+                .baseQualityRecalibrationConfig(ImmutableBaseQualityRecalibrationConfig.builder()
+                        .enabled(false)
+                        .plot(false)
+                        .maxAltCount(DEFAULT_BQR_MAX_ALT_COUNT)
+                        .sampleSize(DEFAULT_BQR_SAMPLE_SIZE)
+                        .minMapQuality(DEFAULT_BQR_MIN_MAP_QUAL)
+                        .build())
+                .build();
+    }
+}
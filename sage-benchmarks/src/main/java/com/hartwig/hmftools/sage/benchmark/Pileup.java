@@ -0,0 +1,242 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.sage.read.IndexedBases;
+import com.hartwig.hmftools.sage.read.ReadContext;
+import com.hartwig.hmftools.sage.read.ReadContextFactory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+
+/**
+ * The reads overlapping a single SNV together with the read context SAGE would have selected for it.
+ */
+class Pileup {
+
+    private static final String CHROMOSOME = "1";
+    private static final int READ_LENGTH = 151;
+    private static final int REF_FLANK = 1000;
+    private static final int POSITION = 10_000;
+    private static final double ALT_FRACTION = 0.3;
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+
+    private final VariantHotspot variant;
+    private final ReadContext readContext;
+    private final List<SAMRecord> records;
+
+    private Pileup(@NotNull final VariantHotspot variant, @NotNull final ReadContext readContext, @NotNull final List<SAMRecord> records) {
+        this.variant = variant;
+        this.readContext = readContext;
+        this.records = records;
+    }
+
+    @NotNull
+    VariantHotspot variant() {
+        return variant;
+    }
+
+    @NotNull
+    ReadContext readContext() {
+        return readContext;
+    }
+
+    @NotNull
+    List<SAMRecord> records() {
+        return records;
+    }
+
+    /**
+     * Reads of fixed length that start uniformly before the variant. A fraction support the alt, some are soft clipped and some
+     * contain an indel away from the variant so that every cigar path is exercised.
+     */
+    @NotNull
+    static Pileup synthetic(int depth, int flankSize, long seed) {
+        final Random random = new Random(seed);
+        final int refStart = POSITION - REF_FLANK;
+        final byte[] ref = new byte[2 * REF_FLANK + 1];
+        for (int i = 0; i < ref.length; i++) {
+            ref[i] = BASES[random.nextInt(BASES.length)];
+        }
+
+        final IndexedBases refBases = new IndexedBases(refStart, 0, ref);
+        final byte refBase = ref[POSITION - refStart];
+        final byte altBase = BASES[(indexOf(refBase) + 1) % BASES.length];
+
+        final SAMFileHeader header = new SAMFileHeader();
+        header.addSequence(new SAMSequenceRecord(CHROMOSOME, 1_000_000));
+
+        final List<SAMRecord> records = Lists.newArrayList();
+        for (int i = 0; i < depth; i++) {
+            int alignmentStart = POSITION - READ_LENGTH + 1 + random.nextInt(READ_LENGTH);
+            int readIndex = POSITION - alignmentStart;
+            final byte[] readBases = new byte[READ_LENGTH];
+
+            final String cigar;
+            int numberOfEvents = 0;
+            final int shape = random.nextInt(10);
+            if (shape == 0 && readIndex > 20 && readIndex < READ_LENGTH - 1) {
+                // Insert after 10 aligned bases
+                cigar = "10M1I" + (READ_LENGTH - 11) + "M";
+                System.arraycopy(ref, alignmentStart - refStart, readBases, 0, 10);
+                readBases[10] = BASES[random.nextInt(BASES.length)];
+                System.arraycopy(ref, alignmentStart - refStart + 10, readBases, 11, READ_LENGTH - 11);
+                readIndex++;
+                numberOfEvents++;
+            } else if (shape == 1 && readIndex < READ_LENGTH - 20) {
+                // Delete 2 bases 10 bases before the end of the read
+                cigar = (READ_LENGTH - 10) + "M2D10M";
+                System.arraycopy(ref, alignmentStart - refStart, readBases, 0, READ_LENGTH - 10);
+                System.arraycopy(ref, alignmentStart - refStart + READ_LENGTH - 8, readBases, READ_LENGTH - 10, 10);
+                numberOfEvents += 2;
+            } else if (shape == 2 && readIndex > 10) {
+                cigar = "5S" + (READ_LENGTH - 5) + "M";
+                System.arraycopy(ref, alignmentStart - refStart, readBases, 0, READ_LENGTH);
+                alignmentStart += 5;
+            } else {
+                cigar = READ_LENGTH + "M";
+                System.arraycopy(ref, alignmentStart - refStart, readBases, 0, READ_LENGTH);
+            }
+
+            if (random.nextDouble() < ALT_FRACTION) {
+                readBases[readIndex] = altBase;
+                numberOfEvents++;
+            }
+
+            records.add(record(header, "READ" + i, alignmentStart, cigar, readBases, numberOfEvents));
+        }
+
+        final SAMRecord altRecord = records.stream()
+                .filter(x -> x.getCigarString().equals(READ_LENGTH + "M"))
+                .filter(x -> x.getReadBases()[POSITION - x.getAlignmentStart()] == altBase)
+                .findFirst()
+                .orElseGet(() -> {
+                    final int alignmentStart = POSITION - READ_LENGTH / 2;
+                    final byte[] readBases = new byte[READ_LENGTH];
+                    System.arraycopy(ref, alignmentStart - refStart, readBases, 0, READ_LENGTH);
+                    readBases[POSITION - alignmentStart] = altBase;
+                    return record(header, "ALT", alignmentStart, READ_LENGTH + "M", readBases, 1);
+                });
+
+        final ReadContext readContext = new ReadContextFactory(flankSize).createSNVContext(POSITION,
+                POSITION - altRecord.getAlignmentStart(),
+                altRecord,
+                refBases).minimiseFootprint();
+
+        return new Pileup(variant(CHROMOSOME, POSITION, refBase, altBase), readContext, records);
+    }
+
+    /**
+     * Up to depth primary reads from a bam overlapping a SNV at the given locus. The read context is taken from the first read
+     * supporting a non-reference base at that position.
+     */
+    @NotNull
+    static Pileup replay(@NotNull final String bam, @NotNull final String refGenome, @NotNull final String locus, int depth,
+            int flankSize) throws IOException {
+        final String[] split = locus.split(":");
+        final String chromosome = split[0];
+        final int position = Integer.parseInt(split[1]);
+
+        final IndexedBases refBases;
+        try (IndexedFastaSequenceFile fasta = new IndexedFastaSequenceFile(new File(refGenome))) {
+            final int refStart = Math.max(1, position - REF_FLANK);
+            refBases = new IndexedBases(refStart, 0, fasta.getSubsequenceAt(chromosome, refStart, position + REF_FLANK).getBases());
+        }
+
+        final byte refBase = refBases.base(position);
+        final List<SAMRecord> records = Lists.newArrayList();
+        SAMRecord altRecord = null;
+
+        try (SamReader reader = SamReaderFactory.makeDefault().referenceSequence(new File(refGenome)).open(new File(bam));
+                SAMRecordIterator iterator = reader.queryOverlapping(chromosome, position, position)) {
+            while (iterator.hasNext() && records.size() < depth) {
+                final SAMRecord record = iterator.next();
+                if (record.getReadUnmappedFlag() || record.getDuplicateReadFlag() || record.isSecondaryOrSupplementary()) {
+                    continue;
+                }
+
+                records.add(record);
+                if (altRecord == null && altBase(record, position, refBase) != null) {
+                    altRecord = record;
+                }
+            }
+        }
+
+        if (altRecord == null) {
+            throw new IllegalArgumentException("No read supports a SNV at " + locus);
+        }
+
+        final int readIndex = altRecord.getReadPositionAtReferencePosition(position) - 1;
+        final ReadContext readContext =
+                new ReadContextFactory(flankSize).createSNVContext(position, readIndex, altRecord, refBases).minimiseFootprint();
+        final byte altBase = altRecord.getReadBases()[readIndex];
+
+        return new Pileup(variant(chromosome, position, refBase, altBase), readContext, records);
+    }
+
+    @Nullable
+    private static Byte altBase(@NotNull final SAMRecord record, int position, byte refBase) {
+        final int readPosition = record.getReadPositionAtReferencePosition(position);
+        if (readPosition == 0) {
+            return null;
+        }
+
+        final byte base = record.getReadBases()[readPosition - 1];
+        return base == refBase || base == 'N' ? null : base;
+    }
+
+    @NotNull
+    private static VariantHotspot variant(@NotNull final String chromosome, int position, byte ref, byte alt) {
+        return ImmutableVariantHotspotImpl.builder()
+                .chromosome(chromosome)
+                .position(position)
+                .ref(String.valueOf((char) ref))
+                .alt(String.valueOf((char) alt))
+                .build();
+    }
+
+    @NotNull
+    private static SAMRecord record(@NotNull final SAMFileHeader header, @NotNull final String name, int alignmentStart,
+            @NotNull final String cigar, @NotNull final byte[] bases, int numberOfEvents) {
+        final byte[] qualities = new byte[bases.length];
+        Arrays.fill(qualities, (byte) 37);
+
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(name);
+        record.setReferenceName(CHROMOSOME);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(cigar);
+        record.setReadBases(bases);
+        record.setBaseQualities(qualities);
+        record.setMappingQuality(60);
+        record.setReadPairedFlag(true);
+        record.setProperPairFlag(true);
+        record.setAttribute("NM", numberOfEvents);
+        return record;
+    }
+
+    private static int indexOf(byte base) {
+        for (int i = 0; i < BASES.length; i++) {
+            if (BASES[i] == base) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Unexpected base " + (char) base);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import static com.hartwig.hmftools.sage.config.SageConfig.DEFAULT_READ_CONTEXT_FLANK_SIZE;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.hartwig.hmftools.sage.config.SageConfig;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Cycles through the reads of a pileup, one read per benchmark invocation, so that scores are reported per read.
+ * Reads are synthetic unless a bam, ref genome and SNV locus (chromosome:position) are supplied with -p.
+ */
+@State(Scope.Thread)
+public class PileupState {
+
+    @Param({ "30", "100", "1000" })
+    public int depth;
+
+    @Param({ "" })
+    public String bam;
+
+    @Param({ "" })
+    public String refGenome;
+
+    @Param({ "" })
+    public String locus;
+
+    SageConfig config;
+    Pileup pileup;
+
+    private SAMRecord[] records;
+    private int[] readIndexes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        config = BenchmarkConfig.sageConfig();
+        pileup = bam.isEmpty()
+                ? Pileup.synthetic(depth, DEFAULT_READ_CONTEXT_FLANK_SIZE, depth)
+                : Pileup.replay(bam, refGenome, locus, depth, DEFAULT_READ_CONTEXT_FLANK_SIZE);
+
+        final List<SAMRecord> recordList = pileup.records();
+        final int position = (int) pileup.variant().position();
+        records = recordList.toArray(new SAMRecord[0]);
+        readIndexes = new int[records.length];
+        for (int i = 0; i < records.length; i++) {
+            readIndexes[i] = records[i].getReadPositionAtReferencePosition(position) - 1;
+        }
+        cursor = -1;
+    }
+
+    /**
+     * Advances to the next read. Returns true when the pileup starts again from its first read.
+     */
+    boolean advance() {
+        if (++cursor == records.length) {
+            cursor = 0;
+        }
+        return cursor == 0;
+    }
+
+    @NotNull
+    SAMRecord record() {
+        return records[cursor];
+    }
+
+    int readIndex() {
+        return readIndexes[cursor];
+    }
+}
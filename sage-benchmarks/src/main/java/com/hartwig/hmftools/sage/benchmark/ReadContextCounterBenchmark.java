@@ -0,0 +1,56 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.samtools.NumberEvents;
+import com.hartwig.hmftools.sage.variant.SageVariantTier;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Cost of ReadContextCounter.accept per read. A new counter is started each time the pileup wraps so coverage never saturates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadContextCounterBenchmark {
+
+    private static final QualityRecalibrationMap RECALIBRATION = new QualityRecalibrationMap(Collections.emptyList());
+
+    private ReadContextCounter counter;
+
+    @Benchmark
+    public ReadContextCounter accept(@NotNull final PileupState state) {
+        if (state.advance() || counter == null) {
+            counter = new ReadContextCounter("TUMOR",
+                    state.pileup.variant(),
+                    state.pileup.readContext(),
+                    RECALIBRATION,
+                    SageVariantTier.PANEL,
+                    Integer.MAX_VALUE,
+                    0,
+                    true);
+        }
+
+        final SAMRecord record = state.record();
+        counter.accept(record, state.config, NumberEvents.numberOfEvents(record));
+        return counter;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hartwig.hmftools.sage.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.sage.read.RawContext;
+import com.hartwig.hmftools.sage.read.RawContextFactory;
+import com.hartwig.hmftools.sage.read.ReadContextMatch;
+import com.hartwig.hmftools.sage.sam.CigarHandler;
+import com.hartwig.hmftools.sage.sam.CigarTraversal;
+import com.hartwig.hmftools.sage.samtools.NumberEvents;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * The per read steps of read context evidence collection, measured individually.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadEvidenceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Factories {
+
+        RawContextFactory rawContextFactory;
+
+        @Setup(Level.Trial)
+        public void setup(@NotNull final PileupState state) {
+            rawContextFactory = new RawContextFactory(state.pileup.variant());
+        }
+    }
+
+    @Benchmark
+    public boolean isCentreCovered(@NotNull final PileupState state) {
+        state.advance();
+        final int readIndex = state.readIndex();
+        return readIndex >= 0 && state.pileup.readContext().isCentreCovered(readIndex, state.record().getReadBases());
+    }
+
+    @Benchmark
+    public ReadContextMatch matchAtPosition(@NotNull final PileupState state) {
+        state.advance();
+        final int readIndex = state.readIndex();
+        return readIndex < 0 ? ReadContextMatch.NONE : state.pileup.readContext().matchAtPosition(readIndex, state.record().getReadBases());
+    }
+
+    @Benchmark
+    public RawContext rawContext(@NotNull final PileupState state, @NotNull final Factories factories) {
+        state.advance();
+        return factories.rawContextFactory.create(state.config.maxSkippedReferenceRegions(), state.record());
+    }
+
+    @Benchmark
+    public void traverseCigar(@NotNull final PileupState state, @NotNull final Blackhole blackhole) {
+        state.advance();
+        CigarTraversal.traverseCigar(state.record(), new CigarHandler() {
+            @Override
+            public void handleAlignment(@NotNull final SAMRecord record, @NotNull final CigarElement element, final int readIndex,
+                    final int refPosition) {
+                blackhole.consume(readIndex);
+            }
+
+            @Override
+            public void handleInsert(@NotNull final SAMRecord record, @NotNull final CigarElement element, final int readIndex,
+                    final int refPosition) {
+                blackhole.consume(readIndex);
+            }
+
+            @Override
+            public void handleDelete(@NotNull final SAMRecord record, @NotNull final CigarElement element, final int readIndex,
+                    final int refPosition) {
+                blackhole.consume(readIndex);
+            }
+        });
+    }
+
+    @Benchmark
+    public int numberOfEvents(@NotNull final PileupState state) {
+        state.advance();
+        return NumberEvents.numberOfEvents(state.record());
+    }
+}
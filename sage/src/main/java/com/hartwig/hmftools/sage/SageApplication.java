@@ -11,7 +11,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
-import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
@@ -32,9 +33,15 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePipeline;
+import com.hartwig.hmftools.sage.pipeline.ContigReorderBuffer;
+import com.hartwig.hmftools.sage.pipeline.RegionScheduler;
 import com.hartwig.hmftools.sage.quality.QualityRecalibration;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationFile;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationFingerprint;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationRecord;
+import com.hartwig.hmftools.sage.sam.ReadCountEstimator;
+import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -53,6 +60,7 @@ import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.variant.variantcontext.VariantContext;
 
 public class SageApplication implements AutoCloseable {
 
@@ -62,6 +70,7 @@ public class SageApplication implements AutoCloseable {
     private final SageConfig config;
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
+    private final SamSlicerFactory samSlicerFactory;
 
     private final ListMultimap<Chromosome, GenomeRegion> panel;
     private final ListMultimap<Chromosome, VariantHotspot> hotspots;
@@ -93,6 +102,7 @@ public class SageApplication implements AutoCloseable {
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
         refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
+        samSlicerFactory = new SamSlicerFactory(config, panel.values(), refGenome);
 
         vcf = new SageVCF(refGenome, config);
         LOGGER.info("Writing to file: {}", config.outputFile());
@@ -103,23 +113,47 @@ public class SageApplication implements AutoCloseable {
         long timeStamp = System.currentTimeMillis();
 
         final Map<String, QualityRecalibrationMap> recalibrationMap = qualityRecalibration();
-        final SAMSequenceDictionary dictionary = dictionary();
+        final List<String> contigs = contigs(dictionary());
+
+        // Chromosomes are processed concurrently, sharing a memory bounded region scheduler, but must be written in order
+        final ContigReorderBuffer<VariantContext> writer = new ContigReorderBuffer<>(contigs, vcf::write);
+        final List<String> bams = Lists.newArrayList(config.tumorBam());
+        bams.addAll(config.referenceBam());
+        final RegionScheduler scheduler = new RegionScheduler(config, new ReadCountEstimator(samSlicerFactory, bams)::estimate);
+        final List<CompletableFuture<Void>> done = Lists.newArrayList();
+        for (final String contig : contigs) {
+            final ChromosomePipeline pipeline = createChromosomePipeline(contig, recalibrationMap, writer.consumer(contig));
+            // Each pipeline is closed whether or not its chromosome completes successfully
+            done.add(pipeline.submit(scheduler).whenComplete((complete, error) -> {
+                try {
+                    pipeline.close();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }).thenAccept(complete -> writer.complete(contig)));
+        }
+
+        for (CompletableFuture<Void> future : done) {
+            future.get();
+        }
+
+        long timeTaken = System.currentTimeMillis() - timeStamp;
+        LOGGER.info("Completed in {} seconds", timeTaken / 1000);
+    }
+
+    @NotNull
+    private List<String> contigs(@NotNull final SAMSequenceDictionary dictionary) {
+        final List<String> result = Lists.newArrayList();
         for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
             final String contig = samSequenceRecord.getSequenceName();
             if (config.chromosomes().isEmpty() || config.chromosomes().contains(contig)) {
                 if (HumanChromosome.contains(contig) || MitochondrialChromosome.contains(contig)) {
-                    try (final ChromosomePipeline pipeline = createChromosomePipeline(contig, recalibrationMap)) {
-                        pipeline.process();
-                    }
-                    System.gc();
+                    result.add(contig);
                 }
             }
         }
 
-//                createChromosomePipeline("10", recalibrationMap).process(130404941, 130405950);
-
-        long timeTaken = System.currentTimeMillis() - timeStamp;
-        LOGGER.info("Completed in {} seconds", timeTaken / 1000);
+        return result;
     }
 
     private SAMSequenceDictionary dictionary() throws IOException {
@@ -131,7 +165,8 @@ public class SageApplication implements AutoCloseable {
     }
 
     private ChromosomePipeline createChromosomePipeline(@NotNull final String contig,
-            Map<String, QualityRecalibrationMap> qualityRecalibrationMap) throws IOException {
+            Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final Consumer<VariantContext> consumer)
+            throws IOException {
         final Chromosome chromosome =
                 HumanChromosome.contains(contig) ? HumanChromosome.fromString(contig) : MitochondrialChromosome.fromString(contig);
         return new ChromosomePipeline(contig,
@@ -141,12 +176,14 @@ public class SageApplication implements AutoCloseable {
                 panel.get(chromosome),
                 highConfidence.get(chromosome),
                 qualityRecalibrationMap,
-                vcf::write);
+                samSlicerFactory,
+                consumer);
     }
 
     @Override
     public void close() throws IOException {
         vcf.close();
+        samSlicerFactory.close();
         refGenome.close();
         executorService.shutdown();
     }
@@ -205,41 +242,67 @@ public class SageApplication implements AutoCloseable {
     }
 
     @NotNull
-    private Map<String, QualityRecalibrationMap> qualityRecalibration() {
+    private Map<String, QualityRecalibrationMap> qualityRecalibration() throws IOException {
         final BaseQualityRecalibrationConfig bqrConfig = config.baseQualityRecalibrationConfig();
 
         if (!bqrConfig.enabled()) {
             return disableQualityRecalibration();
         }
 
-        final Map<String, QualityRecalibrationMap> result = Maps.newHashMap();
-        LOGGER.info("Beginning quality recalibration");
-
-        final QualityRecalibration qualityRecalibration = new QualityRecalibration(bqrConfig, executorService, refGenome);
-        final List<CompletableFuture<Void>> done = Lists.newArrayList();
+        final Map<String, String> sampleBams = Maps.newLinkedHashMap();
+        for (int i = 0; i < config.reference().size(); i++) {
+            sampleBams.put(config.reference().get(i), config.referenceBam().get(i));
+        }
+        for (int i = 0; i < config.tumor().size(); i++) {
+            sampleBams.put(config.tumor().get(i), config.tumorBam().get(i));
+        }
 
-        final BiFunction<String, String, CompletableFuture<Void>> processSample =
-                (sample, sampleBam) -> qualityRecalibration.qualityRecalibrationRecords(sampleBam).thenAccept(records -> {
-                    try {
-
-                        final String tsvFile = config.baseQualityRecalibrationFile(sample);
-                        QualityRecalibrationFile.write(tsvFile, records);
-                        result.put(sample, new QualityRecalibrationMap(records));
-                        LOGGER.info("Writing base quality recalibration file: {}", tsvFile);
-                        if (bqrConfig.plot()) {
-                            RExecutor.executeFromClasspath("r/baseQualityRecalibrationPlot.R", tsvFile);
-                        }
-                    } catch (Exception e) {
-                        throw new CompletionException(e);
-                    }
-                });
+        // Reuse the output of a previous run if it was created from the same bam with the same settings
+        final Map<String, QualityRecalibrationMap> result = Maps.newConcurrentMap();
+        final Map<String, QualityRecalibrationFingerprint> fingerprints = Maps.newLinkedHashMap();
+        for (Map.Entry<String, String> entry : sampleBams.entrySet()) {
+            final String sample = entry.getKey();
+            final String sampleBam = entry.getValue();
+            final String tsvFile = config.baseQualityRecalibrationFile(sample);
+            final QualityRecalibrationFingerprint fingerprint = QualityRecalibrationFingerprint.create(bqrConfig,
+                    config.refGenome(),
+                    sampleBam,
+                    samSlicerFactory.reader(sampleBam).getFileHeader());
+
+            if (new File(tsvFile).exists() && fingerprint.matches(config.baseQualityRecalibrationFingerprintFile(sample))) {
+                LOGGER.info("Reusing base quality recalibration file: {}", tsvFile);
+                result.put(sample, new QualityRecalibrationMap(QualityRecalibrationFile.read(tsvFile)));
+            } else {
+                fingerprints.put(sample, fingerprint);
+            }
+        }
 
-        for (int i = 0; i < config.reference().size(); i++) {
-            done.add(processSample.apply(config.reference().get(i), config.referenceBam().get(i)));
+        if (fingerprints.isEmpty()) {
+            return result;
         }
 
-        for (int i = 0; i < config.tumor().size(); i++) {
-            done.add(processSample.apply(config.tumor().get(i), config.tumorBam().get(i)));
+        LOGGER.info("Beginning quality recalibration");
+        final QualityRecalibration qualityRecalibration = new QualityRecalibration(bqrConfig, executorService, refGenome, samSlicerFactory);
+        final Map<String, CompletableFuture<List<QualityRecalibrationRecord>>> bamRecords = qualityRecalibration.qualityRecalibrationRecords(
+                fingerprints.keySet().stream().map(sampleBams::get).distinct().collect(Collectors.toList()));
+
+        final List<CompletableFuture<Void>> done = Lists.newArrayList();
+        for (Map.Entry<String, QualityRecalibrationFingerprint> entry : fingerprints.entrySet()) {
+            final String sample = entry.getKey();
+            done.add(bamRecords.get(sampleBams.get(sample)).thenAccept(records -> {
+                try {
+                    final String tsvFile = config.baseQualityRecalibrationFile(sample);
+                    LOGGER.info("Writing base quality recalibration file: {}", tsvFile);
+                    QualityRecalibrationFile.write(tsvFile, records);
+                    entry.getValue().write(config.baseQualityRecalibrationFingerprintFile(sample));
+                    result.put(sample, new QualityRecalibrationMap(records));
+                    if (bqrConfig.plot()) {
+                        RExecutor.executeFromClasspath("r/baseQualityRecalibrationPlot.R", tsvFile);
+                    }
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }));
         }
 
         // Wait for all tasks to be finished
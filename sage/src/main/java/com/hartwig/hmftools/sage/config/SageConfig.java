@@ -51,6 +51,9 @@ public interface SageConfig {
     String SLICE_SIZE = "slice_size";
     String MNV = "mnv_enabled";
     String READ_CONTEXT_FLANK_SIZE = "read_context_flank_size";
+    String MAX_CONCURRENT_REGIONS = "max_concurrent_regions";
+    String MAX_READ_BUFFER = "max_read_buffer_mb";
+    String MAX_REGION_HEAP = "max_region_heap_mb";
 
     int DEFAULT_THREADS = 2;
     int DEFAULT_MIN_MAP_QUALITY = 10;
@@ -59,6 +62,9 @@ public interface SageConfig {
     int DEFAULT_MAX_REALIGNMENT_DEPTH = 1000;
     int DEFAULT_SLICE_SIZE = 100_000;
     int DEFAULT_READ_CONTEXT_FLANK_SIZE = 10;
+    int DEFAULT_REGIONS_PER_THREAD = 4;
+    int DEFAULT_MAX_READ_BUFFER = 0;
+    int DEFAULT_MAX_REGION_HEAP = 0;
     boolean DEFAULT_MNV = true;
 
     @NotNull
@@ -76,6 +82,15 @@ public interface SageConfig {
         options.addOption(MIN_MAP_QUALITY, true, "Min map quality to apply to non-hotspot variants [" + DEFAULT_MIN_MAP_QUALITY + "]");
         options.addOption(CHR, true, "Run for single chromosome");
         options.addOption(SLICE_SIZE, true, "Slice size [" + DEFAULT_SLICE_SIZE + "]");
+        options.addOption(MAX_CONCURRENT_REGIONS,
+                true,
+                "Max regions in memory across all chromosomes [" + DEFAULT_REGIONS_PER_THREAD + " x " + THREADS + "]");
+        options.addOption(MAX_READ_BUFFER,
+                true,
+                "Max MB of tumor reads per region to retain for a single bam pass, 0 to disable [" + DEFAULT_MAX_READ_BUFFER + "]");
+        options.addOption(MAX_REGION_HEAP,
+                true,
+                "Max MB of estimated read heap across all regions in memory, 0 for half the max heap [" + DEFAULT_MAX_REGION_HEAP + "]");
         options.addOption(READ_CONTEXT_FLANK_SIZE, true, "Size of read context flank [" + DEFAULT_READ_CONTEXT_FLANK_SIZE + "]");
 
         options.addOption(MAX_READ_DEPTH, true, "Max depth to look for evidence [" + DEFAULT_MAX_READ_DEPTH + "]");
@@ -127,6 +142,11 @@ public interface SageConfig {
         return parent == null ? sample + ".sage.bqr.tsv" : parent + File.separator + sample + ".sage.bqr.tsv";
     }
 
+    @NotNull
+    default String baseQualityRecalibrationFingerprintFile(@NotNull final String sample) {
+        return baseQualityRecalibrationFile(sample) + ".fingerprint";
+    }
+
     @NotNull
     String panelBed();
 
@@ -155,6 +175,12 @@ public interface SageConfig {
 
     int regionSliceSize();
 
+    int maxConcurrentRegions();
+
+    int maxReadBufferMb();
+
+    int maxRegionHeapMb();
+
     int minMapQuality();
 
     int maxRealignmentDepth();
@@ -251,6 +277,9 @@ public interface SageConfig {
                 .mnvEnabled(defaultBooleanValue(cmd, MNV, DEFAULT_MNV))
                 .refGenome(cmd.getOptionValue(REF_GENOME))
                 .regionSliceSize(defaultIntValue(cmd, SLICE_SIZE, DEFAULT_SLICE_SIZE))
+                .maxReadBufferMb(defaultIntValue(cmd, MAX_READ_BUFFER, DEFAULT_MAX_READ_BUFFER))
+                .maxRegionHeapMb(defaultIntValue(cmd, MAX_REGION_HEAP, DEFAULT_MAX_REGION_HEAP))
+                .maxConcurrentRegions(Math.max(1, defaultIntValue(cmd, MAX_CONCURRENT_REGIONS, DEFAULT_REGIONS_PER_THREAD * threads)))
                 .readContextFlankSize(defaultIntValue(cmd, READ_CONTEXT_FLANK_SIZE, DEFAULT_READ_CONTEXT_FLANK_SIZE))
                 .minMapQuality(defaultIntValue(cmd, MIN_MAP_QUALITY, DEFAULT_MIN_MAP_QUALITY))
                 .maxReadDepth(defaultIntValue(cmd, MAX_READ_DEPTH, DEFAULT_MAX_READ_DEPTH))
@@ -10,16 +10,24 @@ class AltRead {
     @Nullable
     private ReadContext readContext;
     private final RefContext refContext;
-    private final String ref;
-    private final String alt;
+    private final byte[] refBases;
+    private final int refIndex;
+    private final int refLength;
+    private final byte[] readBases;
+    private final int readIndex;
+    private final int altLength;
     private final int quality;
     private final int numberOfEvents;
 
-    AltRead(final RefContext refContext, final String ref, final String alt, final int quality, final int numberOfEvents,
-            @Nullable final ReadContext readContext) {
+    AltRead(final RefContext refContext, final byte[] refBases, final int refIndex, final int refLength, final byte[] readBases,
+            final int readIndex, final int altLength, final int quality, final int numberOfEvents, @Nullable final ReadContext readContext) {
         this.refContext = refContext;
-        this.ref = ref;
-        this.alt = alt;
+        this.refBases = refBases;
+        this.refIndex = refIndex;
+        this.refLength = refLength;
+        this.readBases = readBases;
+        this.readIndex = readIndex;
+        this.altLength = altLength;
         this.quality = quality;
         this.readContext = readContext;
         this.numberOfEvents = numberOfEvents;
@@ -34,11 +42,11 @@ class AltRead {
     }
 
     public boolean isIndel() {
-        return ref.length() != alt.length();
+        return refLength != altLength;
     }
 
     public int length() {
-        return Math.abs(ref.length() - alt.length());
+        return Math.abs(refLength - altLength);
     }
 
     public int rightCoreIndex() {
@@ -60,7 +68,7 @@ class AltRead {
     }
 
     public void updateRefContext() {
-        refContext.altRead(ref, alt, quality, numberOfEvents, readContext);
+        refContext.altRead(refBases, refIndex, refLength, readBases, readIndex, altLength, quality, numberOfEvents, readContext);
     }
 
 }
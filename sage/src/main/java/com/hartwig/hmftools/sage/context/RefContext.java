@@ -1,8 +1,8 @@
 package com.hartwig.hmftools.sage.context;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
 
 import javax.annotation.Nullable;
 
@@ -14,11 +14,19 @@ import org.jetbrains.annotations.NotNull;
 
 public class RefContext implements GenomePosition {
 
+    private static final int INITIAL_ALT_CAPACITY = 4;
+
     private final String sample;
     private final String chromosome;
     private final int maxDepth;
     private final long position;
-    private final Map<String, AltContext> alts;
+
+    // Open-addressed table of alts keyed by the hash of their ref and alt bases. Allocated on the first alt read.
+    @Nullable
+    private AltContext[] altTable;
+    @Nullable
+    private int[] altHashes;
+    private int altCount;
 
     private int rawDepth;
 
@@ -27,12 +35,22 @@ public class RefContext implements GenomePosition {
         this.chromosome = chromosome;
         this.position = position;
         this.maxDepth = maxDepth;
-        this.alts = new HashMap<>();
     }
 
     @NotNull
     public Collection<AltContext> alts() {
-        return alts.values();
+        if (altTable == null) {
+            return Collections.emptyList();
+        }
+
+        final AltContext[] result = new AltContext[altCount];
+        int i = 0;
+        for (AltContext altContext : altTable) {
+            if (altContext != null) {
+                result[i++] = altContext;
+            }
+        }
+        return Arrays.asList(result);
     }
 
     public boolean reachedLimit() {
@@ -45,7 +63,18 @@ public class RefContext implements GenomePosition {
 
     public void altRead(@NotNull final String ref, @NotNull final String alt, int baseQuality, int numberOfEvents,
             @Nullable final ReadContext readContext) {
-        final AltContext altContext = altContext(ref, alt);
+        final byte[] refBytes = ref.getBytes();
+        final byte[] altBytes = alt.getBytes();
+        altRead(refBytes, 0, refBytes.length, altBytes, 0, altBytes.length, baseQuality, numberOfEvents, readContext);
+    }
+
+    /**
+     * Records an alt read whose ref and alt are given as slices of the reference and read bases. Strings are only created
+     * the first time an alt is seen at this position.
+     */
+    public void altRead(@NotNull final byte[] refBases, int refIndex, int refLength, @NotNull final byte[] readBases, int readIndex,
+            int altLength, int baseQuality, int numberOfEvents, @Nullable final ReadContext readContext) {
+        final AltContext altContext = altContext(refBases, refIndex, refLength, readBases, readIndex, altLength);
         altContext.incrementAltRead(baseQuality);
         this.rawDepth++;
 
@@ -95,8 +124,86 @@ public class RefContext implements GenomePosition {
     }
 
     @NotNull
-    private AltContext altContext(@NotNull final String ref, @NotNull final String alt) {
-        final String refAltKey = ref + "|" + alt;
-        return alts.computeIfAbsent(refAltKey, key -> new AltContext(this, ref, alt));
+    private AltContext altContext(@NotNull final byte[] refBases, int refIndex, int refLength, @NotNull final byte[] readBases,
+            int readIndex, int altLength) {
+        if (altTable == null || altHashes == null) {
+            altTable = new AltContext[INITIAL_ALT_CAPACITY];
+            altHashes = new int[INITIAL_ALT_CAPACITY];
+        }
+
+        final int hash = hash(refBases, refIndex, refLength, readBases, readIndex, altLength);
+        final int mask = altTable.length - 1;
+        int slot = hash & mask;
+
+        AltContext existing;
+        while ((existing = altTable[slot]) != null) {
+            if (altHashes[slot] == hash && matches(existing.ref(), refBases, refIndex, refLength) && matches(existing.alt(),
+                    readBases,
+                    readIndex,
+                    altLength)) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        final AltContext altContext =
+                new AltContext(this, new String(refBases, refIndex, refLength), new String(readBases, readIndex, altLength));
+        altTable[slot] = altContext;
+        altHashes[slot] = hash;
+        if (++altCount * 2 > altTable.length) {
+            resizeAltTable();
+        }
+
+        return altContext;
+    }
+
+    private void resizeAltTable() {
+        assert (altTable != null && altHashes != null);
+
+        final AltContext[] oldTable = altTable;
+        final int[] oldHashes = altHashes;
+        final int mask = oldTable.length * 2 - 1;
+
+        altTable = new AltContext[oldTable.length * 2];
+        altHashes = new int[oldTable.length * 2];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (altTable[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                altTable[slot] = oldTable[i];
+                altHashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private static int hash(@NotNull final byte[] refBases, int refIndex, int refLength, @NotNull final byte[] readBases, int readIndex,
+            int altLength) {
+        int h = 5381;
+        for (int i = refIndex; i < refIndex + refLength; i++) {
+            h += (h << 5) + refBases[i];
+        }
+        h += (h << 5) + '|';
+        for (int i = readIndex; i < readIndex + altLength; i++) {
+            h += (h << 5) + readBases[i];
+        }
+
+        // Spread the high bits as the table only uses the lowest
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(@NotNull final String value, @NotNull final byte[] bases, int index, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != bases[index + i]) {
+                return false;
+            }
+        }
+
+        return true;
     }
 }
@@ -1,71 +1,85 @@
-package com.hartwig.hmftools.sage.count;
+package com.hartwig.hmftools.sage.context;
 
 import java.util.function.Consumer;
-import java.util.function.Function;
 
 import org.jetbrains.annotations.NotNull;
 
-public class EvictingArray<T> {
+/**
+ * Ring buffer of ref contexts indexed by position. Positions that fall out of the window are evicted in order.
+ */
+class RefContextArray {
 
-    private final Object[] elements;
-    private final Consumer<T> evictionHandler;
-    private int minPosition = 0;
-    private int minPositionIndex = 0;
+    interface RefContextSupplier {
+
+        @NotNull
+        RefContext create(@NotNull String chromosome, long position);
+    }
 
+    private final RefContext[] elements;
+    private final RefContextSupplier supplier;
+    private final Consumer<RefContext> evictionHandler;
     private final int capacity;
+    private final int mask;
+
+    private long minPosition = 0;
+    private int minPositionIndex = 0;
 
-    public EvictingArray(int minCapacity, Consumer<T> evictionHandler) {
+    RefContextArray(int minCapacity, @NotNull final RefContextSupplier supplier, @NotNull final Consumer<RefContext> evictionHandler) {
+        this.supplier = supplier;
         this.evictionHandler = evictionHandler;
         this.capacity = calculateSize(minCapacity);
-        this.elements = new Object[this.capacity];
+        this.mask = capacity - 1;
+        this.elements = new RefContext[capacity];
     }
 
-    public T computeIfAbsent(long position, @NotNull final Function<Long, T> supplier) {
+    @NotNull
+    RefContext computeIfAbsent(@NotNull final String chromosome, long position) {
         if (minPosition == 0) {
-            minPosition = (int) position - capacity + 1;
+            minPosition = position - capacity + 1;
         }
 
-        int distanceFromMinPosition = (int) position - minPosition;
+        long distanceFromMinPosition = position - minPosition;
         if (distanceFromMinPosition < 0) {
             throw new IllegalArgumentException("Cannot add position: " + position + " before min position: " + minPosition);
         }
 
         if (distanceFromMinPosition >= capacity) {
-            flush((int) position - minPosition - capacity + 1);
+            flush(Math.min(distanceFromMinPosition - capacity + 1, capacity));
+            minPosition = position - capacity + 1;
+            distanceFromMinPosition = capacity - 1;
         }
 
-        distanceFromMinPosition = (int) position - minPosition;
-        int index = (minPositionIndex + distanceFromMinPosition) & (elements.length - 1);
-        T element = (T) elements[index];
+        int index = (minPositionIndex + (int) distanceFromMinPosition) & mask;
+        RefContext element = elements[index];
         if (element == null) {
-            element = supplier.apply(position);
+            element = supplier.create(chromosome, position);
             elements[index] = element;
         }
 
         return element;
     }
 
-    public int capacity() {
+    int capacity() {
         return capacity;
     }
 
-    int minPosition() {
+    long minPosition() {
         return minPosition;
     }
 
-    public void evictAll() {
+    void evictAll() {
         flush(capacity);
     }
 
-    private void flush(int count) {
-        for (int i = 0; i < count; i++) {
-            T element = (T) elements[minPositionIndex];
+    private void flush(long count) {
+        for (long i = 0; i < count; i++) {
+            final RefContext element = elements[minPositionIndex];
             if (element != null) {
                 evictionHandler.accept(element);
                 elements[minPositionIndex] = null;
             }
             minPosition++;
-            minPositionIndex = (minPositionIndex + 1) & (elements.length - 1);
+            minPositionIndex = (minPositionIndex + 1) & mask;
         }
     }
 
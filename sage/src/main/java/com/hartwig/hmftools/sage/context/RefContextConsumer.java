@@ -119,16 +119,25 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
         int refIndex = refBases.index(refPosition);
 
         if (refPosition <= bounds.end() && refPosition >= bounds.start()) {
-            final String ref = new String(refBases.bases(), refIndex, 1);
-            final String alt = new String(record.getReadBases(), readIndex, e.getLength() + 1);
+            final int altLength = e.getLength() + 1;
             boolean findReadContext = findReadContext(readIndex, record);
 
             final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
             if (!refContext.reachedLimit()) {
-                final int baseQuality = baseQuality(readIndex, record, alt.length());
-                final ReadContext readContext =
-                        findReadContext ? readContextFactory.createInsertContext(alt, refPosition, readIndex, record, refBases) : null;
-                return new AltRead(refContext, ref, alt, baseQuality, numberOfEvents, readContext);
+                final int baseQuality = baseQuality(readIndex, record, altLength);
+                final ReadContext readContext = findReadContext ? readContextFactory.createInsertContext(new String(record.getReadBases(),
+                        readIndex,
+                        altLength), refPosition, readIndex, record, refBases) : null;
+                return new AltRead(refContext,
+                        refBases.bases(),
+                        refIndex,
+                        1,
+                        record.getReadBases(),
+                        readIndex,
+                        altLength,
+                        baseQuality,
+                        numberOfEvents,
+                        readContext);
             }
         }
 
@@ -141,16 +150,25 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
         int refIndex = refBases.index(refPosition);
 
         if (refPosition <= bounds.end() && refPosition >= bounds.start()) {
-            final String ref = new String(refBases.bases(), refIndex, e.getLength() + 1);
-            final String alt = new String(record.getReadBases(), readIndex, 1);
+            final int refLength = e.getLength() + 1;
             boolean findReadContext = findReadContext(readIndex, record);
 
             final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
             if (!refContext.reachedLimit()) {
                 final int baseQuality = baseQuality(readIndex, record, 2);
-                final ReadContext readContext =
-                        findReadContext ? readContextFactory.createDelContext(ref, refPosition, readIndex, record, refBases) : null;
-                return new AltRead(refContext, ref, alt, baseQuality, numberOfEvents, readContext);
+                final ReadContext readContext = findReadContext ? readContextFactory.createDelContext(new String(refBases.bases(),
+                        refIndex,
+                        refLength), refPosition, readIndex, record, refBases) : null;
+                return new AltRead(refContext,
+                        refBases.bases(),
+                        refIndex,
+                        refLength,
+                        record.getReadBases(),
+                        readIndex,
+                        1,
+                        baseQuality,
+                        numberOfEvents,
+                        readContext);
             }
         }
 
@@ -174,7 +192,6 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
             }
 
             final byte refByte = refBases.bases()[refBaseIndex];
-            final String ref = String.valueOf((char) refByte);
             final byte readByte = record.getReadBases()[readBaseIndex];
             boolean findReadContext = findReadContext(readBaseIndex, record);
 
@@ -182,22 +199,27 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
             if (!refContext.reachedLimit()) {
                 int baseQuality = record.getBaseQualities()[readBaseIndex];
                 if (readByte != refByte) {
-                    final String alt = String.valueOf((char) readByte);
                     final ReadContext readContext =
                             findReadContext ? readContextFactory.createSNVContext(refPosition, readBaseIndex, record, refBases) : null;
 
-                    result.add(new AltRead(refContext, ref, alt, baseQuality, numberOfEvents, readContext));
+                    result.add(new AltRead(refContext,
+                            refBases.bases(),
+                            refBaseIndex,
+                            1,
+                            record.getReadBases(),
+                            readBaseIndex,
+                            1,
+                            baseQuality,
+                            numberOfEvents,
+                            readContext));
 
                     if (config.mnvEnabled()) {
                         int mnvMaxLength = mnvLength(readBaseIndex, refBaseIndex, record.getReadBases(), refBases.bases());
                         for (int mnvLength = 2; mnvLength <= mnvMaxLength; mnvLength++) {
 
-                            final String mnvRef = new String(refBases.bases(), refBaseIndex, mnvLength);
-                            final String mnvAlt = new String(record.getReadBases(), readBaseIndex, mnvLength);
-
                             // Only check last base because some subsets may not be valid,
                             // ie CA > TA is not a valid subset of CAC > TAT
-                            if (mnvRef.charAt(mnvLength - 1) != mnvAlt.charAt(mnvLength - 1)) {
+                            if (refBases.bases()[refBaseIndex + mnvLength - 1] != record.getReadBases()[readBaseIndex + mnvLength - 1]) {
                                 final ReadContext mnvReadContext = findReadContext ? readContextFactory.createMNVContext(refPosition,
                                         readBaseIndex,
                                         mnvLength,
@@ -205,10 +227,19 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
                                         refBases) : null;
 
                                 result.add(new AltRead(refContext,
-                                        mnvRef,
-                                        mnvAlt,
+                                        refBases.bases(),
+                                        refBaseIndex,
+                                        mnvLength,
+                                        record.getReadBases(),
+                                        readBaseIndex,
+                                        mnvLength,
                                         baseQuality,
-                                        NumberEvents.numberOfEventsWithMNV(numberOfEvents, mnvRef, mnvAlt),
+                                        NumberEvents.numberOfEventsWithMNV(numberOfEvents,
+                                                refBases.bases(),
+                                                refBaseIndex,
+                                                record.getReadBases(),
+                                                readBaseIndex,
+                                                mnvLength),
                                         mnvReadContext));
                             }
                         }
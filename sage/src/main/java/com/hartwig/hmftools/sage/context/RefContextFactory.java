@@ -10,7 +10,6 @@ import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
-import com.hartwig.hmftools.sage.count.EvictingArray;
 import com.hartwig.hmftools.sage.select.HotspotSelector;
 import com.hartwig.hmftools.sage.select.PanelSelector;
 
@@ -20,7 +19,7 @@ public class RefContextFactory {
 
     private final SageConfig config;
     private final String sample;
-    private final EvictingArray<RefContext> rollingCandidates;
+    private final RefContextArray rollingCandidates;
     private final PanelSelector<GenomeRegion> panelSelector;
     private final List<AltContext> savedCandidates = Lists.newArrayList();
 
@@ -37,13 +36,12 @@ public class RefContextFactory {
                 .filter(altContextPredicate)
                 .forEach(savedCandidates::add);
 
-        this.rollingCandidates = new EvictingArray<>(256, evictionHandler);
+        this.rollingCandidates = new RefContextArray(256, this::create, evictionHandler);
     }
 
     @NotNull
     public RefContext refContext(@NotNull final String chromosome, final long position) {
-        int maxDepth = maxReadDepth(chromosome, position);
-        return rollingCandidates.computeIfAbsent(position, aLong -> new RefContext(sample, chromosome, position, maxDepth));
+        return rollingCandidates.computeIfAbsent(chromosome, position);
     }
 
     @NotNull
@@ -53,6 +51,11 @@ public class RefContextFactory {
         return savedCandidates;
     }
 
+    @NotNull
+    private RefContext create(@NotNull final String chromosome, long position) {
+        return new RefContext(sample, chromosome, position, maxReadDepth(chromosome, position));
+    }
+
     private int maxReadDepth(final String chromosome, final long position) {
         return MitochondrialChromosome.contains(chromosome) || panelSelector.inPanel(position, position)
                 ? config.maxReadDepthPanel()
@@ -1,18 +1,19 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
 import java.util.List;
 import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.context.RefContextConsumer;
 import com.hartwig.hmftools.sage.context.RefContextFactory;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
@@ -22,9 +23,6 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class CandidateEvidence {
 
@@ -33,39 +31,60 @@ public class CandidateEvidence {
     private final SageConfig config;
     private final List<VariantHotspot> hotspots;
     private final List<GenomeRegion> panel;
-    private final ReferenceSequenceFile refGenome;
     private final SamSlicerFactory samSlicerFactory;
 
     public CandidateEvidence(@NotNull final SageConfig config, @NotNull final List<VariantHotspot> hotspots, final List<GenomeRegion> panel,
-            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final ReferenceSequenceFile refGenome) {
+            @NotNull final SamSlicerFactory samSlicerFactory) {
         this.config = config;
         this.panel = panel;
         this.samSlicerFactory = samSlicerFactory;
         this.hotspots = hotspots;
-        this.refGenome = refGenome;
     }
 
     @NotNull
     public List<AltContext> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final RefSequence refSequence,
             @NotNull final GenomeRegion bounds) {
+        return get(sample, bamFile, refSequence, bounds, new SamRecordBuffer(0));
+    }
+
+    /**
+     * If the buffer is enabled, the reads of the bounds extended by a typical read length are also retained in the buffer so that
+     * evidence for the resulting candidates can be collected without a second pass of the bam.
+     */
+    @NotNull
+    public List<AltContext> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final RefSequence refSequence,
+            @NotNull final GenomeRegion bounds, @NotNull final SamRecordBuffer buffer) {
         LOGGER.debug("Variant candidates {} position {}:{}", sample, bounds.chromosome(), bounds.start());
         final RefContextFactory candidates = new RefContextFactory(config, sample, hotspots, panel);
         final RefContextConsumer refContextConsumer = new RefContextConsumer(config, bounds, refSequence, candidates);
-        return get(bamFile, bounds, refContextConsumer, candidates);
+        return get(bamFile, bounds, refContextConsumer, candidates, buffer);
     }
 
     @NotNull
     private List<AltContext> get(@NotNull final String bamFile, @NotNull final GenomeRegion bounds,
-            @NotNull final Consumer<SAMRecord> recordConsumer, @NotNull final RefContextFactory candidates) {
+            @NotNull final Consumer<SAMRecord> recordConsumer, @NotNull final RefContextFactory candidates,
+            @NotNull final SamRecordBuffer buffer) {
         final List<AltContext> altContexts = Lists.newArrayList();
 
         final SamSlicer slicer = samSlicerFactory.create(bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
+        try {
+            final SamReader tumorReader = samSlicerFactory.reader(bamFile);
 
             // First parse
-            slicer.slice(tumorReader, recordConsumer);
+            if (buffer.enabled()) {
+                final int typicalReadLength = config.typicalReadLength();
+                final GenomeRegion bufferBounds = GenomeRegions.create(bounds.chromosome(),
+                        Math.max(bounds.start() - typicalReadLength, 1),
+                        bounds.end() + typicalReadLength);
+
+                samSlicerFactory.create(bufferBounds).slice(tumorReader, buffer, record -> {
+                    if (slicer.overlaps(record)) {
+                        recordConsumer.accept(record);
+                    }
+                });
+            } else {
+                slicer.slice(tumorReader, recordConsumer);
+            }
 
             // Add all valid alt contexts
             altContexts.addAll(candidates.altContexts());
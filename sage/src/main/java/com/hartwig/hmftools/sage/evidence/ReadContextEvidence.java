@@ -1,10 +1,8 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
@@ -13,6 +11,7 @@ import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.samtools.NumberEvents;
@@ -20,24 +19,20 @@ import com.hartwig.hmftools.sage.select.SamRecordSelector;
 
 import org.jetbrains.annotations.NotNull;
 
+import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class ReadContextEvidence {
 
     private final int typicalReadLength;
     private final SageConfig sageConfig;
     private final SamSlicerFactory samSlicerFactory;
-    private final ReferenceSequenceFile refGenome;
     private final ReadContextCounterFactory factory;
 
     public ReadContextEvidence(@NotNull final SageConfig config, @NotNull final SamSlicerFactory samSlicerFactory,
-            @NotNull final ReferenceSequenceFile refGenome, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+            final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
         this.sageConfig = config;
         this.samSlicerFactory = samSlicerFactory;
-        this.refGenome = refGenome;
         this.factory = new ReadContextCounterFactory(config, qualityRecalibrationMap);
         this.typicalReadLength = config.typicalReadLength();
     }
@@ -45,6 +40,15 @@ public class ReadContextEvidence {
     @NotNull
     public List<ReadContextCounter> get(@NotNull final List<Candidate> candidates, @NotNull final String sample,
             @NotNull final String bam) {
+        return get(candidates, sample, bam, new SamRecordBuffer(0));
+    }
+
+    /**
+     * Replays the reads retained by the candidate pass if they cover the candidates, otherwise re-reads the bam.
+     */
+    @NotNull
+    public List<ReadContextCounter> get(@NotNull final List<Candidate> candidates, @NotNull final String sample,
+            @NotNull final String bam, @NotNull final SamRecordBuffer buffer) {
         final List<ReadContextCounter> counters = factory.create(sample, candidates);
         if (candidates.isEmpty()) {
             return counters;
@@ -58,21 +62,22 @@ public class ReadContextEvidence {
                 lastCandidate.position() + typicalReadLength);
         final SamSlicer slicer = samSlicerFactory.create(bounds);
 
-        final SamRecordSelector<ReadContextCounter> consumerSelector = new SamRecordSelector<>(counters);
+        final SamRecordSelector<ReadContextCounter> consumerSelector = new SamRecordSelector<>(counters, ReadContextCounter::maxCoverageReached);
+        final Consumer<SAMRecord> recordConsumer = samRecord -> {
 
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bam))) {
-            slicer.slice(tumorReader, samRecord -> {
+            int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
+            consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
 
-                int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
-                consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
+        };
 
-            });
-        } catch (IOException e) {
-            throw new CompletionException(e);
+        if (buffer.covers(bounds)) {
+            slicer.slice(buffer, recordConsumer);
+            return counters;
         }
 
+        final SamReader tumorReader = samSlicerFactory.reader(bam);
+        slicer.slice(tumorReader, recordConsumer);
+
         return counters;
     }
 }
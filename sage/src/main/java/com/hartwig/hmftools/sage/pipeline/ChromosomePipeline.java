@@ -2,9 +2,7 @@ package com.hartwig.hmftools.sage.pipeline;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Comparator;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -12,15 +10,14 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
-import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.phase.Phase;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 import com.hartwig.hmftools.sage.variant.SageVariantTier;
@@ -39,7 +36,6 @@ public class ChromosomePipeline implements AutoCloseable {
 
     private final String chromosome;
     private final SageConfig config;
-    private final List<RegionFuture<List<SageVariant>>> regions = Lists.newArrayList();
     private final IndexedFastaSequenceFile refGenome;
     private final SageVariantPipeline sageVariantPipeline;
     private final Consumer<VariantContext> consumer;
@@ -47,14 +43,19 @@ public class ChromosomePipeline implements AutoCloseable {
     public ChromosomePipeline(@NotNull final String chromosome, @NotNull final SageConfig config, @NotNull final Executor executor,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap,
-            final Consumer<VariantContext> consumer)
-            throws IOException {
+            @NotNull final SamSlicerFactory samSlicerFactory, final Consumer<VariantContext> consumer) throws IOException {
         this.chromosome = chromosome;
         this.config = config;
         this.refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
         this.consumer = consumer;
-        this.sageVariantPipeline =
-                new SomaticPipeline(config, executor, refGenome, hotspots, panelRegions, highConfidenceRegions, qualityRecalibrationMap);
+        this.sageVariantPipeline = new SomaticPipeline(config,
+                executor,
+                refGenome,
+                hotspots,
+                panelRegions,
+                highConfidenceRegions,
+                qualityRecalibrationMap,
+                samSlicerFactory);
     }
 
     @NotNull
@@ -67,49 +68,39 @@ public class ChromosomePipeline implements AutoCloseable {
     }
 
     public void process(int minPosition, int maxPosition) throws ExecutionException, InterruptedException {
-        // This is for the benefit of MT
-        int dynamicSliceSize = maxPosition / Math.min(config.threads(), 4) + 1;
-
-        final int regionSliceSize = Math.min(dynamicSliceSize, config.regionSliceSize());
-        for (int i = 0; ; i++) {
-            int start = minPosition + i * regionSliceSize;
-            int end = Math.min(start + regionSliceSize - 1, maxPosition);
-            addRegion(start, end);
-
-            if (end >= maxPosition) {
-                break;
-            }
-        }
-
-        submit().get();
+        submit(minPosition, maxPosition, RegionScheduler.unbounded()).get();
     }
 
-    private void addRegion(int start, int end) {
-        final GenomeRegion region = GenomeRegions.create(chromosome, start, end);
-        final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
-        final RegionFuture<List<SageVariant>> regionFuture = new RegionFuture<>(region, future);
-        regions.add(regionFuture);
+    /**
+     * Submits every slice of the chromosome, blocking while the scheduler has no room for the next one. Permits are held from the
+     * time a slice is submitted until its variants have been phased, so the scheduler bounds the slices held in memory across all
+     * chromosomes sharing it.
+     */
+    @NotNull
+    public CompletableFuture<ChromosomePipeline> submit(@NotNull final RegionScheduler scheduler) throws InterruptedException {
+        return submit(1, refGenome.getSequence(chromosome).length(), scheduler);
     }
 
     @NotNull
-    private CompletableFuture<ChromosomePipeline> submit() {
-        // Even if regions were executed out of order, they must be phased in order
-        regions.sort(Comparator.comparing(RegionFuture::region));
+    private CompletableFuture<ChromosomePipeline> submit(int minPosition, int maxPosition, @NotNull final RegionScheduler scheduler)
+            throws InterruptedException {
+        // This is for the benefit of MT
+        int dynamicSliceSize = maxPosition / Math.min(config.threads(), 4) + 1;
+
+        final int regionSliceSize = Math.min(dynamicSliceSize, config.regionSliceSize());
 
         // Phasing must be done in order but we can do it eagerly as each new region comes in.
         // It is not necessary to wait for the entire chromosome to be finished to start.
         CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
         final Phase phase = new Phase(config, chromosome, this::write);
-        final Iterator<RegionFuture<List<SageVariant>>> regionsIterator = regions.iterator();
-        while (regionsIterator.hasNext()) {
-            CompletableFuture<List<SageVariant>> region = regionsIterator.next().future();
+        for (RegionScheduler.Slice slice : scheduler.slices(chromosome, minPosition, maxPosition, regionSliceSize)) {
+            scheduler.acquire(slice);
+            final CompletableFuture<List<SageVariant>> region = sageVariantPipeline.variants(slice.region());
             done = done.thenCombine(region, (aVoid, sageVariants) -> {
-
                 sageVariants.forEach(phase);
                 return null;
             });
-
-            regionsIterator.remove();
+            done.whenComplete((aVoid, throwable) -> scheduler.release(slice));
         }
 
         return done.thenApply(aVoid -> {
@@ -161,23 +152,4 @@ public class ChromosomePipeline implements AutoCloseable {
     public void close() throws IOException {
         refGenome.close();
     }
-
-    private static class RegionFuture<T> {
-
-        private final CompletableFuture<T> future;
-        private final GenomeRegion region;
-
-        public RegionFuture(final GenomeRegion region, final CompletableFuture<T> future) {
-            this.region = region;
-            this.future = future;
-        }
-
-        public CompletableFuture<T> future() {
-            return future;
-        }
-
-        public GenomeRegion region() {
-            return region;
-        }
-    }
 }
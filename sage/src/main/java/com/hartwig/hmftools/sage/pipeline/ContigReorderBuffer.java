@@ -0,0 +1,64 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Accepts output from several contigs concurrently but passes it on in contig order.
+ * Output of the current head contig is passed straight through, everything else is held until all earlier contigs are complete.
+ * The held output is not bounded, so callers should limit how far ahead of the head contig they run.
+ */
+public class ContigReorderBuffer<T> {
+
+    private final Consumer<T> consumer;
+    private final Deque<String> pending;
+    private final Set<String> complete = Sets.newHashSet();
+    private final Map<String, List<T>> buffers = Maps.newHashMap();
+
+    public ContigReorderBuffer(@NotNull final List<String> contigs, @NotNull final Consumer<T> consumer) {
+        this.consumer = consumer;
+        this.pending = new ArrayDeque<>(contigs);
+    }
+
+    @NotNull
+    public Consumer<T> consumer(@NotNull final String contig) {
+        if (!pending.contains(contig)) {
+            throw new IllegalArgumentException("Contig " + contig + " is not pending");
+        }
+
+        return entry -> accept(contig, entry);
+    }
+
+    public synchronized void accept(@NotNull final String contig, @NotNull final T entry) {
+        if (contig.equals(pending.peekFirst())) {
+            consumer.accept(entry);
+        } else {
+            buffers.computeIfAbsent(contig, x -> Lists.newArrayList()).add(entry);
+        }
+    }
+
+    public synchronized void complete(@NotNull final String contig) {
+        complete.add(contig);
+        while (!pending.isEmpty() && complete.contains(pending.peekFirst())) {
+            complete.remove(pending.removeFirst());
+
+            final String next = pending.peekFirst();
+            if (next != null) {
+                final List<T> buffer = buffers.remove(next);
+                if (buffer != null) {
+                    buffer.forEach(consumer);
+                }
+            }
+        }
+    }
+}
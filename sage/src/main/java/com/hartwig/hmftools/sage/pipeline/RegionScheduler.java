@@ -0,0 +1,131 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.ToLongFunction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.config.SageConfig;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Cuts chromosomes into slices and bounds the slices held in memory. Slices whose estimated read count would take more than their
+ * share of the heap budget are split until they fit. Each slice holds a permit for its estimated heap usage while in flight, in
+ * addition to one of a fixed number of region permits.
+ */
+public class RegionScheduler {
+
+    static final int MIN_SLICE_SIZE = 1_000;
+
+    // Conservative heap used per read while a slice is processed, including the decoded record and any read contexts it creates
+    static final long HEAP_BYTES_PER_READ = 1_000;
+
+    private static final long MB = 1024 * 1024;
+
+    private final Semaphore regionPermits;
+    private final Semaphore heapPermits;
+    private final int heapBudgetMb;
+    private final int sliceHeapMb;
+    private final ToLongFunction<GenomeRegion> readCountEstimator;
+
+    public RegionScheduler(@NotNull final SageConfig config, @NotNull final ToLongFunction<GenomeRegion> readCountEstimator) {
+        this(config.maxConcurrentRegions(),
+                config.maxRegionHeapMb() > 0 ? config.maxRegionHeapMb() : (int) (Runtime.getRuntime().maxMemory() / 2 / MB),
+                readCountEstimator);
+    }
+
+    @VisibleForTesting
+    RegionScheduler(int maxConcurrentRegions, int heapBudgetMb, @NotNull final ToLongFunction<GenomeRegion> readCountEstimator) {
+        this.heapBudgetMb = Math.max(1, heapBudgetMb);
+        this.sliceHeapMb = Math.max(1, this.heapBudgetMb / maxConcurrentRegions);
+        this.regionPermits = new Semaphore(maxConcurrentRegions);
+        this.heapPermits = new Semaphore(this.heapBudgetMb);
+        this.readCountEstimator = readCountEstimator;
+    }
+
+    /**
+     * Fixed size slices without any memory bound.
+     */
+    @NotNull
+    static RegionScheduler unbounded() {
+        return new RegionScheduler(Integer.MAX_VALUE, Integer.MAX_VALUE, x -> -1);
+    }
+
+    @NotNull
+    public List<Slice> slices(@NotNull final String chromosome, int minPosition, int maxPosition, int regionSliceSize) {
+        final List<Slice> result = Lists.newArrayList();
+        for (int i = 0; ; i++) {
+            int start = minPosition + i * regionSliceSize;
+            int end = Math.min(start + regionSliceSize - 1, maxPosition);
+            split(GenomeRegions.create(chromosome, start, end), result);
+
+            if (end >= maxPosition) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private void split(@NotNull final GenomeRegion region, @NotNull final List<Slice> result) {
+        final int heapMb = heapMb(region);
+        if (heapMb > sliceHeapMb && region.bases() >= 2 * MIN_SLICE_SIZE) {
+            final long mid = region.start() + region.bases() / 2;
+            split(GenomeRegions.create(region.chromosome(), region.start(), mid - 1), result);
+            split(GenomeRegions.create(region.chromosome(), mid, region.end()), result);
+        } else {
+            result.add(new Slice(region, Math.min(heapMb, heapBudgetMb)));
+        }
+    }
+
+    private int heapMb(@NotNull final GenomeRegion region) {
+        final long reads = readCountEstimator.applyAsLong(region);
+        if (reads < 0) {
+            return sliceHeapMb;
+        }
+
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, reads * HEAP_BYTES_PER_READ / MB));
+    }
+
+    /**
+     * Blocks until both a region permit and enough heap permits for the slice are available.
+     */
+    public void acquire(@NotNull final Slice slice) throws InterruptedException {
+        regionPermits.acquire();
+        try {
+            heapPermits.acquire(slice.heapMb());
+        } catch (InterruptedException e) {
+            regionPermits.release();
+            throw e;
+        }
+    }
+
+    public void release(@NotNull final Slice slice) {
+        heapPermits.release(slice.heapMb());
+        regionPermits.release();
+    }
+
+    public static class Slice {
+
+        private final GenomeRegion region;
+        private final int heapMb;
+
+        Slice(@NotNull final GenomeRegion region, final int heapMb) {
+            this.region = region;
+            this.heapMb = heapMb;
+        }
+
+        @NotNull
+        public GenomeRegion region() {
+            return region;
+        }
+
+        public int heapMb() {
+            return heapMb;
+        }
+    }
+}
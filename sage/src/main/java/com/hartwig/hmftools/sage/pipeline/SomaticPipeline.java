@@ -19,6 +19,7 @@ import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamRecordBuffer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantFactory;
@@ -45,15 +46,14 @@ public class SomaticPipeline implements SageVariantPipeline {
     SomaticPipeline(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final ReferenceSequenceFile refGenome,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions,
-            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SamSlicerFactory samSlicerFactory) {
         this.config = config;
         this.executor = executor;
-        final SamSlicerFactory samSlicerFactory = new SamSlicerFactory(config, panelRegions);
         this.hotspots = hotspots;
         this.panelRegions = panelRegions;
         this.highConfidenceRegions = highConfidenceRegions;
-        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, refGenome);
-        this.readContextEvidence = new ReadContextEvidence(config, samSlicerFactory, refGenome, qualityRecalibrationMap);
+        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory);
+        this.readContextEvidence = new ReadContextEvidence(config, samSlicerFactory, qualityRecalibrationMap);
         this.refGenome = refGenome;
     }
 
@@ -61,18 +61,24 @@ public class SomaticPipeline implements SageVariantPipeline {
     public CompletableFuture<List<SageVariant>> variants(@NotNull final GenomeRegion region) {
         final CompletableFuture<RefSequence> refSequenceFuture = supplyAsync(() -> new RefSequence(region, refGenome), executor);
 
-        final CompletableFuture<List<Candidate>> initialCandidates = bamCandidates(region, refSequenceFuture);
-        final CompletableFuture<ReadContextCounters> tumorEvidence = bamEvidence(region, config.tumor(), config.tumorBam(), initialCandidates);
+        // Tumor reads retained by the candidate pass are replayed to collect evidence rather than reading the tumor bam again
+        final List<SamRecordBuffer> tumorReads = readBuffers(config.tumor().size(), config.maxReadBufferMb());
+        final List<SamRecordBuffer> referenceReads = readBuffers(config.reference().size(), 0);
+
+        final CompletableFuture<List<Candidate>> initialCandidates = bamCandidates(region, refSequenceFuture, tumorReads);
+        final CompletableFuture<ReadContextCounters> tumorEvidence =
+                bamEvidence(region, config.tumor(), config.tumorBam(), tumorReads, initialCandidates);
 
         final CompletableFuture<List<Candidate>> finalCandidates = filteredCandidates(tumorEvidence);
-        final CompletableFuture<ReadContextCounters> normalEvidence = bamEvidence(region, config.reference(), config.referenceBam(), finalCandidates);
+        final CompletableFuture<ReadContextCounters> normalEvidence =
+                bamEvidence(region, config.reference(), config.referenceBam(), referenceReads, finalCandidates);
 
         return combine(region, finalCandidates, tumorEvidence, normalEvidence);
     }
 
     @NotNull
     private CompletableFuture<List<Candidate>> bamCandidates(@NotNull final GenomeRegion region,
-            final CompletableFuture<RefSequence> refSequenceFuture) {
+            final CompletableFuture<RefSequence> refSequenceFuture, @NotNull final List<SamRecordBuffer> sampleReads) {
         return refSequenceFuture.thenCompose(refSequence -> {
             if (region.start() == 1) {
                 LOGGER.info("Processing chromosome {}", region.chromosome());
@@ -85,7 +91,8 @@ public class SomaticPipeline implements SageVariantPipeline {
             for (int i = 0; i < config.tumor().size(); i++) {
                 final String sample = config.tumor().get(i);
                 final String sampleBam = config.tumorBam().get(i);
-                done = done.thenApply(aVoid -> candidateEvidence.get(sample, sampleBam, refSequence, region))
+                final SamRecordBuffer reads = sampleReads.get(i);
+                done = done.thenApply(aVoid -> candidateEvidence.get(sample, sampleBam, refSequence, region, reads))
                         .thenAccept(initialCandidates::add);
             }
             return done.thenApply(y -> initialCandidates.candidates());
@@ -94,7 +101,8 @@ public class SomaticPipeline implements SageVariantPipeline {
 
     @NotNull
     private CompletableFuture<ReadContextCounters> bamEvidence(@NotNull final GenomeRegion region, @NotNull final List<String> samples,
-            @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates) {
+            @NotNull final List<String> sampleBams, @NotNull final List<SamRecordBuffer> sampleReads,
+            @NotNull final CompletableFuture<List<Candidate>> candidates) {
         // Scan tumors for evidence
         return candidates.thenCompose(initialCandidates -> {
             LOGGER.debug("Scanning for evidence in {}:{}", region.chromosome(), region.start());
@@ -106,8 +114,13 @@ public class SomaticPipeline implements SageVariantPipeline {
             for (int i = 0; i < samples.size(); i++) {
                 final String sample = samples.get(i);
                 final String sampleBam = sampleBams.get(i);
+                final SamRecordBuffer reads = sampleReads.get(i);
 
-                done = done.thenApply(x -> readContextEvidence.get(initialCandidates, sample, sampleBam)).thenAccept(result::addCounters);
+                done = done.thenApply(x -> {
+                    final List<ReadContextCounter> counters = readContextEvidence.get(initialCandidates, sample, sampleBam, reads);
+                    reads.clear();
+                    return counters;
+                }).thenAccept(result::addCounters);
             }
 
             return done.thenApply(x -> result);
@@ -135,6 +148,16 @@ public class SomaticPipeline implements SageVariantPipeline {
         });
     }
 
+    @NotNull
+    private static List<SamRecordBuffer> readBuffers(int samples, int maxMb) {
+        final int maxBytes = (int) Math.min(Integer.MAX_VALUE - 8, maxMb * 1024L * 1024L);
+        final List<SamRecordBuffer> result = Lists.newArrayList();
+        for (int i = 0; i < samples; i++) {
+            result.add(new SamRecordBuffer(maxBytes));
+        }
+        return result;
+    }
+
     @NotNull
     private CompletableFuture<List<Candidate>> filteredCandidates(final CompletableFuture<ReadContextCounters> tumorEvidence) {
         return tumorEvidence.thenApply(x -> x.candidates(config.filter().readContextFilter()));
@@ -5,13 +5,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.cli.Configs;
+import com.hartwig.hmftools.sage.pipeline.ContigReorderBuffer;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -57,8 +59,8 @@ public class PonApplication implements AutoCloseable {
     }
 
     private final PonVCF vcf;
-    private final String input;
     private final List<File> files;
+    private final int maxContigsAhead;
     private final ExecutorService executorService;
 
     private PonApplication(int threads, @NotNull final String input, @NotNull final String output) throws IOException {
@@ -66,7 +68,7 @@ public class PonApplication implements AutoCloseable {
         LOGGER.info("Output: {}", output);
 
         executorService = Executors.newFixedThreadPool(threads);
-        this.input = input;
+        maxContigsAhead = 2 * threads;
 
         files = Lists.newArrayList();
         for (Path path : Files.newDirectoryStream(new File(input).toPath(), GLOB)) {
@@ -76,7 +78,7 @@ public class PonApplication implements AutoCloseable {
         this.vcf = new PonVCF(output, files.size());
     }
 
-    private void run() throws IOException, ExecutionException, InterruptedException {
+    private void run() throws ExecutionException, InterruptedException {
 
         if (files.isEmpty()) {
             return;
@@ -86,34 +88,48 @@ public class PonApplication implements AutoCloseable {
         SAMSequenceDictionary dictionary = dictionaryReader.getFileHeader().getSequenceDictionary();
         dictionaryReader.close();
 
-        for (SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
-            LOGGER.info("Processing sequence {}", samSequenceRecord.getSequenceName());
-            final PonBuilder ponBuilder = new PonBuilder();
-            final RunnableTaskCompletion runnableTaskCompletion = new RunnableTaskCompletion();
-
-            List<Future<?>> contigFutures = Lists.newArrayList();
+        final List<String> contigs = Lists.newArrayList();
+        dictionary.getSequences().forEach(x -> contigs.add(x.getSequenceName()));
 
-            for (Path file : Files.newDirectoryStream(new File(input).toPath(), GLOB)) {
-                Runnable runnable = () -> addVariantsFromFileToBuilder(ponBuilder, samSequenceRecord, file);
-                contigFutures.add(executorService.submit(runnableTaskCompletion.task(runnable)));
+        // Contigs are merged concurrently but must be written in order
+        final ContigReorderBuffer<VariantContext> writer = new ContigReorderBuffer<>(contigs, vcf::write);
+        final RunnableTaskCompletion runnableTaskCompletion = new RunnableTaskCompletion();
+        final List<CompletableFuture<Void>> done = Lists.newArrayList();
+        for (SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
+            // Limit how far ahead of the next contig to write we merge so the reorder buffer only ever holds a few contigs
+            if (done.size() >= maxContigsAhead) {
+                done.get(done.size() - maxContigsAhead).get();
             }
 
-            for (Future<?> contigFuture : contigFutures) {
-                contigFuture.get();
-            }
+            final String contig = samSequenceRecord.getSequenceName();
+            final Consumer<VariantContext> consumer = writer.consumer(contig);
+            final Runnable runnable = runnableTaskCompletion.task(() -> {
+                mergeContig(samSequenceRecord, consumer);
+                writer.complete(contig);
+            });
+            done.add(CompletableFuture.runAsync(runnable, executorService));
+        }
 
-            vcf.write(ponBuilder.build());
+        for (CompletableFuture<Void> future : done) {
+            future.get();
         }
     }
 
-    private void addVariantsFromFileToBuilder(final PonBuilder ponBuilder, final SAMSequenceRecord samSequenceRecord, final Path file) {
-        try (VCFFileReader fileReader = new VCFFileReader(file.toFile(), true)) {
-            CloseableIterator<VariantContext> iter =
-                    fileReader.query(samSequenceRecord.getSequenceName(), 1, samSequenceRecord.getSequenceLength());
-            while (iter.hasNext()) {
-                ponBuilder.add(iter.next());
+    private void mergeContig(@NotNull final SAMSequenceRecord samSequenceRecord, @NotNull final Consumer<VariantContext> consumer) {
+        // Readers are only held open for the contig being merged so at most one per sample per thread is open at a time
+        final List<VCFFileReader> fileReaders = Lists.newArrayList();
+        final List<CloseableIterator<VariantContext>> iterators = Lists.newArrayList();
+        try {
+            for (File file : files) {
+                final VCFFileReader fileReader = new VCFFileReader(file, true);
+                fileReaders.add(fileReader);
+                iterators.add(fileReader.query(samSequenceRecord.getSequenceName(), 1, samSequenceRecord.getSequenceLength()));
             }
-            iter.close();
+
+            PonMerge.merge(iterators, consumer);
+        } finally {
+            iterators.forEach(CloseableIterator::close);
+            fileReaders.forEach(VCFFileReader::close);
         }
     }
 
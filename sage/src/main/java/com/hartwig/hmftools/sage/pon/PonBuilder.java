@@ -1,14 +1,14 @@
 package com.hartwig.hmftools.sage.pon;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotComparator;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.jetbrains.annotations.NotNull;
@@ -18,12 +18,17 @@ import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 
+/**
+ * Counts the samples supporting each variant it is given. It is not thread safe and holds every distinct variant added, so the
+ * {@link PonMerge} only ever gives it the variants at a single position.
+ */
 public class PonBuilder {
 
     private static final int MIN_OUTPUT_COUNT = 2;
     private static final int MIN_INPUT_ALLELIC_DEPTH = 3;
+    private static final VariantHotspotComparator COMPARATOR = new VariantHotspotComparator();
 
-    private final Map<VariantHotspot, Counter> map = new java.util.concurrent.ConcurrentHashMap<>();
+    private final Map<VariantHotspot, Counter> map = Maps.newHashMap();
 
     public void add(@NotNull final VariantContext context) {
         final VariantHotspot hotspot = hotspot(context);
@@ -38,12 +43,16 @@ public class PonBuilder {
         }
     }
 
+    public void clear() {
+        map.clear();
+    }
+
     @NotNull
     public List<VariantContext> build() {
         return map.values()
                 .stream()
                 .filter(x -> x.counter() >= MIN_OUTPUT_COUNT)
-                .sorted(Comparator.comparing(o -> o.hotspot))
+                .sorted((o1, o2) -> COMPARATOR.compare(o1.hotspot, o2.hotspot))
                 .map(PonBuilder::context)
                 .collect(Collectors.toList());
     }
@@ -76,22 +85,22 @@ public class PonBuilder {
 
     static class Counter {
         private final VariantHotspot hotspot;
-        private final AtomicInteger counter = new AtomicInteger();
-        private final AtomicInteger total = new AtomicInteger();
-        private final AtomicInteger max = new AtomicInteger();
+        private int counter;
+        private int total;
+        private int max;
 
         Counter(final VariantHotspot hotspot) {
             this.hotspot = hotspot;
         }
 
         public int counter() {
-            return counter.intValue();
+            return counter;
         }
 
         void increment(int depth) {
-            counter.incrementAndGet();
-            total.addAndGet(depth);
-            max.set(Integer.max(max.get(), depth));
+            counter++;
+            total += depth;
+            max = Math.max(max, depth);
         }
     }
 }
@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.sage.pon;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+/**
+ * K-way merge of the variants of a single contig from many samples. Each input must be sorted by position. Only the current variant
+ * of each input and the variants at the current position are held in memory, and PON records are passed on as soon as every input
+ * has moved past their position.
+ */
+class PonMerge {
+
+    private static final Comparator<Input> COMPARATOR = Comparator.comparingInt(x -> x.current.getStart());
+
+    private PonMerge() {
+    }
+
+    static void merge(@NotNull final List<? extends Iterator<VariantContext>> inputs, @NotNull final Consumer<VariantContext> consumer) {
+        final PriorityQueue<Input> queue = new PriorityQueue<>(Math.max(1, inputs.size()), COMPARATOR);
+        for (Iterator<VariantContext> iterator : inputs) {
+            if (iterator.hasNext()) {
+                queue.add(new Input(iterator));
+            }
+        }
+
+        final PonBuilder builder = new PonBuilder();
+        while (!queue.isEmpty()) {
+            final int position = queue.peek().current.getStart();
+            while (!queue.isEmpty() && queue.peek().current.getStart() == position) {
+                final Input input = queue.poll();
+                builder.add(input.current);
+                if (input.advance()) {
+                    if (input.current.getStart() < position) {
+                        throw new IllegalArgumentException(
+                                "Input is not sorted at " + input.current.getContig() + ":" + input.current.getStart());
+                    }
+                    queue.add(input);
+                }
+            }
+
+            builder.build().forEach(consumer);
+            builder.clear();
+        }
+    }
+
+    private static class Input {
+
+        private final Iterator<VariantContext> iterator;
+        private VariantContext current;
+
+        Input(@NotNull final Iterator<VariantContext> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        boolean advance() {
+            if (iterator.hasNext()) {
+                current = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.sage.quality;
 
-import java.io.File;
 import java.util.Collection;
 import java.util.concurrent.CompletionException;
 
@@ -9,14 +8,13 @@ import com.hartwig.hmftools.sage.SageApplication;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.ref.RefSequence;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
+import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 class QualityCounterFactory {
@@ -25,11 +23,14 @@ class QualityCounterFactory {
 
     private final String bamFile;
     private final ReferenceSequenceFile refGenome;
+    private final SamSlicerFactory samSlicerFactory;
     private final BaseQualityRecalibrationConfig config;
 
-    public QualityCounterFactory(final BaseQualityRecalibrationConfig config, final String bamFile, final ReferenceSequenceFile refGenome ) {
+    public QualityCounterFactory(final BaseQualityRecalibrationConfig config, final String bamFile, final ReferenceSequenceFile refGenome,
+            final SamSlicerFactory samSlicerFactory) {
         this.bamFile = bamFile;
         this.refGenome = refGenome;
+        this.samSlicerFactory = samSlicerFactory;
         this.config = config;
     }
 
@@ -40,9 +41,8 @@ class QualityCounterFactory {
         final RefSequence refSequence = new RefSequence(bounds, refGenome);
         final QualityCounterCigarHandler counter = new QualityCounterCigarHandler(refSequence, bounds, config.maxAltCount());
         final SamSlicer slicer = new SamSlicer(config.minMapQuality(), bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
+        try {
+            final SamReader tumorReader = samSlicerFactory.reader(bamFile);
 
             // First parse
             slicer.slice(tumorReader, counter::processRecord);
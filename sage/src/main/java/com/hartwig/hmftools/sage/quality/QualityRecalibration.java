@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -24,54 +25,89 @@ public class QualityRecalibration {
 
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
+    private final SamSlicerFactory samSlicerFactory;
     private final BaseQualityRecalibrationConfig config;
 
     public QualityRecalibration(final BaseQualityRecalibrationConfig config, final ExecutorService executorService,
-            final IndexedFastaSequenceFile refGenome) {
+            final IndexedFastaSequenceFile refGenome, final SamSlicerFactory samSlicerFactory) {
         this.executorService = executorService;
         this.refGenome = refGenome;
+        this.samSlicerFactory = samSlicerFactory;
         this.config = config;
     }
 
     @NotNull
     public CompletableFuture<List<QualityRecalibrationRecord>> qualityRecalibrationRecords(@NotNull final String bamFile) {
-        final Map<QualityCounterKey, QualityCounter> map = new ConcurrentHashMap<>(Maps.newHashMap());
-        final List<CompletableFuture<Void>> doneList = Lists.newArrayList();
+        return qualityRecalibrationRecords(Collections.singletonList(bamFile)).get(bamFile);
+    }
+
+    /**
+     * Samples all bams at once. Regions are submitted alternating between bams so that every bam is sampled concurrently rather
+     * than one bam after another.
+     */
+    @NotNull
+    public Map<String, CompletableFuture<List<QualityRecalibrationRecord>>> qualityRecalibrationRecords(
+            @NotNull final Collection<String> bamFiles) {
+        final Map<String, Map<QualityCounterKey, QualityCounter>> maps = Maps.newLinkedHashMap();
+        final Map<String, List<CompletableFuture<Void>>> doneLists = Maps.newLinkedHashMap();
+        for (String bamFile : bamFiles) {
+            maps.put(bamFile, new ConcurrentHashMap<>());
+            doneLists.put(bamFile, Lists.newArrayList());
+        }
 
+        for (final GenomeRegion region : sampleRegions()) {
+            for (String bamFile : bamFiles) {
+                final Map<QualityCounterKey, QualityCounter> map = maps.get(bamFile);
+                final CompletableFuture<Void> done =
+                        addRegion(bamFile, region.chromosome(), (int) region.start(), (int) region.end()).thenAccept(counts -> {
+                            for (QualityCounter count : counts) {
+                                final QualityCounterKey key = withoutPosition(count);
+                                map.computeIfAbsent(key, QualityCounter::new).increment(count.count());
+                            }
+                        });
+                doneLists.get(bamFile).add(done);
+            }
+        }
+
+        final Map<String, CompletableFuture<List<QualityRecalibrationRecord>>> result = Maps.newLinkedHashMap();
+        for (String bamFile : bamFiles) {
+            final Map<QualityCounterKey, QualityCounter> map = maps.get(bamFile);
+            final List<CompletableFuture<Void>> doneList = doneLists.get(bamFile);
+            result.put(bamFile, CompletableFuture.allOf(doneList.toArray(new CompletableFuture[0])).thenApply(aVoid -> {
+                final List<QualityCounter> sortedList = Lists.newArrayList(map.values());
+                Collections.sort(sortedList);
+                return QualityRecalibrationFactory.create(sortedList);
+            }));
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private List<GenomeRegion> sampleRegions() {
+        final List<GenomeRegion> result = Lists.newArrayList();
         for (final SAMSequenceRecord sequenceRecord : refGenome.getSequenceDictionary().getSequences()) {
             final String contig = sequenceRecord.getSequenceName();
 
             if (HumanChromosome.contains(contig) && HumanChromosome.fromString(contig).isAutosome()) {
                 int start = sequenceRecord.getSequenceLength() - 1_000_000 - config.sampleSize();
                 int end = sequenceRecord.getSequenceLength() - 1_000_001;
-                for (CompletableFuture<Collection<QualityCounter>> region : submitAllRegions(bamFile, contig, start, end)) {
-                    final CompletableFuture<Void> done = region.thenAccept(counts -> {
-                        for (QualityCounter count : counts) {
-                            final QualityCounterKey key = withoutPosition(count);
-                            map.computeIfAbsent(key, QualityCounter::new).increment(count.count());
-                        }
-                    });
-                    doneList.add(done);
-                }
+                result.addAll(regions(contig, start, end));
             }
         }
 
-        return CompletableFuture.allOf(doneList.toArray(new CompletableFuture[0])).thenApply(aVoid -> {
-            final List<QualityCounter> sortedList = Lists.newArrayList(map.values());
-            Collections.sort(sortedList);
-            return QualityRecalibrationFactory.create(sortedList);
-        });
+        return result;
     }
 
     public CompletableFuture<Collection<QualityCounter>> addRegion(String bam, String contig, int start, int end) {
         final GenomeRegion bounds = GenomeRegions.create(contig, start, end);
-        return CompletableFuture.supplyAsync(() -> new QualityCounterFactory(config, bam, refGenome).regionCount(bounds),
+        return CompletableFuture.supplyAsync(() -> new QualityCounterFactory(config, bam, refGenome, samSlicerFactory).regionCount(bounds),
                 executorService);
     }
 
-    public List<CompletableFuture<Collection<QualityCounter>>> submitAllRegions(@NotNull final String bam, @NotNull final String contig,
-            int minPosition, int maxPosition) {
-        final List<CompletableFuture<Collection<QualityCounter>>> result = Lists.newArrayList();
+    @NotNull
+    private static List<GenomeRegion> regions(@NotNull final String contig, int minPosition, int maxPosition) {
+        final List<GenomeRegion> result = Lists.newArrayList();
 
         final int regionSliceSize = 100_000;
         for (int i = 0; ; i++) {
@@ -82,7 +118,7 @@ public class QualityRecalibration {
                 continue;
             }
 
-            result.add(addRegion(bam, contig, Math.max(start, minPosition), Math.min(end, maxPosition)));
+            result.add(GenomeRegions.create(contig, Math.max(start, minPosition), Math.min(end, maxPosition)));
 
             if (end >= maxPosition) {
                 break;
@@ -17,6 +17,31 @@ public class QualityRecalibrationFile {
     private static final String DELIMITER = "\t";
     private static final DecimalFormat FORMAT = new DecimalFormat("0.00");
 
+    /**
+     * Reads a previously written file. Recalibrated qualities are recalculated from the counts to avoid the rounding of the file.
+     */
+    @NotNull
+    public static List<QualityRecalibrationRecord> read(@NotNull final String filename) throws IOException {
+        final List<QualityCounter> counters = Lists.newArrayList();
+        final List<String> lines = Files.readAllLines(new File(filename).toPath());
+        for (String line : lines.subList(1, lines.size())) {
+            final String[] values = line.split(DELIMITER);
+            final QualityCounterKey key = ImmutableQualityCounterKey.builder()
+                    .alt((byte) values[0].charAt(0))
+                    .ref((byte) values[1].charAt(0))
+                    .trinucleotideContext(values[2].getBytes())
+                    .qual(Byte.parseByte(values[4]))
+                    .position(0)
+                    .build();
+
+            final QualityCounter counter = new QualityCounter(key);
+            counter.increment(Integer.parseInt(values[3]));
+            counters.add(counter);
+        }
+
+        return QualityRecalibrationFactory.create(counters);
+    }
+
     public static void write(@NotNull final String filename, @NotNull final Collection<QualityRecalibrationRecord> counts)
             throws IOException {
         Files.write(new File(filename).toPath(), toLines(counts));
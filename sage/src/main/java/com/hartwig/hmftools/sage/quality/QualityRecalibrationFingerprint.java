@@ -0,0 +1,87 @@
+package com.hartwig.hmftools.sage.quality;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMTextHeaderCodec;
+import htsjdk.samtools.SamFiles;
+
+/**
+ * Identifies the bam and settings a base quality recalibration file was created from so that the file can be reused by later runs.
+ * The bam is identified by a checksum of its header along with the size and modification time of the bam and its index.
+ */
+public class QualityRecalibrationFingerprint {
+
+    private static final String DELIMITER = "\t";
+
+    private final Map<String, String> values;
+
+    private QualityRecalibrationFingerprint(@NotNull final Map<String, String> values) {
+        this.values = values;
+    }
+
+    @NotNull
+    public static QualityRecalibrationFingerprint create(@NotNull final BaseQualityRecalibrationConfig config, @NotNull final String refGenome,
+            @NotNull final String bam, @NotNull final SAMFileHeader header) {
+        final File bamFile = new File(bam);
+        final File indexFile = SamFiles.findIndex(bamFile);
+
+        final Map<String, String> values = Maps.newLinkedHashMap();
+        values.put("headerChecksum", headerChecksum(header));
+        values.put("size", String.valueOf(bamFile.length()));
+        values.put("lastModified", String.valueOf(bamFile.lastModified()));
+        values.put("indexSize", indexFile == null ? "0" : String.valueOf(indexFile.length()));
+        values.put("indexLastModified", indexFile == null ? "0" : String.valueOf(indexFile.lastModified()));
+        values.put("refGenome", new File(refGenome).getName());
+        values.put("sampleSize", String.valueOf(config.sampleSize()));
+        values.put("maxAltCount", String.valueOf(config.maxAltCount()));
+        values.put("minMapQuality", String.valueOf(config.minMapQuality()));
+        return new QualityRecalibrationFingerprint(values);
+    }
+
+    /**
+     * Returns true if the fingerprint file exists and was written for the same bam and settings.
+     */
+    public boolean matches(@NotNull final String filename) throws IOException {
+        final File file = new File(filename);
+        if (!file.exists()) {
+            return false;
+        }
+
+        final Map<String, String> existing = Maps.newLinkedHashMap();
+        for (String line : Files.readAllLines(file.toPath())) {
+            final String[] split = line.split(DELIMITER, 2);
+            if (split.length == 2) {
+                existing.put(split[0], split[1]);
+            }
+        }
+
+        return values.equals(existing);
+    }
+
+    public void write(@NotNull final String filename) throws IOException {
+        final List<String> lines =
+                values.entrySet().stream().map(x -> x.getKey() + DELIMITER + x.getValue()).collect(Collectors.toList());
+        Files.write(new File(filename).toPath(), lines);
+    }
+
+    @NotNull
+    private static String headerChecksum(@NotNull final SAMFileHeader header) {
+        final StringWriter writer = new StringWriter();
+        new SAMTextHeaderCodec().encode(writer, header);
+        return Hashing.sha256().hashString(writer.toString(), StandardCharsets.UTF_8).toString();
+    }
+}
@@ -191,9 +191,16 @@ public class ReadContextCounter implements VariantHotspot {
         return readContext.toString();
     }
 
+    /**
+     * Once the maximum coverage is reached all further reads are ignored.
+     */
+    public boolean maxCoverageReached() {
+        return coverage >= maxCoverage;
+    }
+
     public void accept(final SAMRecord record, final SageConfig sageConfig, final int rawNumberOfEvents) {
         try {
-            if (coverage >= maxCoverage) {
+            if (maxCoverageReached()) {
                 return;
             }
 
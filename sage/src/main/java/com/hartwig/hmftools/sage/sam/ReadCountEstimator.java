@@ -0,0 +1,105 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.BAMIndexMetaData;
+import htsjdk.samtools.Chunk;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+
+/**
+ * Estimates the number of reads in a region from the bam indexes without reading any records. The compressed size of the region is
+ * taken from the index and converted to reads using the aligned record count and compressed size of the whole chromosome.
+ */
+public class ReadCountEstimator {
+
+    private static final Logger LOGGER = LogManager.getLogger(ReadCountEstimator.class);
+
+    // Typical compressed size of a 150 base read when the index has no meta data
+    private static final double DEFAULT_READS_PER_BYTE = 1 / 40d;
+
+    private final SamSlicerFactory samSlicerFactory;
+    private final List<String> bams;
+    private final Map<String, Double> readsPerByte = Maps.newConcurrentMap();
+
+    public ReadCountEstimator(@NotNull final SamSlicerFactory samSlicerFactory, @NotNull final List<String> bams) {
+        this.samSlicerFactory = samSlicerFactory;
+        this.bams = bams;
+    }
+
+    /**
+     * Returns the estimated number of reads across all bams, or -1 if any bam does not have a bam index.
+     */
+    public long estimate(@NotNull final GenomeRegion region) {
+        long result = 0;
+        for (String bam : bams) {
+            final long estimate = estimate(bam, region);
+            if (estimate < 0) {
+                return -1;
+            }
+            result += estimate;
+        }
+        return result;
+    }
+
+    private long estimate(@NotNull final String bam, @NotNull final GenomeRegion region) {
+        try {
+            final SamReader reader = samSlicerFactory.reader(bam);
+            final SAMSequenceRecord sequence = reader.getFileHeader().getSequence(region.chromosome());
+            if (sequence == null || !reader.hasIndex()) {
+                return -1;
+            }
+
+            final BAMIndex index = reader.indexing().getIndex();
+            final int sequenceIndex = sequence.getSequenceIndex();
+            final double readsPerByte = this.readsPerByte.computeIfAbsent(bam + ":" + region.chromosome(),
+                    key -> readsPerByte(index, sequenceIndex, sequence.getSequenceLength()));
+
+            return Math.round(compressedBytes(index.getSpanOverlapping(sequenceIndex, (int) region.start(), (int) region.end()))
+                    * readsPerByte);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Unable to estimate read count of {} in {}", region, bam, e);
+            return -1;
+        }
+    }
+
+    private static double readsPerByte(@NotNull final BAMIndex index, int sequenceIndex, int sequenceLength) {
+        final BAMIndexMetaData metaData = index.getMetaData(sequenceIndex);
+        final long bytes = compressedBytes(index.getSpanOverlapping(sequenceIndex, 1, sequenceLength));
+        if (metaData == null || bytes == 0) {
+            return DEFAULT_READS_PER_BYTE;
+        }
+
+        return metaData.getAlignedRecordCount() / (double) bytes;
+    }
+
+    private static long compressedBytes(@Nullable final BAMFileSpan span) {
+        if (span == null) {
+            return 0;
+        }
+
+        long result = 0;
+        for (Chunk chunk : span.getChunks()) {
+            // The upper 48 bits of a virtual file offset are the offset of the compressed block, the lower 16 the offset within it
+            final long blockBytes = (chunk.getChunkEnd() >>> 16) - (chunk.getChunkStart() >>> 16);
+            if (blockBytes > 0) {
+                result += blockBytes;
+            } else {
+                // Assume roughly 3:1 compression within a single block
+                result += Math.max(0, (chunk.getChunkEnd() & 0xFFFF) - (chunk.getChunkStart() & 0xFFFF)) / 3;
+            }
+        }
+        return result;
+    }
+}
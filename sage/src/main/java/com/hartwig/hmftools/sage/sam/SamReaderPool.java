@@ -0,0 +1,113 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SamFiles;
+import htsjdk.samtools.SamInputResource;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.seekablestream.ByteArraySeekableStream;
+import htsjdk.samtools.seekablestream.SeekableFileStream;
+
+/**
+ * Keeps one open reader per bam per thread. The index of each bam is read from disk once and shared in memory between its readers.
+ */
+class SamReaderPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(SamReaderPool.class);
+    private static final byte[] NO_INDEX = new byte[0];
+
+    private final SamReaderFactory readerFactory;
+    private final Map<String, byte[]> indexes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, SamReader>> threadReaders = ThreadLocal.withInitial(Maps::newHashMap);
+    private final List<SamReader> readers = Collections.synchronizedList(Lists.newArrayList());
+    private final AtomicInteger readerOpens = new AtomicInteger();
+    private final AtomicInteger indexLoads = new AtomicInteger();
+
+    SamReaderPool(@NotNull final ReferenceSequenceFile refGenome) {
+        this(SamReaderFactory.makeDefault().referenceSource(new ReferenceSource(refGenome)));
+    }
+
+    @VisibleForTesting
+    SamReaderPool(@NotNull final SamReaderFactory readerFactory) {
+        this.readerFactory = readerFactory;
+    }
+
+    @NotNull
+    SamReader reader(@NotNull final String bam) {
+        return threadReaders.get().computeIfAbsent(bam, this::open);
+    }
+
+    int readerOpens() {
+        return readerOpens.get();
+    }
+
+    int indexLoads() {
+        return indexLoads.get();
+    }
+
+    @NotNull
+    private SamReader open(@NotNull final String bam) {
+        final File bamFile = new File(bam);
+        final byte[] index = indexes.computeIfAbsent(bam, x -> loadIndex(bamFile));
+
+        try {
+            final SamInputResource resource = index.length == 0
+                    ? SamInputResource.of(bamFile)
+                    : SamInputResource.of(new SeekableFileStream(bamFile)).index(new ByteArraySeekableStream(index));
+
+            final SamReader reader = readerFactory.open(resource);
+            readers.add(reader);
+            readerOpens.incrementAndGet();
+            return reader;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @NotNull
+    private byte[] loadIndex(@NotNull final File bamFile) {
+        final File indexFile = SamFiles.findIndex(bamFile);
+        if (indexFile == null) {
+            return NO_INDEX;
+        }
+
+        try {
+            final byte[] result = Files.readAllBytes(indexFile.toPath());
+            indexLoads.incrementAndGet();
+            LOGGER.debug("Loaded index {} into memory", indexFile);
+            return result;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (readers) {
+            for (SamReader reader : readers) {
+                reader.close();
+            }
+            readers.clear();
+        }
+        indexes.clear();
+    }
+}
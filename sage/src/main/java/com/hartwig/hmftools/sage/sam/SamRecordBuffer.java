@@ -0,0 +1,112 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.BAMRecordCodec;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Holds the sliced records of a region in their binary BAM encoding so they can be replayed without decompressing the bam again.
+ * Once the buffer exceeds its capacity it is discarded and marked incomplete so that consumers fall back to re-reading the bam.
+ */
+public class SamRecordBuffer {
+
+    private final int maxBytes;
+
+    @Nullable
+    private GenomeRegion region;
+    @Nullable
+    private SAMFileHeader header;
+    @Nullable
+    private BAMRecordCodec encoder;
+    @Nullable
+    private RecordBytes bytes;
+    private boolean complete;
+    private int records;
+
+    public SamRecordBuffer(final int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean enabled() {
+        return maxBytes > 0;
+    }
+
+    void start(@NotNull final GenomeRegion region) {
+        this.region = region;
+        this.header = null;
+        this.encoder = null;
+        this.bytes = new RecordBytes();
+        this.complete = enabled();
+        this.records = 0;
+    }
+
+    void add(@NotNull final SAMRecord record) {
+        if (!complete || bytes == null) {
+            return;
+        }
+
+        if (encoder == null) {
+            header = record.getHeader();
+            encoder = new BAMRecordCodec(header);
+            encoder.setOutputStream(bytes);
+        }
+
+        encoder.encode(record);
+        records++;
+
+        if (bytes.size() > maxBytes) {
+            clear();
+        }
+    }
+
+    public boolean covers(@NotNull final GenomeRegion bounds) {
+        return complete && region != null && region.chromosome().equals(bounds.chromosome()) && region.start() <= bounds.start()
+                && region.end() >= bounds.end();
+    }
+
+    public int records() {
+        return records;
+    }
+
+    void forEach(@NotNull final Consumer<SAMRecord> consumer) {
+        if (!complete || bytes == null) {
+            throw new IllegalStateException("Buffer is not complete");
+        }
+
+        if (header == null) {
+            return;
+        }
+
+        final BAMRecordCodec decoder = new BAMRecordCodec(header);
+        decoder.setInputStream(bytes.inputStream());
+
+        SAMRecord record;
+        while ((record = decoder.decode()) != null) {
+            consumer.accept(record);
+        }
+    }
+
+    public void clear() {
+        complete = false;
+        records = 0;
+        bytes = null;
+        encoder = null;
+    }
+
+    private static class RecordBytes extends ByteArrayOutputStream {
+
+        @NotNull
+        ByteArrayInputStream inputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
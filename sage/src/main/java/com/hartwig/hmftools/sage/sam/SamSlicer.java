@@ -20,15 +20,18 @@ import htsjdk.samtools.SamReader;
 public class SamSlicer {
 
     private final int minMappingQuality;
+    private final GenomeRegion slice;
     private final Collection<GenomeRegion> regions;
 
     public SamSlicer(final int minMappingQuality, @NotNull final GenomeRegion slice) {
         this.minMappingQuality = minMappingQuality;
+        this.slice = slice;
         this.regions = Collections.singletonList(slice);
     }
 
     SamSlicer(final int minMappingQuality, @NotNull final GenomeRegion slice, @NotNull final List<GenomeRegion> panel) {
         this.minMappingQuality = minMappingQuality;
+        this.slice = slice;
         this.regions = Lists.newArrayList();
 
         for (final GenomeRegion panelRegion : panel) {
@@ -57,6 +60,38 @@ public class SamSlicer {
         }
     }
 
+    /**
+     * Slices the bam as above while also encoding every record into the buffer so it can later be replayed over any sub region.
+     */
+    public void slice(@NotNull final SamReader samReader, @NotNull final SamRecordBuffer buffer, @NotNull final Consumer<SAMRecord> consumer) {
+        buffer.start(slice);
+        slice(samReader, record -> {
+            buffer.add(record);
+            consumer.accept(record);
+        });
+    }
+
+    /**
+     * Replays the buffered records that overlap this slice. Records in the buffer have already met the quality requirements.
+     */
+    public void slice(@NotNull final SamRecordBuffer buffer, @NotNull final Consumer<SAMRecord> consumer) {
+        buffer.forEach(record -> {
+            if (overlaps(record)) {
+                consumer.accept(record);
+            }
+        });
+    }
+
+    public boolean overlaps(@NotNull final SAMRecord record) {
+        for (final GenomeRegion region : regions) {
+            if (record.getAlignmentStart() <= region.end() && record.getAlignmentEnd() >= region.start()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @NotNull
     private static QueryInterval[] createIntervals(@NotNull final Collection<GenomeRegion> regions, @NotNull final SAMFileHeader header) {
         final List<QueryInterval> queryIntervals = Lists.newArrayList();
@@ -1,20 +1,33 @@
 package com.hartwig.hmftools.sage.sam;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Collection;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.sage.config.SageConfig;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-public class SamSlicerFactory {
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+public class SamSlicerFactory implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(SamSlicerFactory.class);
 
     private final SageConfig config;
-    private final List<GenomeRegion> panel;
+    private final ListMultimap<String, GenomeRegion> panel = ArrayListMultimap.create();
+    private final SamReaderPool readerPool;
 
-    public SamSlicerFactory(@NotNull final SageConfig config, @NotNull final List<GenomeRegion> panel) {
+    public SamSlicerFactory(@NotNull final SageConfig config, @NotNull final Collection<GenomeRegion> panel,
+            @NotNull final ReferenceSequenceFile refGenome) {
         this.config = config;
-        this.panel = panel;
+        this.readerPool = new SamReaderPool(refGenome);
+        panel.forEach(x -> this.panel.put(x.chromosome(), x));
     }
 
     @NotNull
@@ -22,6 +35,14 @@ public class SamSlicerFactory {
         return config.panelOnly() ? panelOnly(slice) : fullSlice(slice);
     }
 
+    /**
+     * Returns the pooled reader of the bam for the current thread. The reader remains open and must not be closed by the caller.
+     */
+    @NotNull
+    public SamReader reader(@NotNull final String bam) {
+        return readerPool.reader(bam);
+    }
+
     @NotNull
     private SamSlicer fullSlice(@NotNull final GenomeRegion slice) {
         return new SamSlicer(0, slice);
@@ -29,6 +50,12 @@ public class SamSlicerFactory {
 
     @NotNull
     private SamSlicer panelOnly(@NotNull final GenomeRegion slice) {
-        return new SamSlicer(0, slice, panel);
+        return new SamSlicer(0, slice, panel.get(slice.chromosome()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        LOGGER.info("Opened {} bam readers and loaded {} bam indexes", readerPool.readerOpens(), readerPool.indexLoads());
+        readerPool.close();
     }
 }
@@ -46,4 +46,20 @@ public class NumberEvents {
 
         return rawNumberEvents;
     }
+
+    public static int numberOfEventsWithMNV(int rawNumberEvents, @NotNull final byte[] refBases, int refIndex,
+            @NotNull final byte[] readBases, int readIndex, int length) {
+        if (length > 1) {
+            int differentBases = 0;
+            for (int i = 0; i < length; i++) {
+                if (readBases[readIndex + i] != refBases[refIndex + i]) {
+                    differentBases++;
+                }
+            }
+
+            return rawNumberEvents - differentBases + 1;
+        }
+
+        return rawNumberEvents;
+    }
 }
@@ -2,6 +2,9 @@ package com.hartwig.hmftools.sage.select;
 
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.NotThreadSafe;
 
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.utils.sam.SAMRecords;
@@ -10,16 +13,83 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 
-public class SamRecordSelector<P extends GenomePosition> extends PositionSelector<P> {
+/**
+ * Selects the positions covered by a record, including its soft clips, in O(log n + k). The start of the record is found by binary
+ * search and positions that are complete are retired so that later records skip over them without testing them again.
+ */
+@NotThreadSafe
+public class SamRecordSelector<P extends GenomePosition> {
+
+    @NotNull
+    private final List<P> positions;
+    @NotNull
+    private final Predicate<P> isComplete;
+    private final long[] positionArray;
+
+    // Index of the next position that has not been retired, compressed as it is followed
+    private final int[] next;
 
     public SamRecordSelector(@NotNull final List<P> positions) {
-        super(positions);
+        this(positions, x -> false);
+    }
+
+    public SamRecordSelector(@NotNull final List<P> positions, @NotNull final Predicate<P> isComplete) {
+        this.positions = positions;
+        this.isComplete = isComplete;
+        this.positionArray = new long[positions.size()];
+        this.next = new int[positions.size() + 1];
+        for (int i = 0; i < positionArray.length; i++) {
+            positionArray[i] = positions.get(i).position();
+            next[i] = i;
+        }
+        next[positionArray.length] = positionArray.length;
     }
 
     public void select(final SAMRecord record, final Consumer<P> handler) {
         long startWithSoftClip = record.getAlignmentStart() - SAMRecords.leftSoftClip(record);
         long endWithSoftClip = record.getAlignmentEnd() + SAMRecords.rightSoftClip(record);
 
-        super.select(startWithSoftClip, endWithSoftClip, handler);
+        select(startWithSoftClip, endWithSoftClip, handler);
+    }
+
+    public void select(final long start, final long end, final Consumer<P> handler) {
+        for (int i = live(lowerBound(start)); i < positionArray.length && positionArray[i] <= end; i = live(i + 1)) {
+            final P position = positions.get(i);
+            if (isComplete.test(position)) {
+                next[i] = i + 1;
+            } else {
+                handler.accept(position);
+            }
+        }
+    }
+
+    private int lowerBound(long position) {
+        int low = 0;
+        int high = positionArray.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positionArray[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private int live(int index) {
+        int root = index;
+        while (next[root] != root) {
+            root = next[root];
+        }
+
+        while (next[index] != root) {
+            int following = next[index];
+            next[index] = root;
+            index = following;
+        }
+
+        return root;
     }
 }
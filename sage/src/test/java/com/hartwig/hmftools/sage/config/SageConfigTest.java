@@ -66,6 +66,9 @@ public class SageConfigTest {
                 .maxReadDepthPanel(DEFAULT_MAX_READ_DEPTH_PANEL)
                 .qualityConfig(defaultQualityConfig())
                 .regionSliceSize(500_000)
+                .maxConcurrentRegions(SageConfig.DEFAULT_REGIONS_PER_THREAD * DEFAULT_THREADS)
+                .maxReadBufferMb(SageConfig.DEFAULT_MAX_READ_BUFFER)
+                .maxRegionHeapMb(SageConfig.DEFAULT_MAX_REGION_HEAP)
                 .filter(defaultFilterConfig())
                 .readContextFlankSize(SageConfig.DEFAULT_READ_CONTEXT_FLANK_SIZE)
                 .baseQualityRecalibrationConfig(defaultQualityRecalibrationConfig())
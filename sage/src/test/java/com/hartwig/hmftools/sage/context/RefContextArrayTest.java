@@ -0,0 +1,109 @@
+package com.hartwig.hmftools.sage.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RefContextArrayTest {
+
+    private static final String CHROM = "1";
+    private static final int CAPACITY = 256;
+
+    private RefContextArray victim;
+    private EvictionHandler handler;
+
+    @Before
+    public void setup() {
+        handler = new EvictionHandler();
+        victim = new RefContextArray(CAPACITY, RefContextArrayTest::create, handler);
+    }
+
+    @Test
+    public void testCapacity() {
+        victim = new RefContextArray(151, RefContextArrayTest::create, handler);
+        assertEquals(256, victim.capacity());
+
+        victim = new RefContextArray(CAPACITY, RefContextArrayTest::create, handler);
+        assertEquals(CAPACITY, victim.capacity());
+
+        victim = new RefContextArray(300, RefContextArrayTest::create, handler);
+        assertEquals(512, victim.capacity());
+    }
+
+    @Test
+    public void testInitialPosition() {
+        victim.computeIfAbsent(CHROM, 512);
+        assertEquals(257, victim.minPosition());
+    }
+
+    @Test
+    public void testFillCapacity() {
+        for (int i = 0; i < CAPACITY; i++) {
+            victim.computeIfAbsent(CHROM, 1000 + i);
+        }
+
+        assertEquals(1000, victim.minPosition());
+        assertEquals(0, handler.list.size());
+    }
+
+    @Test
+    public void testSelectFromExistingDoesNotEvict() {
+        testFillCapacity();
+        testFillCapacity();
+    }
+
+    @Test
+    public void testCapacityOverflow() {
+        for (int i = 0; i < CAPACITY + 100; i++) {
+            victim.computeIfAbsent(CHROM, 1000 + i);
+        }
+
+        assertEquals(1100, victim.minPosition());
+        assertEquals(100, handler.list.size());
+        assertEquals(handler.list.get(0).position(), 1000);
+        assertEquals(handler.list.get(99).position(), 1099);
+    }
+
+    @Test
+    public void testJumpBeyondCapacityEvictsEverything() {
+        testFillCapacity();
+        final RefContext refContext = victim.computeIfAbsent(CHROM, 100_000);
+
+        assertEquals(100_000 - CAPACITY + 1, victim.minPosition());
+        assertEquals(CAPACITY, handler.list.size());
+        assertSame(refContext, victim.computeIfAbsent(CHROM, 100_000));
+
+        victim.evictAll();
+        assertEquals(CAPACITY + 1, handler.list.size());
+        assertEquals(100_000, handler.list.get(CAPACITY).position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertEarlierThanMinCausesException() {
+        testCapacityOverflow();
+        victim.computeIfAbsent(CHROM, 1000);
+    }
+
+    static class EvictionHandler implements Consumer<RefContext> {
+
+        private final List<RefContext> list = Lists.newArrayList();
+
+        @Override
+        public void accept(final RefContext position) {
+            list.add(position);
+        }
+    }
+
+    @NotNull
+    private static RefContext create(@NotNull final String chromosome, long pos) {
+        return new RefContext("SAMPLE", chromosome, pos, 1000);
+    }
+}
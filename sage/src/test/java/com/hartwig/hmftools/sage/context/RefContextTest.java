@@ -0,0 +1,65 @@
+package com.hartwig.hmftools.sage.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class RefContextTest {
+
+    private static final byte[] REF = "GATCACAGGT".getBytes();
+    private static final byte[] READ = "GTTCACAGGTCCAGTGGA".getBytes();
+
+    @Test
+    public void testSameAltFromDifferentSlicesIsMerged() {
+        final RefContext victim = new RefContext("SAMPLE", "1", 1000, 1000);
+        victim.altRead(REF, 1, 1, READ, 1, 1, 30, 1, null);
+        victim.altRead("A", "T", 20, 1, null);
+        victim.altRead(REF, 1, 1, "AAAAAT".getBytes(), 5, 1, 10, 1, null);
+
+        final Collection<AltContext> alts = victim.alts();
+        assertEquals(1, alts.size());
+
+        final AltContext altContext = alts.iterator().next();
+        assertEquals("A", altContext.ref());
+        assertEquals("T", altContext.alt());
+        assertEquals(3, altContext.rawAltSupport());
+        assertEquals(60, altContext.rawAltBaseQuality());
+        assertEquals(3, victim.rawDepth());
+    }
+
+    @Test
+    public void testDistinctAltsSurviveResize() {
+        final RefContext victim = new RefContext("SAMPLE", "1", 1000, 1000);
+        assertTrue(victim.alts().isEmpty());
+
+        for (int length = 1; length <= READ.length; length++) {
+            victim.altRead(REF, 0, 1, READ, 0, length, 30, 1, null);
+            victim.altRead(REF, 0, 1, READ, 0, length, 30, 1, null);
+        }
+
+        final Collection<AltContext> alts = victim.alts();
+        assertEquals(READ.length, alts.size());
+        for (AltContext altContext : alts) {
+            assertEquals("G", altContext.ref());
+            assertEquals(new String(READ, 0, altContext.alt().length()), altContext.alt());
+            assertEquals(2, altContext.rawAltSupport());
+        }
+    }
+
+    @Test
+    public void testRefAndAltBoundaryIsPartOfKey() {
+        final RefContext victim = new RefContext("SAMPLE", "1", 1000, 1000);
+        victim.altRead(bytes("GA"), 0, 2, bytes("G"), 0, 1, 30, 1, null);
+        victim.altRead(bytes("G"), 0, 1, bytes("AG"), 0, 2, 30, 1, null);
+        assertEquals(2, victim.alts().size());
+    }
+
+    @NotNull
+    private static byte[] bytes(@NotNull final String value) {
+        return value.getBytes();
+    }
+}
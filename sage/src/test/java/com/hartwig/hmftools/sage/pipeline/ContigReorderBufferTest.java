@@ -0,0 +1,65 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContigReorderBufferTest {
+
+    private List<String> output;
+    private ContigReorderBuffer<String> victim;
+
+    @Before
+    public void setup() {
+        output = Lists.newArrayList();
+        victim = new ContigReorderBuffer<>(Lists.newArrayList("1", "2", "3"), output::add);
+    }
+
+    @Test
+    public void testHeadContigPassesStraightThrough() {
+        victim.accept("1", "1A");
+        victim.accept("1", "1B");
+        assertEquals(Lists.newArrayList("1A", "1B"), output);
+    }
+
+    @Test
+    public void testLaterContigsAreHeldUntilEarlierComplete() {
+        victim.accept("3", "3A");
+        victim.accept("2", "2A");
+        victim.accept("1", "1A");
+        assertEquals(Lists.newArrayList("1A"), output);
+
+        victim.complete("3");
+        assertEquals(Lists.newArrayList("1A"), output);
+
+        victim.complete("1");
+        assertEquals(Lists.newArrayList("1A", "2A"), output);
+
+        victim.accept("2", "2B");
+        assertEquals(Lists.newArrayList("1A", "2A", "2B"), output);
+
+        victim.complete("2");
+        assertEquals(Lists.newArrayList("1A", "2A", "2B", "3A"), output);
+    }
+
+    @Test
+    public void testCompletingEmptyContigs() {
+        victim.accept("3", "3A");
+        victim.complete("1");
+        victim.complete("2");
+        assertEquals(Lists.newArrayList("3A"), output);
+
+        victim.accept("3", "3B");
+        assertEquals(Lists.newArrayList("3A", "3B"), output);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownContig() {
+        victim.consumer("X");
+    }
+}
@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class RegionSchedulerTest {
+
+    private static final int BUDGET = 100;
+    private static final int REGIONS = 4;
+
+    @Test
+    public void testUnknownEstimateUsesFixedSlices() {
+        final RegionScheduler victim = new RegionScheduler(REGIONS, BUDGET, x -> -1);
+        final List<RegionScheduler.Slice> slices = victim.slices("1", 1, 250_000, 100_000);
+
+        assertContiguous(slices, 1, 250_000);
+        assertEquals(3, slices.size());
+        for (RegionScheduler.Slice slice : slices) {
+            assertEquals(BUDGET / REGIONS, slice.heapMb());
+        }
+    }
+
+    @Test
+    public void testHotSliceIsSplit() {
+        final RegionScheduler victim = new RegionScheduler(REGIONS, BUDGET, x -> overlaps(x, 150_000, 150_500) ? 10_000_000 : 1000);
+        final List<RegionScheduler.Slice> slices = victim.slices("1", 1, 250_000, 100_000);
+
+        assertContiguous(slices, 1, 250_000);
+        assertTrue(slices.size() > 3);
+        assertEquals(100_000, slices.get(0).region().bases());
+        assertEquals(1, slices.get(0).heapMb());
+
+        for (RegionScheduler.Slice slice : slices) {
+            if (overlaps(slice.region(), 150_000, 150_500)) {
+                assertTrue(slice.region().bases() < 2 * RegionScheduler.MIN_SLICE_SIZE);
+                assertEquals(BUDGET, slice.heapMb());
+            } else {
+                assertEquals(1, slice.heapMb());
+            }
+        }
+    }
+
+    @Test
+    public void testPermitsAreReturned() throws InterruptedException {
+        final RegionScheduler victim = new RegionScheduler(1, BUDGET, x -> 10_000_000);
+        for (RegionScheduler.Slice slice : victim.slices("1", 1, 10_000, 1000)) {
+            victim.acquire(slice);
+            victim.release(slice);
+        }
+    }
+
+    private static boolean overlaps(@NotNull final GenomeRegion region, long start, long end) {
+        return region.start() <= end && region.end() >= start;
+    }
+
+    private static void assertContiguous(@NotNull final List<RegionScheduler.Slice> slices, long start, long end) {
+        long expectedStart = start;
+        for (RegionScheduler.Slice slice : slices) {
+            assertEquals(expectedStart, slice.region().start());
+            expectedStart = slice.region().end() + 1;
+        }
+        assertEquals(end + 1, expectedStart);
+    }
+}
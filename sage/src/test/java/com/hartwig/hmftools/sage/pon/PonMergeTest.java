@@ -0,0 +1,83 @@
+package com.hartwig.hmftools.sage.pon;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.vcf.SageVCF;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+
+public class PonMergeTest {
+
+    @Test
+    public void testMergeCountsSamplesPerVariant() {
+        final List<Iterator<VariantContext>> inputs = Lists.newArrayList(
+                iterator(create(100, "A", "T", 5), create(200, "C", "G", 4), create(200, "C", "A", 3)),
+                iterator(create(100, "A", "T", 10), create(150, "G", "T", 6), create(200, "C", "A", 7)),
+                iterator(create(200, "C", "G", 2), create(300, "A", "C", 3)));
+
+        final List<VariantContext> result = Lists.newArrayList();
+        PonMerge.merge(inputs, result::add);
+
+        assertEquals(2, result.size());
+        assertPon(result.get(0), 100, "T", 2, 15, 10);
+        assertPon(result.get(1), 200, "A", 2, 10, 7);
+    }
+
+    @Test
+    public void testOutputIsSortedWithinPosition() {
+        final List<Iterator<VariantContext>> inputs = Lists.newArrayList(
+                iterator(create(100, "A", "T", 5), create(100, "A", "C", 5), create(100, "AT", "A", 5)),
+                iterator(create(100, "AT", "A", 5), create(100, "A", "T", 5), create(100, "A", "C", 5)));
+
+        final List<VariantContext> result = Lists.newArrayList();
+        PonMerge.merge(inputs, result::add);
+
+        assertEquals(3, result.size());
+        assertEquals("C", result.get(0).getAlternateAllele(0).getBaseString());
+        assertEquals("T", result.get(1).getAlternateAllele(0).getBaseString());
+        assertEquals("A", result.get(2).getAlternateAllele(0).getBaseString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedInputIsRejected() {
+        final List<Iterator<VariantContext>> inputs = Lists.newArrayList(
+                iterator(create(100, "A", "T", 5), create(300, "A", "T", 5)),
+                iterator(create(200, "A", "T", 5), create(150, "A", "T", 5)));
+        PonMerge.merge(inputs, x -> {});
+    }
+
+    private static void assertPon(@NotNull final VariantContext context, int position, @NotNull final String alt, int count, int total,
+            int max) {
+        assertEquals(position, context.getStart());
+        assertEquals(alt, context.getAlternateAllele(0).getBaseString());
+        assertEquals(count, context.getAttributeAsInt(PonVCF.PON_COUNT, 0));
+        assertEquals(total, context.getAttributeAsInt(PonVCF.PON_TOTAL, 0));
+        assertEquals(max, context.getAttributeAsInt(PonVCF.PON_MAX, 0));
+    }
+
+    @NotNull
+    private static Iterator<VariantContext> iterator(@NotNull final VariantContext... contexts) {
+        return Lists.newArrayList(contexts).iterator();
+    }
+
+    @NotNull
+    private static VariantContext create(int position, @NotNull final String ref, @NotNull final String alt, int altDepth) {
+        final List<Allele> alleles = Lists.newArrayList(Allele.create(ref, true), Allele.create(alt, false));
+        return new VariantContextBuilder().chr("1")
+                .start(position)
+                .alleles(alleles)
+                .computeEndFromAlleles(alleles, position)
+                .genotypes(new GenotypeBuilder("SAMPLE", alleles).attribute(SageVCF.RAW_ALLELIC_DEPTH, "20," + altDepth).make())
+                .make();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class QualityRecalibrationFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadRecalculatesExactQualities() throws Exception {
+        final List<QualityCounter> counters = Lists.newArrayList();
+        counters.add(counter('A', 'A', "CAT", 37, 99_870));
+        counters.add(counter('A', 'G', "CAT", 37, 13));
+        counters.add(counter('A', 'T', "CAT", 37, 7));
+        counters.add(counter('C', 'C', "ACA", 25, 4_567));
+        counters.add(counter('C', 'T', "ACA", 25, 31));
+        counters.add(counter('G', 'T', "AGA", 25, 3));
+        final List<QualityRecalibrationRecord> expected = QualityRecalibrationFactory.create(counters);
+
+        final File file = folder.newFile("SAMPLE.sage.bqr.tsv");
+        QualityRecalibrationFile.write(file.getPath(), expected);
+
+        final List<QualityRecalibrationRecord> victim = QualityRecalibrationFile.read(file.getPath());
+        assertEquals(5, victim.size());
+        assertEquals(expected, victim);
+    }
+
+    @NotNull
+    private static QualityCounter counter(char ref, char alt, @NotNull final String trinucleotideContext, int qual, int count) {
+        final QualityCounter result = new QualityCounter(ImmutableQualityCounterKey.builder()
+                .ref((byte) ref)
+                .alt((byte) alt)
+                .trinucleotideContext(trinucleotideContext.getBytes())
+                .qual((byte) qual)
+                .position(0)
+                .build());
+        result.increment(count);
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.config.ImmutableBaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.config.SageConfigTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMSequenceRecord;
+
+public class QualityRecalibrationFingerprintTest {
+
+    private static final BaseQualityRecalibrationConfig CONFIG = SageConfigTest.defaultQualityRecalibrationConfig();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMatchesSameBamAndSettings() throws Exception {
+        final File bam = bam();
+        final String fingerprintFile = folder.getRoot() + File.separator + "SAMPLE.sage.bqr.tsv.fingerprint";
+
+        assertFalse(fingerprint(bam, CONFIG, header("1")).matches(fingerprintFile));
+        fingerprint(bam, CONFIG, header("1")).write(fingerprintFile);
+        assertTrue(fingerprint(bam, CONFIG, header("1")).matches(fingerprintFile));
+
+        final BaseQualityRecalibrationConfig otherConfig = ImmutableBaseQualityRecalibrationConfig.builder().from(CONFIG).sampleSize(1).build();
+        assertFalse(fingerprint(bam, otherConfig, header("1")).matches(fingerprintFile));
+        assertFalse(fingerprint(bam, CONFIG, header("2")).matches(fingerprintFile));
+
+        Files.write(bam.toPath(), new byte[] { 1, 2, 3, 4 });
+        assertFalse(fingerprint(bam, CONFIG, header("1")).matches(fingerprintFile));
+    }
+
+    private File bam() throws Exception {
+        final File bam = folder.newFile("SAMPLE.bam");
+        Files.write(bam.toPath(), new byte[] { 1, 2, 3 });
+        return bam;
+    }
+
+    private static QualityRecalibrationFingerprint fingerprint(final File bam, final BaseQualityRecalibrationConfig config,
+            final SAMFileHeader header) {
+        return QualityRecalibrationFingerprint.create(config, "/ref/genome.fasta", bam.getPath(), header);
+    }
+
+    private static SAMFileHeader header(final String contig) {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.addSequence(new SAMSequenceRecord(contig, 1_000_000));
+        return header;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hartwig.hmftools.sage.sam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+public class SamReaderPoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadersArePooledPerThread() throws Exception {
+        final String bam = createBam();
+
+        try (final SamReaderPool victim = new SamReaderPool(SamReaderFactory.makeDefault())) {
+            final SamReader reader = victim.reader(bam);
+            assertSame(reader, victim.reader(bam));
+            assertEquals(1, victim.readerOpens());
+            assertEquals(1, victim.indexLoads());
+
+            final SamReader otherThreadReader = CompletableFuture.supplyAsync(() -> victim.reader(bam)).get();
+            assertNotSame(reader, otherThreadReader);
+            assertEquals(2, victim.readerOpens());
+            assertEquals(1, victim.indexLoads());
+
+            assertEquals(Lists.newArrayList("B", "C"), names(reader, 1500, 1600));
+            assertEquals(Lists.newArrayList("A"), names(reader, 1000, 1010));
+            assertEquals(Lists.newArrayList("B", "C"), names(otherThreadReader, 1500, 1600));
+        }
+    }
+
+    @NotNull
+    private static List<String> names(@NotNull final SamReader reader, int start, int end) {
+        final List<String> result = Lists.newArrayList();
+        new SamSlicer(0, GenomeRegions.create("1", start, end)).slice(reader, x -> result.add(x.getReadName()));
+        return result;
+    }
+
+    @NotNull
+    private String createBam() throws Exception {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSequenceDictionary(new SAMSequenceDictionary(Lists.newArrayList(new SAMSequenceRecord("1", 100_000))));
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+
+        final File bam = folder.newFile("sample.bam");
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, bam)) {
+            writer.addAlignment(create(header, "A", 1000));
+            writer.addAlignment(create(header, "B", 1490));
+            writer.addAlignment(create(header, "C", 1590));
+            writer.addAlignment(create(header, "D", 5000));
+        }
+
+        return bam.getAbsolutePath();
+    }
+
+    @NotNull
+    private static SAMRecord create(@NotNull final SAMFileHeader header, @NotNull final String name, int alignmentStart) {
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(name);
+        record.setReferenceName("1");
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString("20M");
+        record.setReadString("ACGTACGTACGTACGTACGT");
+        record.setBaseQualityString("IIIIIIIIIIIIIIIIIIII");
+        record.setMappingQuality(60);
+        return record;
+    }
+}
@@ -0,0 +1,105 @@
+package com.hartwig.hmftools.sage.sam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+
+public class SamRecordBufferTest {
+
+    private static final GenomeRegion REGION = GenomeRegions.create("1", 1000, 2000);
+
+    @Test
+    public void testReplayOverlappingRecords() {
+        final SamRecordBuffer victim = new SamRecordBuffer(1_000_000);
+        victim.start(REGION);
+        victim.add(create("A", 1000));
+        victim.add(create("B", 1500));
+        victim.add(create("C", 1900));
+        assertEquals(3, victim.records());
+
+        final List<String> replayed = Lists.newArrayList();
+        new SamSlicer(0, GenomeRegions.create("1", 1515, 1950)).slice(victim, x -> replayed.add(x.getReadName()));
+        assertEquals(Lists.newArrayList("B", "C"), replayed);
+
+        final SAMRecord record = replay(victim).get(1);
+        assertEquals(1500, record.getAlignmentStart());
+        assertEquals("1", record.getContig());
+        assertEquals("20M", record.getCigarString());
+        assertEquals(60, record.getMappingQuality());
+    }
+
+    @Test
+    public void testCovers() {
+        final SamRecordBuffer victim = new SamRecordBuffer(1_000_000);
+        assertFalse(victim.covers(REGION));
+
+        victim.start(REGION);
+        assertTrue(victim.covers(REGION));
+        assertTrue(victim.covers(GenomeRegions.create("1", 1500, 1600)));
+        assertFalse(victim.covers(GenomeRegions.create("1", 999, 1600)));
+        assertFalse(victim.covers(GenomeRegions.create("2", 1500, 1600)));
+        assertTrue(replay(victim).isEmpty());
+
+        victim.clear();
+        assertFalse(victim.covers(REGION));
+    }
+
+    @Test
+    public void testExceedingCapacityDiscardsBuffer() {
+        final SamRecordBuffer victim = new SamRecordBuffer(200);
+        victim.start(REGION);
+        for (int i = 0; i < 10; i++) {
+            victim.add(create("A" + i, 1000 + i));
+        }
+
+        assertEquals(0, victim.records());
+        assertFalse(victim.covers(REGION));
+    }
+
+    @Test
+    public void testDisabledBuffer() {
+        final SamRecordBuffer victim = new SamRecordBuffer(0);
+        assertFalse(victim.enabled());
+
+        victim.start(REGION);
+        victim.add(create("A", 1000));
+        assertEquals(0, victim.records());
+        assertFalse(victim.covers(REGION));
+    }
+
+    @NotNull
+    private static List<SAMRecord> replay(@NotNull final SamRecordBuffer buffer) {
+        final List<SAMRecord> result = Lists.newArrayList();
+        buffer.forEach(result::add);
+        return result;
+    }
+
+    @NotNull
+    private static SAMRecord create(@NotNull final String name, int alignmentStart) {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.addSequence(new SAMSequenceRecord("1", 1_000_000));
+
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(name);
+        record.setReferenceName("1");
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString("20M");
+        record.setReadString("ACGTACGTACGTACGTACGT");
+        record.setBaseQualityString("IIIIIIIIIIIIIIIIIIII");
+        record.setMappingQuality(60);
+        return record;
+    }
+}
@@ -0,0 +1,89 @@
+package com.hartwig.hmftools.sage.select;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+
+public class SamRecordSelectorTest {
+
+    private final List<GenomePosition> positions =
+            Lists.newArrayList(position(995), position(1000), position(1000), position(1010), position(1020), position(2000));
+
+    @Test
+    public void testSelectRange() {
+        final SamRecordSelector<GenomePosition> victim = new SamRecordSelector<>(positions);
+        assertEquals(Lists.newArrayList(1000L, 1000L, 1010L), select(victim, 996, 1019));
+        assertEquals(Lists.newArrayList(995L, 1000L, 1000L), select(victim, 990, 1000));
+        assertEquals(Lists.newArrayList(), select(victim, 1021, 1999));
+        assertEquals(Lists.newArrayList(2000L), select(victim, 1021, 3000));
+        assertEquals(Lists.newArrayList(995L), select(victim, 995, 995));
+    }
+
+    @Test
+    public void testSelectIncludesSoftClip() {
+        final SamRecordSelector<GenomePosition> victim = new SamRecordSelector<>(positions);
+        final List<Long> result = Lists.newArrayList();
+        victim.select(record(1001, "5S10M"), x -> result.add(x.position()));
+        assertEquals(Lists.newArrayList(1000L, 1000L, 1010L), result);
+    }
+
+    @Test
+    public void testCompletePositionsAreRetired() {
+        final Set<Long> complete = Sets.newHashSet();
+        final List<Long> tested = Lists.newArrayList();
+        final SamRecordSelector<GenomePosition> victim = new SamRecordSelector<>(positions, x -> {
+            tested.add(x.position());
+            return complete.contains(x.position());
+        });
+
+        assertEquals(Lists.newArrayList(1000L, 1000L, 1010L, 1020L), select(victim, 1000, 1020));
+
+        complete.add(1000L);
+        complete.add(1010L);
+        tested.clear();
+        assertEquals(Lists.newArrayList(995L, 1020L), select(victim, 990, 1020));
+        assertEquals(Lists.newArrayList(995L, 1000L, 1000L, 1010L, 1020L), tested);
+
+        tested.clear();
+        assertEquals(Lists.newArrayList(995L, 1020L), select(victim, 990, 1020));
+        assertEquals(Lists.newArrayList(995L, 1020L), tested);
+    }
+
+    @NotNull
+    private static List<Long> select(@NotNull final SamRecordSelector<GenomePosition> victim, long start, long end) {
+        final List<Long> result = Lists.newArrayList();
+        victim.select(start, end, x -> result.add(x.position()));
+        return result;
+    }
+
+    @NotNull
+    private static SAMRecord record(int alignmentStart, @NotNull final String cigar) {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.addSequence(new SAMSequenceRecord("1", 1_000_000));
+
+        final SAMRecord record = new SAMRecord(header);
+        record.setReferenceName("1");
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(cigar);
+        record.setReadString("ACGTACGTACGTACG");
+        return record;
+    }
+
+    @NotNull
+    private static GenomePosition position(long position) {
+        return GenomePositions.create("1", position);
+    }
+}
@@ -0,0 +1,260 @@
+package com.hartwig.hmftools.linx;
+
+import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
+import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+// combines the cohort files written by concurrent sample tasks into the main output directory, ordering rows by sample
+// as they would have been written by a single task
+public class CohortFileMerger
+{
+    private final String mOutputDir;
+    private final List<String> mTaskOutputDirs;
+    private final Map<String,Integer> mSampleIndex;
+
+    private static final String SAMPLE_ID_COLUMN = "SampleId";
+
+    public CohortFileMerger(final String outputDir, final List<String> taskOutputDirs, final List<String> sampleIds)
+    {
+        mOutputDir = outputDir;
+        mTaskOutputDirs = taskOutputDirs;
+        mSampleIndex = Maps.newHashMap();
+
+        for(int i = 0; i < sampleIds.size(); ++i)
+        {
+            mSampleIndex.put(sampleIds.get(i), i);
+        }
+    }
+
+    public static String taskOutputDir(final String outputDir, int taskId)
+    {
+        return outputDir + "linx_task_" + taskId + File.separator;
+    }
+
+    // returns false if any file could not be merged, in which case the task directories are left in place
+    public boolean mergeFiles()
+    {
+        // collect the output files of each task by their path relative to the task's directory
+        final Map<String,List<String>> taskFiles = Maps.newTreeMap();
+
+        for(String taskDir : mTaskOutputDirs)
+        {
+            final Path taskPath = Paths.get(taskDir);
+
+            if(!Files.exists(taskPath))
+                continue;
+
+            try(Stream<Path> paths = Files.walk(taskPath))
+            {
+                for(Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList()))
+                {
+                    String relativePath = taskPath.relativize(path).toString();
+                    taskFiles.computeIfAbsent(relativePath, k -> Lists.newArrayList()).add(taskDir);
+                }
+            }
+            catch(IOException e)
+            {
+                LNX_LOGGER.error("failed to list task output directory({}): {}", taskDir, e.toString());
+                return false;
+            }
+        }
+
+        boolean allMerged = true;
+
+        for(Map.Entry<String,List<String>> entry : taskFiles.entrySet())
+        {
+            final String relativePath = entry.getKey();
+            final List<String> taskDirs = entry.getValue();
+
+            try
+            {
+                final Path outputFile = Paths.get(mOutputDir + relativePath);
+
+                if(outputFile.getParent() != null)
+                    Files.createDirectories(outputFile.getParent());
+
+                if(taskDirs.size() == 1)
+                {
+                    Files.move(Paths.get(taskDirs.get(0) + relativePath), outputFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                else
+                {
+                    mergeFile(relativePath, taskDirs);
+                }
+            }
+            catch(IOException e)
+            {
+                LNX_LOGGER.error("failed to merge task output file({}): {}", relativePath, e.toString());
+                allMerged = false;
+            }
+        }
+
+        if(!allMerged)
+            return false;
+
+        for(String taskDir : mTaskOutputDirs)
+        {
+            deleteDirectory(Paths.get(taskDir));
+        }
+
+        LNX_LOGGER.debug("merged {} output files from {} tasks", taskFiles.size(), mTaskOutputDirs.size());
+        return true;
+    }
+
+    private class TaskFileReader
+    {
+        public final BufferedReader Reader;
+        public String CurrentLine;
+        public int SampleIndex;
+
+        public TaskFileReader(final String filename) throws IOException
+        {
+            Reader = new BufferedReader(new FileReader(filename));
+            CurrentLine = null;
+            SampleIndex = -1;
+        }
+
+        public void nextLine(final String delim) throws IOException
+        {
+            CurrentLine = Reader.readLine();
+
+            if(CurrentLine == null)
+                return;
+
+            // lines for unknown samples are kept in place after the preceding sample
+            Integer index = mSampleIndex.get(CurrentLine.split(delim, 2)[0]);
+            SampleIndex = index != null ? index : SampleIndex;
+        }
+    }
+
+    private void mergeFile(final String relativePath, final List<String> taskDirs) throws IOException
+    {
+        final List<TaskFileReader> readers = Lists.newArrayList();
+
+        try
+        {
+            for(String taskDir : taskDirs)
+            {
+                readers.add(new TaskFileReader(taskDir + relativePath));
+            }
+
+            try(BufferedWriter writer = createBufferedWriter(mOutputDir + relativePath, false))
+            {
+                // each task writes the same header, and when it starts with the sample ID the rows from each task are
+                // interleaved in sample order, otherwise they are appended by task
+                String header = null;
+
+                for(TaskFileReader reader : readers)
+                {
+                    String firstLine = reader.Reader.readLine();
+
+                    if(firstLine != null && header == null)
+                        header = firstLine;
+
+                    if(firstLine != null && !firstLine.equals(header))
+                        reader.CurrentLine = firstLine;
+                }
+
+                String delim = header != null && header.contains("\t") ? "\t" : ",";
+                boolean orderBySample = header != null && header.split(delim, 2)[0].equals(SAMPLE_ID_COLUMN);
+
+                if(header != null)
+                {
+                    writer.write(header);
+                    writer.newLine();
+                }
+
+                for(TaskFileReader reader : readers)
+                {
+                    if(reader.CurrentLine == null)
+                    {
+                        reader.nextLine(delim);
+                    }
+                    else
+                    {
+                        Integer index = mSampleIndex.get(reader.CurrentLine.split(delim, 2)[0]);
+                        reader.SampleIndex = index != null ? index : -1;
+                    }
+                }
+
+                if(orderBySample)
+                {
+                    while(true)
+                    {
+                        TaskFileReader nextReader = readers.stream()
+                                .filter(x -> x.CurrentLine != null)
+                                .min(Comparator.comparingInt(x -> x.SampleIndex))
+                                .orElse(null);
+
+                        if(nextReader == null)
+                            break;
+
+                        int sampleIndex = nextReader.SampleIndex;
+
+                        // a sample is written by a single task, so write all its rows together
+                        while(nextReader.CurrentLine != null && nextReader.SampleIndex == sampleIndex)
+                        {
+                            writer.write(nextReader.CurrentLine);
+                            writer.newLine();
+                            nextReader.nextLine(delim);
+                        }
+                    }
+                }
+                else
+                {
+                    for(TaskFileReader reader : readers)
+                    {
+                        while(reader.CurrentLine != null)
+                        {
+                            writer.write(reader.CurrentLine);
+                            writer.newLine();
+                            reader.nextLine(delim);
+                        }
+                    }
+                }
+            }
+        }
+        finally
+        {
+            for(TaskFileReader reader : readers)
+            {
+                reader.Reader.close();
+            }
+        }
+    }
+
+    private static void deleteDirectory(final Path dir)
+    {
+        if(!Files.exists(dir))
+            return;
+
+        try(Stream<Path> paths = Files.walk(dir))
+        {
+            for(Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+            {
+                Files.delete(path);
+            }
+        }
+        catch(IOException e)
+        {
+            LNX_LOGGER.error("failed to remove task output directory({}): {}", dir, e.toString());
+        }
+    }
+}
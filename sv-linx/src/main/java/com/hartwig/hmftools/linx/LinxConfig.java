@@ -46,6 +46,7 @@ public class LinxConfig
     public final boolean IsGermline;
     public final boolean IndelAnnotation;
     public final String IndelFile;
+    public final int Threads;
 
     public boolean LogVerbose;
     public String RequiredAnnotations;
@@ -94,6 +95,7 @@ public class LinxConfig
 
     // limit batch run to first X samples
     private static final String MAX_SAMPLES = "max_samples";
+    private static final String THREADS = "threads";
 
     // global Linx logger
     public static final Logger LNX_LOGGER = LogManager.getLogger(LinxConfig.class);
@@ -149,12 +151,38 @@ public class LinxConfig
         IndelFile = cmd.getOptionValue(INDEL_FILE, "");
         RequiredAnnotations = cmd.getOptionValue(REQUIRED_ANNOTATIONS, "");
         MaxSamples = Integer.parseInt(cmd.getOptionValue(MAX_SAMPLES, "0"));
+        Threads = Integer.parseInt(cmd.getOptionValue(THREADS, "0"));
 
         LogVerbose = cmd.hasOption(LOG_VERBOSE);
 
         ChainingSvLimit = cmd.hasOption(CHAINING_SV_LIMIT) ? Integer.parseInt(cmd.getOptionValue(CHAINING_SV_LIMIT)) : DEFAULT_CHAINING_SV_LIMIT;
     }
 
+    public LinxConfig(final LinxConfig other, final String outputDataPath)
+    {
+        // copy for a concurrent cohort task, writing its output to a separate directory
+        ProximityDistance = other.ProximityDistance;
+        OutputDataPath = outputDataPath;
+        PurpleDataPath = other.PurpleDataPath;
+        SvDataPath = other.SvDataPath;
+        UploadToDB = other.UploadToDB;
+        FragileSiteFile = other.FragileSiteFile;
+        KataegisFile = other.KataegisFile;
+        LineElementFile = other.LineElementFile;
+        ReplicationOriginsFile = other.ReplicationOriginsFile;
+        ViralHostsFile = other.ViralHostsFile;
+        MaxSamples = other.MaxSamples;
+        ChainingSvLimit = other.ChainingSvLimit;
+        IsGermline = other.IsGermline;
+        IndelAnnotation = other.IndelAnnotation;
+        IndelFile = other.IndelFile;
+        Threads = other.Threads;
+        LogVerbose = other.LogVerbose;
+        RequiredAnnotations = other.RequiredAnnotations;
+        Output = other.Output;
+        mSampleIds = other.mSampleIds;
+    }
+
     public static final String formOutputPath(final String dir)
     {
         return dir.endsWith(File.separator) ? dir : dir + File.separator;
@@ -209,6 +237,7 @@ public class LinxConfig
         RequiredAnnotations = "";
         mSampleIds = Lists.newArrayList();
         MaxSamples = 0;
+        Threads = 0;
         LogVerbose = false;
         Output = new LinxOutput();
         ChainingSvLimit = DEFAULT_CHAINING_SV_LIMIT;
@@ -254,6 +283,7 @@ public class LinxConfig
         options.addOption(REPLICATION_ORIGINS_FILE, true, "Origins of replication file");
         options.addOption(GERMLINE, false, "Process germline SVs");
         options.addOption(MAX_SAMPLES, true, "Limit to X samples for testing");
+        options.addOption(THREADS, true, "Optional: number of samples to process concurrently in batch mode, default is 1");
         options.addOption(CHAINING_SV_LIMIT, true, "Optional: max cluster size for chaining");
         options.addOption(REQUIRED_ANNOTATIONS, true, "Optional: string list of annotations");
         options.addOption(INDEL_ANNOTATIONS, false, "Optional: annotate clusters and TIs with INDELs");
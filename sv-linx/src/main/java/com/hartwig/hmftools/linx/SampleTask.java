@@ -0,0 +1,286 @@
+package com.hartwig.hmftools.linx;
+
+import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.INFERRED;
+import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.PASS;
+import static com.hartwig.hmftools.linx.LinxConfig.CHECK_FUSIONS;
+import static com.hartwig.hmftools.linx.LinxConfig.DRIVERS_CHECK;
+import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
+import static com.hartwig.hmftools.linx.SvDataLoader.VCF_FILE;
+import static com.hartwig.hmftools.linx.SvDataLoader.loadSvDataFromGermlineVcf;
+import static com.hartwig.hmftools.linx.SvDataLoader.loadSvDataFromSvFile;
+import static com.hartwig.hmftools.linx.SvDataLoader.loadSvDataFromVcf;
+import static com.hartwig.hmftools.linx.ext_compare.ChainFinderCompare.CHAIN_FINDER_DATA_DIR;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.fusion.KnownFusionCache;
+import com.hartwig.hmftools.common.utils.PerformanceCounter;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariantData;
+import com.hartwig.hmftools.linx.analysis.SampleAnalyser;
+import com.hartwig.hmftools.linx.cn.CnDataLoader;
+import com.hartwig.hmftools.linx.drivers.DriverGeneAnnotator;
+import com.hartwig.hmftools.linx.ext_compare.ChainFinderCompare;
+import com.hartwig.hmftools.linx.fusion.FusionDisruptionAnalyser;
+import com.hartwig.hmftools.linx.types.SvVarData;
+import com.hartwig.hmftools.patientdb.dao.DatabaseAccess;
+
+import org.apache.commons.cli.CommandLine;
+
+// runs the analysis for a set of samples with its own analyser state, taking the next sample from a list shared with other tasks
+public class SampleTask implements Callable
+{
+    private final int mTaskId;
+    private final LinxConfig mConfig;
+    private final CommandLine mCmd;
+    private final DatabaseAccess mDbAccess;
+    private final EnsemblDataCache mEnsemblDataCache;
+
+    private final SampleAnalyser mSampleAnalyser;
+    private final CnDataLoader mCnDataLoader;
+    private FusionDisruptionAnalyser mFusionAnalyser;
+    private DriverGeneAnnotator mDriverGeneAnnotator;
+    private final ChainFinderCompare mChainFinderCompare;
+
+    private final boolean mCheckDrivers;
+    private final boolean mCheckFusions;
+    private final boolean mSampleDataFromFile;
+    private final boolean mSelectiveGeneLoading;
+    private boolean mPurgeInvalidTranscripts;
+    private boolean mIsValid;
+
+    private List<String> mSampleIds;
+    private AtomicInteger mNextSampleIndex;
+    private int mSamplesProcessed;
+
+    private final PerformanceCounter mPerfCounter;
+
+    public SampleTask(
+            int taskId, final LinxConfig config, final CommandLine cmd, final DatabaseAccess dbAccess,
+            final EnsemblDataCache ensemblDataCache, final SampleTask refDataTask)
+    {
+        mTaskId = taskId;
+        mConfig = config;
+        mCmd = cmd;
+        mDbAccess = dbAccess;
+        mEnsemblDataCache = ensemblDataCache;
+
+        mCheckDrivers = cmd.hasOption(DRIVERS_CHECK);
+        mCheckFusions = cmd.hasOption(CHECK_FUSIONS);
+        mSampleDataFromFile = !config.PurpleDataPath.isEmpty() || config.IsGermline;
+        mSelectiveGeneLoading = config.isSingleSample() && !mCheckDrivers;
+        mPurgeInvalidTranscripts = true;
+        mIsValid = true;
+
+        mSampleIds = Lists.newArrayList();
+        mNextSampleIndex = new AtomicInteger();
+        mSamplesProcessed = 0;
+
+        mPerfCounter = new PerformanceCounter("Total");
+
+        // reference data loaded by the first task is shared read-only by the others
+        mSampleAnalyser = new SampleAnalyser(config, dbAccess, refDataTask != null ? refDataTask.mSampleAnalyser : null);
+
+        mCnDataLoader = new CnDataLoader(config.PurpleDataPath, dbAccess);
+        mSampleAnalyser.setCnDataLoader(mCnDataLoader);
+
+        mChainFinderCompare = cmd.hasOption(CHAIN_FINDER_DATA_DIR) ? new ChainFinderCompare(config.OutputDataPath, cmd) : null;
+
+        mFusionAnalyser = null;
+        mDriverGeneAnnotator = null;
+
+        if(ensemblDataCache == null)
+            return;
+
+        mSampleAnalyser.setGeneCollection(ensemblDataCache);
+        mSampleAnalyser.getVisWriter().setGeneDataCache(ensemblDataCache);
+
+        final KnownFusionCache knownFusionCache = refDataTask != null && refDataTask.mFusionAnalyser != null ?
+                refDataTask.mFusionAnalyser.getFusionFinder().getKnownFusionCache() : null;
+
+        // always initialise since is used for transcript evaluation
+        mFusionAnalyser = new FusionDisruptionAnalyser(cmd, config, ensemblDataCache, mSampleAnalyser.getVisWriter(), knownFusionCache);
+
+        if(!mFusionAnalyser.validState())
+        {
+            mIsValid = false;
+            return;
+        }
+
+        if(mCheckFusions)
+        {
+            // when matching RNA, allow all transcripts regardless of their viability for fusions
+            mPurgeInvalidTranscripts = !mFusionAnalyser.hasRnaSampleData();
+        }
+
+        if(mCheckDrivers)
+        {
+            mDriverGeneAnnotator = new DriverGeneAnnotator(dbAccess, ensemblDataCache, config, mCnDataLoader);
+            mDriverGeneAnnotator.setVisWriter(mSampleAnalyser.getVisWriter());
+        }
+    }
+
+    public boolean isValid() { return mIsValid; }
+    public final FusionDisruptionAnalyser getFusionAnalyser() { return mFusionAnalyser; }
+    public final PerformanceCounter getPerfCounter() { return mPerfCounter; }
+    public int samplesProcessed() { return mSamplesProcessed; }
+
+    public void setSamples(final List<String> sampleIds, final AtomicInteger nextSampleIndex)
+    {
+        mSampleIds = sampleIds;
+        mNextSampleIndex = nextSampleIndex;
+    }
+
+    @Override
+    public Long call()
+    {
+        processSamples();
+        return (long)0;
+    }
+
+    public void processSamples()
+    {
+        while(mIsValid)
+        {
+            int sampleIndex = mNextSampleIndex.getAndIncrement();
+
+            if(sampleIndex >= mSampleIds.size())
+                break;
+
+            processSample(mSampleIds.get(sampleIndex), sampleIndex);
+            ++mSamplesProcessed;
+
+            if(!mIsValid)
+            {
+                // stop the other tasks taking further samples
+                mNextSampleIndex.set(mSampleIds.size());
+            }
+        }
+
+        if(mConfig.Threads > 1)
+        {
+            LNX_LOGGER.info("task({}) processed {} samples", mTaskId, mSamplesProcessed);
+        }
+    }
+
+    public void processSample(final String sampleId, int sampleIndex)
+    {
+        mPerfCounter.start();
+
+        final List<StructuralVariantData> svRecords = mSampleDataFromFile ?
+                loadSampleSvDataFromFile(sampleId) : mDbAccess.readStructuralVariantData(sampleId);
+
+        final List<SvVarData> svDataList = createSvData(svRecords);
+
+        if(svDataList.isEmpty())
+        {
+            LNX_LOGGER.info("sample({}) has no passing SVs", sampleId);
+
+            if(mConfig.isSingleSample())
+            {
+                mSampleAnalyser.writeSampleWithNoSVs(sampleId);
+            }
+
+            mPerfCounter.stop();
+            return;
+        }
+
+        if(mConfig.hasMultipleSamples())
+        {
+            LNX_LOGGER.info("sample({}) processing {} SVs, completed({})", sampleId, svDataList.size(), sampleIndex);
+        }
+
+        if(!mConfig.IsGermline)
+            mCnDataLoader.loadSampleData(sampleId, svRecords);
+
+        mSampleAnalyser.setSampleSVs(sampleId, svDataList);
+
+        if(mEnsemblDataCache != null)
+        {
+            mSampleAnalyser.setSvGeneData(svDataList, mEnsemblDataCache, mCheckFusions, mSelectiveGeneLoading);
+        }
+
+        mSampleAnalyser.analyse();
+
+        if(!mSampleAnalyser.inValidState())
+        {
+            LNX_LOGGER.info("exiting after sample({}), in invalid state", sampleId);
+            mIsValid = false;
+            mPerfCounter.stop();
+            return;
+        }
+
+        if(mCheckDrivers || mCheckFusions)
+        {
+            mFusionAnalyser.annotateTranscripts(svDataList, mPurgeInvalidTranscripts);
+        }
+
+        mSampleAnalyser.annotate();
+
+        if(mCheckDrivers)
+        {
+            mDriverGeneAnnotator.annotateSVs(sampleId, mSampleAnalyser.getChrBreakendMap());
+        }
+
+        if(mCheckFusions)
+        {
+            mFusionAnalyser.run(sampleId, svDataList, mDbAccess, mSampleAnalyser.getClusters(), mSampleAnalyser.getChrBreakendMap());
+        }
+
+        mSampleAnalyser.writeOutput(mDbAccess);
+
+        mPerfCounter.stop();
+
+        if(mChainFinderCompare != null)
+        {
+            mChainFinderCompare.processSample(sampleId, svDataList, mSampleAnalyser.getClusters(), mSampleAnalyser.getChrBreakendMap());
+        }
+    }
+
+    public void close()
+    {
+        mSampleAnalyser.close();
+
+        if(mFusionAnalyser != null)
+            mFusionAnalyser.close();
+
+        if(mDriverGeneAnnotator != null)
+            mDriverGeneAnnotator.close();
+
+        if(mChainFinderCompare != null)
+            mChainFinderCompare.close();
+    }
+
+    private List<StructuralVariantData> loadSampleSvDataFromFile(final String sampleId)
+    {
+        if(mCmd.hasOption(VCF_FILE))
+        {
+            if(mConfig.IsGermline)
+                return loadSvDataFromGermlineVcf(mCmd.getOptionValue(VCF_FILE));
+            else
+                return loadSvDataFromVcf(mCmd.getOptionValue(VCF_FILE));
+        }
+        else
+        {
+            return loadSvDataFromSvFile(sampleId, mConfig.SvDataPath);
+        }
+    }
+
+    private static List<SvVarData> createSvData(List<StructuralVariantData> svRecords)
+    {
+        List<SvVarData> svVarDataItems = Lists.newArrayList();
+
+        for (final StructuralVariantData svRecord : svRecords)
+        {
+            if(svRecord.filter().isEmpty() || svRecord.filter().equals(PASS) || svRecord.filter().equals(INFERRED))
+            {
+                svVarDataItems.add(new SvVarData(svRecord));
+            }
+        }
+
+        return svVarDataItems;
+    }
+}
@@ -1,7 +1,7 @@
 package com.hartwig.hmftools.linx;
 
-import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.INFERRED;
-import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFactory.PASS;
+import static java.lang.Math.max;
+
 import static com.hartwig.hmftools.linx.LinxConfig.CHECK_FUSIONS;
 import static com.hartwig.hmftools.linx.LinxConfig.DB_PASS;
 import static com.hartwig.hmftools.linx.LinxConfig.DB_URL;
@@ -15,28 +15,24 @@ import static com.hartwig.hmftools.linx.LinxConfig.REF_GENOME_FILE;
 import static com.hartwig.hmftools.linx.LinxConfig.RG_VERSION;
 import static com.hartwig.hmftools.linx.LinxConfig.databaseAccess;
 import static com.hartwig.hmftools.linx.SvDataLoader.VCF_FILE;
-import static com.hartwig.hmftools.linx.SvDataLoader.loadSvDataFromGermlineVcf;
-import static com.hartwig.hmftools.linx.SvDataLoader.loadSvDataFromSvFile;
-import static com.hartwig.hmftools.linx.SvDataLoader.loadSvDataFromVcf;
-import static com.hartwig.hmftools.linx.ext_compare.ChainFinderCompare.CHAIN_FINDER_DATA_DIR;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.MIN_SAMPLE_PURITY;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
-import com.hartwig.hmftools.common.variant.structural.StructuralVariantData;
-import com.hartwig.hmftools.linx.analysis.SampleAnalyser;
-import com.hartwig.hmftools.linx.cn.CnDataLoader;
-import com.hartwig.hmftools.linx.drivers.DriverGeneAnnotator;
 import com.hartwig.hmftools.linx.ext_compare.ChainFinderCompare;
 import com.hartwig.hmftools.linx.fusion.FusionDisruptionAnalyser;
 import com.hartwig.hmftools.linx.fusion.FusionFinder;
-import com.hartwig.hmftools.linx.types.SvVarData;
 import com.hartwig.hmftools.patientdb.dao.DatabaseAccess;
 
 import org.apache.commons.cli.CommandLine;
@@ -118,23 +114,9 @@ public class SvLinxApplication
         LNX_LOGGER.info("running SV analysis for {}",
                 config.hasMultipleSamples() ? String.format("%d samples", samplesList.size()) : samplesList.get(0));
 
-        SampleAnalyser sampleAnalyser = new SampleAnalyser(config, dbAccess);
-
-        CnDataLoader cnDataLoader = new CnDataLoader(config.PurpleDataPath, dbAccess);
-        sampleAnalyser.setCnDataLoader(cnDataLoader);
-
-        DriverGeneAnnotator driverGeneAnnotator = null;
         boolean checkDrivers = cmd.hasOption(DRIVERS_CHECK);
-
-        FusionDisruptionAnalyser fusionAnalyser = null;
         boolean checkFusions = cmd.hasOption(CHECK_FUSIONS);
-
-        ChainFinderCompare chainFinderCompare = cmd.hasOption(CHAIN_FINDER_DATA_DIR) ?
-                new ChainFinderCompare(config.OutputDataPath, cmd) : null;
-
         boolean selectiveGeneLoading = (samplesList.size() == 1) && !checkDrivers;
-        boolean applyPromotorDistance = checkFusions;
-        boolean purgeInvalidTranscripts = true;
 
         EnsemblDataCache ensemblDataCache = null;
 
@@ -148,117 +130,105 @@ public class SvLinxApplication
                 LNX_LOGGER.error("Ensembl data cache load failed, exiting");
                 return;
             }
+        }
 
-            sampleAnalyser.setGeneCollection(ensemblDataCache);
-            sampleAnalyser.getVisWriter().setGeneDataCache(ensemblDataCache);
+        int taskCount = config.hasMultipleSamples() ? max(config.Threads, 1) : 1;
+        List<String> taskOutputDirs = Lists.newArrayList();
+        List<SampleTask> sampleTasks = Lists.newArrayList();
+        List<DatabaseAccess> taskDbConnections = Lists.newArrayList();
 
-            // always initialise since is used for transcript evaluation
-            fusionAnalyser = new FusionDisruptionAnalyser(cmd, config, ensemblDataCache, sampleAnalyser.getVisWriter());
+        for(int taskId = 0; taskId < taskCount; ++taskId)
+        {
+            LinxConfig taskConfig = config;
 
-            if(!fusionAnalyser.validState())
-                return;
+            // a DatabaseAccess wraps a single JDBC connection and each sample's output is written as deletes then inserts,
+            // so every additional task opens its own connection rather than interleaving statements on a shared one
+            DatabaseAccess taskDbAccess = dbAccess;
 
-            if(checkFusions)
+            if(dbAccess != null && taskId > 0)
             {
-                purgeInvalidTranscripts = !fusionAnalyser.hasRnaSampleData();
-
-                if(fusionAnalyser.hasRnaSampleData() && samplesList.size() > 1)
-                {
-                    samplesList.clear();
-                    samplesList.addAll(fusionAnalyser.getRnaSampleIds());
-
-                    LNX_LOGGER.info("running {} sample based on RNA fusion input", samplesList.size());
-                }
+                taskDbAccess = databaseAccess(cmd);
+                taskDbConnections.add(taskDbAccess);
             }
 
-            if(checkDrivers)
+            if(taskCount > 1)
             {
-                driverGeneAnnotator = new DriverGeneAnnotator(dbAccess, ensemblDataCache, config, cnDataLoader);
-                driverGeneAnnotator.setVisWriter(sampleAnalyser.getVisWriter());
+                // each task writes its cohort files to its own directory, merged in sample order once all are complete
+                String taskOutputDir = CohortFileMerger.taskOutputDir(config.OutputDataPath, taskId);
+                new File(taskOutputDir).mkdirs();
+                taskOutputDirs.add(taskOutputDir);
+                taskConfig = new LinxConfig(config, taskOutputDir);
             }
-        }
-
-        PerformanceCounter prefCounter = new PerformanceCounter("Total");
-
-        int count = 0;
-        for (final String sampleId : samplesList)
-        {
-            ++count;
-
-            prefCounter.start();
 
-            final List<StructuralVariantData> svRecords = sampleDataFromFile ?
-                    loadSampleSvDataFromFile(config, sampleId, cmd) : dbAccess.readStructuralVariantData(sampleId);
+            SampleTask sampleTask = new SampleTask(
+                    taskId, taskConfig, cmd, taskDbAccess, ensemblDataCache, !sampleTasks.isEmpty() ? sampleTasks.get(0) : null);
 
-            final List<SvVarData> svDataList = createSvData(svRecords);
-
-            if(svDataList.isEmpty())
+            if(!sampleTask.isValid())
             {
-                LNX_LOGGER.info("sample({}) has no passing SVs", sampleId);
-
-                if(config.isSingleSample())
-                {
-                    sampleAnalyser.writeSampleWithNoSVs(sampleId);
-                }
-
-                continue;
+                sampleTasks.forEach(x -> x.close());
+                taskDbConnections.forEach(x -> x.close());
+                return;
             }
 
-            if(config.hasMultipleSamples())
-            {
-                LNX_LOGGER.info("sample({}) processing {} SVs, completed({})", sampleId, svDataList.size(), count - 1);
-            }
+            sampleTasks.add(sampleTask);
+        }
 
-            if(!config.IsGermline)
-                cnDataLoader.loadSampleData(sampleId, svRecords);
+        final FusionDisruptionAnalyser fusionAnalyser = sampleTasks.get(0).getFusionAnalyser();
 
-            sampleAnalyser.setSampleSVs(sampleId, svDataList);
+        if(checkFusions && fusionAnalyser != null && fusionAnalyser.hasRnaSampleData() && samplesList.size() > 1)
+        {
+            samplesList.clear();
+            samplesList.addAll(fusionAnalyser.getRnaSampleIds());
 
-            if(ensemblDataCache != null)
-            {
-                sampleAnalyser.setSvGeneData(svDataList, ensemblDataCache, applyPromotorDistance, selectiveGeneLoading);
-            }
+            LNX_LOGGER.info("running {} sample based on RNA fusion input", samplesList.size());
+        }
 
-            sampleAnalyser.analyse();
+        List<String> runSampleIds = config.MaxSamples > 0 && samplesList.size() > config.MaxSamples ?
+                Lists.newArrayList(samplesList.subList(0, config.MaxSamples)) : samplesList;
 
-            if(!sampleAnalyser.inValidState())
-            {
-                LNX_LOGGER.info("exiting after sample({}), in invalid state", sampleId);
-                break;
-            }
+        AtomicInteger nextSampleIndex = new AtomicInteger();
+        sampleTasks.forEach(x -> x.setSamples(runSampleIds, nextSampleIndex));
 
-            if(checkDrivers || checkFusions)
-            {
-                // when matching RNA, allow all transcripts regardless of their viability for fusions
-                fusionAnalyser.annotateTranscripts(svDataList, purgeInvalidTranscripts);
-            }
+        if(sampleTasks.size() == 1)
+        {
+            sampleTasks.get(0).processSamples();
+        }
+        else
+        {
+            LNX_LOGGER.info("processing {} samples with {} threads", runSampleIds.size(), sampleTasks.size());
 
-            sampleAnalyser.annotate();
+            ExecutorService executorService = Executors.newFixedThreadPool(sampleTasks.size());
+            List<FutureTask> threadTaskList = Lists.newArrayList();
 
-            if(checkDrivers)
+            for(SampleTask sampleTask : sampleTasks)
             {
-                driverGeneAnnotator.annotateSVs(sampleId, sampleAnalyser.getChrBreakendMap());
+                FutureTask futureTask = new FutureTask(sampleTask);
+                threadTaskList.add(futureTask);
+                executorService.execute(futureTask);
             }
 
-            if(checkFusions)
+            boolean validExecution = checkThreadCompletion(threadTaskList);
+            executorService.shutdown();
+
+            if(!validExecution)
             {
-                fusionAnalyser.run(sampleId, svDataList, dbAccess, sampleAnalyser.getClusters(), sampleAnalyser.getChrBreakendMap());
+                sampleTasks.forEach(x -> x.close());
+                taskDbConnections.forEach(x -> x.close());
+                LNX_LOGGER.error("sample task failed, task output left in: {}", taskOutputDirs);
+                System.exit(1);
             }
+        }
 
-            sampleAnalyser.writeOutput(dbAccess);
-
-            prefCounter.stop();
+        if(config.MaxSamples > 0 && runSampleIds.size() < samplesList.size())
+        {
+            LNX_LOGGER.info("exiting after max sample count {} reached", config.MaxSamples);
+        }
 
-            if(chainFinderCompare != null)
-            {
-                chainFinderCompare.processSample(sampleId, svDataList, sampleAnalyser.getClusters(), sampleAnalyser.getChrBreakendMap());
-            }
+        PerformanceCounter prefCounter = sampleTasks.get(0).getPerfCounter();
 
-            if(config.MaxSamples > 0 && count >= config.MaxSamples)
-            {
-                LNX_LOGGER.info("exiting after max sample count {} reached", count);
-                break;
-            }
+        for(int i = 1; i < sampleTasks.size(); ++i)
+        {
+            prefCounter.merge(sampleTasks.get(i).getPerfCounter());
         }
 
         if(LNX_LOGGER.isDebugEnabled() || config.hasMultipleSamples())
@@ -266,16 +236,19 @@ public class SvLinxApplication
             prefCounter.logStats();
         }
 
-        sampleAnalyser.close();
+        sampleTasks.forEach(x -> x.close());
+        taskDbConnections.forEach(x -> x.close());
 
-        if(fusionAnalyser != null)
-            fusionAnalyser.close();
-
-        if(driverGeneAnnotator != null)
-            driverGeneAnnotator.close();
+        if(!taskOutputDirs.isEmpty())
+        {
+            CohortFileMerger fileMerger = new CohortFileMerger(config.OutputDataPath, taskOutputDirs, runSampleIds);
 
-        if(chainFinderCompare != null)
-            chainFinderCompare.close();
+            if(!fileMerger.mergeFiles())
+            {
+                LNX_LOGGER.error("cohort file merge failed, task output left in: {}", taskOutputDirs);
+                System.exit(1);
+            }
+        }
 
         if(config.isSingleSample())
         {
@@ -286,38 +259,25 @@ public class SvLinxApplication
                 config.hasMultipleSamples() ? String.format("%d samples", samplesList.size()) : samplesList.get(0));
     }
 
-    private static List<StructuralVariantData> loadSampleSvDataFromFile(
-            final LinxConfig config, final String sampleId, final CommandLine cmd)
+    private static boolean checkThreadCompletion(final List<FutureTask> taskList)
     {
-        if(cmd.hasOption(VCF_FILE))
-        {
-            if(config.IsGermline)
-                return loadSvDataFromGermlineVcf(cmd.getOptionValue(VCF_FILE));
-            else
-                return loadSvDataFromVcf(cmd.getOptionValue(VCF_FILE));
-        }
-        else
+        try
         {
-            return loadSvDataFromSvFile(sampleId, config.SvDataPath);
-        }
-    }
-
-    private static List<SvVarData> createSvData(List<StructuralVariantData> svRecords)
-    {
-        List<SvVarData> svVarDataItems = Lists.newArrayList();
-
-        for (final StructuralVariantData svRecord : svRecords)
-        {
-            if(svRecord.filter().isEmpty() || svRecord.filter().equals(PASS) || svRecord.filter().equals(INFERRED))
+            for(FutureTask futureTask : taskList)
             {
-                svVarDataItems.add(new SvVarData(svRecord));
+                futureTask.get();
             }
         }
+        catch(Exception e)
+        {
+            LNX_LOGGER.error("task execution error: {}", e.toString());
+            e.printStackTrace();
+            return false;
+        }
 
-        return svVarDataItems;
+        return true;
     }
 
-
     private static List<String> getStructuralVariantSamplesList(@NotNull DatabaseAccess dbAccess, boolean filterQCPassOnly)
     {
         final List<String> sampleIds = filterQCPassOnly ? dbAccess.readPurpleSampleListPassingQC(MIN_SAMPLE_PURITY) : dbAccess.readPurpleSampleList();
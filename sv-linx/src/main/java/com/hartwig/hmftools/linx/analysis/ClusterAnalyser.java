@@ -129,6 +129,7 @@ public class ClusterAnalyser {
 
     // access for unit testing
     public final ChainFinder getChainFinder() { return mChainFinder; }
+    public final SimpleClustering getSimpleClustering() { return mSimpleClustering; }
 
     public void setRunValidationChecks(boolean toggle) { mRunValidationChecks = toggle; }
 
@@ -513,6 +514,7 @@ public class ClusterAnalyser {
     {
         mPcClustering.logStats();
         mPcChaining.logStats();
+        mSimpleClustering.logMergeCounts();
     }
 
 }
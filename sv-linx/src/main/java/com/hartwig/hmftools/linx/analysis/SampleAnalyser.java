@@ -90,6 +90,12 @@ public class SampleAnalyser
 
     public SampleAnalyser(final LinxConfig config, DatabaseAccess dbAccess)
     {
+        this(config, dbAccess, null);
+    }
+
+    public SampleAnalyser(final LinxConfig config, DatabaseAccess dbAccess, final SampleAnalyser refDataAnalyser)
+    {
+        // when processing samples concurrently, reference data loaded by another analyser is shared read-only
         mConfig = config;
         mSampleId = "";
 
@@ -102,21 +108,32 @@ public class SampleAnalyser
 
         mCohortDataWriter = new CohortDataWriter(config, mAnalyser);
 
-        mFragileSiteAnnotator = new FragileSiteAnnotator();
-        mFragileSiteAnnotator.loadFragileSitesFile(mConfig.FragileSiteFile);
-
         mLineElementAnnotator = new LineElementAnnotator(mConfig.ProximityDistance);
-        mLineElementAnnotator.loadLineElementsFile(mConfig.LineElementFile);
         mAnalyser.setLineAnnotator(mLineElementAnnotator);
 
         mPseudoGeneFinder = new PseudoGeneFinder(mCohortDataWriter.getVisWriter());
         mLineElementAnnotator.setPseudoGeneFinder(mPseudoGeneFinder);
 
-        mReplicationOriginAnnotator = new ReplicationOriginAnnotator();
-        mReplicationOriginAnnotator.loadReplicationOrigins(mConfig.ReplicationOriginsFile);
+        if(refDataAnalyser != null)
+        {
+            mFragileSiteAnnotator = refDataAnalyser.mFragileSiteAnnotator;
+            mLineElementAnnotator.copyKnownLineElements(refDataAnalyser.mLineElementAnnotator);
+            mReplicationOriginAnnotator = refDataAnalyser.mReplicationOriginAnnotator;
+            mViralInsertAnnotator = refDataAnalyser.mViralInsertAnnotator;
+        }
+        else
+        {
+            mFragileSiteAnnotator = new FragileSiteAnnotator();
+            mFragileSiteAnnotator.loadFragileSitesFile(mConfig.FragileSiteFile);
+
+            mLineElementAnnotator.loadLineElementsFile(mConfig.LineElementFile);
 
-        mViralInsertAnnotator = new ViralInsertAnnotator();
-        mViralInsertAnnotator.loadViralHostData(mConfig.ViralHostsFile);
+            mReplicationOriginAnnotator = new ReplicationOriginAnnotator();
+            mReplicationOriginAnnotator.loadReplicationOrigins(mConfig.ReplicationOriginsFile);
+
+            mViralInsertAnnotator = new ViralInsertAnnotator();
+            mViralInsertAnnotator.loadViralHostData(mConfig.ViralHostsFile);
+        }
 
         mKataegisAnnotator = new KataegisAnnotator(mConfig.OutputDataPath);
         mKataegisAnnotator.loadKataegisData(mConfig.KataegisFile);
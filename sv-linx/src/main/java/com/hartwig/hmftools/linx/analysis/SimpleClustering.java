@@ -37,11 +37,19 @@ import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.isStart;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.ensemblcache.IntervalIndex;
 import com.hartwig.hmftools.common.variant.structural.StructuralVariantType;
 import com.hartwig.hmftools.linx.LinxConfig;
 import com.hartwig.hmftools.linx.cn.HomLossEvent;
@@ -60,11 +68,15 @@ public class SimpleClustering
     private int mClusteringIndex;
     private BufferedWriter mClusterHistoryWriter;
 
+    // count of cluster merges made by each rule across all samples
+    private final int[] mMergeCounts;
+
     public SimpleClustering(ClusteringState state, final LinxConfig config)
     {
         mState = state;
         mConfig = config;
         mClusterHistoryWriter = null;
+        mMergeCounts = new int[ClusteringReason.values().length];
     }
 
     private int getNextClusterId() { return mState.getNextClusterId(); }
@@ -179,6 +191,8 @@ public class SimpleClustering
                             }
                         }
 
+                        ++mMergeCounts[PROXIMITY.ordinal()];
+
                         if (var.getClusterReason().isEmpty())
                             var.addClusterReason(PROXIMITY, nextVar.id());
 
@@ -200,6 +214,8 @@ public class SimpleClustering
         var1.addClusterReason(clusterReason, var2.id());
         var2.addClusterReason(clusterReason, var1.id());
 
+        ++mMergeCounts[clusterReason.ordinal()];
+
         if(mConfig.hasMultipleSamples())
         {
             logClusteringDetails(var1, var2, clusterReason);
@@ -250,6 +266,24 @@ public class SimpleClustering
         closeBufferedWriter(mClusterHistoryWriter);
     }
 
+    public int getMergeCount(final ClusteringReason reason) { return mMergeCounts[reason.ordinal()]; }
+
+    public void logMergeCounts()
+    {
+        StringJoiner mergeCounts = new StringJoiner(" ");
+
+        for(ClusteringReason reason : ClusteringReason.values())
+        {
+            if(mMergeCounts[reason.ordinal()] > 0)
+                mergeCounts.add(String.format("%s=%d", reason, mMergeCounts[reason.ordinal()]));
+        }
+
+        if(mergeCounts.length() > 0)
+        {
+            LNX_LOGGER.info("cluster merges by rule: {}", mergeCounts.toString());
+        }
+    }
+
     public void mergeClusters(List<SvCluster> clusters)
     {
         // first apply replication rules since this can affect consistency
@@ -272,31 +306,12 @@ public class SimpleClustering
 
         mergeLOHResolvingClusters(clusters);
 
-        // the merge must be run a few times since as clusters grow, more single SVs and other clusters
-        // will then fall within the bounds of the new larger clusters
-        boolean foundMerges = true;
-        int iterations = 0;
-
-        while(foundMerges)
-        {
-            foundMerges = false;
-
-            if(mergeOnOverlappingInvDupDels(clusters, false))
-                foundMerges = true;
-
-            ++iterations;
-
-            if(iterations >= 10)
-            {
-                if(foundMerges)
-                    LNX_LOGGER.warn("sample({}) exiting simple merge loop after {} iterations with merge just found", mSampleId, iterations);
-                break;
-            }
-        }
+        // clusters are re-checked as they grow, since more single SVs and other clusters may then fall within their bounds
+        mergeOnOverlappingInvDupDels(clusters, false);
 
         if(clusters.size() < initClusterCount)
         {
-            LNX_LOGGER.debug("reduced cluster count({} -> {}) iterations({})", initClusterCount, clusters.size(), iterations);
+            LNX_LOGGER.debug("reduced cluster count({} -> {})", initClusterCount, clusters.size());
         }
     }
 
@@ -580,25 +595,7 @@ public class SimpleClustering
 
     public void mergeLongDelDupClusters(List<SvCluster> clusters)
     {
-        boolean foundMerges = true;
-        int iterations = 0;
-
-        while(foundMerges)
-        {
-            foundMerges = false;
-
-            if(mergeOnOverlappingInvDupDels(clusters, true))
-                foundMerges = true;
-
-            ++iterations;
-
-            if(iterations >= 5)
-            {
-                if(foundMerges)
-                    LNX_LOGGER.warn("sample({}) exiting simple merge loop after {} iterations with merge just found", mSampleId, iterations);
-                break;
-            }
-        }
+        mergeOnOverlappingInvDupDels(clusters, true);
     }
 
     private boolean mergeOnOverlappingInvDupDels(List<SvCluster> clusters, boolean allowDelDupOverlaps)
@@ -612,144 +609,187 @@ public class SimpleClustering
         if(longDDIClusters.size() <= 1)
             return false;
 
-        LNX_LOGGER.debug("checking long {}} overlaps for {} clusters",
+        LNX_LOGGER.debug("checking long {} overlaps for {} clusters",
                 !allowDelDupOverlaps ? "DEL_DUP-requiring-INV" : "multiple DDI overlaps", longDDIClusters.size());
 
-        List<SvCluster> mergedClusters = Lists.newArrayList();
+        // index the SVs by chromosome, since their positions are fixed and each resolves to its current cluster as clusters merge
+        final Map<String,IntervalIndex<SvVarData>> chrSvIndex = buildDelDupInvIndex(longDDIClusters);
 
-        int index1 = 0;
-        while(index1 < longDDIClusters.size())
+        // clusters are merged into whichever came first in the cluster list
+        final Map<SvCluster,Integer> clusterOrder = Maps.newHashMap();
+
+        for(int i = 0; i < longDDIClusters.size(); ++i)
         {
-            SvCluster cluster1 = longDDIClusters.get(index1);
+            clusterOrder.put(longDDIClusters.get(i), i);
+        }
 
-            if(mergedClusters.contains(cluster1))
-            {
-                ++index1;
-                continue;
-            }
+        final Set<SvCluster> mergedClusters = Sets.newHashSet();
 
-            boolean mergedOtherClusters = false;
-            ClusteringReason mergeReason = ClusteringReason.NONE;
+        // each cluster is checked against the clusters of the SVs it overlaps, and then again each time it merges in another
+        final Deque<SvCluster> clusterQueue = new ArrayDeque<>(longDDIClusters);
 
-            List<SvVarData> cluster1Svs = Lists.newArrayList(cluster1.getLongDelDups());
-            cluster1Svs.addAll(cluster1.getInversions());
+        while(!clusterQueue.isEmpty())
+        {
+            SvCluster cluster = clusterQueue.pollFirst();
+
+            if(mergedClusters.contains(cluster))
+                continue;
 
-            int index2 = index1 + 1;
-            while(index2 < longDDIClusters.size())
+            for(SvCluster otherCluster : findOverlappingClusters(cluster, chrSvIndex, clusterOrder))
             {
-                SvCluster cluster2 = longDDIClusters.get(index2);
+                boolean otherIsFirst = clusterOrder.get(otherCluster) < clusterOrder.get(cluster);
+                SvCluster cluster1 = otherIsFirst ? otherCluster : cluster;
+                SvCluster cluster2 = otherIsFirst ? cluster : otherCluster;
 
-                if(mergedClusters.contains(cluster2))
-                {
-                    ++index2;
+                final SvVarData[] mergePair = findOverlappingInvDupDelPair(cluster1, cluster2, allowDelDupOverlaps);
+
+                if(mergePair == null)
                     continue;
-                }
 
-                List<SvVarData> cluster2Svs = Lists.newArrayList(cluster2.getLongDelDups());
-                cluster2Svs.addAll(cluster2.getInversions());
+                addClusterReasons(mergePair[0], mergePair[1], LONG_DEL_DUP_INV);
 
-                int delDupOverlapCount = 0;
-                int closeLinkPairs = 0;
+                cluster1.mergeOtherCluster(cluster2);
+                cluster1.addClusterReason(LONG_DEL_DUP_INV);
+                mergedClusters.add(cluster2);
 
-                for (final SvVarData var1 : cluster1Svs)
-                {
-                    for (final SvVarData var2 : cluster2Svs)
-                    {
-                        boolean pairContainsInv = var1.type() == INV || var2.type() == INV;
+                // repeat the merged cluster now that it has the other cluster's SVs
+                clusterQueue.addFirst(cluster1);
+                break;
+            }
+        }
 
-                        if(!allowDelDupOverlaps && !pairContainsInv)
-                            continue;
+        if(mergedClusters.isEmpty())
+            return false;
 
-                        if(!var1.chromosome(true).equals(var2.chromosome(true)))
-                            continue;
+        clusters.removeAll(mergedClusters);
+        return true;
+    }
 
-                        if(var1.position(false) < var2.position(true) || var1.position(true) > var2.position(false))
-                            continue;
+    private static Map<String,IntervalIndex<SvVarData>> buildDelDupInvIndex(final List<SvCluster> clusters)
+    {
+        final Map<String,List<SvVarData>> chrSvs = Maps.newHashMap();
 
-                        boolean enclosed = (var1.position(true) < var2.position(true) && var1.position(false) > var2.position(false))
-                                || (var2.position(true) < var1.position(true) && var2.position(false) > var1.position(false));
+        for(SvCluster cluster : clusters)
+        {
+            cluster.getLongDelDups().forEach(x -> chrSvs.computeIfAbsent(x.chromosome(true), k -> Lists.newArrayList()).add(x));
+            cluster.getInversions().forEach(x -> chrSvs.computeIfAbsent(x.chromosome(true), k -> Lists.newArrayList()).add(x));
+        }
 
-                        if(allowDelDupOverlaps && enclosed)
-                            continue;
+        final Map<String,IntervalIndex<SvVarData>> chrSvIndex = Maps.newHashMap();
 
-                        // check for conflicting LOH / hom-loss events
-                        if(variantsViolateLohHomLoss(var1, var2))
-                        {
-                            LNX_LOGGER.trace("cluster({}) SV({}) and cluster({}) var({}) have conflicting LOH & hom-loss events",
-                                    cluster1.id(), var1.id(), cluster2.id(), var2.id());
-                            continue;
-                        }
+        for(Map.Entry<String,List<SvVarData>> entry : chrSvs.entrySet())
+        {
+            chrSvIndex.put(entry.getKey(), new IntervalIndex<>(entry.getValue(), x -> x.position(true), x -> x.position(false)));
+        }
 
-                        if(variantsHaveDifferentJcn(var1, var2))
-                            continue;
+        return chrSvIndex;
+    }
 
-                        if(allowDelDupOverlaps && (!(copyNumbersEqual(var1.copyNumber(true), var2.copyNumber(true)))
-                                || !copyNumbersEqual(var1.copyNumber(false), var2.copyNumber(false))))
-                        {
-                            continue;
-                        }
+    private static List<SvCluster> findOverlappingClusters(
+            final SvCluster cluster, final Map<String,IntervalIndex<SvVarData>> chrSvIndex, final Map<SvCluster,Integer> clusterOrder)
+    {
+        // only clusters with an SV overlapping one of this cluster's can satisfy the merge conditions
+        final Set<SvCluster> otherClusters = Sets.newHashSet();
+
+        List<SvVarData> clusterSvs = Lists.newArrayList(cluster.getLongDelDups());
+        clusterSvs.addAll(cluster.getInversions());
+
+        for(final SvVarData var : clusterSvs)
+        {
+            final IntervalIndex<SvVarData> svIndex = chrSvIndex.get(var.chromosome(true));
 
-                        if(!pairContainsInv)
-                            ++delDupOverlapCount;
+            for(final SvVarData otherVar : svIndex.findOverlapping(var.position(true), var.position(false)))
+            {
+                if(otherVar.getCluster() != cluster)
+                    otherClusters.add(otherVar.getCluster());
+            }
+        }
 
-                        boolean[] closeLinkData = breakendsInCloseLink(var1, var2);
+        return otherClusters.stream().sorted(Comparator.comparingInt(clusterOrder::get)).collect(Collectors.toList());
+    }
 
-                        if(closeLinkData[CLOSE_BREAKS_TI_DB])
-                            ++closeLinkPairs;
+    private static SvVarData[] findOverlappingInvDupDelPair(final SvCluster cluster1, final SvCluster cluster2, boolean allowDelDupOverlaps)
+    {
+        // returns the SVs from each cluster which satisfy the merge conditions, or null if none do
+        List<SvVarData> cluster1Svs = Lists.newArrayList(cluster1.getLongDelDups());
+        cluster1Svs.addAll(cluster1.getInversions());
 
-                        boolean closeLink = closeLinkData[CLOSE_BREAKS_PROXIMATE];
+        List<SvVarData> cluster2Svs = Lists.newArrayList(cluster2.getLongDelDups());
+        cluster2Svs.addAll(cluster2.getInversions());
 
-                        // either require an INV to be a part of the overlap, or at least 3 DELs or DUPS
-                        // and either 1 closer TI or DB link or at least 3 outside the range
+        int delDupOverlapCount = 0;
+        int closeLinkPairs = 0;
 
-                        if((closeLink && pairContainsInv) || (delDupOverlapCount >= 3 && closeLinkPairs >= 3))
-                        {
-                            if(closeLink && pairContainsInv)
-                            {
-                                LNX_LOGGER.debug("cluster({}) SV({} {}) and cluster({}) SV({} {}) have INV-DEL-DUP overlap",
-                                        cluster1.id(), var1.posId(), var1.type(), cluster2.id(), var2.posId(), var2.type());
-                            }
-                            else
-                            {
-                                LNX_LOGGER.debug("cluster({}) and cluster({}) have {} DEL-DUP overlaps and {} close pairs",
-                                        cluster1.id(), cluster2.id(), delDupOverlapCount, closeLinkPairs);
-                            }
+        for (final SvVarData var1 : cluster1Svs)
+        {
+            for (final SvVarData var2 : cluster2Svs)
+            {
+                boolean pairContainsInv = var1.type() == INV || var2.type() == INV;
 
-                            mergeReason = LONG_DEL_DUP_INV;
-                            addClusterReasons(var1, var2, mergeReason);
-                            mergedOtherClusters = true;
-                            break;
-                        }
-                    }
+                if(!allowDelDupOverlaps && !pairContainsInv)
+                    continue;
 
-                    if(mergedOtherClusters)
-                        break;
+                if(!var1.chromosome(true).equals(var2.chromosome(true)))
+                    continue;
+
+                if(var1.position(false) < var2.position(true) || var1.position(true) > var2.position(false))
+                    continue;
+
+                boolean enclosed = (var1.position(true) < var2.position(true) && var1.position(false) > var2.position(false))
+                        || (var2.position(true) < var1.position(true) && var2.position(false) > var1.position(false));
+
+                if(allowDelDupOverlaps && enclosed)
+                    continue;
+
+                // check for conflicting LOH / hom-loss events
+                if(variantsViolateLohHomLoss(var1, var2))
+                {
+                    LNX_LOGGER.trace("cluster({}) SV({}) and cluster({}) var({}) have conflicting LOH & hom-loss events",
+                            cluster1.id(), var1.id(), cluster2.id(), var2.id());
+                    continue;
                 }
 
-                if(mergedOtherClusters)
+                if(variantsHaveDifferentJcn(var1, var2))
+                    continue;
+
+                if(allowDelDupOverlaps && (!(copyNumbersEqual(var1.copyNumber(true), var2.copyNumber(true)))
+                        || !copyNumbersEqual(var1.copyNumber(false), var2.copyNumber(false))))
                 {
-                    cluster1.mergeOtherCluster(cluster2);
-                    cluster1.addClusterReason(mergeReason);
-                    mergedClusters.add(cluster2);
-                    break;
+                    continue;
                 }
-                else
+
+                if(!pairContainsInv)
+                    ++delDupOverlapCount;
+
+                boolean[] closeLinkData = breakendsInCloseLink(var1, var2);
+
+                if(closeLinkData[CLOSE_BREAKS_TI_DB])
+                    ++closeLinkPairs;
+
+                boolean closeLink = closeLinkData[CLOSE_BREAKS_PROXIMATE];
+
+                // either require an INV to be a part of the overlap, or at least 3 DELs or DUPS
+                // and either 1 closer TI or DB link or at least 3 outside the range
+
+                if((closeLink && pairContainsInv) || (delDupOverlapCount >= 3 && closeLinkPairs >= 3))
                 {
-                    ++index2;
+                    if(closeLink && pairContainsInv)
+                    {
+                        LNX_LOGGER.debug("cluster({}) SV({} {}) and cluster({}) SV({} {}) have INV-DEL-DUP overlap",
+                                cluster1.id(), var1.posId(), var1.type(), cluster2.id(), var2.posId(), var2.type());
+                    }
+                    else
+                    {
+                        LNX_LOGGER.debug("cluster({}) and cluster({}) have {} DEL-DUP overlaps and {} close pairs",
+                                cluster1.id(), cluster2.id(), delDupOverlapCount, closeLinkPairs);
+                    }
+
+                    return new SvVarData[] { var1, var2 };
                 }
             }
-
-            if(mergedOtherClusters)
-                continue; // repeat this cluster after merging in another's SVs
-            else
-                ++index1;
         }
 
-        if(mergedClusters.isEmpty())
-            return false;
-
-        mergedClusters.forEach(x -> clusters.remove(x));
-        return true;
+        return null;
     }
 
     protected static boolean variantsViolateLohHomLoss(final SvVarData var1, final SvVarData var2)
@@ -900,8 +940,10 @@ public class SimpleClustering
         // from each breakend walk forward and subtract any facing breakend's ploidy in the same cluster
         // if an opposing unclustered breakend is encountered and the major AP in the segment after the unclustered breakend is less than
         // the clustered net breakend JCN, then merge in the unclustered breakend, subtract its ploidy and continue
+        // each walk is bounded by the arm and the merge distance, and nets off breakends by the cluster's current membership,
+        // so a cluster which merges another is walked again rather than its breakends being indexed
 
-        List<SvCluster> mergedClusters = Lists.newArrayList();
+        Set<SvCluster> mergedClusters = Sets.newHashSet();
 
         int clusterIndex = 0;
         while(clusterIndex < clusters.size())
@@ -1041,7 +1083,7 @@ public class SimpleClustering
         if(mergedClusters.isEmpty())
             return false;
 
-        mergedClusters.forEach(x -> clusters.remove(x));
+        clusters.removeAll(mergedClusters);
 
         return true;
     }
@@ -1050,107 +1092,99 @@ public class SimpleClustering
     {
         // merge any facing breakends whose JCNs exceed the threshold, regardless of distance, as long as the region in between
         // has continuous major allele copy number at or above this same threshold
-        final List<SvCluster> mergedClusters = Lists.newArrayList();
+        final Set<SvCluster> mergedClusters = Sets.newHashSet();
 
         for (Map.Entry<String, List<SvBreakend>> entry : mState.getChrBreakendMap().entrySet())
         {
-            final List<SvBreakend> breakendList = entry.getValue();
-
-            for(final SvBreakend breakend : breakendList)
-            {
-                if(breakend.orientation() == POS_ORIENT)
-                    continue;
-
-                if(breakend.getCluster().getResolvedType() == LINE)
-                    continue;
+            final Map<SvBreakend,List<SvBreakend>> facingBreakends = findHighFacingBreakends(entry.getValue());
 
-                if(breakend.jcn() < HIGH_JCN_THRESHOLD)
-                    continue;
+            if(facingBreakends.isEmpty())
+                continue;
 
-                double adjacentMaJcn = breakend.majorAlleleJcn(true);
+            // merge in the order of the lower breakends, as if walking up from each in turn
+            final List<SvBreakend> lowerBreakends = facingBreakends.keySet().stream()
+                    .sorted(Comparator.comparingInt(SvBreakend::getChrPosIndex))
+                    .collect(Collectors.toList());
 
-                if(breakend.jcn() / max(adjacentMaJcn, 0.01) < ADJACENT_JCN_RATIO)
+            for(final SvBreakend breakend : lowerBreakends)
+            {
+                if(breakend.getCluster().getResolvedType() == LINE)
                     continue;
 
-                // now look for from here through a region of sustained high major allele CN until a facing breakend is reached
-                for(int index = breakend.getChrPosIndex() + 1; index < breakendList.size(); ++index)
+                for(final SvBreakend nextBreakend : facingBreakends.get(breakend))
                 {
-                    final SvBreakend nextBreakend = breakendList.get(index);
-
-                    if(nextBreakend.orientation() == NEG_ORIENT)
+                    if(nextBreakend.getCluster() == breakend.getCluster() || nextBreakend.getCluster().getResolvedType() == LINE)
                         continue;
 
-                    double nextAdjacentMaJcn = nextBreakend.majorAlleleJcn(false);
-
-                    boolean isHighFacingBreakend = nextBreakend.jcn() >= HIGH_JCN_THRESHOLD &&
-                            nextBreakend.jcn() / max(nextAdjacentMaJcn, 0.01) >= ADJACENT_JCN_RATIO;
-
-                    if(isHighFacingBreakend)
-                    {
-                        if(nextBreakend.getCluster() == breakend.getCluster() || nextBreakend.getCluster().getResolvedType() == LINE)
-                            continue;
-
-                        // found a cluster to merge
-                        SvCluster cluster = breakend.getCluster();
-                        SvCluster otherCluster = nextBreakend.getCluster();
+                    // found a cluster to merge
+                    SvCluster cluster = breakend.getCluster();
+                    SvCluster otherCluster = nextBreakend.getCluster();
 
-                        LNX_LOGGER.debug("cluster({}) breakend({} netJCN={}) merges cluster({}) breakend({} ploidy={}) high facing JCN",
-                                cluster.id(), breakend, formatJcn(breakend.jcn()), otherCluster.id(), nextBreakend.toString(),
-                                formatJcn(nextBreakend.jcn()));
+                    LNX_LOGGER.debug("cluster({}) breakend({} netJCN={}) merges cluster({}) breakend({} ploidy={}) high facing JCN",
+                            cluster.id(), breakend, formatJcn(breakend.jcn()), otherCluster.id(), nextBreakend.toString(),
+                            formatJcn(nextBreakend.jcn()));
 
-                        addClusterReasons(breakend.getSV(), nextBreakend.getSV(), HIGH_JCN);
-                        otherCluster.addClusterReason(HIGH_JCN);
-                        cluster.addClusterReason(HIGH_JCN);
+                    addClusterReasons(breakend.getSV(), nextBreakend.getSV(), HIGH_JCN);
+                    otherCluster.addClusterReason(HIGH_JCN);
+                    cluster.addClusterReason(HIGH_JCN);
 
-                        cluster.mergeOtherCluster(otherCluster);
-                        mergedClusters.add(otherCluster);
-                    }
+                    cluster.mergeOtherCluster(otherCluster);
+                    mergedClusters.add(otherCluster);
 
                     if(nextBreakend.majorAlleleJcn(false) < HIGH_JCN_THRESHOLD)
                         break;
+                }
+            }
+        }
 
-                    /*
-                    // find where the region drops below the required threshold
-                    if(nextBreakend.majorAlleleJcn(false) < HIGH_JCN_THRESHOLD)
-                    {
-                        // check if it's due to another high JCN breakend
-                        if(nextBreakend.jcn() < HIGH_JCN_THRESHOLD)
-                            break;
-
-                        double nextAdjacentMaJcn = nextBreakend.majorAlleleJcn(false);
-
-                        if(nextBreakend.jcn() / max(nextAdjacentMaJcn, 0.01) < ADJACENT_JCN_RATIO)
-                            break;
+        if(mergedClusters.isEmpty())
+            return false;
 
-                        if(nextBreakend.getCluster() == breakend.getCluster() || nextBreakend.getCluster().getResolvedType() == LINE)
-                            break;
+        clusters.removeAll(mergedClusters);
 
-                        // found a cluster to merge
-                        SvCluster cluster = breakend.getCluster();
-                        SvCluster otherCluster = nextBreakend.getCluster();
+        return true;
+    }
 
-                        LNX_LOGGER.debug("cluster({}) breakend({} netJCN={}) merges cluster({}) breakend({} ploidy={}) high facing JCN",
-                                cluster.id(), breakend, formatJcn(breakend.jcn()), otherCluster.id(), nextBreakend.toString(),
-                                formatJcn(nextBreakend.jcn()));
+    private static Map<SvBreakend,List<SvBreakend>> findHighFacingBreakends(final List<SvBreakend> breakendList)
+    {
+        // a single pass up the chromosome finds the high JCN breakends facing each other across a region of sustained high
+        // major allele JCN, rather than walking on from each lower breakend in turn
+        final Map<SvBreakend,List<SvBreakend>> facingBreakends = Maps.newHashMap();
 
-                        addClusterReasons(breakend.getSV(), nextBreakend.getSV(), HIGH_JCN);
-                        otherCluster.addClusterReason(HIGH_JCN);
-                        cluster.addClusterReason(HIGH_JCN);
+        // lower breakends whose region of high major allele JCN is still open
+        final List<SvBreakend> openBreakends = Lists.newArrayList();
 
-                        cluster.mergeOtherCluster(otherCluster);
-                        mergedClusters.add(otherCluster);
-                    }
-                    */
+        for(final SvBreakend breakend : breakendList)
+        {
+            if(breakend.orientation() == NEG_ORIENT)
+            {
+                if(breakend.jcn() >= HIGH_JCN_THRESHOLD
+                && breakend.jcn() / max(breakend.majorAlleleJcn(true), 0.01) >= ADJACENT_JCN_RATIO)
+                {
+                    openBreakends.add(breakend);
                 }
+
+                continue;
             }
-        }
 
-        if(mergedClusters.isEmpty())
-            return false;
+            if(openBreakends.isEmpty())
+                continue;
 
-        mergedClusters.forEach(x -> clusters.remove(x));
+            boolean isHighFacingBreakend = breakend.jcn() >= HIGH_JCN_THRESHOLD &&
+                    breakend.jcn() / max(breakend.majorAlleleJcn(false), 0.01) >= ADJACENT_JCN_RATIO;
 
-        return true;
+            if(isHighFacingBreakend)
+            {
+                // a facing breakend in the lower breakend's cluster doesn't end its region, so this is left until the merge
+                openBreakends.forEach(x -> facingBreakends.computeIfAbsent(x, k -> Lists.newArrayList()).add(breakend));
+                continue;
+            }
+
+            if(breakend.majorAlleleJcn(false) < HIGH_JCN_THRESHOLD)
+                openBreakends.clear();
+        }
+
+        return facingBreakends;
     }
 
     private boolean mergeLOHResolvingClusters(List<SvCluster> clusters)
@@ -1158,13 +1192,14 @@ public class SimpleClustering
         // No breakend in a cluster can chain across an LOH which has been caused by a breakend in the same cluster.
         // Hence if the other breakend of a DUP type variant bounding an LOH can only chain to only one available (not assembled, not LINE)
         // breakend prior to the LOH, then we cluster the DUP and the other breakend.
+        // Each walk is bounded by its LOH event and the rule makes a single pass, so it uses the breakend lists directly.
 
         List<SvCluster> clustersWithLohEvents = clusters.stream()
                 .filter(x -> !x.getLohEvents().isEmpty())
                 .filter(x -> !x.hasLinkingLineElements())
                 .collect(Collectors.toList());
 
-        List<SvCluster> mergedClusters = Lists.newArrayList();
+        Set<SvCluster> mergedClusters = Sets.newHashSet();
 
         for(SvCluster lohCluster : clustersWithLohEvents)
         {
@@ -1266,7 +1301,7 @@ public class SimpleClustering
         if(mergedClusters.isEmpty())
             return false;
 
-        mergedClusters.forEach(x -> clusters.remove(x));
+        clusters.removeAll(mergedClusters);
         return true;
     }
 
@@ -1291,31 +1326,25 @@ public class SimpleClustering
         }
 
         // check that no 2 clusters contain the same SV
-        for(int i = 0; i < clusters.size(); ++i)
-        {
-            SvCluster cluster1 = clusters.get(i);
+        final Map<SvVarData,SvCluster> svClusters = Maps.newHashMap();
 
+        for(SvCluster cluster : clusters)
+        {
             // check all SVs in this cluster reference it
-            for(SvVarData var : cluster1.getSVs())
+            for(SvVarData var : cluster.getSVs())
             {
-                if(var.getCluster() != cluster1)
+                if(var.getCluster() != cluster)
                 {
-                    LNX_LOGGER.error("var({}) in cluster({}) has incorrect ref", var.posId(), cluster1.id());
+                    LNX_LOGGER.error("var({}) in cluster({}) has incorrect ref", var.posId(), cluster.id());
                     return false;
                 }
-            }
 
-            for(int j = i+1; j < clusters.size(); ++j)
-            {
-                SvCluster cluster2 = clusters.get(j);
+                SvCluster otherCluster = svClusters.put(var, cluster);
 
-                for(SvVarData var : cluster1.getSVs())
+                if(otherCluster != null && otherCluster != cluster)
                 {
-                    if(cluster2.getSVs().contains(var))
-                    {
-                        LNX_LOGGER.error("var({}) in 2 clusters({} and {})", var.posId(), cluster1.id(), cluster2.id());
-                        return false;
-                    }
+                    LNX_LOGGER.error("var({}) in 2 clusters({} and {})", var.posId(), otherCluster.id(), cluster.id());
+                    return false;
                 }
             }
         }
@@ -1325,18 +1354,15 @@ public class SimpleClustering
 
     public static boolean checkClusterDuplicates(List<SvCluster> clusters)
     {
-        for(int i = 0; i < clusters.size(); ++i)
+        final Set<Integer> clusterIds = Sets.newHashSet();
+
+        for(final SvCluster cluster : clusters)
         {
-            final SvCluster cluster1 = clusters.get(i);
-            for(int j = i + 1; j < clusters.size(); ++j)
+            // the same cluster twice will also have a repeated ID
+            if(!clusterIds.add(cluster.id()))
             {
-                final SvCluster cluster2 = clusters.get(j);
-
-                if(cluster1 == cluster2 || cluster1.id() == cluster2.id())
-                {
-                    LNX_LOGGER.error("cluster({}) exists twice in list", cluster1.id());
-                    return false;
-                }
+                LNX_LOGGER.error("cluster({}) exists twice in list", cluster.id());
+                return false;
             }
         }
 
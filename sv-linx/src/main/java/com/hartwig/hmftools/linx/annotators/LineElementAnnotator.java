@@ -64,6 +64,11 @@ public class LineElementAnnotator {
         mPseudoGeneFinder = pseudoGeneFinder;
     }
 
+    public void copyKnownLineElements(final LineElementAnnotator other)
+    {
+        mKnownLineElements.addAll(other.mKnownLineElements);
+    }
+
     public void loadLineElementsFile(final String filename)
     {
         if(filename.isEmpty())
@@ -278,6 +278,8 @@ public class ChainFinder
 
     public void setRunValidation(boolean toggle) { mRunValidation = toggle; }
     public void setUseAllelePloidies(boolean toggle) { mUseAlleleJCNs = toggle; }
+    public void setUseIndexedLookups(boolean toggle) { mLinkAllocator.setUseIndexedLookups(toggle); }
+    public final ChainLinkAllocator getLinkAllocator() { return mLinkAllocator; }
 
     public final List<SvChain> getUniqueChains()
     {
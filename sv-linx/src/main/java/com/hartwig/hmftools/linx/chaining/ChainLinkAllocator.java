@@ -37,13 +37,24 @@ public class ChainLinkAllocator
     private int mClusterId;
 
     private final Map<LinkedPair,LinkSkipType> mSkippedPairs;
+    private final Map<SvBreakend,List<LinkedPair>> mSkippedBreakendPairs; // skipped pairs indexed by each of their breakends
     private int mLinkIndex; // incrementing value for each link added to any chain
     private boolean mIsValid;
     private boolean mPairSkipped; // keep track of any excluded pair or SV without exiting the chaining routine
     private boolean mChainsSplit;
     private final List<LinkedPair> mUniquePairs; // cache of unique pairs added through chaining
+    private final Map<SvBreakend,List<LinkedPair>> mUniqueBreakendPairs; // unique pairs indexed by each of their breakends
     private int mNextChainId;
 
+    // chains by their open breakends, cached while links are being proposed since the chains don't change
+    private Map<SvBreakend,List<SvChain>> mOpenBreakendChains;
+    private boolean mUseIndexedLookups; // can be disabled to verify chaining against the original linear scans
+
+    // counts across all clusters of the chaining events which rely on the lookups
+    private int mSkippedPairTotal;
+    private int mExistingPairMatches;
+    private int mChainSplitCount;
+
     // chaining state for each SV
     private final Map<SvVarData, ChainState> mSvConnectionsMap;
     private final List<ChainState> mSvCompletedConnections; // fully exhausted SVs are moved into this collection
@@ -68,9 +79,16 @@ public class ChainLinkAllocator
         mSvConnectionsMap = Maps.newHashMap();
         mSvCompletedConnections = Lists.newArrayList();
         mUniquePairs = Lists.newArrayList();
+        mUniqueBreakendPairs = Maps.newHashMap();
         mSkippedPairs = Maps.newHashMap();
+        mSkippedBreakendPairs = Maps.newHashMap();
+        mOpenBreakendChains = null;
+        mUseIndexedLookups = true;
         mIsValid = true;
         mNextChainId = 0;
+        mSkippedPairTotal = 0;
+        mExistingPairMatches = 0;
+        mChainSplitCount = 0;
     }
 
     public final Map<SvVarData, ChainState> getSvConnectionsMap() { return mSvConnectionsMap; }
@@ -85,6 +103,12 @@ public class ChainLinkAllocator
 
     public boolean pairSkipped() { return mPairSkipped; }
 
+    public void setUseIndexedLookups(boolean toggle) { mUseIndexedLookups = toggle; }
+
+    public int getSkippedPairTotal() { return mSkippedPairTotal; }
+    public int getExistingPairMatches() { return mExistingPairMatches; }
+    public int getChainSplitCount() { return mChainSplitCount; }
+
     public void clearSkippedState()
     {
         mPairSkipped = false;
@@ -102,7 +126,9 @@ public class ChainLinkAllocator
         mNextChainId = 0;
 
         mUniquePairs.clear();
-        mSkippedPairs.clear();
+        mUniqueBreakendPairs.clear();
+        clearSkippedPairs();
+        mOpenBreakendChains = null;
         mSvConnectionsMap.clear();
         mSvCompletedConnections.clear();
     }
@@ -400,7 +426,7 @@ public class ChainLinkAllocator
         {
             if(mChainsSplit)
             {
-                mSkippedPairs.clear(); // any skipped links can now be re-evaluated
+                clearSkippedPairs(); // any skipped links can now be re-evaluated
             }
             else
             {
@@ -409,7 +435,7 @@ public class ChainLinkAllocator
                         .map(x -> x.getKey())
                         .collect(Collectors.toList());
 
-                pairsToRemove.stream().forEach(x -> mSkippedPairs.remove(x));
+                pairsToRemove.stream().forEach(x -> removeSkippedPair(x));
             }
         }
     }
@@ -757,6 +783,7 @@ public class ChainLinkAllocator
         double newUncertainty = targetChain.jcnUncertainty() / UNCERTAINTY_SCALE_FACTOR;
         targetChain.setJcnData(newJcn, newUncertainty);
         mChainsSplit = true;
+        ++mChainSplitCount;
 
         for (LinkedPair pair : proposedLinks.Links)
         {
@@ -782,6 +809,7 @@ public class ChainLinkAllocator
             newChain.copyFrom(targetChain);
 
             mChainsSplit = true;
+            ++mChainSplitCount;
 
             // chain will have its ploidy halved anyway so just split off the excess
             newChain.setJcnData(targetChain.jcn() - newSvJcn, targetChain.jcnUncertainty());
@@ -896,7 +924,7 @@ public class ChainLinkAllocator
         {
             mJcnLimits.assignLinkJcn(newPair, proposedLink.jcn());
 
-            mSkippedPairs.remove(newPair);
+            removeSkippedPair(newPair);
 
             removeOppositeLinks(newPair);
 
@@ -969,6 +997,11 @@ public class ChainLinkAllocator
             if (!matchesExistingPair(newPair))
             {
                 mUniquePairs.add(newPair);
+                addBreakendPair(mUniqueBreakendPairs, newPair);
+            }
+            else
+            {
+                ++mExistingPairMatches;
             }
         }
 
@@ -1178,8 +1211,36 @@ public class ChainLinkAllocator
         return new BreakendJcn(unchainedjcn, totalChainjcn, maxChain, chains, false);
     }
 
+    public void cacheOpenBreakendChains()
+    {
+        if(!mUseIndexedLookups)
+            return;
+
+        mOpenBreakendChains = Maps.newHashMap();
+
+        for(final SvChain chain : mChains)
+        {
+            final SvBreakend startBreakend = chain.getOpenBreakend(true);
+            final SvBreakend endBreakend = chain.getOpenBreakend(false);
+
+            if(startBreakend != null)
+                mOpenBreakendChains.computeIfAbsent(startBreakend, k -> Lists.newArrayList()).add(chain);
+
+            if(endBreakend != null && endBreakend != startBreakend)
+                mOpenBreakendChains.computeIfAbsent(endBreakend, k -> Lists.newArrayList()).add(chain);
+        }
+    }
+
+    public void clearOpenBreakendChains() { mOpenBreakendChains = null; }
+
     protected List<SvChain> getChainsWithOpenBreakend(final SvBreakend breakend)
     {
+        if(mOpenBreakendChains != null)
+        {
+            final List<SvChain> chains = mOpenBreakendChains.get(breakend);
+            return chains != null ? Lists.newArrayList(chains) : Lists.newArrayList();
+        }
+
         return mChains.stream()
                 .filter(x -> x.getOpenBreakend(true) == breakend || x.getOpenBreakend(false) == breakend)
                 .collect(Collectors.toList());
@@ -1201,18 +1262,21 @@ public class ChainLinkAllocator
 
     public boolean matchesExistingPair(final LinkedPair pair)
     {
-        for(LinkedPair existingPair : mUniquePairs)
-        {
-            if(pair.matches(existingPair))
-                return true;
-        }
+        if(!mUseIndexedLookups)
+            return mUniquePairs.stream().anyMatch(x -> pair.matches(x));
 
-        return false;
+        // any matching pair has the same breakends, so will be indexed against either of them
+        final List<LinkedPair> existingPairs = mUniqueBreakendPairs.get(pair.firstBreakend());
+        return existingPairs != null && existingPairs.stream().anyMatch(x -> pair.matches(x));
     }
 
     public boolean hasSkippedPairs(final LinkedPair pair)
     {
-        return mSkippedPairs.keySet().stream().anyMatch(x -> x.matches(pair));
+        if(!mUseIndexedLookups)
+            return mSkippedPairs.keySet().stream().anyMatch(x -> x.matches(pair));
+
+        final List<LinkedPair> skippedPairs = mSkippedBreakendPairs.get(pair.firstBreakend());
+        return skippedPairs != null && skippedPairs.stream().anyMatch(x -> x.matches(pair));
     }
 
     public int getSkippedPairCount(final LinkSkipType type)
@@ -1231,7 +1295,37 @@ public class ChainLinkAllocator
             return;
 
         mPairSkipped = true;
+        ++mSkippedPairTotal;
         mSkippedPairs.put(pair, type);
+        addBreakendPair(mSkippedBreakendPairs, pair);
+    }
+
+    private void removeSkippedPair(final LinkedPair pair)
+    {
+        if(mSkippedPairs.remove(pair) == null)
+            return;
+
+        for(int se = SE_START; se <= SE_END; ++se)
+        {
+            final List<LinkedPair> skippedPairs = mSkippedBreakendPairs.get(pair.getBreakend(se));
+
+            if(skippedPairs != null)
+                skippedPairs.remove(pair);
+        }
+    }
+
+    private void clearSkippedPairs()
+    {
+        mSkippedPairs.clear();
+        mSkippedBreakendPairs.clear();
+    }
+
+    private static void addBreakendPair(final Map<SvBreakend,List<LinkedPair>> breakendPairs, final LinkedPair pair)
+    {
+        breakendPairs.computeIfAbsent(pair.firstBreakend(), k -> Lists.newArrayList()).add(pair);
+
+        if(pair.secondBreakend() != pair.firstBreakend())
+            breakendPairs.computeIfAbsent(pair.secondBreakend(), k -> Lists.newArrayList()).add(pair);
     }
 
     public void removeSkippedPairs(final List<ProposedLinks> proposedLinks)
@@ -36,8 +36,10 @@ import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.isStart;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.linx.types.DbPair;
 import com.hartwig.hmftools.linx.types.SvBreakend;
 import com.hartwig.hmftools.linx.types.LinkedPair;
@@ -118,6 +120,22 @@ public class ChainRuleSelector
     }
 
     public List<ProposedLinks> findProposedLinks()
+    {
+        // every rule is re-applied to all possible links on each pass, since the rules also depend on the skipped pairs,
+        // chain JCNs and cluster JCN support which any allocation can change - only the lookups the rules make are indexed
+
+        // chains are unchanged while the rules are applied, so the chains on each open breakend are looked up once
+        // for all the breakend JCN checks rather than for each one
+        mLinkAllocator.cacheOpenBreakendChains();
+
+        List<ProposedLinks> proposedLinks = applyRules();
+
+        mLinkAllocator.clearOpenBreakendChains();
+
+        return proposedLinks;
+    }
+
+    private List<ProposedLinks> applyRules()
     {
         // find the next set of possible links to make according to the priority scheme
         // which is expressed in the set of chaining rules (ie the enumerated type)
@@ -879,7 +897,7 @@ public class ChainRuleSelector
         }
 
         // double currentMaxPloidy = 0;
-        List<LinkedPair> addedLinks = Lists.newArrayList();
+        Set<LinkedPair> addedLinks = Sets.newHashSet();
 
         for(ChainState svConn : mSvConnectionsMap.values())
         {
@@ -1094,7 +1112,7 @@ public class ChainRuleSelector
         }
 
         double currentMaxPloidy = 0;
-        List<LinkedPair> addedLinks = Lists.newArrayList();
+        Set<LinkedPair> addedLinks = Sets.newHashSet();
 
         for(ChainState svConn : mSvConnectionsMap.values())
         {
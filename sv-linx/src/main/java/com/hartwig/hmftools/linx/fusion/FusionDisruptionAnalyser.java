@@ -36,6 +36,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblGeneData;
+import com.hartwig.hmftools.common.fusion.KnownFusionCache;
 import com.hartwig.hmftools.common.fusion.KnownFusionData;
 import com.hartwig.hmftools.common.fusion.KnownFusionType;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
@@ -103,12 +104,18 @@ public class FusionDisruptionAnalyser
 
     public FusionDisruptionAnalyser(final CommandLine cmdLineArgs, final LinxConfig config,
             EnsemblDataCache ensemblDataCache, VisualiserWriter writer)
+    {
+        this(cmdLineArgs, config, ensemblDataCache, writer, null);
+    }
+
+    public FusionDisruptionAnalyser(final CommandLine cmdLineArgs, final LinxConfig config,
+            EnsemblDataCache ensemblDataCache, VisualiserWriter writer, final KnownFusionCache knownFusionCache)
     {
         mOutputDir = config.OutputDataPath;
 
         mConfig = config;
         mGeneDataCache = ensemblDataCache;
-        mFusionFinder = new FusionFinder(cmdLineArgs, ensemblDataCache);
+        mFusionFinder = new FusionFinder(cmdLineArgs, ensemblDataCache, knownFusionCache);
         mFusionWriter = new FusionWriter(mOutputDir);
         mDisruptionFinder = new DisruptionFinder(cmdLineArgs, ensemblDataCache, mOutputDir);
         mVisWriter = writer;
@@ -64,17 +64,23 @@ public class FusionFinder
     private static boolean mLogInvalidReasons;
 
     public FusionFinder(final CommandLine cmd, final EnsemblDataCache geneTransCache)
+    {
+        this(cmd, geneTransCache, null);
+    }
+
+    public FusionFinder(final CommandLine cmd, final EnsemblDataCache geneTransCache, final KnownFusionCache knownFusionCache)
     {
         mGeneTransCache = geneTransCache;
 
-        mKnownFusionCache = new KnownFusionCache();
+        // a cache already loaded by another finder is shared read-only
+        mKnownFusionCache = knownFusionCache != null ? knownFusionCache : new KnownFusionCache();
         mHasValidConfigData = true;
 
         mProteinsRequiredKept = Lists.newArrayList();
         mProteinsRequiredLost = Lists.newArrayList();
         setRequiredProteins();
 
-        if(cmd != null)
+        if(cmd != null && knownFusionCache == null)
         {
             initialise(cmd);
         }
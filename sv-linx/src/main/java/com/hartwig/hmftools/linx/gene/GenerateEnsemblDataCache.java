@@ -1,8 +1,12 @@
 package com.hartwig.hmftools.linx.gene;
 
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataSnapshot.ENSEMBL_SNAPSHOT_FILE;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.HG37;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.REF_GENOME_VERSION;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.closeBufferedWriter;
 import static com.hartwig.hmftools.common.utils.io.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.linx.LinxConfig.LNX_LOGGER;
+import static com.hartwig.hmftools.linx.LinxConfig.formOutputPath;
 import static com.hartwig.hmftools.linx.fusion.FusionConstants.PRE_GENE_PROMOTOR_DISTANCE;
 import static com.hartwig.hmftools.linx.gene.EnsemblDAO.ENSEMBL_TRANS_SPLICE_DATA_FILE;
 
@@ -14,9 +18,11 @@ import java.util.Map;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataSnapshot;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblGeneData;
 import com.hartwig.hmftools.common.ensemblcache.ExonData;
 import com.hartwig.hmftools.common.ensemblcache.TranscriptData;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -31,6 +37,7 @@ public class GenerateEnsemblDataCache
 {
     private static final String LOG_DEBUG = "log_debug";
     private static final String OUTPUT_DIR = "output_dir";
+    private static final String SNAPSHOT_ONLY = "snapshot_only";
 
     public static void main(@NotNull final String[] args) throws ParseException
     {
@@ -42,6 +49,15 @@ public class GenerateEnsemblDataCache
             Configurator.setRootLevel(Level.DEBUG);
         }
 
+        if(cmd.hasOption(SNAPSHOT_ONLY))
+        {
+            // compile existing CSV files into a binary snapshot without accessing the Ensembl DB
+            final String outputDir = formOutputPath(cmd.getOptionValue(OUTPUT_DIR));
+            RefGenomeVersion version = RefGenomeVersion.valueOf(cmd.getOptionValue(REF_GENOME_VERSION, String.valueOf(HG37)));
+            EnsemblDataSnapshot.writeSnapshot(outputDir, version);
+            return;
+        }
+
         writeEnsemblDataFiles(cmd);
     }
 
@@ -59,6 +75,9 @@ public class GenerateEnsemblDataCache
             return;
         }
 
+        // remove any snapshot of previous files so it isn't used when reloading them below
+        new File(formOutputPath(outputDir) + ENSEMBL_SNAPSHOT_FILE).delete();
+
         ensemblDAO.writeDataCacheFiles(outputDir);
 
         LNX_LOGGER.debug("reloading transcript data to generate splice acceptor positions");
@@ -70,6 +89,8 @@ public class GenerateEnsemblDataCache
         createTranscriptPreGenePositionData(
                 geneTransCache.getChrGeneDataMap(), geneTransCache.getTranscriptDataMap(), PRE_GENE_PROMOTOR_DISTANCE, outputDir);
 
+        EnsemblDataSnapshot.writeSnapshot(formOutputPath(outputDir), ensemblDAO.refGenomeVersion());
+
         LNX_LOGGER.info("Ensembl data cache complete");
     }
 
@@ -203,6 +224,7 @@ public class GenerateEnsemblDataCache
         final Options options = new Options();
         options.addOption(OUTPUT_DIR, true, "Directory to write Ensembl data files");
         options.addOption(LOG_DEBUG, false, "Log in verbose mode");
+        options.addOption(SNAPSHOT_ONLY, false, "Only compile existing data files in output_dir into a binary snapshot");
         EnsemblDAO.addCmdLineArgs(options);
 
         return options;
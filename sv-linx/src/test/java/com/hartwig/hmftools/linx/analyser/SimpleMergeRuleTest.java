@@ -216,6 +216,92 @@ public class SimpleMergeRuleTest
         assertTrue(cluster.hasClusterReason(LONG_DEL_DUP_INV));
     }
 
+    @Test
+    public void testLongDelDupInvTransitiveMerge()
+    {
+        LinxTester tester = new LinxTester();
+
+        // the first and last INVs don't overlap, but each overlaps and faces the middle INV so all are merged
+        SvVarData var1 = createInv(tester.nextVarId(), "1", 1000, 200000, -1);
+        SvVarData var2 = createInv(tester.nextVarId(), "1", 150000, 350000, 1);
+        SvVarData var3 = createInv(tester.nextVarId(), "1", 300000, 500000, -1);
+
+        tester.AllVariants.add(var1);
+        tester.AllVariants.add(var2);
+        tester.AllVariants.add(var3);
+
+        tester.preClusteringInit();
+
+        tester.Analyser.clusterAndAnalyse();
+        assertEquals(1, tester.getClusters().size());
+        assertTrue(tester.getClusters().get(0).hasClusterReason(LONG_DEL_DUP_INV));
+        assertTrue(tester.Analyser.getSimpleClustering().getMergeCount(LONG_DEL_DUP_INV) > 0);
+    }
+
+    @Test
+    public void testLongDelDupInvMergeMembership()
+    {
+        LinxTester tester = new LinxTester();
+
+        // several groups of overlapping INVs, DELs and DUPs clustered together, with each group ending up as a separate cluster
+
+        // chromosome 1: a chain of facing INVs, merged transitively
+        SvVarData var1 = createInv(tester.nextVarId(), "1", 1000, 200000, -1);
+        SvVarData var2 = createInv(tester.nextVarId(), "1", 150000, 350000, 1);
+        SvVarData var3 = createInv(tester.nextVarId(), "1", 300000, 500000, -1);
+
+        // chromosome 2: 3 DUPs overlapping 3 DELs, with an INV facing the last DUP
+        SvVarData var4 = createDup(tester.nextVarId(), "2", 10000000, 30001000);
+        SvVarData var5 = createDup(tester.nextVarId(), "2", 30000000, 50001000);
+        SvVarData var6 = createDup(tester.nextVarId(), "2", 50000000, 70001000);
+        SvVarData var7 = createInv(tester.nextVarId(), "2", 70000000, 71000000, -1);
+        SvVarData var8 = createDel(tester.nextVarId(), "2", 1000000, 20000000);
+        SvVarData var9 = createDel(tester.nextVarId(), "2", 20001000, 40000000);
+        SvVarData var10 = createDel(tester.nextVarId(), "2", 40001000, 60000000);
+
+        // chromosome 3: overlapping but either facing the same way or too far apart, so left unclustered
+        SvVarData var11 = createDel(tester.nextVarId(), "3", 10000, 30000000);
+        SvVarData var12 = createInv(tester.nextVarId(), "3", 500000, 10000000, 1);
+        SvVarData var13 = createDup(tester.nextVarId(), "3", 20000000, 40000000);
+
+        // added out of positional order so the first cluster in the list is not the first on each chromosome
+        tester.AllVariants.add(var10);
+        tester.AllVariants.add(var3);
+        tester.AllVariants.add(var13);
+        tester.AllVariants.add(var6);
+        tester.AllVariants.add(var1);
+        tester.AllVariants.add(var8);
+        tester.AllVariants.add(var12);
+        tester.AllVariants.add(var4);
+        tester.AllVariants.add(var2);
+        tester.AllVariants.add(var9);
+        tester.AllVariants.add(var11);
+        tester.AllVariants.add(var5);
+        tester.AllVariants.add(var7);
+
+        tester.preClusteringInit();
+
+        tester.Analyser.clusterAndAnalyse();
+
+        assertEquals(5, tester.getClusters().size());
+
+        SvCluster cluster = tester.findClusterWithSVs(Lists.newArrayList(var1, var2, var3));
+        assertTrue(cluster != null);
+        assertTrue(cluster.hasClusterReason(LONG_DEL_DUP_INV));
+
+        cluster = tester.findClusterWithSVs(Lists.newArrayList(var4, var5, var6, var7, var8, var9, var10));
+        assertTrue(cluster != null);
+        assertTrue(cluster.hasClusterReason(LONG_DEL_DUP_INV));
+
+        assertTrue(tester.hasClusterWithSVs(Lists.newArrayList(var11)));
+        assertTrue(tester.hasClusterWithSVs(Lists.newArrayList(var12)));
+        assertTrue(tester.hasClusterWithSVs(Lists.newArrayList(var13)));
+
+        // the merged SVs record the reason against an SV they were merged with
+        assertTrue(var2.hasClusterReason(LONG_DEL_DUP_INV));
+        assertTrue(!var11.hasClusterReason(LONG_DEL_DUP_INV));
+    }
+
     @Test
     public void testHighFacingJcnMerge()
     {
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.linx.chaining;
 
 import static com.hartwig.hmftools.linx.analysis.ClusterAnnotations.ALL_ANNOTATIONS;
 import static com.hartwig.hmftools.linx.analysis.ClusteringReason.FOLDBACKS;
+import static com.hartwig.hmftools.linx.chaining.ChainUtils.getSequenceStr;
 import static com.hartwig.hmftools.linx.chaining.ChainUtils.identicalChain;
 import static com.hartwig.hmftools.linx.types.ArmCluster.ARM_CL_COMPLEX_FOLDBACK;
 import static com.hartwig.hmftools.linx.types.ArmCluster.ARM_CL_DSB;
@@ -17,6 +18,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.linx.types.LinkedPair;
 import com.hartwig.hmftools.linx.types.SvBreakend;
 import com.hartwig.hmftools.linx.types.SvCluster;
 import com.hartwig.hmftools.linx.cn.LohEvent;
@@ -369,4 +372,71 @@ public class ChainingActualTest
 
         assertTrue(cluster.getChains().stream().anyMatch(x -> identicalChain(x, dmChain, false, true)));
    }
+
+    @Test
+    public void testIndexedLookupsMatchLinearScans()
+    {
+        // chain complex clusters with the indexed skipped pair, unique pair and open breakend lookups and again with the
+        // original linear scans, requiring the same chains, and check that the clusters exercised each lookup
+        final String[] samples = {"COLO829T", "FB_SAMPLE1", "DM_SAMPLE1", "DM_SAMPLE2"};
+
+        int skippedPairs = 0;
+        int existingPairMatches = 0;
+        int chainSplits = 0;
+
+        for(String sample : samples)
+        {
+            LinxTester tester = chainSample(sample, true);
+            final List<String> indexedChains = getChainData(tester);
+
+            final ChainLinkAllocator linkAllocator = tester.Analyser.getChainFinder().getLinkAllocator();
+            skippedPairs += linkAllocator.getSkippedPairTotal();
+            existingPairMatches += linkAllocator.getExistingPairMatches();
+            chainSplits += linkAllocator.getChainSplitCount();
+
+            final List<String> linearChains = getChainData(chainSample(sample, false));
+
+            assertTrue(!indexedChains.isEmpty());
+            assertEquals(linearChains, indexedChains);
+        }
+
+        assertTrue(skippedPairs > 0);
+        assertTrue(existingPairMatches > 0);
+        assertTrue(chainSplits > 0);
+    }
+
+    private static LinxTester chainSample(final String sample, boolean indexedLookups)
+    {
+        LinxTester tester = new LinxTester();
+
+        tester.Config.RequiredAnnotations = ALL_ANNOTATIONS;
+        tester.Analyser.getChainFinder().setUseIndexedLookups(indexedLookups);
+
+        tester.AllVariants.addAll(SampleDataLoader.loadSampleTestData(sample));
+
+        tester.preClusteringInit();
+        tester.Analyser.clusterAndAnalyse();
+
+        return tester;
+    }
+
+    private static List<String> getChainData(final LinxTester tester)
+    {
+        final List<String> chainData = Lists.newArrayList();
+
+        for(final SvCluster cluster : tester.Analyser.getClusters())
+        {
+            for(final SvChain chain : cluster.getChains())
+            {
+                chainData.add(String.format("cluster(%d) chain(%s) %s", cluster.id(), chain.toString(), getSequenceStr(chain)));
+
+                for(final LinkedPair pair : chain.getLinkedPairs())
+                {
+                    chainData.add(String.format("pair(%s) %s index(%d)", pair.toString(), pair.getLinkReason(), pair.getLinkIndex()));
+                }
+            }
+        }
+
+        return chainData;
+    }
 }
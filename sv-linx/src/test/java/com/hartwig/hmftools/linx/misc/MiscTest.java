@@ -14,10 +14,17 @@ import static com.hartwig.hmftools.linx.analysis.SvUtilities.calcConsistency;
 import static com.hartwig.hmftools.linx.analysis.SvUtilities.findCentromereBreakendIndex;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.List;
 
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+import com.hartwig.hmftools.linx.CohortFileMerger;
 import com.hartwig.hmftools.linx.analysis.SvUtilities;
 import com.hartwig.hmftools.linx.types.SvBreakend;
 import com.hartwig.hmftools.linx.types.SvVarData;
@@ -119,5 +126,58 @@ public class MiscTest
         assertEquals(0, findCentromereBreakendIndex(breakendList, Q_ARM));
     }
 
+    @Test
+    public void testCohortFileMerging() throws IOException
+    {
+        String outputDir = Files.createTempDirectory("linx_test").toString() + File.separator;
+
+        List<String> sampleIds = Lists.newArrayList("S1", "S2", "S3", "S4");
+
+        String taskDir1 = CohortFileMerger.taskOutputDir(outputDir, 0);
+        String taskDir2 = CohortFileMerger.taskOutputDir(outputDir, 1);
+        new File(taskDir1).mkdirs();
+        new File(taskDir2).mkdirs();
+
+        // tasks take samples in order, so each task's file is already sorted
+        Files.write(new File(taskDir1 + "LNX_SVS.csv").toPath(), Lists.newArrayList("SampleId,SvId", "S1,1", "S1,2", "S4,1"));
+        Files.write(new File(taskDir2 + "LNX_SVS.csv").toPath(), Lists.newArrayList("SampleId,SvId", "S2,1", "S3,1", "S3,2"));
+        Files.write(new File(taskDir2 + "LNX_OTHER.csv").toPath(), Lists.newArrayList("SampleId,Value", "S2,1"));
+
+        CohortFileMerger fileMerger = new CohortFileMerger(outputDir, Lists.newArrayList(taskDir1, taskDir2), sampleIds);
+        assertTrue(fileMerger.mergeFiles());
+
+        List<String> lines = Files.readAllLines(new File(outputDir + "LNX_SVS.csv").toPath());
+        assertEquals(Lists.newArrayList("SampleId,SvId", "S1,1", "S1,2", "S2,1", "S3,1", "S3,2", "S4,1"), lines);
+
+        lines = Files.readAllLines(new File(outputDir + "LNX_OTHER.csv").toPath());
+        assertEquals(Lists.newArrayList("SampleId,Value", "S2,1"), lines);
+
+        assertFalse(new File(taskDir1).exists());
+        assertFalse(new File(taskDir2).exists());
+    }
+
+    @Test
+    public void testCohortFileMergeFailureKeepsTaskOutput() throws IOException
+    {
+        String outputDir = Files.createTempDirectory("linx_test").toString() + File.separator;
+
+        String taskDir1 = CohortFileMerger.taskOutputDir(outputDir, 0);
+        String taskDir2 = CohortFileMerger.taskOutputDir(outputDir, 1);
+        new File(taskDir1).mkdirs();
+        new File(taskDir2).mkdirs();
 
+        Files.write(new File(taskDir1 + "LNX_SVS.csv").toPath(), Lists.newArrayList("SampleId,SvId", "S1,1"));
+        Files.write(new File(taskDir2 + "LNX_SVS.csv").toPath(), Lists.newArrayList("SampleId,SvId", "S2,1"));
+
+        // a non-empty directory in place of the merged file cannot be replaced
+        new File(outputDir + "LNX_SVS.csv").mkdirs();
+        Files.write(new File(outputDir + "LNX_SVS.csv" + File.separator + "other.csv").toPath(), Lists.newArrayList("x"));
+
+        CohortFileMerger fileMerger = new CohortFileMerger(
+                outputDir, Lists.newArrayList(taskDir1, taskDir2), Lists.newArrayList("S1", "S2"));
+
+        assertFalse(fileMerger.mergeFiles());
+        assertTrue(new File(taskDir1 + "LNX_SVS.csv").exists());
+        assertTrue(new File(taskDir2 + "LNX_SVS.csv").exists());
+    }
 }